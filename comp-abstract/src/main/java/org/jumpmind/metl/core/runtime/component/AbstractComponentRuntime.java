@@ -43,10 +43,12 @@ import org.jumpmind.metl.core.model.Resource;
 import org.jumpmind.metl.core.plugin.XMLComponentDefinition;
 import org.jumpmind.metl.core.plugin.XMLSetting;
 import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.IExecutionTracker;
 import org.jumpmind.metl.core.runtime.LogLevel;
 import org.jumpmind.metl.core.runtime.Message;
+import org.jumpmind.metl.core.runtime.SpillableMessageBuffer;
 import org.jumpmind.metl.core.runtime.resource.IResourceRuntime;
 import org.jumpmind.metl.core.util.ComponentUtils;
 import org.jumpmind.properties.TypedProperties;
@@ -73,6 +75,10 @@ abstract public class AbstractComponentRuntime implements IComponentRuntime {
     
     public final static String RUN_WHEN = ComponentSettingsConstants.RUN_WHEN;
     
+    public final static String COMPACT_ENTITY_DATA = ComponentSettingsConstants.COMPACT_ENTITY_DATA;
+    
+    public final static String BUFFER_MEMORY = ComponentSettingsConstants.BUFFER_MEMORY;
+    
     public static final String PER_UNIT_OF_WORK = ComponentSettingsConstants.PER_UNIT_OF_WORK;
 
     public static final String PER_MESSAGE = ComponentSettingsConstants.PER_MESSAGE;
@@ -227,6 +233,18 @@ abstract public class AbstractComponentRuntime implements IComponentRuntime {
         return context.getFlowStep().getComponent().getInputModel();
     }
 
+    /**
+     * Creates a buffer for messages that have to be held until the component
+     * is ready for them. The memory it uses is limited by the buffer memory
+     * setting.
+     */
+    protected SpillableMessageBuffer createMessageBuffer() {
+        IModel model = getInputModel();
+        EntityDataLayout layout = model instanceof RelationalModel ? EntityDataLayout.forModel((RelationalModel) model) : null;
+        return new SpillableMessageBuffer("metl-" + getClass().getSimpleName().toLowerCase(), layout,
+                getTypedProperties().getLong(BUFFER_MEMORY, 64) * 1024 * 1024);
+    }
+
     protected IExecutionTracker getExecutionTracker() {
         return context.getExecutionTracker();
     }
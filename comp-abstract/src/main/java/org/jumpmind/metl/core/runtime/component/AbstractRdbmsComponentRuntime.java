@@ -44,9 +44,15 @@ import org.jumpmind.metl.core.runtime.ContentMessage;
 import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
+import org.jumpmind.metl.core.runtime.resource.Datasource;
 import org.jumpmind.properties.TypedProperties;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * This is in the process of moving to comp-abstract
@@ -65,7 +71,66 @@ abstract public class AbstractRdbmsComponentRuntime extends AbstractComponentRun
     
     protected int queryTimeout = -1;
 
+    protected NamedParameterJdbcTemplate jdbcTemplate;
+
+    protected NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    protected TransactionTemplate streamingTransactionTemplate;
+
+    protected String databaseProductName;
+
     protected NamedParameterJdbcTemplate getJdbcTemplate() {
+        if (jdbcTemplate == null) {
+            JdbcTemplate template = new JdbcTemplate(getDataSource());
+            int fetchSize = getFetchSize();
+            if (fetchSize > 0) {
+                template.setFetchSize(fetchSize);
+            }
+            jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        }
+        ((JdbcTemplate) jdbcTemplate.getJdbcOperations()).setQueryTimeout(queryTimeout);
+        return jdbcTemplate;
+    }
+
+    /**
+     * A template for reads that stream their result set instead of letting
+     * the driver buffer it. MySQL only streams when the fetch size is
+     * Integer.MIN_VALUE. Statements are created forward only and read only,
+     * which is the JDBC default.
+     */
+    protected NamedParameterJdbcTemplate getStreamingJdbcTemplate() {
+        if (streamingJdbcTemplate == null) {
+            if (isMySql()) {
+                JdbcTemplate template = new JdbcTemplate(getDataSource());
+                template.setFetchSize(Integer.MIN_VALUE);
+                streamingJdbcTemplate = new NamedParameterJdbcTemplate(template);
+            } else {
+                streamingJdbcTemplate = getJdbcTemplate();
+            }
+            if (isPostgres()) {
+                streamingTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(getDataSource()));
+                streamingTransactionTemplate.setReadOnly(true);
+            }
+        }
+        ((JdbcTemplate) streamingJdbcTemplate.getJdbcOperations()).setQueryTimeout(queryTimeout);
+        return streamingJdbcTemplate;
+    }
+
+    /**
+     * Runs a read that streams its result set to the extractor. PostgreSQL
+     * only honors the fetch size when auto commit is off, so the read is run
+     * in a read only transaction there.
+     */
+    protected <T> T queryStreaming(String sql, Map<String, ?> paramMap, ResultSetExtractor<T> extractor) {
+        NamedParameterJdbcTemplate template = getStreamingJdbcTemplate();
+        if (streamingTransactionTemplate != null) {
+            return streamingTransactionTemplate.execute(status -> template.query(sql, paramMap, extractor));
+        } else {
+            return template.query(sql, paramMap, extractor);
+        }
+    }
+
+    protected DataSource getDataSource() {
         if (dataSource == null && getResourceRuntime() == null) {
             throw new RuntimeException("The data source resource has not been configured.  Please configure it.");
         }
@@ -73,9 +138,38 @@ abstract public class AbstractRdbmsComponentRuntime extends AbstractComponentRun
         if (dataSource == null) {
             dataSource = (DataSource) getResourceRuntime().reference();
         }
-        JdbcTemplate template = new JdbcTemplate(dataSource);
-        template.setQueryTimeout(queryTimeout);
-        return new NamedParameterJdbcTemplate(template);
+        return dataSource;
+    }
+
+    protected int getFetchSize() {
+        if (getResourceRuntime() != null && getResourceRuntime().getResourceRuntimeSettings() != null) {
+            return getResourceRuntime().getResourceRuntimeSettings().getInt(Datasource.DB_FETCH_SIZE, -1);
+        } else {
+            return -1;
+        }
+    }
+
+    protected String getDatabaseProductName() {
+        if (databaseProductName == null) {
+            try {
+                databaseProductName = (String) JdbcUtils.extractDatabaseMetaData(getDataSource(), "getDatabaseProductName");
+            } catch (MetaDataAccessException e) {
+                log.warn("Could not determine the database type", e);
+            }
+            if (databaseProductName == null) {
+                databaseProductName = "";
+            }
+        }
+        return databaseProductName;
+    }
+
+    protected boolean isPostgres() {
+        return getDatabaseProductName().toLowerCase().contains("postgres");
+    }
+
+    protected boolean isMySql() {
+        String name = getDatabaseProductName().toLowerCase();
+        return name.contains("mysql") || name.contains("mariadb");
     }
 
     protected List<String> getSqlStatements(boolean required) {
@@ -187,6 +281,10 @@ abstract public class AbstractRdbmsComponentRuntime extends AbstractComponentRun
         
     public void setDataSource(DataSource dataSource) {
         this.dataSource = dataSource;
+        this.jdbcTemplate = null;
+        this.streamingJdbcTemplate = null;
+        this.streamingTransactionTemplate = null;
+        this.databaseProductName = null;
     }
 
     @SuppressWarnings("unchecked")
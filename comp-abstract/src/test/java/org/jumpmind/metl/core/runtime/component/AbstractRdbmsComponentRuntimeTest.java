@@ -0,0 +1,122 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jumpmind.metl.core.runtime.Message;
+import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
+import org.jumpmind.metl.core.runtime.resource.Datasource;
+import org.jumpmind.metl.core.runtime.resource.IResourceRuntime;
+import org.jumpmind.properties.TypedProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AbstractRdbmsComponentRuntimeTest {
+
+    static final String SQL = "select id from streaming_test";
+
+    JdbcDataSource dataSource;
+
+    @Before
+    public void setup() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:streaming;DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists streaming_test");
+        template.execute("create table streaming_test (id integer)");
+        template.execute("insert into streaming_test values (1), (2), (3)");
+    }
+
+    @Test
+    public void testFetchSizeReachesStatement() {
+        TestRdbmsComponentRuntime runtime = new TestRdbmsComponentRuntime(dataSource, 25);
+        int fetchSize = runtime.queryStreaming(SQL, Collections.<String, Object> emptyMap(), rs -> rs.getStatement().getFetchSize());
+        assertEquals(25, fetchSize);
+
+        List<Integer> ids = runtime.getJdbcTemplate().queryForList(SQL, Collections.<String, Object> emptyMap(), Integer.class);
+        assertEquals(Arrays.asList(1, 2, 3), ids);
+    }
+
+    @Test
+    public void testPostgresStreamsInReadOnlyTransaction() {
+        TestRdbmsComponentRuntime runtime = new TestRdbmsComponentRuntime(dataSource, 25);
+        runtime.databaseProductName = "PostgreSQL";
+        List<Boolean> state = runtime.queryStreaming(SQL, Collections.<String, Object> emptyMap(),
+                rs -> Arrays.asList(rs.getStatement().getConnection().getAutoCommit(),
+                        TransactionSynchronizationManager.isActualTransactionActive(),
+                        TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+        assertFalse("auto commit", state.get(0));
+        assertTrue("transaction", state.get(1));
+        assertTrue("read only", state.get(2));
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    @Test
+    public void testOtherDatabasesStreamWithoutTransaction() {
+        TestRdbmsComponentRuntime runtime = new TestRdbmsComponentRuntime(dataSource, 25);
+        List<Boolean> state = runtime.queryStreaming(SQL, Collections.<String, Object> emptyMap(),
+                rs -> Arrays.asList(rs.getStatement().getConnection().getAutoCommit(),
+                        TransactionSynchronizationManager.isActualTransactionActive()));
+        assertTrue("auto commit", state.get(0));
+        assertFalse("transaction", state.get(1));
+    }
+
+    static class TestRdbmsComponentRuntime extends AbstractRdbmsComponentRuntime {
+
+        IResourceRuntime resourceRuntime = mock(IResourceRuntime.class);
+
+        TestRdbmsComponentRuntime(DataSource dataSource, int fetchSize) {
+            TypedProperties settings = new TypedProperties();
+            settings.setProperty(Datasource.DB_FETCH_SIZE, Integer.toString(fetchSize));
+            when(resourceRuntime.getResourceRuntimeSettings()).thenReturn(settings);
+            setDataSource(dataSource);
+        }
+
+        @Override
+        protected IResourceRuntime getResourceRuntime() {
+            return resourceRuntime;
+        }
+
+        @Override
+        public void handle(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
+        }
+
+        @Override
+        public boolean supportsStartupMessages() {
+            return false;
+        }
+    }
+
+}
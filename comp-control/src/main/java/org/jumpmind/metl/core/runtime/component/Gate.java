@@ -22,13 +22,10 @@ package org.jumpmind.metl.core.runtime.component;
 
 import static org.apache.commons.lang.StringUtils.isBlank;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-
 import org.jumpmind.metl.core.model.FlowStepLink;
 import org.jumpmind.metl.core.runtime.ControlMessage;
 import org.jumpmind.metl.core.runtime.Message;
+import org.jumpmind.metl.core.runtime.SpillableMessageBuffer;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
 import org.jumpmind.properties.TypedProperties;
 
@@ -46,7 +43,7 @@ public class Gate extends AbstractComponentRuntime {
 
     String gateControlSourceStepId;
 
-    List<Message> queuedWhileWaitingForGateController = new ArrayList<Message>();
+    SpillableMessageBuffer queuedWhileWaitingForGateController;
     
     ControlMessage lastControlMessageReceived;
     
@@ -56,6 +53,7 @@ public class Gate extends AbstractComponentRuntime {
         TypedProperties typedProperties = getTypedProperties();
         gateControlSourceStepId = typedProperties.get(SOURCE_STEP); 
         forceGateOpen = typedProperties.is(SETTING_FORCE_GATE_OPEN, forceGateOpen);
+        queuedWhileWaitingForGateController = createMessageBuffer();
         
         if (isBlank(gateControlSourceStepId) 
         		|| getFlow().findFlowStepWithId(gateControlSourceStepId) == null
@@ -76,12 +74,7 @@ public class Gate extends AbstractComponentRuntime {
 
             if (gateOpened) {
                 info("The gate was just opened.  Releasing %d queue'd messages and every message from sources after this", queuedWhileWaitingForGateController.size());
-                Iterator<Message> messages = queuedWhileWaitingForGateController.iterator();
-                while (messages.hasNext()) {
-                    Message message = messages.next();
-                    getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
-                    callback.forward(message.getHeader(), message);
-                }
+                releaseQueuedMessages(callback);
             }
         } else if (!gateOpened && !(inputMessage instanceof ControlMessage)) {
         	queuedWhileWaitingForGateController.add(inputMessage);
@@ -89,17 +82,27 @@ public class Gate extends AbstractComponentRuntime {
         	getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
         	callback.forward(inputMessage);        	
         } else if (unitOfWorkBoundaryReached && !gateOpened && forceGateOpen) {
-            Iterator<Message> messages = queuedWhileWaitingForGateController.iterator();
-            while (messages.hasNext()) {
-                Message message = messages.next();
-                getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
-                callback.forward(message.getHeader(), message);
-            }
+            releaseQueuedMessages(callback);
         } else if (unitOfWorkBoundaryReached && (inputMessage instanceof ControlMessage)) {
             callback.forward(inputMessage.getHeader(), inputMessage);
         }
     }
     
+    protected void releaseQueuedMessages(ISendMessageCallback callback) {
+        queuedWhileWaitingForGateController.replay((message) -> {
+            getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
+            callback.forward(message.getHeader(), message);
+        });
+    }
+    
+    @Override
+    public void stop() {
+        if (queuedWhileWaitingForGateController != null) {
+            queuedWhileWaitingForGateController.close();
+        }
+        super.stop();
+    }
+    
     @Override
     public boolean supportsStartupMessages() {
         return false;
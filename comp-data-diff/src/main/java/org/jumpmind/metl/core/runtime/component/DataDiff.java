@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.Types;
+import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -54,7 +55,10 @@ import org.jumpmind.metl.core.model.RelationalModel;
 import org.jumpmind.metl.core.model.ModelAttrib;
 import org.jumpmind.metl.core.model.ModelEntity;
 import org.jumpmind.metl.core.runtime.ControlMessage;
+import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
+import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.LogLevel;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
@@ -66,6 +70,21 @@ public class DataDiff extends AbstractComponentRuntime {
     public static String SOURCE_1 = "source.1";
     public static String SOURCE_2 = "source.2";
     public static String IN_MEMORY_COMPARE = "in.memory.compare";
+    public static String DIFF_ENGINE = "diff.engine";
+    public static String DIFF_MEMORY = "diff.memory.mb";
+    public static String DIFF_KEY_COLLATION = "diff.key.collation";
+
+    public final static String ENGINE_DATABASE = "DATABASE";
+
+    public final static String ENGINE_SORTED_MERGE = "SORTED MERGE";
+
+    public final static String ENGINE_HASH = "HASH";
+
+    public final static String COLLATION_BINARY = "BINARY";
+
+    public final static String COLLATION_CASE_INSENSITIVE = "CASE INSENSITIVE";
+
+    public final static String COLLATION_LOCALE = "LOCALE";
 
     public final static String ENTITY_ADD_ENABLED = "add.enabled";
 
@@ -85,6 +104,18 @@ public class DataDiff extends AbstractComponentRuntime {
 
     boolean inMemoryCompare = true;
 
+    String diffEngine = ENGINE_DATABASE;
+
+    long diffMemory = 256 * 1024 * 1024;
+
+    String keyCollation = COLLATION_BINARY;
+
+    List<DiffEntity> diffEntities;
+
+    DiffOutput diffOutput;
+
+    IDiffEngine engine;
+
     IDatabasePlatform databasePlatform;
 
     RdbmsWriter databaseWriter;
@@ -112,6 +143,16 @@ public class DataDiff extends AbstractComponentRuntime {
 
         this.inMemoryCompare = properties.is(IN_MEMORY_COMPARE);
         this.rowsPerMessage = properties.getInt(ROWS_PER_MESSAGE);
+        this.diffEngine = properties.get(DIFF_ENGINE, ENGINE_DATABASE);
+        if (!ENGINE_DATABASE.equals(diffEngine) && !ENGINE_SORTED_MERGE.equals(diffEngine) && !ENGINE_HASH.equals(diffEngine)) {
+            throw new MisconfiguredException("Unsupported diff engine: %s", diffEngine);
+        }
+        this.diffMemory = properties.getLong(DIFF_MEMORY, 256) * 1024 * 1024;
+        this.keyCollation = properties.get(DIFF_KEY_COLLATION, COLLATION_BINARY);
+        if (!COLLATION_BINARY.equals(keyCollation) && !COLLATION_CASE_INSENSITIVE.equals(keyCollation)
+                && !COLLATION_LOCALE.equals(keyCollation)) {
+            throw new MisconfiguredException("Unsupported key collation: %s", keyCollation);
+        }
         Component comp = context.getFlowStep().getComponent();
         comp.setOutputModel(comp.getInputModel());
         RelationalModel inputModel = (RelationalModel) context.getFlowStep().getComponent().getInputModel();
@@ -139,10 +180,111 @@ public class DataDiff extends AbstractComponentRuntime {
     @Override
     public void handle(Message message, ISendMessageCallback callback,
             boolean unitOfWorkBoundaryReached) {
-        createDatabase();
-        loadIntoDatabase(message);
-        if (unitOfWorkBoundaryReached && error == null) {
-            calculateDiff(callback);
+        if (ENGINE_DATABASE.equals(diffEngine)) {
+            createDatabase();
+            loadIntoDatabase(message);
+            if (unitOfWorkBoundaryReached && error == null) {
+                calculateDiff(callback);
+            }
+        } else {
+            handleWithEngine(message, callback, unitOfWorkBoundaryReached);
+        }
+    }
+
+    @Override
+    public void stop() {
+        closeEngine();
+        super.stop();
+    }
+
+    protected void handleWithEngine(Message message, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
+        if (engine == null) {
+            createEngine();
+        }
+        diffOutput.setCallback(callback);
+        if (message instanceof EntityDataMessage) {
+            String originatingStepId = message.getHeader().getOriginatingStepId();
+            Boolean original = null;
+            if (sourceStep1Id.equals(originatingStepId)) {
+                original = true;
+            } else if (sourceStep2Id.equals(originatingStepId)) {
+                original = false;
+            }
+            if (original != null) {
+                for (EntityData row : ((EntityDataMessage) message).getPayload()) {
+                    getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
+                    for (DiffEntity diffEntity : diffEntities) {
+                        if (diffEntity.hasEntity(row)) {
+                            engine.add(diffEntity, original, diffEntity.project(row));
+                        }
+                    }
+                }
+            }
+        }
+
+        if (unitOfWorkBoundaryReached) {
+            try {
+                engine.finish();
+                for (DiffEntity diffEntity : diffEntities) {
+                    info("Sent %d ADD, %d CHG and %d DEL records for %s", diffOutput.getCount(diffEntity, ChangeType.ADD),
+                            diffOutput.getCount(diffEntity, ChangeType.CHG), diffOutput.getCount(diffEntity, ChangeType.DEL),
+                            diffEntity.entity.getName());
+                }
+            } finally {
+                closeEngine();
+            }
+        }
+    }
+
+    protected void createEngine() {
+        Component component = context.getFlowStep().getComponent();
+        EntityDataLayout layout = EntityDataLayout.forModel((RelationalModel) component.getInputModel());
+        diffEntities = new ArrayList<>(entities.size());
+        for (ModelEntity entity : entities) {
+            DiffEntity diffEntity = new DiffEntity(diffEntities.size(), entity, layout);
+            diffEntity.keyIgnoreCase = COLLATION_CASE_INSENSITIVE.equals(keyCollation);
+            diffEntity.keyCollator = COLLATION_LOCALE.equals(keyCollation) ? Collator.getInstance() : null;
+            for (ModelAttrib attribute : entity.getModelAttributes()) {
+                ComponentAttribSetting matchColumnSetting = component.getSingleAttributeSetting(attribute.getId(),
+                        DataDiff.ATTRIBUTE_COMPARE_ENABLED);
+                boolean matchColumn = matchColumnSetting != null ? Boolean.parseBoolean(matchColumnSetting.getValue()) : true;
+                if (attribute.isPk()) {
+                    diffEntity.keyAttributes.add(attribute);
+                } else if (matchColumn) {
+                    diffEntity.compareAttributes.add(attribute);
+                }
+                if (matchColumn) {
+                    diffEntity.outputAttributes.add(attribute);
+                }
+            }
+            if (diffEntity.keyAttributes.size() == 0) {
+                throw new MisconfiguredException("The %s entity needs a primary key to be diffed", entity.getName());
+            }
+            ComponentEntitySetting add = component.getSingleEntitySetting(entity.getId(), DataDiff.ENTITY_ADD_ENABLED);
+            ComponentEntitySetting chg = component.getSingleEntitySetting(entity.getId(), DataDiff.ENTITY_CHG_ENABLED);
+            ComponentEntitySetting del = component.getSingleEntitySetting(entity.getId(), DataDiff.ENTITY_DEL_ENABLED);
+            diffEntity.addEnabled = add != null ? Boolean.parseBoolean(add.getValue()) : true;
+            diffEntity.chgEnabled = chg != null ? Boolean.parseBoolean(chg.getValue()) : true;
+            diffEntity.delEnabled = del != null ? Boolean.parseBoolean(del.getValue()) : true;
+            diffEntities.add(diffEntity);
+        }
+
+        diffOutput = new DiffOutput(diffEntities, rowsPerMessage, diffMemory / 2);
+        if (ENGINE_SORTED_MERGE.equals(diffEngine)) {
+            engine = new SortMergeDiff(diffEntities, diffOutput, diffMemory / 2);
+        } else {
+            engine = new HashDiff(diffEntities, diffOutput, diffMemory / 2);
+        }
+    }
+
+    protected void closeEngine() {
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+        if (diffOutput != null) {
+            diffOutput.close();
+            diffOutput = null;
         }
     }
     
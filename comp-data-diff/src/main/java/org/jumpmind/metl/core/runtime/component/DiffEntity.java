@@ -0,0 +1,278 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.jumpmind.metl.core.model.DataType;
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
+
+/**
+ * How one entity of the model is diffed by the native engines. Keys and
+ * compared attributes are turned into typed values the same way the
+ * database compare converts them, so "1.0" and "1" are the same number and
+ * a timestamp matches its string form. String key parts can be ordered and
+ * matched ignoring case or by a locale collator so that input sorted by a
+ * database collation can be merged.
+ */
+class DiffEntity {
+
+    int index;
+
+    ModelEntity entity;
+
+    EntityDataLayout layout;
+
+    List<ModelAttrib> attributes;
+
+    List<ModelAttrib> keyAttributes = new ArrayList<>();
+
+    List<ModelAttrib> compareAttributes = new ArrayList<>();
+
+    List<ModelAttrib> outputAttributes = new ArrayList<>();
+
+    boolean addEnabled;
+
+    boolean chgEnabled;
+
+    boolean delEnabled;
+
+    boolean keyIgnoreCase;
+
+    Collator keyCollator;
+
+    DiffEntity(int index, ModelEntity entity, EntityDataLayout layout) {
+        this.index = index;
+        this.entity = entity;
+        this.layout = layout;
+        this.attributes = entity.getModelAttributes();
+    }
+
+    boolean hasEntity(EntityData row) {
+        for (ModelAttrib attribute : attributes) {
+            if (row.containsKey(attribute.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    EntityData project(EntityData row) {
+        EntityData projected = layout.newEntityData();
+        for (ModelAttrib attribute : attributes) {
+            projected.put(attribute.getId(), row.get(attribute.getId()));
+        }
+        return projected;
+    }
+
+    EntityData output(EntityData row, ChangeType changeType) {
+        EntityData output = layout.newEntityData();
+        output.setChangeType(changeType);
+        for (ModelAttrib attribute : outputAttributes) {
+            output.put(attribute.getId(), row.get(attribute.getId()));
+        }
+        return output;
+    }
+
+    /**
+     * @return the typed key of the row or null if any part of the key is
+     *         null, in which case the row cannot match a row on the other
+     *         side
+     */
+    List<Object> key(EntityData row) {
+        Object[] key = new Object[keyAttributes.size()];
+        for (int i = 0; i < key.length; i++) {
+            ModelAttrib attribute = keyAttributes.get(i);
+            key[i] = normalize(attribute.getDataType(), row.get(attribute.getId()));
+            if (key[i] == null) {
+                return null;
+            } else if (key[i] instanceof String) {
+                key[i] = collate((String) key[i]);
+            }
+        }
+        return Arrays.asList(key);
+    }
+
+    boolean isChanged(EntityData original, EntityData current) {
+        for (ModelAttrib attribute : compareAttributes) {
+            Object originalValue = normalize(attribute.getDataType(), original.get(attribute.getId()));
+            Object currentValue = normalize(attribute.getDataType(), current.get(attribute.getId()));
+            if (originalValue == null ? currentValue != null : !originalValue.equals(currentValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasChangeCompare() {
+        return compareAttributes.size() > 0;
+    }
+
+    protected Object collate(String value) {
+        if (keyIgnoreCase) {
+            return value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        } else if (keyCollator != null) {
+            return new CollatedString(value, keyCollator.getCollationKey(value));
+        } else {
+            return value;
+        }
+    }
+
+    static int compareKeys(List<Object> key1, List<Object> key2) {
+        for (int i = 0; i < key1.size(); i++) {
+            int compare = compareValues(key1.get(i), key2.get(i));
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static int compareValues(Object value1, Object value2) {
+        if (value1.getClass() == value2.getClass() && value1 instanceof Comparable) {
+            return ((Comparable) value1).compareTo(value2);
+        } else {
+            int compare = value1.getClass().getName().compareTo(value2.getClass().getName());
+            return compare != 0 ? compare : value1.toString().compareTo(value2.toString());
+        }
+    }
+
+    static Object normalize(DataType dataType, Object value) {
+        if (value == null) {
+            return null;
+        } else if (dataType != null && dataType.isNumeric()) {
+            BigDecimal number = toBigDecimal(value);
+            return number != null ? number.stripTrailingZeros() : value.toString();
+        } else if (dataType != null && dataType.isTimestamp()) {
+            return toTimestamp(value);
+        } else if (dataType != null && dataType.isBoolean()) {
+            if (value instanceof Boolean) {
+                return value;
+            } else if (value instanceof Number) {
+                return ((Number) value).intValue() != 0;
+            } else {
+                String string = value.toString().trim();
+                return string.equalsIgnoreCase("true") || string.equals("1");
+            }
+        } else if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
+        } else {
+            return value.toString();
+        }
+    }
+
+    /**
+     * Reads dates, times and timestamps in their JDBC escape formats, with
+     * either a space or a T between date and time. Values that can not be
+     * read are compared as strings.
+     */
+    static Object toTimestamp(Object value) {
+        if (value instanceof Timestamp) {
+            return value;
+        } else if (value instanceof Date) {
+            return new Timestamp(((Date) value).getTime());
+        }
+        String string = value.toString().trim();
+        try {
+            if (string.length() == 10 && string.charAt(4) == '-') {
+                return new Timestamp(java.sql.Date.valueOf(string).getTime());
+            } else if (string.length() == 8 && string.charAt(2) == ':') {
+                return new Timestamp(Time.valueOf(string).getTime());
+            } else {
+                return Timestamp.valueOf(string.replace('T', ' '));
+            }
+        } catch (IllegalArgumentException e) {
+            return string;
+        }
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        try {
+            if (value instanceof BigDecimal) {
+                return (BigDecimal) value;
+            } else if (value instanceof BigInteger) {
+                return new BigDecimal((BigInteger) value);
+            } else if (value instanceof Float) {
+                return new BigDecimal(value.toString());
+            } else if (value instanceof Double) {
+                return BigDecimal.valueOf(((Number) value).doubleValue());
+            } else if (value instanceof Number) {
+                return BigDecimal.valueOf(((Number) value).longValue());
+            } else if (value instanceof String) {
+                return new BigDecimal(((String) value).trim());
+            }
+        } catch (NumberFormatException e) {
+        }
+        return null;
+    }
+
+    /**
+     * A string key part that sorts and matches by its collation key
+     */
+    static class CollatedString implements Comparable<CollatedString> {
+
+        String value;
+
+        CollationKey collationKey;
+
+        CollatedString(String value, CollationKey collationKey) {
+            this.value = value;
+            this.collationKey = collationKey;
+        }
+
+        @Override
+        public int compareTo(CollatedString other) {
+            return collationKey.compareTo(other.collationKey);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CollatedString && collationKey.equals(((CollatedString) other).collationKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return collationKey.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+import org.jumpmind.metl.core.runtime.EntityDataSpillQueue;
+import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
+
+/**
+ * Sends the rows found by a native diff engine in the same order as the
+ * database compare: adds and changes entity by entity in entity order, then
+ * deletes in reverse entity order. Adds and changes for the entity that is
+ * currently allowed to stream are sent as soon as they are found. Everything
+ * else waits in a spill queue until its turn.
+ */
+class DiffOutput {
+
+    List<DiffEntity> entities;
+
+    int rowsPerMessage;
+
+    ISendMessageCallback callback;
+
+    ArrayList<EntityData> batch = new ArrayList<>();
+
+    List<EntityDataSpillQueue> changes = new ArrayList<>();
+
+    List<EntityDataSpillQueue> deletes = new ArrayList<>();
+
+    long[][] counts;
+
+    int streamingIndex = 0;
+
+    DiffOutput(List<DiffEntity> entities, int rowsPerMessage, long memoryBudget) {
+        this.entities = entities;
+        this.rowsPerMessage = rowsPerMessage;
+        long queueBudget = Math.max(memoryBudget / Math.max(entities.size() * 2, 1), 1);
+        for (DiffEntity entity : entities) {
+            changes.add(new EntityDataSpillQueue("metl-diff", entity.layout, queueBudget));
+            deletes.add(new EntityDataSpillQueue("metl-diff", entity.layout, queueBudget));
+        }
+        this.counts = new long[entities.size()][ChangeType.values().length];
+    }
+
+    void setCallback(ISendMessageCallback callback) {
+        this.callback = callback;
+    }
+
+    void added(DiffEntity entity, EntityData current) {
+        if (entity.addEnabled) {
+            changed(entity, entity.output(current, ChangeType.ADD));
+        }
+    }
+
+    void changed(DiffEntity entity, EntityData original, EntityData current) {
+        if (entity.chgEnabled && entity.hasChangeCompare() && entity.isChanged(original, current)) {
+            changed(entity, entity.output(current, ChangeType.CHG));
+        }
+    }
+
+    void deleted(DiffEntity entity, EntityData original) {
+        if (entity.delEnabled) {
+            counts[entity.index][ChangeType.DEL.ordinal()]++;
+            deletes.get(entity.index).add(entity.output(original, ChangeType.DEL));
+        }
+    }
+
+    /**
+     * Lets the adds and changes for the entity at the index stream. Anything
+     * waiting for the entities before it is sent first.
+     */
+    void advance(int index) {
+        while (streamingIndex < index) {
+            streamingIndex++;
+            drain(changes.get(streamingIndex));
+        }
+    }
+
+    void finish() {
+        advance(entities.size() - 1);
+        for (int i = entities.size() - 1; i >= 0; i--) {
+            drain(deletes.get(i));
+        }
+        flush();
+    }
+
+    long getCount(DiffEntity entity, ChangeType changeType) {
+        return counts[entity.index][changeType.ordinal()];
+    }
+
+    void close() {
+        for (EntityDataSpillQueue queue : changes) {
+            queue.close();
+        }
+        for (EntityDataSpillQueue queue : deletes) {
+            queue.close();
+        }
+        batch = new ArrayList<>();
+    }
+
+    protected void changed(DiffEntity entity, EntityData row) {
+        counts[entity.index][row.getChangeType().ordinal()]++;
+        if (entity.index <= streamingIndex) {
+            send(row);
+        } else {
+            changes.get(entity.index).add(row);
+        }
+    }
+
+    protected void drain(EntityDataSpillQueue queue) {
+        EntityData row = queue.poll();
+        while (row != null) {
+            send(row);
+            row = queue.poll();
+        }
+        queue.close();
+    }
+
+    protected void send(EntityData row) {
+        batch.add(row);
+        if (batch.size() >= rowsPerMessage) {
+            flush();
+        }
+    }
+
+    protected void flush() {
+        if (batch.size() > 0) {
+            callback.sendEntityDataMessage(null, batch);
+            batch = new ArrayList<>();
+        }
+    }
+
+}
@@ -0,0 +1,299 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataSpillFile;
+
+/**
+ * Diffs inputs that are in no particular order. Both sides are held in
+ * memory until the memory budget is used up. From then on the rows are
+ * hashed on their key into partition files, and each pair of partitions is
+ * diffed on its own. A partition that is still too big is partitioned again
+ * with a different hash. When a key repeats on one side the last row wins,
+ * like the replace in the database compare.
+ */
+class HashDiff implements IDiffEngine {
+
+    static final int PARTITION_COUNT = 32;
+
+    static final int MAX_PARTITION_LEVEL = 3;
+
+    DiffOutput output;
+
+    List<DiffEntity> entities;
+
+    long memoryBudget;
+
+    long memorySize;
+
+    List<Side[]> sides = new ArrayList<>();
+
+    HashDiff(List<DiffEntity> entities, DiffOutput output, long memoryBudget) {
+        this.entities = entities;
+        this.output = output;
+        this.memoryBudget = memoryBudget;
+        for (DiffEntity entity : entities) {
+            sides.add(new Side[] { new Side(entity), new Side(entity) });
+        }
+    }
+
+    @Override
+    public void add(DiffEntity entity, boolean original, EntityData row) {
+        if (entity.key(row) == null) {
+            if (original) {
+                output.deleted(entity, row);
+            } else {
+                output.added(entity, row);
+            }
+        } else {
+            Side side = sides.get(entity.index)[original ? 0 : 1];
+            long size = EntityDataSpillFile.estimateSize(row);
+            if (side.partitions != null) {
+                side.partitions.write(row, size);
+            } else {
+                side.rows.add(row);
+                memorySize += size;
+                if (memorySize > memoryBudget) {
+                    spill();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            for (Side[] entitySides : sides) {
+                DiffEntity entity = entitySides[0].entity;
+                output.advance(entity.index);
+                if (entitySides[0].partitions == null && entitySides[1].partitions == null) {
+                    diff(entity, entitySides[0].rows, entitySides[1].rows);
+                } else {
+                    entitySides[0].spill(0);
+                    entitySides[1].spill(0);
+                    diff(entity, entitySides[0].partitions, entitySides[1].partitions, 0);
+                }
+                entitySides[0].rows.clear();
+                entitySides[1].rows.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        output.finish();
+    }
+
+    @Override
+    public void close() {
+        for (Side[] entitySides : sides) {
+            entitySides[0].close();
+            entitySides[1].close();
+        }
+        memorySize = 0;
+    }
+
+    protected void spill() {
+        for (Side[] entitySides : sides) {
+            entitySides[0].spill(0);
+            entitySides[1].spill(0);
+        }
+        memorySize = 0;
+    }
+
+    protected void diff(DiffEntity entity, Partitions original, Partitions current, int level) throws IOException {
+        original.close();
+        current.close();
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            if (level < MAX_PARTITION_LEVEL && original.sizes[i] + current.sizes[i] > memoryBudget) {
+                Partitions originalSplit = original.split(i, level + 1);
+                Partitions currentSplit = current.split(i, level + 1);
+                try {
+                    diff(entity, originalSplit, currentSplit, level + 1);
+                } finally {
+                    originalSplit.delete();
+                    currentSplit.delete();
+                }
+            } else {
+                diff(entity, original.read(i), current.read(i));
+            }
+            original.delete(i);
+            current.delete(i);
+        }
+    }
+
+    protected void diff(DiffEntity entity, List<EntityData> originalRows, List<EntityData> currentRows) {
+        Map<List<Object>, EntityData> original = new HashMap<>(originalRows.size() * 2);
+        for (EntityData row : originalRows) {
+            original.put(entity.key(row), row);
+        }
+        Map<List<Object>, EntityData> current = new LinkedHashMap<>(currentRows.size() * 2);
+        for (EntityData row : currentRows) {
+            current.put(entity.key(row), row);
+        }
+        for (Map.Entry<List<Object>, EntityData> entry : current.entrySet()) {
+            EntityData originalRow = original.remove(entry.getKey());
+            if (originalRow == null) {
+                output.added(entity, entry.getValue());
+            } else {
+                output.changed(entity, originalRow, entry.getValue());
+            }
+        }
+        for (EntityData originalRow : original.values()) {
+            output.deleted(entity, originalRow);
+        }
+    }
+
+    static int partition(List<Object> key, int level) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        hash = Integer.rotateLeft(hash, level * 11);
+        return (hash >>> 16) % PARTITION_COUNT;
+    }
+
+    class Side {
+
+        DiffEntity entity;
+
+        List<EntityData> rows = new ArrayList<>();
+
+        Partitions partitions;
+
+        Side(DiffEntity entity) {
+            this.entity = entity;
+        }
+
+        void spill(int level) {
+            if (partitions == null) {
+                partitions = new Partitions(entity, level);
+            }
+            for (EntityData row : rows) {
+                partitions.write(row, EntityDataSpillFile.estimateSize(row));
+            }
+            rows = new ArrayList<>();
+        }
+
+        void close() {
+            rows = new ArrayList<>();
+            if (partitions != null) {
+                partitions.close();
+                partitions.delete();
+                partitions = null;
+            }
+        }
+    }
+
+    class Partitions {
+
+        DiffEntity entity;
+
+        int level;
+
+        File[] files = new File[PARTITION_COUNT];
+
+        EntityDataSpillFile.Writer[] writers = new EntityDataSpillFile.Writer[PARTITION_COUNT];
+
+        long[] sizes = new long[PARTITION_COUNT];
+
+        Partitions(DiffEntity entity, int level) {
+            this.entity = entity;
+            this.level = level;
+        }
+
+        void write(EntityData row, long size) {
+            int partition = partition(entity.key(row), level);
+            try {
+                if (writers[partition] == null) {
+                    files[partition] = EntityDataSpillFile.createTempFile("metl-diff");
+                    writers[partition] = new EntityDataSpillFile.Writer(files[partition], entity.layout);
+                }
+                writers[partition].write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sizes[partition] += size;
+        }
+
+        List<EntityData> read(int partition) throws IOException {
+            List<EntityData> rows = new ArrayList<>();
+            if (files[partition] != null) {
+                try (EntityDataSpillFile.Reader reader = new EntityDataSpillFile.Reader(files[partition], entity.layout)) {
+                    EntityData row = reader.read();
+                    while (row != null) {
+                        rows.add(row);
+                        row = reader.read();
+                    }
+                }
+            }
+            return rows;
+        }
+
+        Partitions split(int partition, int level) throws IOException {
+            Partitions split = new Partitions(entity, level);
+            if (files[partition] != null) {
+                try (EntityDataSpillFile.Reader reader = new EntityDataSpillFile.Reader(files[partition], entity.layout)) {
+                    EntityData row = reader.read();
+                    while (row != null) {
+                        split.write(row, EntityDataSpillFile.estimateSize(row));
+                        row = reader.read();
+                    }
+                }
+            }
+            return split;
+        }
+
+        void close() {
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                if (writers[i] != null) {
+                    try {
+                        writers[i].close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        writers[i] = null;
+                    }
+                }
+            }
+        }
+
+        void delete(int partition) {
+            if (files[partition] != null) {
+                files[partition].delete();
+                files[partition] = null;
+            }
+        }
+
+        void delete() {
+            close();
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                delete(i);
+            }
+        }
+    }
+
+}
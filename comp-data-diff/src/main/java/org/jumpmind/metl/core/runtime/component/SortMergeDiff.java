@@ -0,0 +1,156 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataSpillQueue;
+import org.jumpmind.metl.core.runtime.MisconfiguredException;
+
+/**
+ * Diffs inputs that both arrive sorted on the key of each entity. Rows are
+ * matched up as soon as both sides have reached a key, so only the rows that
+ * one side is ahead of the other by are held, and those spill to disk past
+ * the memory budget. When a key repeats on one side the last row wins, like
+ * the replace in the database compare. String keys are expected in the order
+ * of the key collation of the entities.
+ */
+class SortMergeDiff implements IDiffEngine {
+
+    DiffOutput output;
+
+    List<Side[]> sides = new ArrayList<>();
+
+    SortMergeDiff(List<DiffEntity> entities, DiffOutput output, long memoryBudget) {
+        this.output = output;
+        long queueBudget = Math.max(memoryBudget / Math.max(entities.size() * 2, 1), 1);
+        for (DiffEntity entity : entities) {
+            sides.add(new Side[] { new Side(entity, queueBudget), new Side(entity, queueBudget) });
+        }
+    }
+
+    @Override
+    public void add(DiffEntity entity, boolean original, EntityData row) {
+        List<Object> key = entity.key(row);
+        if (key == null) {
+            if (original) {
+                output.deleted(entity, row);
+            } else {
+                output.added(entity, row);
+            }
+        } else {
+            Side[] entitySides = sides.get(entity.index);
+            entitySides[original ? 0 : 1].add(key, row);
+            merge(entity, entitySides[0], entitySides[1]);
+        }
+    }
+
+    @Override
+    public void finish() {
+        for (int i = 0; i < sides.size(); i++) {
+            Side[] entitySides = sides.get(i);
+            DiffEntity entity = entitySides[0].entity;
+            entitySides[0].flush();
+            entitySides[1].flush();
+            merge(entity, entitySides[0], entitySides[1]);
+            EntityData row = entitySides[0].queue.poll();
+            while (row != null) {
+                output.deleted(entity, row);
+                row = entitySides[0].queue.poll();
+            }
+            row = entitySides[1].queue.poll();
+            while (row != null) {
+                output.added(entity, row);
+                row = entitySides[1].queue.poll();
+            }
+        }
+        output.finish();
+    }
+
+    @Override
+    public void close() {
+        for (Side[] entitySides : sides) {
+            entitySides[0].queue.close();
+            entitySides[1].queue.close();
+        }
+    }
+
+    protected void merge(DiffEntity entity, Side original, Side current) {
+        while (!original.queue.isEmpty() && !current.queue.isEmpty()) {
+            EntityData originalRow = original.queue.peek();
+            EntityData currentRow = current.queue.peek();
+            int compare = DiffEntity.compareKeys(entity.key(originalRow), entity.key(currentRow));
+            if (compare < 0) {
+                output.deleted(entity, original.queue.poll());
+            } else if (compare > 0) {
+                output.added(entity, current.queue.poll());
+            } else {
+                output.changed(entity, original.queue.poll(), current.queue.poll());
+            }
+        }
+    }
+
+    static class Side {
+
+        DiffEntity entity;
+
+        EntityDataSpillQueue queue;
+
+        EntityData pending;
+
+        List<Object> pendingKey;
+
+        Side(DiffEntity entity, long memoryBudget) {
+            this.entity = entity;
+            this.queue = new EntityDataSpillQueue("metl-diff", entity.layout, memoryBudget);
+        }
+
+        /**
+         * Holds back the newest row until the next key shows up so that a
+         * repeated key can replace it
+         */
+        void add(List<Object> key, EntityData row) {
+            if (pendingKey != null) {
+                int compare = DiffEntity.compareKeys(key, pendingKey);
+                if (compare < 0) {
+                    throw new MisconfiguredException(
+                            "The input for %s is not sorted on its key.  Key %s arrived after %s.  Sort the input, pick the key collation it is sorted by or use the hash diff engine",
+                            entity.entity.getName(), key, pendingKey);
+                } else if (compare > 0) {
+                    queue.add(pending);
+                }
+            }
+            pending = row;
+            pendingKey = key;
+        }
+
+        void flush() {
+            if (pending != null) {
+                queue.add(pending);
+                pending = null;
+                pendingKey = null;
+            }
+        }
+    }
+
+}
@@ -37,7 +37,9 @@ import org.jumpmind.metl.core.model.ComponentAttribSetting;
 import org.jumpmind.metl.core.model.RelationalModel;
 import org.jumpmind.metl.core.model.ModelAttrib;
 import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.runtime.CompactEntityData;
 import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.TextMessage;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
@@ -75,6 +77,8 @@ public class DelimitedParser extends AbstractComponentRuntime {
 
     List<AttributeFormat> attributes = new ArrayList<AttributeFormat>();
 
+    EntityDataLayout outputLayout;
+
     @Override
     public void start() {
         delimiter = StringEscapeUtils.unescapeJava(getComponent().get(SETTING_DELIMITER, delimiter));
@@ -82,10 +86,13 @@ public class DelimitedParser extends AbstractComponentRuntime {
         encoding = getComponent().get(SETTING_ENCODING, encoding);
         numberOfFooterLinesToSkip = getComponent().getInt(SETTING_FOOTER_LINES_TO_SKIP, 0);
         numberOfHeaderLinesToSkip = getComponent().getInt(SETTING_HEADER_LINES_TO_SKIP, 0);
-        convertAttributeSettingsToAttributeFormat();
         if (getComponent().getOutputModel() == null) {
             throw new IllegalStateException("This component requires an output model.  Please select one.");
         }
+        if (getComponent().getBoolean(COMPACT_ENTITY_DATA, false)) {
+            outputLayout = EntityDataLayout.forModel((RelationalModel) getComponent().getOutputModel());
+        }
+        convertAttributeSettingsToAttributeFormat();
     }
 
     @Override
@@ -137,7 +144,7 @@ public class DelimitedParser extends AbstractComponentRuntime {
             csvReader.setUseTextQualifier(false);
         }
         while (csvReader.readRecord()) {
-            EntityData data = new EntityData();
+            EntityData data = outputLayout != null ? outputLayout.newEntityData() : new EntityData();
             if (attributes.size() > 0) {
                 for (AttributeFormat attribute : attributes) {
                     Object value = csvReader.get(attribute.getOrdinal() - 1);
@@ -147,7 +154,16 @@ public class DelimitedParser extends AbstractComponentRuntime {
                                 data, attribute.getFormatFunction());
                     }
 
-                    data.put(attribute.getAttributeId(), value);
+                    if (outputLayout != null && attribute.getLayoutOrdinal() >= 0) {
+                        ((CompactEntityData) data).put(attribute.getLayoutOrdinal(), value);
+                    } else {
+                        data.put(attribute.getAttributeId(), value);
+                    }
+                }
+            } else if (outputLayout != null) {
+                CompactEntityData compactData = (CompactEntityData) data;
+                for (int index = 0; index < outputLayout.size(); index++) {
+                    compactData.put(index, csvReader.get(index));
                 }
             } else {
                 RelationalModel model = (RelationalModel) getComponent().getOutputModel();
@@ -179,6 +195,9 @@ public class DelimitedParser extends AbstractComponentRuntime {
                 if (attribute != null) {
                     ModelEntity entity = inputModel.getEntityById(attribute.getEntityId());
                     format = new AttributeFormat(attributeSetting.getAttributeId(), entity, attribute);
+                    if (outputLayout != null) {
+                        format.setLayoutOrdinal(outputLayout.getOrdinal(attributeSetting.getAttributeId()));
+                    }
                     formats.put(attributeSetting.getAttributeId(), format);
                 }
             }
@@ -218,6 +237,8 @@ public class DelimitedParser extends AbstractComponentRuntime {
 
         int ordinal;
 
+        int layoutOrdinal = -1;
+
         String formatFunction;
 
         public String getAttributeId() {
@@ -232,6 +253,14 @@ public class DelimitedParser extends AbstractComponentRuntime {
             this.ordinal = ordinal;
         }
 
+        public int getLayoutOrdinal() {
+            return layoutOrdinal;
+        }
+
+        public void setLayoutOrdinal(int layoutOrdinal) {
+            this.layoutOrdinal = layoutOrdinal;
+        }
+
         public String getFormatFunction() {
             return formatFunction;
         }
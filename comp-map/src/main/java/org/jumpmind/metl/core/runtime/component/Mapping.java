@@ -31,7 +31,9 @@ import java.util.Set;
 import org.jumpmind.metl.core.model.RelationalModel;
 import org.jumpmind.metl.core.model.ModelAttrib;
 import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.runtime.CompactEntityData;
 import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
@@ -53,6 +55,12 @@ public class Mapping extends AbstractMapping {
 
     boolean entityPerRecord;
 
+    EntityDataLayout inputLayout;
+
+    EntityDataLayout outputLayout;
+
+    int[][] outputOrdinalsByInputOrdinal;
+
     @Override
     public void start() {
         validate();
@@ -60,6 +68,23 @@ public class Mapping extends AbstractMapping {
                 false);
         entityPerRecord = getComponent().getBoolean(ENTITY_PER_ROW, false);
         attrToAttrMap = getAttribToAttribMap();
+        if (getComponent().getBoolean(COMPACT_ENTITY_DATA, false) && getInputModel() instanceof RelationalModel
+                && getOutputModel() instanceof RelationalModel) {
+            inputLayout = EntityDataLayout.forModel((RelationalModel) getInputModel());
+            outputLayout = EntityDataLayout.forModel((RelationalModel) getOutputModel());
+            outputOrdinalsByInputOrdinal = new int[inputLayout.size()][];
+            for (int i = 0; i < inputLayout.size(); i++) {
+                Set<String> newAttrIds = attrToAttrMap.get(inputLayout.getAttributeId(i));
+                if (newAttrIds != null) {
+                    int[] outputOrdinals = new int[newAttrIds.size()];
+                    int index = 0;
+                    for (String newAttrId : newAttrIds) {
+                        outputOrdinals[index++] = outputLayout.getOrdinal(newAttrId);
+                    }
+                    outputOrdinalsByInputOrdinal[i] = outputOrdinals;
+                }
+            }
+        }
     }
 
     @Override
@@ -163,19 +188,30 @@ public class Mapping extends AbstractMapping {
     protected ArrayList<EntityData> mapInputToOutput(EntityData inputRow) {
         ArrayList<EntityData> outputPayload = new ArrayList<EntityData>();
 
-        EntityData outputRow = new EntityData();
+        EntityData outputRow = outputLayout != null ? outputLayout.newEntityData() : new EntityData();
         outputRow.setChangeType(inputRow.getChangeType());
 
-        for (Entry<String, Object> attrEntry : inputRow.entrySet()) {
-            Set<String> newAttrIds = attrToAttrMap.get(attrEntry.getKey());
-            if (newAttrIds != null) {
-                for (String newAttrId : newAttrIds) {
-                    outputRow.put(newAttrId, attrEntry.getValue());
+        if (outputLayout != null && inputRow instanceof CompactEntityData && ((CompactEntityData) inputRow).getLayout() == inputLayout) {
+            mapInputToOutputByOrdinal((CompactEntityData) inputRow, (CompactEntityData) outputRow);
+        } else {
+            for (Entry<String, Object> attrEntry : inputRow.entrySet()) {
+                Set<String> newAttrIds = attrToAttrMap.get(attrEntry.getKey());
+                if (newAttrIds != null) {
+                    for (String newAttrId : newAttrIds) {
+                        outputRow.put(newAttrId, attrEntry.getValue());
+                    }
                 }
             }
         }
 
-        if (setUnmappedAttributesToNull) {
+        if (setUnmappedAttributesToNull && outputLayout != null) {
+            CompactEntityData compactRow = (CompactEntityData) outputRow;
+            for (int ordinal = 0; ordinal < outputLayout.size(); ordinal++) {
+                if (!compactRow.containsKey(ordinal)) {
+                    compactRow.put(ordinal, null);
+                }
+            }
+        } else if (setUnmappedAttributesToNull) {
             for (ModelEntity entity : ((RelationalModel)getComponent().getOutputModel()).getModelEntities()) {
                 for (ModelAttrib attr : entity.getModelAttributes()) {
                     if (!outputRow.containsKey(attr.getId())) {
@@ -193,4 +229,19 @@ public class Mapping extends AbstractMapping {
         return outputPayload;
 
     }
+
+    protected void mapInputToOutputByOrdinal(CompactEntityData inputRow, CompactEntityData outputRow) {
+        for (int ordinal = 0; ordinal < outputOrdinalsByInputOrdinal.length; ordinal++) {
+            int[] outputOrdinals = outputOrdinalsByInputOrdinal[ordinal];
+            if (outputOrdinals != null && inputRow.containsKey(ordinal)) {
+                Object value = inputRow.get(ordinal);
+                for (int outputOrdinal : outputOrdinals) {
+                    /* mappings to attributes that are no longer in the output model are ignored */
+                    if (outputOrdinal >= 0) {
+                        outputRow.put(outputOrdinal, value);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -23,35 +23,60 @@ package org.jumpmind.metl.core.runtime.component;
 import static org.apache.commons.lang.StringUtils.isBlank;
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.jumpmind.db.sql.Row;
 import org.jumpmind.db.sql.SqlException;
 import org.jumpmind.metl.core.model.RelationalModel;
 import org.jumpmind.metl.core.model.ModelAttrib;
 import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.runtime.CompactEntityData;
 import org.jumpmind.metl.core.runtime.ContentMessage;
 import org.jumpmind.metl.core.runtime.ControlMessage;
 import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
 import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
 import org.jumpmind.metl.core.runtime.LogLevel;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
 import org.jumpmind.metl.core.runtime.TextMessage;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
+import org.jumpmind.metl.core.util.LogUtils;
+import org.jumpmind.metl.core.util.ThreadUtils;
 import org.jumpmind.properties.TypedProperties;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.util.StringUtils;
@@ -78,6 +103,57 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
 
     private static final String SQL_FROM_MESSAGE = "sql.get.from.message";
 
+    public final static String ENTITY_BATCH_SIZE = "entity.batch.size";
+
+    public final static String PARTITION_MODE = "partition.mode";
+
+    public final static String PARTITION_KEY = "partition.key";
+
+    public final static String PARTITION_COUNT = "partition.count";
+
+    public final static String PARTITION_PREDICATES = "partition.predicates";
+
+    public final static String PARTITION_THREADS = "partition.threads";
+
+    public final static String PARTITION_ORDERED = "partition.ordered";
+
+    public static final String PARTITION_NONE = "NONE";
+
+    public static final String PARTITION_KEY_RANGE = "KEY RANGE";
+
+    public static final String PARTITION_KEY_HASH = "KEY HASH";
+
+    public static final String PARTITION_PREDICATE = "PREDICATES";
+
+    static final String PARTITION_LOW_PARAM = "metl_partition_lo";
+
+    static final String PARTITION_HIGH_PARAM = "metl_partition_hi";
+
+    /*
+     * The number of messages a partition may read ahead of the step thread
+     * before it waits
+     */
+    static final int PARTITION_QUEUE_CAPACITY = 10;
+
+    static final Pattern ENTITY_BATCH_EQUALS = Pattern.compile("([\\w$.\"]+)\\s*=\\s*:([\\w$.]+)");
+
+    static final Pattern ENTITY_BATCH_IN = Pattern.compile("([\\w$.\"]+)\\s+in\\s*\\(\\s*:([\\w$.]+)\\s*\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    static final Pattern ENTITY_BATCH_CONDITION = Pattern.compile(
+            "\\s*[\\w$.\"]+\\s*(=\\s*:[\\w$.]+|\\s+in\\s*\\(\\s*:[\\w$.]+\\s*\\))\\s*", Pattern.CASE_INSENSITIVE);
+
+    /*
+     * Row limits, grouping, aggregates, window functions and set operations
+     * give different rows for a batch than for each of its entities
+     */
+    static final Pattern ENTITY_BATCH_UNSUPPORTED = Pattern.compile(
+            "\\b(limit|top|offset|rownum|fetch\\s+(first|next)|group\\s+by|having|union|intersect|except|minus)\\b"
+                    + "|\\b(count|sum|avg|min|max|over)\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):([A-Za-z_][\\w$.]*)");
+
     List<String> sqls;
 
     String runWhen = PER_UNIT_OF_WORK;
@@ -98,6 +174,26 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
     
     boolean getSqlFromMessage = false;
     
+    EntityDataLayout outputLayout;
+
+    int entityBatchSize = 1;
+
+    String partitionMode = PARTITION_NONE;
+
+    String partitionKey;
+
+    int partitionCount = 4;
+
+    List<String> partitionPredicates;
+
+    int partitionThreads = 4;
+
+    boolean partitionOrdered = false;
+
+    ExecutorService partitionExecutor;
+
+    String partitionCheckedSql;
+    
     @Override
     public void start() {
         TypedProperties properties = getTypedProperties();
@@ -110,6 +206,47 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
         runWhen = properties.get(RUN_WHEN, runWhen);
         unitOfWork = properties.get(UNIT_OF_WORK, unitOfWork);
         queryTimeout = properties.getInt(QUERY_TIMEOUT, queryTimeout);
+        if (properties.is(COMPACT_ENTITY_DATA, false) && getOutputModel() instanceof RelationalModel) {
+            outputLayout = EntityDataLayout.forModel((RelationalModel) getOutputModel());
+        }
+        entityBatchSize = properties.getInt(ENTITY_BATCH_SIZE, entityBatchSize);
+        partitionMode = properties.get(PARTITION_MODE, partitionMode);
+        partitionKey = properties.get(PARTITION_KEY);
+        partitionCount = properties.getInt(PARTITION_COUNT, partitionCount);
+        partitionThreads = properties.getInt(PARTITION_THREADS, partitionThreads);
+        partitionOrdered = properties.is(PARTITION_ORDERED, partitionOrdered);
+        partitionPredicates = new ArrayList<>();
+        String predicates = properties.get(PARTITION_PREDICATES);
+        if (isNotBlank(predicates)) {
+            for (String predicate : predicates.split("\\r?\\n")) {
+                if (isNotBlank(predicate)) {
+                    partitionPredicates.add(predicate.trim());
+                }
+            }
+        }
+        if ((PARTITION_KEY_RANGE.equals(partitionMode) || PARTITION_KEY_HASH.equals(partitionMode)) && isBlank(partitionKey)) {
+            throw new MisconfiguredException("Please configure the partition key for %s", componentDefinition.getName());
+        }
+        if (PARTITION_KEY_HASH.equals(partitionMode) && !partitionKey.trim().matches("[\\w$\"]+")) {
+            throw new MisconfiguredException(
+                    "A key hash partition requires a single whole number column as its key, not %s.  Use a key range or predicates instead",
+                    partitionKey);
+        }
+        if (PARTITION_PREDICATE.equals(partitionMode) && partitionPredicates.size() == 0) {
+            throw new MisconfiguredException("Please configure the partition predicates for %s", componentDefinition.getName());
+        }
+        if (partitionCount < 1 || partitionThreads < 1) {
+            throw new MisconfiguredException("The partition count and partition threads must be greater than zero");
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (partitionExecutor != null) {
+            partitionExecutor.shutdownNow();
+            partitionExecutor = null;
+        }
+        super.stop();
     }
 
     @Override
@@ -122,7 +259,7 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
 
         rowReadDuringHandle = 0;
 
-        NamedParameterJdbcTemplate template = getJdbcTemplate();
+        NamedParameterJdbcTemplate template = getStreamingJdbcTemplate();
 
         if (getSqlFromMessage) {
 	    		if (inputMessage instanceof TextMessage) {
@@ -151,6 +288,13 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
          */
         ArrayList<EntityData> outboundPayload = new ArrayList<EntityData>(); // =
                                                                              // null;
+        if (inboundPayload != null && isEntityBatched((Collection<?>) ((ContentMessage<?>) inputMessage).getPayload())) {
+            handleEntityBatches(inputMessage, callback, unitOfWorkBoundaryReached,
+                    new ArrayList<>((Collection<?>) ((ContentMessage<?>) inputMessage).getPayload()), outboundPayload);
+            sendLeftOverRows(callback, outboundPayload);
+            return;
+        }
+
         for (int i = 0; i < inboundRecordCount; i++) {
             Object entity = inboundPayload != null && inboundPayload.hasNext() ? inboundPayload.next() : null;
             ResultSetToEntityDataConverter resultSetToEntityDataConverter = new ResultSetToEntityDataConverter(inputMessage, callback,
@@ -164,8 +308,12 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
                 Map<String, Object> paramMap = prepareParams(sqlToExecute, inputMessage, entity, runWhen);
                 log(LogLevel.INFO, "About to run: %s", sqlToExecute);
                 log(LogLevel.INFO, "Passing params: %s", paramMap);
-                resultSetToEntityDataConverter.setSqlToExecute(sqlToExecute);
-                template.query(sqlToExecute, paramMap, resultSetToEntityDataConverter);
+                if (isPartitioned()) {
+                    queryPartitioned(template, sqlToExecute, paramMap, inputMessage, callback, outboundPayload);
+                } else {
+                    resultSetToEntityDataConverter.setSqlToExecute(sqlToExecute);
+                    queryStreaming(sqlToExecute, paramMap, resultSetToEntityDataConverter);
+                }
                 if (unitOfWork.equalsIgnoreCase(SQL_STATEMENT)) {
                     sendLeftOverRows(callback, outboundPayload);
                     callback.sendControlMessage();
@@ -180,6 +328,598 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
         
     }
 
+    protected boolean isEntityBatched(Collection<?> entities) {
+        if (entityBatchSize > 1 && COMPONENT_LIFETIME.equals(unitOfWork) && !isPartitioned() && entities.size() > 0
+                && entities.iterator().next() instanceof EntityData && getInputModel() instanceof RelationalModel) {
+            /*
+             * Every entity attribute the statements use has to be compared
+             * to a column so that rows can be matched back to entities
+             */
+            RelationalModel inputModel = (RelationalModel) getInputModel();
+            for (String sql : getSqls()) {
+                Map<String, String> batchParams = findEntityBatchParams(sql);
+                Set<String> entityParams = new HashSet<>();
+                Matcher matcher = NAMED_PARAMETER.matcher(sql);
+                while (matcher.find()) {
+                    String param = matcher.group(1);
+                    int dot = param.indexOf('.');
+                    if (dot > 0 && inputModel.getAttributeByName(param.substring(0, dot), param.substring(dot + 1)) != null) {
+                        if (!batchParams.containsKey(param)) {
+                            return false;
+                        }
+                        entityParams.add(param);
+                    }
+                }
+                String conflict = findEntityBatchConflict(sql, entityParams);
+                if (conflict != null) {
+                    log(LogLevel.INFO, "Running the statements once per entity instead of in batches of %d because %s: %s",
+                            entityBatchSize, conflict, sql);
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Runs PER ENTITY statements once for a chunk of entities instead of once
+     * per entity. Entity parameters compared with = are rewritten as IN
+     * lists, and each result row is given back to the entities whose
+     * parameter values match the row's values for the compared columns, so
+     * the output is the same as running the statement for each entity. When
+     * a returned row can not be given back to any entity, for example because
+     * the database compared the values differently, the chunk is read again
+     * one entity at a time. Statements that could return other rows for a
+     * batch than for each entity, see {@link #findEntityBatchConflict}, are
+     * always run once per entity.
+     */
+    protected void handleEntityBatches(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached,
+            List<?> entities, ArrayList<EntityData> outboundPayload) {
+        for (int start = 0; start < entities.size(); start += entityBatchSize) {
+            List<?> chunk = entities.subList(start, Math.min(start + entityBatchSize, entities.size()));
+            List<Row> inputRows = new ArrayList<>(chunk.size());
+            for (Object entity : chunk) {
+                inputRows.add(getComponent().toRow((EntityData) entity, true, true));
+            }
+
+            List<EntityBatchResultSetConverter> converters = new ArrayList<>();
+            for (String sql : getSqls()) {
+                checkForInterruption();
+                String sqlToExecute = prepareSql(sql, inputMessage, null);
+                Map<String, Object> paramMap = prepareParams(sqlToExecute, inputMessage, null, runWhen);
+                Map<String, String> batchParams = new LinkedHashMap<>();
+                boolean noValues = false;
+                for (Map.Entry<String, String> param : findEntityBatchParams(sqlToExecute).entrySet()) {
+                    Set<Object> values = new LinkedHashSet<>();
+                    boolean entityParam = false;
+                    for (Row row : inputRows) {
+                        if (row.containsKey(param.getKey())) {
+                            entityParam = true;
+                            if (row.get(param.getKey()) != null) {
+                                values.add(row.get(param.getKey()));
+                            }
+                        }
+                    }
+                    if (entityParam) {
+                        batchParams.put(param.getKey(), param.getValue());
+                        paramMap.put(param.getKey(), new ArrayList<>(values));
+                        noValues |= values.isEmpty();
+                    }
+                }
+
+                EntityBatchResultSetConverter converter = new EntityBatchResultSetConverter(inputMessage, batchParams,
+                        findEntityBatchExpressions(sqlToExecute));
+                converter.setSqlToExecute(sqlToExecute);
+                converters.add(converter);
+                if (!noValues) {
+                    String batchSql = toEntityBatchSql(sqlToExecute, batchParams.keySet());
+                    log(LogLevel.INFO, "About to run: %s", batchSql);
+                    log(LogLevel.INFO, "Passing params: %s", paramMap);
+                    queryStreaming(batchSql, paramMap, converter);
+                }
+            }
+
+            boolean matched = true;
+            for (EntityBatchResultSetConverter converter : converters) {
+                matched &= converter.isMatched(inputRows);
+            }
+            if (!matched) {
+                log(LogLevel.WARN, "Rows of an entity batch could not be matched to the entities.  Reading the %d entities one at a time",
+                        chunk.size());
+                handleEntitiesOneAtATime(inputMessage, callback, unitOfWorkBoundaryReached, chunk, outboundPayload);
+                continue;
+            }
+
+            Set<EntityData> sent = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (passInputRowsThrough) {
+                    outboundPayload.add((EntityData) chunk.get(i));
+                }
+                for (EntityBatchResultSetConverter converter : converters) {
+                    for (EntityData rowData : converter.find(inputRows.get(i))) {
+                        outboundPayload.add(sent.add(rowData) ? rowData : rowData.copy());
+                    }
+                }
+                if (outboundPayload.size() >= rowsPerMessage) {
+                    sendLeftOverRows(callback, outboundPayload);
+                }
+            }
+        }
+    }
+
+    protected void handleEntitiesOneAtATime(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached,
+            List<?> entities, ArrayList<EntityData> outboundPayload) {
+        for (Object entity : entities) {
+            ResultSetToEntityDataConverter converter = new ResultSetToEntityDataConverter(inputMessage, callback,
+                    unitOfWorkBoundaryReached, outboundPayload);
+            if (passInputRowsThrough) {
+                outboundPayload.add((EntityData) entity);
+            }
+            for (String sql : getSqls()) {
+                checkForInterruption();
+                String sqlToExecute = prepareSql(sql, inputMessage, entity);
+                Map<String, Object> paramMap = prepareParams(sqlToExecute, inputMessage, entity, runWhen);
+                log(LogLevel.INFO, "About to run: %s", sqlToExecute);
+                log(LogLevel.INFO, "Passing params: %s", paramMap);
+                converter.setSqlToExecute(sqlToExecute);
+                queryStreaming(sqlToExecute, paramMap, converter);
+            }
+        }
+    }
+
+    /**
+     * Returns why a statement would not return the same rows for a batch of
+     * entities as for each entity on its own, or null when it would. The
+     * where clause has to be a plain AND of conditions in which every entity
+     * parameter is compared to a column with = or IN, and the statement may
+     * not limit, group or aggregate its rows.
+     */
+    static String findEntityBatchConflict(String sql, Set<String> entityParams) {
+        String stripped = sql.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("--[^\r\n]*", " ").replaceAll("'(?:[^']|'')*'", "''")
+                .trim();
+        if (stripped.endsWith(";")) {
+            stripped = stripped.substring(0, stripped.length() - 1);
+        }
+        Matcher unsupported = ENTITY_BATCH_UNSUPPORTED.matcher(stripped);
+        if (unsupported.find()) {
+            return String.format("it uses %s", unsupported.group().replaceAll("\\s*\\($", "").replaceAll("\\s+", " ").toUpperCase());
+        }
+        Matcher select = Pattern.compile("(?i)\\bselect\\b").matcher(stripped);
+        if (select.find() && select.find()) {
+            return "it has a subquery";
+        }
+
+        List<String> conditions = new ArrayList<>();
+        Matcher where = Pattern.compile("(?i)\\bwhere\\b").matcher(stripped);
+        if (where.find()) {
+            Matcher orderBy = Pattern.compile("(?i)\\border\\s+by\\b").matcher(stripped);
+            String clause = stripped.substring(where.end(), orderBy.find(where.end()) ? orderBy.start() : stripped.length());
+            if (Pattern.compile("(?i)\\bor\\b").matcher(clause).find()) {
+                return "its where clause is not a plain AND of conditions";
+            }
+            /* the AND of a BETWEEN does not separate conditions */
+            clause = clause.replaceAll("(?is)\\bbetween\\b(.*?)\\band\\b", "between$1,");
+            Matcher and = Pattern.compile("(?i)\\band\\b").matcher(clause);
+            int depth = 0, start = 0, scanned = 0;
+            while (and.find()) {
+                for (; scanned < and.start(); scanned++) {
+                    char c = clause.charAt(scanned);
+                    depth += c == '(' ? 1 : c == ')' ? -1 : 0;
+                }
+                if (depth == 0) {
+                    conditions.add(clause.substring(start, and.start()));
+                    start = and.end();
+                }
+            }
+            conditions.add(clause.substring(start));
+        }
+
+        int comparedParams = 0;
+        for (String condition : conditions) {
+            Matcher matcher = NAMED_PARAMETER.matcher(condition);
+            while (matcher.find()) {
+                if (entityParams.contains(matcher.group(1))) {
+                    if (!ENTITY_BATCH_CONDITION.matcher(condition).matches()) {
+                        return String.format("the entity parameter %s is not compared to a column with = or IN", matcher.group(1));
+                    }
+                    comparedParams++;
+                }
+            }
+        }
+        int usedParams = 0;
+        Matcher matcher = NAMED_PARAMETER.matcher(stripped);
+        while (matcher.find()) {
+            if (entityParams.contains(matcher.group(1))) {
+                usedParams++;
+            }
+        }
+        return usedParams == comparedParams ? null : "an entity parameter is used outside of the where clause";
+    }
+
+    /**
+     * Finds the named parameters a statement compares to a column with = or
+     * IN, mapped to the name of the column they are compared to
+     */
+    static Map<String, String> findEntityBatchParams(String sql) {
+        Map<String, String> params = findEntityBatchExpressions(sql);
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            param.setValue(param.getValue().substring(param.getValue().lastIndexOf('.') + 1));
+        }
+        return params;
+    }
+
+    /**
+     * Finds the named parameters a statement compares to a column with = or
+     * IN, mapped to the column expression as it was written, without quotes
+     */
+    static Map<String, String> findEntityBatchExpressions(String sql) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (Pattern pattern : new Pattern[] { ENTITY_BATCH_EQUALS, ENTITY_BATCH_IN }) {
+            Matcher matcher = pattern.matcher(sql);
+            while (matcher.find()) {
+                if (!params.containsKey(matcher.group(2))) {
+                    params.put(matcher.group(2), matcher.group(1).replace("\"", ""));
+                }
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Returns the 1 based position of a column expression in the select list
+     * of a statement, ignoring any alias, or 0 when the select list does not
+     * name it.
+     */
+    static int findSelectPosition(String sql, String expression) {
+        int select = sql.toLowerCase().indexOf("select");
+        int from = getFromIndex(sql);
+        if (select < 0 || from <= select + 6) {
+            return 0;
+        }
+        String columns = sql.substring(select + 6, from).replaceAll("(?s)/\\*.*?\\*/", " ");
+        List<String> items = new ArrayList<>();
+        int p = 0, q = 0, start = 0;
+        for (int i = 0; i < columns.length(); i++) {
+            char c = columns.charAt(i);
+            if (c == '(') {
+                p++;
+            } else if (c == ')') {
+                p--;
+            } else if (c == '\'') {
+                q++;
+            } else if (c == ',' && p == 0 && q % 2 == 0) {
+                items.add(columns.substring(start, i));
+                start = i + 1;
+            }
+        }
+        items.add(columns.substring(start));
+        for (int i = 0; i < items.size(); i++) {
+            String item = items.get(i).trim().replace("\"", "");
+            if (i == 0) {
+                item = item.replaceFirst("(?i)^distinct\\s+", "");
+            }
+            item = item.replaceFirst("(?i)^([\\w$.]+)(\\s+as)?\\s+[\\w$]+$", "$1");
+            if (item.equalsIgnoreCase(expression)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    static String toEntityBatchSql(String sql, Set<String> params) {
+        Matcher matcher = ENTITY_BATCH_EQUALS.matcher(sql);
+        StringBuffer batchSql = new StringBuffer();
+        while (matcher.find()) {
+            if (params.contains(matcher.group(2))) {
+                matcher.appendReplacement(batchSql, Matcher.quoteReplacement(matcher.group(1) + " in (:" + matcher.group(2) + ")"));
+            }
+        }
+        matcher.appendTail(batchSql);
+        return batchSql.toString();
+    }
+
+    /*
+     * Values from the input entity and the result set are matched the way
+     * the database would compare them with the type of the column, so 1, 1.0
+     * and "1" are the same key for a numeric column, while "007" and "7" are
+     * different keys for a character column.
+     */
+    static String toEntityBatchKey(Object value, int jdbcType) {
+        if (value == null) {
+            return null;
+        }
+        switch (jdbcType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                try {
+                    return new BigDecimal(value.toString().trim()).stripTrailingZeros().toPlainString();
+                } catch (NumberFormatException e) {
+                    return value.toString();
+                }
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return value instanceof Date ? Long.toString(((Date) value).getTime()) : value.toString();
+            case Types.CHAR:
+            case Types.NCHAR:
+                return StringUtils.trimTrailingWhitespace(value.toString());
+            default:
+                return value.toString();
+        }
+    }
+
+    protected boolean isPartitioned() {
+        return partitionMode != null && !PARTITION_NONE.equals(partitionMode);
+    }
+
+    /**
+     * Splits the statement into partitions that are read concurrently, each
+     * on its own connection from the data source. Rows are handed back to
+     * this thread to be sent so that the callback is only used by the step
+     * thread. When ordered, partitions are sent in partition order and later
+     * partitions only read ahead a bounded number of messages.
+     * <p>
+     * A key range partition first runs the whole statement once more to find
+     * the smallest and largest key.
+     */
+    protected void queryPartitioned(final NamedParameterJdbcTemplate template, final String sql, Map<String, Object> paramMap,
+            final Message inputMessage, ISendMessageCallback callback, ArrayList<EntityData> outboundPayload) {
+        checkPartitionColumns(sql);
+        Object min = null, max = null;
+        if (PARTITION_KEY_RANGE.equals(partitionMode)) {
+            Object[] bounds = template.query(String.format("select min(%s), max(%s) from (%s) metl_partition", partitionKey,
+                    partitionKey, stripDelimiter(sql)), paramMap, rs -> rs.next() ? new Object[] { rs.getObject(1), rs.getObject(2) }
+                            : new Object[2]);
+            min = bounds[0];
+            max = bounds[1];
+        }
+        List<Partition> partitions = createPartitions(sql, partitionMode, partitionKey, partitionCount, partitionPredicates, min, max,
+                paramMap);
+        log(LogLevel.INFO, "Reading %d partitions using %d threads", partitions.size(), partitionThreads);
+
+        PartitionedQuery query = new PartitionedQuery(partitions.size());
+        if (partitionExecutor == null) {
+            String prefix = String.format("%s-partition", LogUtils.normalizeName(getFlowStep().getName()));
+            partitionExecutor = ThreadUtils.createFixedThreadPool(prefix, Math.max(partitionCount, partitionPredicates.size()),
+                    partitionThreads);
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            final Partition partition = partitions.get(i);
+            final BlockingQueue<Object> queue = query.getQueue(i);
+            query.futures.add(partitionExecutor.submit(() -> {
+                PartitionResultSetConverter converter = new PartitionResultSetConverter(inputMessage, query, queue);
+                converter.setSqlToExecute(sql);
+                Throwable error = null;
+                try {
+                    queryStreaming(partition.sql, partition.params, converter);
+                    converter.flush();
+                    return converter.rowsRead;
+                } catch (Throwable ex) {
+                    error = ex;
+                    throw ex;
+                } finally {
+                    query.finish(queue, new PartitionDone(error));
+                }
+            }));
+        }
+
+        boolean complete = false;
+        try {
+            long ts = System.currentTimeMillis();
+            int done = 0;
+            while (done < partitions.size()) {
+                Object item = query.getQueue(done).poll(1, TimeUnit.SECONDS);
+                checkForInterruption();
+                if (item instanceof PartitionDone) {
+                    Throwable error = ((PartitionDone) item).error;
+                    if (error instanceof RuntimeException) {
+                        throw (RuntimeException) error;
+                    } else if (error instanceof Error) {
+                        throw (Error) error;
+                    } else if (error != null) {
+                        throw new RuntimeException(error);
+                    }
+                    done++;
+                } else if (item != null) {
+                    @SuppressWarnings("unchecked")
+                    List<EntityData> rows = (List<EntityData>) item;
+                    outboundPayload.addAll(rows);
+                    if (outboundPayload.size() >= rowsPerMessage) {
+                        sendLeftOverRows(callback, outboundPayload);
+                    }
+                }
+                long newTs = System.currentTimeMillis();
+                if (newTs - ts > 10000) {
+                    getExecutionTracker().updateStatistics(threadNumber, context);
+                    ts = newTs;
+                }
+            }
+            for (Future<Integer> future : query.futures) {
+                rowReadDuringHandle += future.get();
+            }
+            complete = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            if (!complete) {
+                query.abort();
+            }
+        }
+    }
+
+    /*
+     * Partitions wrap the statement in a sub select, which fails when the
+     * statement returns the same column label more than once. Drivers that
+     * can describe a prepared statement are asked for the labels up front so
+     * that the problem is reported clearly instead of as a database error.
+     * The type of a key hash partition key is checked the same way.
+     */
+    protected void checkPartitionColumns(String sql) {
+        if (sql.equals(partitionCheckedSql)) {
+            return;
+        }
+        getJdbcTemplate().getJdbcOperations().execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(NamedParameterUtils.parseSqlStatementIntoString(stripDelimiter(sql)))) {
+                ResultSetMetaData meta = ps.getMetaData();
+                if (meta == null) {
+                    return null;
+                }
+                List<String> columnLabels = new ArrayList<>(meta.getColumnCount());
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columnLabels.add(meta.getColumnLabel(i));
+                }
+                String duplicate = findDuplicateLabel(columnLabels);
+                if (duplicate != null) {
+                    throw new MisconfiguredException(
+                            "A partitioned read wraps the query in a sub select, which needs unique column labels.  The column %s is returned more than once.  Give the columns unique aliases or turn partitioning off",
+                            duplicate);
+                }
+                if (PARTITION_KEY_HASH.equals(partitionMode)) {
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        if (partitionKey.trim().replace("\"", "").equalsIgnoreCase(columnLabels.get(i - 1))) {
+                            checkHashPartitionKeyType(partitionKey, meta.getColumnType(i), meta.getScale(i), meta.getColumnTypeName(i));
+                        }
+                    }
+                }
+                return null;
+            } catch (SQLException e) {
+                log.debug("Could not describe the partitioned query", e);
+                return null;
+            }
+        });
+        partitionCheckedSql = sql;
+    }
+
+    /*
+     * A key hash partition filters on the remainder of the key divided by the
+     * partition count, which only puts every row in exactly one partition for
+     * whole numbers
+     */
+    static void checkHashPartitionKeyType(String key, int jdbcType, int scale, String typeName) {
+        switch (jdbcType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                if (scale == 0) {
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new MisconfiguredException(
+                "A key hash partition requires a whole number key.  The key %s is a %s.  Use a key range or predicates instead", key,
+                typeName);
+    }
+
+    static String findDuplicateLabel(List<String> labels) {
+        if (labels != null) {
+            Set<String> found = new HashSet<>();
+            for (String label : labels) {
+                if (label != null && !found.add(label.toUpperCase())) {
+                    return label;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A key hash partition filters on abs(mod(key, count)), so its key has to
+     * be a single whole number column. Character, uuid and composite keys are
+     * rejected when the component starts or the statement is described. The
+     * database can not answer the filter from an index on the key, so every
+     * partition scans the whole result of the statement. Key ranges and
+     * predicates on indexed columns let each partition read only its share.
+     */
+    static List<Partition> createPartitions(String sql, String mode, String key, int count, List<String> predicates, Object min,
+            Object max, Map<String, Object> params) {
+        List<Partition> partitions = new ArrayList<>();
+        String base = String.format("select * from (%s) metl_partition where ", stripDelimiter(sql));
+        if (PARTITION_PREDICATE.equals(mode)) {
+            for (String predicate : predicates) {
+                partitions.add(new Partition(base + "(" + predicate + ")", params));
+            }
+        } else if (PARTITION_KEY_HASH.equals(mode)) {
+            for (int i = 0; i < count; i++) {
+                String predicate = String.format("abs(mod(%s, %d)) = %d", key, count, i);
+                if (i == 0) {
+                    predicate = String.format("%s is null or %s", key, predicate);
+                }
+                partitions.add(new Partition(base + "(" + predicate + ")", params));
+            }
+        } else if (PARTITION_KEY_RANGE.equals(mode)) {
+            if (min == null || max == null) {
+                partitions.add(new Partition(sql, params));
+            } else {
+                Object[] bounds = createRangeBounds(min, max, count);
+                for (int i = 0; i < count; i++) {
+                    String predicate = String.format("%1$s >= :%2$s and %1$s %3$s :%4$s", key, PARTITION_LOW_PARAM,
+                            i < count - 1 ? "<" : "<=", PARTITION_HIGH_PARAM);
+                    if (i == 0) {
+                        predicate = String.format("%s is null or (%s)", key, predicate);
+                    }
+                    Map<String, Object> partitionParams = new HashMap<>(params);
+                    partitionParams.put(PARTITION_LOW_PARAM, bounds[i]);
+                    partitionParams.put(PARTITION_HIGH_PARAM, bounds[i + 1]);
+                    partitions.add(new Partition(base + "(" + predicate + ")", partitionParams));
+                }
+            }
+        } else {
+            partitions.add(new Partition(sql, params));
+        }
+        return partitions;
+    }
+
+    static Object[] createRangeBounds(Object min, Object max, int count) {
+        Object[] bounds = new Object[count + 1];
+        if (min instanceof Number && max instanceof Number) {
+            BigDecimal low = new BigDecimal(min.toString());
+            BigDecimal high = new BigDecimal(max.toString());
+            BigDecimal step = high.subtract(low).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+            for (int i = 0; i < count; i++) {
+                bounds[i] = low.add(step.multiply(BigDecimal.valueOf(i)));
+            }
+            bounds[count] = high;
+        } else if (min instanceof Date && max instanceof Date) {
+            long low = ((Date) min).getTime();
+            long high = ((Date) max).getTime();
+            long step = (high - low) / count;
+            for (int i = 0; i < count; i++) {
+                bounds[i] = new Timestamp(low + step * i);
+            }
+            bounds[count] = new Timestamp(high);
+        } else {
+            throw new MisconfiguredException("A key range partition requires a numeric or date key.  The key returned a %s",
+                    min.getClass().getSimpleName());
+        }
+        return bounds;
+    }
+
+    protected static String stripDelimiter(String sql) {
+        sql = sql.trim();
+        while (sql.endsWith(";")) {
+            sql = sql.substring(0, sql.length() - 1).trim();
+        }
+        return sql;
+    }
+
     private void sendLeftOverRows(final ISendMessageCallback callback, ArrayList<EntityData> outboundPayload) {
         if (outboundPayload != null && outboundPayload.size() > 0) {
             callback.sendEntityDataMessage(null, outboundPayload);
@@ -499,16 +1239,22 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
             ResultSetMetaData meta = rs.getMetaData();
             Map<Integer, String> columnHints = getSqlColumnEntityHints(sqlToExecute);
             ArrayList<String> attributeIds = getAttributeIds(sqlToExecute, meta, columnHints);
+            int[] ordinals = null;
+            if (outputLayout != null) {
+                ordinals = new int[attributeIds.size()];
+                for (int i = 0; i < ordinals.length; i++) {
+                    ordinals[i] = outputLayout.getOrdinal(attributeIds.get(i));
+                }
+            }
             long ts = System.currentTimeMillis();
             while (rs.next()) {
                 if (outputRecCount++ % rowsPerMessage == 0 && payload != null && !payload.isEmpty()) {
-                    callback.sendEntityDataMessage(null, payload);
-                    payload.clear();
+                    send(payload);
                 }
 
                 getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
 
-                EntityData rowData = new EntityData();
+                EntityData rowData = outputLayout != null ? outputLayout.newEntityData() : new EntityData();
                 rowData.setChangeType(entityChangeType);
                 for (int i = 1; i <= meta.getColumnCount(); i++) {
                     String attributeId = attributeIds.get(i - 1);
@@ -517,29 +1263,275 @@ public class RdbmsReader extends AbstractRdbmsComponentRuntime {
                         if (trimColumns && value instanceof String) {
                             value = value.toString().trim();
                         }
-                        rowData.put(attributeId, value);
+                        if (ordinals != null && ordinals[i - 1] >= 0) {
+                            ((CompactEntityData) rowData).put(ordinals[i - 1], value);
+                        } else {
+                            rowData.put(attributeId, value);
+                        }
                     }
                 }
-                rowReadDuringHandle++;
-                payload.add(rowData);
+                rowRead();
+                add(rowData, rs);
                 if (context.getDeployment() != null && context.getDeployment().asLogLevel() == LogLevel.DEBUG) {
                     logEntityAttributes(rowData);
                 }
 
                 long newTs = System.currentTimeMillis();
                 if (newTs - ts > 10000) {
-                    getExecutionTracker().updateStatistics(threadNumber, context);
+                    updateStatistics();
                     ts = newTs;
                 }
             }
             return payload;
         }
 
+        protected void add(EntityData rowData, ResultSet rs) throws SQLException {
+            payload.add(rowData);
+        }
+
+        protected void send(ArrayList<EntityData> payload) {
+            callback.sendEntityDataMessage(null, payload);
+            payload.clear();
+        }
+
+        protected void rowRead() {
+            rowReadDuringHandle++;
+        }
+
+        protected void updateStatistics() {
+            getExecutionTracker().updateStatistics(threadNumber, context);
+        }
+
         public void setSqlToExecute(String sqlToExecute) {
             this.sqlToExecute = sqlToExecute;
         }
     }
 
+    /**
+     * Reads one partition on a partition thread and hands full messages to
+     * the step thread instead of sending them
+     */
+    class PartitionResultSetConverter extends ResultSetToEntityDataConverter {
+
+        PartitionedQuery query;
+
+        BlockingQueue<Object> queue;
+
+        int rowsRead;
+
+        PartitionResultSetConverter(Message inputMessage, PartitionedQuery query, BlockingQueue<Object> queue) {
+            super(inputMessage, null, false, new ArrayList<EntityData>());
+            this.query = query;
+            this.queue = queue;
+        }
+
+        @Override
+        protected void send(ArrayList<EntityData> payload) {
+            query.put(queue, new ArrayList<>(payload));
+            payload.clear();
+        }
+
+        @Override
+        protected void rowRead() {
+            rowsRead++;
+        }
+
+        @Override
+        protected void updateStatistics() {
+        }
+
+        void flush() {
+            if (!payload.isEmpty()) {
+                send(payload);
+            }
+        }
+    }
+
+    /**
+     * Collects the rows of an entity batch by the values of the columns the
+     * entity parameters were compared to
+     */
+    class EntityBatchResultSetConverter extends ResultSetToEntityDataConverter {
+
+        List<String> params;
+
+        List<String> columns;
+
+        List<String> expressions;
+
+        int[] columnIndexes;
+
+        int[] columnTypes;
+
+        boolean ambiguous;
+
+        Map<List<String>, List<EntityData>> rowsByKey = new HashMap<>();
+
+        EntityBatchResultSetConverter(Message inputMessage, Map<String, String> batchParams, Map<String, String> batchExpressions) {
+            super(inputMessage, null, false, new ArrayList<EntityData>());
+            this.params = new ArrayList<>(batchParams.keySet());
+            this.columns = new ArrayList<>(batchParams.values());
+            this.expressions = new ArrayList<>(params.size());
+            for (String param : params) {
+                this.expressions.add(batchExpressions.get(param));
+            }
+        }
+
+        /*
+         * The compared column is found by the position of the compared
+         * expression in the select list. Only when the select list does not
+         * name it is the column found by its label, which has to be unique.
+         */
+        @Override
+        protected void add(EntityData rowData, ResultSet rs) throws SQLException {
+            if (columnIndexes == null) {
+                ResultSetMetaData meta = rs.getMetaData();
+                columnIndexes = new int[columns.size()];
+                columnTypes = new int[columns.size()];
+                for (int i = 0; i < columnIndexes.length; i++) {
+                    int position = expressions.get(i) != null ? findSelectPosition(sqlToExecute, expressions.get(i)) : 0;
+                    if (position > 0 && position <= meta.getColumnCount()) {
+                        columnIndexes[i] = position;
+                    } else {
+                        for (int j = 1; j <= meta.getColumnCount(); j++) {
+                            if (columns.get(i).equalsIgnoreCase(meta.getColumnLabel(j))
+                                    || columns.get(i).equalsIgnoreCase(meta.getColumnName(j))) {
+                                ambiguous |= columnIndexes[i] != 0;
+                                columnIndexes[i] = j;
+                            }
+                        }
+                    }
+                    if (columnIndexes[i] == 0) {
+                        throw new MisconfiguredException(
+                                "The column %s must be selected to match rows to entities when %s is greater than one", columns.get(i),
+                                ENTITY_BATCH_SIZE);
+                    }
+                    columnTypes[i] = meta.getColumnType(columnIndexes[i]);
+                }
+            }
+            List<String> key = new ArrayList<>(columnIndexes.length);
+            for (int i = 0; i < columnIndexes.length; i++) {
+                key.add(toEntityBatchKey(JdbcUtils.getResultSetValue(rs, columnIndexes[i]), columnTypes[i]));
+            }
+            List<EntityData> rows = rowsByKey.get(key);
+            if (rows == null) {
+                rows = new ArrayList<>();
+                rowsByKey.put(key, rows);
+            }
+            rows.add(rowData);
+        }
+
+        List<EntityData> find(Row inputRow) {
+            if (columnTypes == null) {
+                return Collections.<EntityData> emptyList();
+            }
+            List<EntityData> rows = rowsByKey.get(toKey(inputRow));
+            return rows != null ? rows : Collections.<EntityData> emptyList();
+        }
+
+        /**
+         * Rows missing from a batch can not be noticed here, which is why
+         * only statements that pass {@link #findEntityBatchConflict} are
+         * batched.
+         * 
+         * @return false if the compared column could not be told apart from
+         *         another one or if a row matches none of the input rows
+         */
+        boolean isMatched(List<Row> inputRows) {
+            if (ambiguous) {
+                return false;
+            } else if (columnTypes == null) {
+                return true;
+            }
+            Set<List<String>> keys = new HashSet<>();
+            for (Row inputRow : inputRows) {
+                keys.add(toKey(inputRow));
+            }
+            return keys.containsAll(rowsByKey.keySet());
+        }
+
+        protected List<String> toKey(Row inputRow) {
+            List<String> key = new ArrayList<>(params.size());
+            for (int i = 0; i < params.size(); i++) {
+                key.add(toEntityBatchKey(inputRow.get(params.get(i)), columnTypes[i]));
+            }
+            return key;
+        }
+    }
+
+    class PartitionedQuery {
+
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        volatile boolean aborted;
+
+        PartitionedQuery(int partitionCount) {
+            if (partitionOrdered) {
+                for (int i = 0; i < partitionCount; i++) {
+                    queues.add(new LinkedBlockingQueue<>(PARTITION_QUEUE_CAPACITY));
+                }
+            } else {
+                queues.add(new LinkedBlockingQueue<>(PARTITION_QUEUE_CAPACITY * partitionCount));
+            }
+        }
+
+        BlockingQueue<Object> getQueue(int partition) {
+            return queues.size() > 1 ? queues.get(partition) : queues.get(0);
+        }
+
+        void put(BlockingQueue<Object> queue, Object item) {
+            try {
+                while (!aborted && !queue.offer(item, 1, TimeUnit.SECONDS)) {
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+            if (aborted) {
+                throw new CancellationException();
+            }
+        }
+
+        void finish(BlockingQueue<Object> queue, PartitionDone done) {
+            try {
+                while (!aborted && !queue.offer(done, 1, TimeUnit.SECONDS)) {
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void abort() {
+            aborted = true;
+            for (Future<Integer> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    static class Partition {
+
+        String sql;
+
+        Map<String, Object> params;
+
+        Partition(String sql, Map<String, Object> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    static class PartitionDone {
+
+        Throwable error;
+
+        PartitionDone(Throwable error) {
+            this.error = error;
+        }
+    }
+
     public void setRunWhen(String runWhen) {
         this.runWhen = runWhen;
     }
@@ -21,8 +21,19 @@
 package org.jumpmind.metl.core.runtime.component;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
 import org.junit.Test;
@@ -80,6 +91,134 @@ public class RdbmsReaderTest {
         }
         assertEquals(errorFound,false);
     }
-    
+
+    @Test
+    public void testCreateHashPartitions() {
+        List<RdbmsReader.Partition> partitions = RdbmsReader.createPartitions("select id from test;", RdbmsReader.PARTITION_KEY_HASH,
+                "id", 3, null, null, null, Collections.<String, Object> emptyMap());
+        assertEquals(3, partitions.size());
+        assertEquals("select * from (select id from test) metl_partition where (id is null or abs(mod(id, 3)) = 0)",
+                partitions.get(0).sql);
+        assertEquals("select * from (select id from test) metl_partition where (abs(mod(id, 3)) = 2)", partitions.get(2).sql);
+    }
+
+    @Test
+    public void testHashPartitionKeyType() {
+        RdbmsReader.checkHashPartitionKeyType("id", Types.BIGINT, 0, "BIGINT");
+        RdbmsReader.checkHashPartitionKeyType("id", Types.NUMERIC, 0, "NUMBER");
+        for (Object[] type : new Object[][] { { Types.VARCHAR, 0, "VARCHAR" }, { Types.OTHER, 0, "uuid" }, { Types.DECIMAL, 2, "DECIMAL" } }) {
+            boolean errorFound = false;
+            try {
+                RdbmsReader.checkHashPartitionKeyType("id", (Integer) type[0], (Integer) type[1], (String) type[2]);
+            } catch (MisconfiguredException e) {
+                errorFound = true;
+            }
+            assertEquals(true, errorFound);
+        }
+    }
+
+    @Test
+    public void testCreatePredicatePartitions() {
+        List<RdbmsReader.Partition> partitions = RdbmsReader.createPartitions("select id from test", RdbmsReader.PARTITION_PREDICATE,
+                null, 0, Arrays.asList("id < 10", "id >= 10"), null, null, Collections.<String, Object> emptyMap());
+        assertEquals(2, partitions.size());
+        assertEquals("select * from (select id from test) metl_partition where (id >= 10)", partitions.get(1).sql);
+    }
+
+    @Test
+    public void testCreateRangePartitions() {
+        List<RdbmsReader.Partition> partitions = RdbmsReader.createPartitions("select id from test", RdbmsReader.PARTITION_KEY_RANGE,
+                "id", 4, null, 0, 100, Collections.<String, Object> emptyMap());
+        assertEquals(4, partitions.size());
+        assertEquals("select * from (select id from test) metl_partition where (id is null or (id >= :metl_partition_lo and id < :metl_partition_hi))",
+                partitions.get(0).sql);
+        assertEquals("select * from (select id from test) metl_partition where (id >= :metl_partition_lo and id <= :metl_partition_hi)",
+                partitions.get(3).sql);
+        assertEquals(0, new BigDecimal(25).compareTo((BigDecimal) partitions.get(1).params.get(RdbmsReader.PARTITION_LOW_PARAM)));
+        assertEquals(0, new BigDecimal(100).compareTo((BigDecimal) partitions.get(3).params.get(RdbmsReader.PARTITION_HIGH_PARAM)));
+
+        Object[] bounds = RdbmsReader.createRangeBounds(new Timestamp(0), new Timestamp(1000), 2);
+        assertEquals(new Timestamp(500), bounds[1]);
+
+        partitions = RdbmsReader.createPartitions("select id from test", RdbmsReader.PARTITION_KEY_RANGE, "id", 4, null, null, null,
+                Collections.<String, Object> emptyMap());
+        assertEquals(1, partitions.size());
+        assertEquals("select id from test", partitions.get(0).sql);
+    }
+
+    @Test
+    public void testFindDuplicateLabel() {
+        assertNull(RdbmsReader.findDuplicateLabel(Arrays.asList("ID", "NAME")));
+        assertNull(RdbmsReader.findDuplicateLabel(null));
+        assertEquals("id", RdbmsReader.findDuplicateLabel(Arrays.asList("ID", "NAME", "id")));
+    }
+
+    @Test
+    public void testEntityBatchSql() {
+        String sql = "select c.id, c.name from customer c where c.id = :ORDERS.CUSTOMER_ID and c.region in (:ORDERS.REGION) and c.active=:ACTIVE";
+        Map<String, String> params = RdbmsReader.findEntityBatchParams(sql);
+        assertEquals(3, params.size());
+        assertEquals("id", params.get("ORDERS.CUSTOMER_ID"));
+        assertEquals("region", params.get("ORDERS.REGION"));
+        assertEquals("active", params.get("ACTIVE"));
+
+        String batchSql = RdbmsReader.toEntityBatchSql(sql, new HashSet<>(Arrays.asList("ORDERS.CUSTOMER_ID", "ORDERS.REGION")));
+        assertEquals("select c.id, c.name from customer c where c.id in (:ORDERS.CUSTOMER_ID) and c.region in (:ORDERS.REGION) and c.active=:ACTIVE",
+                batchSql);
+
+        assertEquals("c.id", RdbmsReader.findEntityBatchExpressions(sql).get("ORDERS.CUSTOMER_ID"));
+
+        assertEquals(RdbmsReader.toEntityBatchKey(new BigDecimal("10.0"), Types.NUMERIC), RdbmsReader.toEntityBatchKey(10, Types.INTEGER));
+        assertEquals(RdbmsReader.toEntityBatchKey("10 ", Types.INTEGER), RdbmsReader.toEntityBatchKey(10L, Types.INTEGER));
+        assertEquals(RdbmsReader.toEntityBatchKey("007", Types.INTEGER), RdbmsReader.toEntityBatchKey(7, Types.INTEGER));
+        assertNotEquals(RdbmsReader.toEntityBatchKey("007", Types.VARCHAR), RdbmsReader.toEntityBatchKey("7", Types.VARCHAR));
+        assertEquals(RdbmsReader.toEntityBatchKey("AB  ", Types.CHAR), RdbmsReader.toEntityBatchKey("AB", Types.CHAR));
+        assertNotEquals(RdbmsReader.toEntityBatchKey("AB  ", Types.VARCHAR), RdbmsReader.toEntityBatchKey("AB", Types.VARCHAR));
+    }
+
+    @Test
+    public void testEntityBatchConflict() {
+        Set<String> params = new HashSet<>(Arrays.asList("ORDERS.CUSTOMER_ID", "ORDERS.REGION"));
+        assertNull(RdbmsReader.findEntityBatchConflict(
+                "select c.id, c.name from customer c where c.id = :ORDERS.CUSTOMER_ID and c.region in (:ORDERS.REGION) and c.active=:ACTIVE order by c.id",
+                params));
+        assertNull(RdbmsReader.findEntityBatchConflict(
+                "select c.id from customer c where c.id = :ORDERS.CUSTOMER_ID and c.created between :FROM and :TO and c.note <> 'a or b';",
+                params));
+
+        /* an OR would return the rows it matches once for the whole batch */
+        assertNotNull(RdbmsReader.findEntityBatchConflict("select c.id from customer c where c.id = :ORDERS.CUSTOMER_ID or c.vip = 1",
+                params));
+
+        /* a row limit would apply to the whole batch instead of each entity */
+        assertNotNull(RdbmsReader.findEntityBatchConflict("select c.id from customer c where c.id = :ORDERS.CUSTOMER_ID limit 1", params));
+        assertNotNull(RdbmsReader.findEntityBatchConflict("select top 1 c.id from customer c where c.id = :ORDERS.CUSTOMER_ID", params));
+        assertNotNull(RdbmsReader.findEntityBatchConflict(
+                "select c.id from customer c where c.id = :ORDERS.CUSTOMER_ID fetch first 1 rows only", params));
+        assertNotNull(RdbmsReader.findEntityBatchConflict("select c.id from customer c where c.id = :ORDERS.CUSTOMER_ID and rownum = 1",
+                params));
+
+        /* an aggregate would be computed over the whole batch */
+        assertNotNull(RdbmsReader.findEntityBatchConflict("select count(*) from customer c where c.id = :ORDERS.CUSTOMER_ID", params));
+        assertNotNull(RdbmsReader.findEntityBatchConflict(
+                "select c.id, sum(c.balance) from customer c where c.id = :ORDERS.CUSTOMER_ID group by c.id", params));
+
+        /* entity parameters may only be compared with = or IN */
+        assertNotNull(RdbmsReader.findEntityBatchConflict(
+                "select c.id from customer c where c.id = :ORDERS.CUSTOMER_ID and c.limit_id > :ORDERS.CUSTOMER_ID", params));
+        assertNotNull(RdbmsReader.findEntityBatchConflict(
+                "select c.id, :ORDERS.REGION region from customer c where c.id = :ORDERS.CUSTOMER_ID", params));
+    }
+
+    @Test
+    public void testFindSelectPosition() {
+        String sql = "select o.id, c.id as customer, /* ORDERS.NAME */ c.name cname, count(x.a, x.b) from orders o join customer c on c.id=o.cid where c.id = :ORDERS.CUSTOMER_ID";
+        assertEquals(1, RdbmsReader.findSelectPosition(sql, "o.id"));
+        assertEquals(2, RdbmsReader.findSelectPosition(sql, "c.id"));
+        assertEquals(3, RdbmsReader.findSelectPosition(sql, "C.NAME"));
+        assertEquals(0, RdbmsReader.findSelectPosition(sql, "x.a"));
+        assertEquals(0, RdbmsReader.findSelectPosition("select * from customer c", "c.id"));
+        assertEquals(1, RdbmsReader.findSelectPosition("select distinct \"c\".\"id\" from customer c", "c.id"));
+    }
 
 }
@@ -0,0 +1,196 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.jumpmind.db.sql.DmlStatement;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Inserts many rows at a time using the fastest path the database offers.
+ * PostgreSQL uses COPY FROM STDIN, databases without multi-row VALUES use
+ * JDBC batches (which the Oracle driver sends as array binds) and everything
+ * else uses multi-row INSERT ... VALUES statements.
+ */
+class RdbmsBulkLoader {
+
+    enum LoadMethod {
+        COPY, BATCH, MULTI_ROW_INSERT
+    }
+
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    static final int MAX_PARAMETERS_PER_STATEMENT = 2000;
+
+    LoadMethod loadMethod;
+
+    RdbmsBulkLoader(String platformName) {
+        this.loadMethod = getLoadMethod(platformName);
+    }
+
+    static LoadMethod getLoadMethod(String platformName) {
+        String name = platformName == null ? "" : platformName.toLowerCase();
+        if (name.contains("postgres") || name.contains("greenplum")) {
+            return LoadMethod.COPY;
+        } else if (name.contains("oracle") || name.contains("firebird") || name.contains("interbase") || name.contains("informix")
+                || name.equals("ase")) {
+            return LoadMethod.BATCH;
+        } else {
+            return LoadMethod.MULTI_ROW_INSERT;
+        }
+    }
+
+    LoadMethod getLoadMethod() {
+        return loadMethod;
+    }
+
+    /**
+     * @return the number of rows inserted
+     */
+    int load(Connection connection, DmlStatement statement, List<Object[]> rows) throws SQLException, IOException {
+        if (loadMethod == LoadMethod.COPY) {
+            PGConnection pgConnection = connection.isWrapperFor(PGConnection.class) ? connection.unwrap(PGConnection.class) : null;
+            if (pgConnection != null) {
+                return (int) pgConnection.getCopyAPI().copyIn(getCopySql(statement.getSql()),
+                        new StringReader(toCsv(rows)));
+            }
+        } else if (loadMethod == LoadMethod.BATCH) {
+            return loadBatches(connection, statement, rows);
+        }
+        return loadMultiRowInserts(connection, statement, rows);
+    }
+
+    protected int loadBatches(Connection connection, DmlStatement statement, List<Object[]> rows) throws SQLException {
+        int count = 0;
+        PreparedStatement ps = connection.prepareStatement(statement.getSql());
+        try {
+            int[] types = statement.getTypes();
+            for (int i = 0; i < rows.size(); i++) {
+                setValues(ps, 0, rows.get(i), types);
+                ps.addBatch();
+                if ((i + 1) % MAX_ROWS_PER_STATEMENT == 0 || i == rows.size() - 1) {
+                    for (int result : ps.executeBatch()) {
+                        count += result == Statement.SUCCESS_NO_INFO ? 1 : result;
+                    }
+                }
+            }
+        } finally {
+            JdbcUtils.closeStatement(ps);
+        }
+        return count;
+    }
+
+    protected int loadMultiRowInserts(Connection connection, DmlStatement statement, List<Object[]> rows) throws SQLException {
+        int[] types = statement.getTypes();
+        int rowsPerStatement = Math.max(1, Math.min(MAX_ROWS_PER_STATEMENT, MAX_PARAMETERS_PER_STATEMENT / Math.max(1, types.length)));
+        int count = 0;
+        PreparedStatement ps = null;
+        int preparedRows = 0;
+        try {
+            for (int start = 0; start < rows.size(); start += rowsPerStatement) {
+                int chunkRows = Math.min(rowsPerStatement, rows.size() - start);
+                if (chunkRows != preparedRows) {
+                    JdbcUtils.closeStatement(ps);
+                    ps = connection.prepareStatement(getMultiRowInsertSql(statement.getSql(), chunkRows));
+                    preparedRows = chunkRows;
+                }
+                for (int i = 0; i < chunkRows; i++) {
+                    setValues(ps, i * types.length, rows.get(start + i), types);
+                }
+                count += ps.executeUpdate();
+            }
+        } finally {
+            JdbcUtils.closeStatement(ps);
+        }
+        return count;
+    }
+
+    protected void setValues(PreparedStatement ps, int offset, Object[] values, int[] types) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            StatementCreatorUtils.setParameterValue(ps, offset + i + 1, types[i], values[i]);
+        }
+    }
+
+    static String getMultiRowInsertSql(String insertSql, int rowCount) {
+        int valuesIndex = insertSql.toLowerCase().lastIndexOf(" values");
+        String values = insertSql.substring(valuesIndex + " values".length()).trim();
+        StringBuilder sql = new StringBuilder(insertSql.substring(0, valuesIndex + " values".length())).append(" ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(",");
+            }
+            sql.append(values);
+        }
+        return sql.toString();
+    }
+
+    static String getCopySql(String insertSql) {
+        String lowerCaseSql = insertSql.toLowerCase();
+        int intoIndex = lowerCaseSql.indexOf("into ") + "into ".length();
+        int valuesIndex = lowerCaseSql.lastIndexOf(" values");
+        return "copy " + insertSql.substring(intoIndex, valuesIndex).trim() + " from stdin with csv";
+    }
+
+    /*
+     * Nulls are written as unquoted empty fields and every other value is
+     * quoted, which is how COPY tells an empty string apart from null.
+     */
+    static String toCsv(List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder();
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(",");
+                }
+                Object value = row[i];
+                if (value != null) {
+                    String text;
+                    if (value instanceof byte[]) {
+                        StringBuilder hex = new StringBuilder("\\x");
+                        for (byte b : (byte[]) value) {
+                            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                        }
+                        text = hex.toString();
+                    } else if (value instanceof Date && !(value instanceof Timestamp)) {
+                        text = new Timestamp(((Date) value).getTime()).toString();
+                    } else {
+                        text = value.toString();
+                    }
+                    csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append("\n");
+        }
+        return csv.toString();
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Builds a single statement that inserts a row or updates it when a row with
+ * the same key exists. The statement takes the insert columns as parameters
+ * in order, so it can be bound and batched like the insert statement.
+ */
+class RdbmsUpsertBuilder {
+
+    /**
+     * @return the upsert statement or null if the platform is not supported
+     */
+    static String build(String platformName, String tableName, List<String> columns, List<String> keyColumns,
+            List<String> updateColumns) {
+        String name = platformName == null ? "" : platformName.toLowerCase();
+        String columnList = StringUtils.join(columns, ", ");
+        String parameterList = StringUtils.repeat("?", ", ", columns.size());
+        if (name.contains("postgres")) {
+            StringBuilder sql = new StringBuilder();
+            sql.append("insert into ").append(tableName).append(" (").append(columnList).append(") values (").append(parameterList)
+                    .append(") on conflict (").append(StringUtils.join(keyColumns, ", ")).append(")");
+            if (updateColumns.isEmpty()) {
+                sql.append(" do nothing");
+            } else {
+                sql.append(" do update set ").append(join(updateColumns, "%1$s = excluded.%1$s"));
+            }
+            return sql.toString();
+        } else if (name.contains("mysql") || name.contains("mariadb")) {
+            StringBuilder sql = new StringBuilder();
+            sql.append("insert into ").append(tableName).append(" (").append(columnList).append(") values (").append(parameterList)
+                    .append(") on duplicate key update ");
+            sql.append(join(updateColumns.isEmpty() ? keyColumns.subList(0, 1) : updateColumns, "%1$s = values(%1$s)"));
+            return sql.toString();
+        } else if (name.contains("h2")) {
+            return "merge into " + tableName + " (" + columnList + ") key (" + StringUtils.join(keyColumns, ", ") + ") values ("
+                    + parameterList + ")";
+        } else if (name.contains("oracle") || name.contains("mssql")) {
+            boolean oracle = name.contains("oracle");
+            StringBuilder sql = new StringBuilder();
+            sql.append("merge into ").append(tableName).append(oracle ? " t" : " as t").append(" using (select ");
+            sql.append(join(columns, oracle ? "? %1$s" : "? as %1$s"));
+            sql.append(oracle ? " from dual) s" : ") as s");
+            sql.append(" on (").append(join(keyColumns, "t.%1$s = s.%1$s", " and ")).append(")");
+            if (!updateColumns.isEmpty()) {
+                sql.append(" when matched then update set ").append(join(updateColumns, "t.%1$s = s.%1$s"));
+            }
+            sql.append(" when not matched then insert (").append(columnList).append(") values (")
+                    .append(join(columns, "s.%1$s")).append(")");
+            if (!oracle) {
+                sql.append(";");
+            }
+            return sql.toString();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * MySQL reports 2 affected rows when an upsert updates a row and 0 when
+     * the row was already up to date. Each upsert writes at most one row, so
+     * the count is capped at 1.
+     */
+    static int normalizeCount(String platformName, int count) {
+        String name = platformName == null ? "" : platformName.toLowerCase();
+        if (name.contains("mysql") || name.contains("mariadb")) {
+            return Math.min(count, 1);
+        }
+        return count;
+    }
+
+    static String getTableName(String insertSql) {
+        int intoIndex = insertSql.toLowerCase().indexOf("into ") + "into ".length();
+        return insertSql.substring(intoIndex, insertSql.indexOf("(", intoIndex)).trim();
+    }
+
+    private static String join(List<String> columns, String format) {
+        return join(columns, format, ", ");
+    }
+
+    private static String join(List<String> columns, String format, String separator) {
+        List<String> parts = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            parts.add(String.format(format, column));
+        }
+        return StringUtils.join(parts, separator);
+    }
+
+}
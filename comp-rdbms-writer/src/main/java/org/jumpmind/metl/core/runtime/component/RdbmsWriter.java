@@ -23,23 +23,36 @@ package org.jumpmind.metl.core.runtime.component;
 
 import static org.apache.commons.lang.StringUtils.isBlank;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
 import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.ForeignKey;
 import org.jumpmind.db.model.Table;
 import org.jumpmind.db.platform.IDatabasePlatform;
 import org.jumpmind.db.platform.JdbcDatabasePlatformFactory;
 import org.jumpmind.db.sql.DmlStatement;
 import org.jumpmind.db.sql.DmlStatement.DmlType;
 import org.jumpmind.db.sql.ISqlTransaction;
+import org.jumpmind.db.sql.JdbcSqlTransaction;
 import org.jumpmind.db.sql.SqlException;
 import org.jumpmind.db.sql.SqlTemplateSettings;
 import org.jumpmind.db.sql.UniqueKeyException;
@@ -48,6 +61,8 @@ import org.jumpmind.metl.core.model.DataType;
 import org.jumpmind.metl.core.model.RelationalModel;
 import org.jumpmind.metl.core.model.ModelAttrib;
 import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.ModelRelation;
+import org.jumpmind.metl.core.model.ModelRelationMapping;
 import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
@@ -57,6 +72,7 @@ import org.jumpmind.metl.core.runtime.MisconfiguredException;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
 import org.jumpmind.metl.core.runtime.resource.IDatasourceRuntime;
 import org.jumpmind.metl.core.util.LogUtils;
+import org.jumpmind.metl.core.util.ThreadUtils;
 import org.jumpmind.properties.TypedProperties;
 import org.jumpmind.util.FormatUtils;
 
@@ -78,6 +94,14 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
     public final static String TABLE_PREFIX = "table.prefix";
     public final static String AUTO_CREATE_TABLE = "table.auto.create";
     public final static String USE_CACHED_METADATA = "use.cached.table.metadata";
+    public final static String BULK_LOAD = "bulk.load";
+    public final static String BULK_LOAD_TABLES = "bulk.load.tables";
+    public final static String UPSERT = "upsert";
+    public final static String COMMIT_INTERVAL_ROWS = "commit.interval.rows";
+    public final static String COMMIT_INTERVAL_BYTES = "commit.interval.bytes";
+    public final static String COMMIT_INTERVAL_MS = "commit.interval.ms";
+    public final static String PARALLEL_TABLES = "parallel.tables";
+    public final static String PARALLEL_TABLES_THREADS = "parallel.tables.threads";
 
     boolean useCachedMetadata = false;
     boolean continueOnError = false;
@@ -94,13 +118,28 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
     int inboundEntityDataCount = 0;
     int totalStatementCount = 0;
     boolean batchMode = false;
+    boolean bulkLoad = false;
+    Set<String> bulkLoadTables = new HashSet<>();
+    boolean upsert = false;
+    RdbmsBulkLoader bulkLoader;
     IDatabasePlatform databasePlatform;
     List<TargetTableDefintion> targetTables;
     Throwable error;
-    String lastPreparedDml;
-    Map<TargetTableDefintion, WriteStats> statsMap = new HashMap<>();
+    Map<TargetTableDefintion, WriteStats> statsMap = new ConcurrentHashMap<>();
     long lastStatsLogTime = System.currentTimeMillis();
     long sqlDuration = 0;
+    int commitIntervalRows = 0;
+    long commitIntervalBytes = 0;
+    long commitIntervalMs = 0;
+    boolean parallelTables = false;
+    int parallelTablesThreads = 4;
+    List<WriterLane> lanes;
+    ExecutorService laneExecutor;
+    long transactionStartTime;
+    int uncommittedRows;
+    long uncommittedBytes;
+    int commitCount;
+    long commitDuration;
 
     @Override
     public void start() {
@@ -117,6 +156,22 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
 
         TypedProperties properties = getTypedProperties();
         batchMode = properties.is(BATCH_MODE, batchMode);
+        bulkLoad = properties.is(BULK_LOAD, bulkLoad);
+        bulkLoadTables = new HashSet<>();
+        String tables = properties.get(BULK_LOAD_TABLES);
+        if (tables != null) {
+            for (String table : tables.split(",")) {
+                if (!isBlank(table)) {
+                    bulkLoadTables.add(table.trim().toLowerCase());
+                }
+            }
+        }
+        upsert = properties.is(UPSERT, upsert);
+        commitIntervalRows = properties.getInt(COMMIT_INTERVAL_ROWS, commitIntervalRows);
+        commitIntervalBytes = properties.getLong(COMMIT_INTERVAL_BYTES, commitIntervalBytes);
+        commitIntervalMs = properties.getLong(COMMIT_INTERVAL_MS, commitIntervalMs);
+        parallelTables = properties.is(PARALLEL_TABLES, parallelTables);
+        parallelTablesThreads = properties.getInt(PARALLEL_TABLES_THREADS, parallelTablesThreads);
         useCachedMetadata = properties.is(USE_CACHED_METADATA, useCachedMetadata);
         replaceRows = properties.is(REPLACE);
         continueOnError = properties.is(CONTINUE_ON_ERROR, continueOnError);
@@ -127,9 +182,17 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         tableSuffix = properties.get(TABLE_SUFFIX, "");
         autoCreateTable = properties.is(AUTO_CREATE_TABLE, false);
         
-        if (batchMode && insertFallback) {
+        if (batchMode && insertFallback && !upsert) {
             throw new MisconfiguredException("Insert fallback is not supported in batch mode");
         }
+        if (upsert && (updateFirst || insertFallback)) {
+            log(LogLevel.WARN, "Update first and insert fallback are ignored when upsert is enabled");
+            updateFirst = false;
+            insertFallback = false;
+        }
+        if (parallelTables && parallelTablesThreads < 1) {
+            throw new MisconfiguredException("The number of parallel table threads must be at least 1");
+        }
 
         if (tableSuffix == null) {
             tableSuffix = "";
@@ -147,7 +210,7 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
             schemaName = null;
         }
         
-        statsMap = new HashMap<TargetTableDefintion, WriteStats>();
+        statsMap = new ConcurrentHashMap<TargetTableDefintion, WriteStats>();
         lastStatsLogTime = System.currentTimeMillis();
     }
 
@@ -160,7 +223,6 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
     public void handle(final Message inputMessage, final ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
         if (inputMessage instanceof EntityDataMessage) {
             results.clear();
-            lastPreparedDml = null;
 
             if (error == null) {
                 if (databasePlatform == null) {
@@ -177,44 +239,67 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
                     for (ModelEntity entity : model.getModelEntities()) {
                         String tableName = tablePrefix + entity.getName() + tableSuffix;
                         IDatasourceRuntime resource = (IDatasourceRuntime)getResourceRuntime();
-                        Table table = resource != null ? resource.getTableFromCache(catalogName, schemaName, tableName) : null;
-                        if (table == null || !useCachedMetadata) {
-                            table = databasePlatform.getTableFromCache(catalogName, schemaName, tableName, true);
-                            if (resource != null) {
-                                resource.putTableInCache(catalogName, schemaName, tableName, table);
-                            }
+                        Table table = null;
+                        if (resource != null && useCachedMetadata) {
+                            table = resource.getTableFromCache(catalogName, schemaName, tableName,
+                                    () -> databasePlatform.getTableFromCache(catalogName, schemaName, tableName, false));
+                        } else if (resource != null) {
+                            table = resource.refreshTableInCache(catalogName, schemaName, tableName,
+                                    () -> databasePlatform.getTableFromCache(catalogName, schemaName, tableName, false));
+                        } else {
+                            table = databasePlatform.getTableFromCache(catalogName, schemaName, tableName, false);
                         }
                         if (table == null && autoCreateTable) {
                             table = createTableFromEntity(entity, tableName);
                             log(LogLevel.INFO, "Creating table: " + table.getName() + "  on db: " + databasePlatform.getDataSource().toString());
                             databasePlatform.createTables(false, false, table);
+                            if (resource != null) {
+                                resource.removeTableFromCache(catalogName, schemaName, tableName);
+                            }
                         }
                         if (table != null) {
-                            targetTables.add(new TargetTableDefintion(entity, new TargetTable(DmlType.UPDATE, entity, table.copy()),
-                                    new TargetTable(DmlType.INSERT, entity, table.copy()),
-                                    new TargetTable(DmlType.DELETE, entity, table.copy())));
+                            TargetTableDefintion targetTable = new TargetTableDefintion(entity,
+                                    new TargetTable(DmlType.UPDATE, entity, table.copy()), new TargetTable(DmlType.INSERT, entity, table.copy()),
+                                    new TargetTable(DmlType.DELETE, entity, table.copy()));
+                            if (upsert) {
+                                targetTable.setUpsertSql(buildUpsertSql(targetTable));
+                            }
+                            targetTables.add(targetTable);
                         }
                     }
                 }
+                if (lanes == null) {
+                    lanes = createLanes();
+                }
 
                 ArrayList<EntityData> inputRows = ((EntityDataMessage) inputMessage).getPayload();
                 if (inputRows != null && inputRows.size() > 0) {
-                    ISqlTransaction transaction = databasePlatform.getSqlTemplate().startSqlTransaction();
-                    transaction.setInBatchMode(batchMode);
+                    if (!isTransactionOpen()) {
+                        transactionStartTime = System.currentTimeMillis();
+                    }
                     try {
-                        write(transaction, (EntityDataMessage)inputMessage, callback, unitOfWorkBoundaryReached);
-                        transaction.commit();
+                        write((EntityDataMessage)inputMessage, callback, unitOfWorkBoundaryReached);
+                        uncommittedRows += inputRows.size();
+                        if (commitIntervalBytes > 0) {
+                            for (EntityData inputRow : inputRows) {
+                                uncommittedBytes += estimateSize(inputRow);
+                            }
+                        }
+                        if (unitOfWorkBoundaryReached || isCommitDue()) {
+                            commit();
+                        }
+                        writeStats(false);
                     } catch (Throwable ex) {
                         error = ex;
-                        transaction.rollback();
+                        rollback();
                         if (ex instanceof RuntimeException) {
                             throw (RuntimeException) ex;
                         } else {
                             throw new RuntimeException(ex);
                         }
-                    } finally {
-                        transaction.close();
                     }
+                } else if (unitOfWorkBoundaryReached || (isTransactionOpen() && isCommitDue())) {
+                    commit();
                 }
                 if (callback != null && results.size() > 0) {
                     callback.sendTextMessage(null, convertResultsToTextPayload(results));
@@ -228,18 +313,128 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
                     targetTable.getUpdateTable().getRowValues().clear();
                 }
             }
-        } 
+        } else if ((unitOfWorkBoundaryReached || (isTransactionOpen() && isCommitDue())) && error == null) {
+            commit();
+        }
     }
     
     @Override
     public void flowCompleted(boolean cancelled) {
+        if (cancelled || error != null) {
+            rollback();
+        } else {
+            commit();
+        }
         writeStats(true);
     }
     
     @Override
     public void flowCompletedWithErrors(Throwable myError) {
+        rollback();
         writeStats(true);
     }
+
+    @Override
+    public void stop() {
+        rollback();
+        if (laneExecutor != null) {
+            laneExecutor.shutdownNow();
+            laneExecutor = null;
+        }
+        super.stop();
+    }
+
+    /**
+     * Without a commit interval each message is committed on its own. With
+     * one, the transaction and its prepared statement stay open across
+     * messages until an interval is reached or the unit of work ends. The
+     * intervals are only checked when a message arrives, so when no more
+     * messages come the time interval can be exceeded and the rows stay
+     * uncommitted until the unit of work or the flow ends.
+     */
+    protected boolean isCommitDue() {
+        if (commitIntervalRows <= 0 && commitIntervalBytes <= 0 && commitIntervalMs <= 0) {
+            return true;
+        } else {
+            return (commitIntervalRows > 0 && uncommittedRows >= commitIntervalRows)
+                    || (commitIntervalBytes > 0 && uncommittedBytes >= commitIntervalBytes)
+                    || (commitIntervalMs > 0 && System.currentTimeMillis() - transactionStartTime >= commitIntervalMs);
+        }
+    }
+
+    protected boolean isTransactionOpen() {
+        if (lanes != null) {
+            for (WriterLane lane : lanes) {
+                if (lane.transaction != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Commits every lane that has an open transaction. When there is more
+     * than one lane the commits are not atomic across lanes. If a commit
+     * fails, the lanes that were not committed yet are rolled back.
+     */
+    protected void commit() {
+        if (isTransactionOpen()) {
+            long ts = System.currentTimeMillis();
+            try {
+                for (WriterLane lane : lanes) {
+                    if (lane.transaction != null) {
+                        lane.transaction.commit();
+                        lane.close();
+                    }
+                }
+                long duration = System.currentTimeMillis() - ts;
+                commitCount++;
+                commitDuration += duration;
+                for (WriteStats stats : statsMap.values()) {
+                    if (stats.uncommitted) {
+                        stats.uncommitted = false;
+                        stats.commitCount++;
+                        stats.commitDuration += duration;
+                        stats.maxCommitDuration = Math.max(stats.maxCommitDuration, duration);
+                    }
+                }
+            } finally {
+                rollback();
+            }
+        }
+    }
+
+    protected void rollback() {
+        if (lanes != null) {
+            for (WriterLane lane : lanes) {
+                if (lane.transaction != null) {
+                    try {
+                        lane.transaction.rollback();
+                    } finally {
+                        lane.close();
+                    }
+                }
+            }
+        }
+        uncommittedRows = 0;
+        uncommittedBytes = 0;
+        for (WriteStats stats : statsMap.values()) {
+            stats.uncommitted = false;
+        }
+    }
+
+    private long estimateSize(EntityData inputRow) {
+        long size = 0;
+        for (Object value : inputRow.values()) {
+            if (value instanceof byte[]) {
+                size += ((byte[]) value).length;
+            } else if (value != null) {
+                size += value.toString().length();
+            }
+        }
+        return size;
+    }
     
     protected Table createTableFromEntity(ModelEntity entity, String tableName) {
         Table table = new Table();
@@ -297,6 +492,8 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
             for (TargetTableDefintion targetTableDefinition : targetTables) {
                 if (inputRow.getChangeType() == ChangeType.DEL) {
                     modelTable = targetTableDefinition.getDeleteTable();
+                } else if (upsert) {
+                    modelTable = targetTableDefinition.getInsertTable();
                 } else if (updateFirst || inputRow.getChangeType() == ChangeType.CHG) {
                     modelTable = targetTableDefinition.getUpdateTable();
                 } else if (inputRow.getChangeType() == ChangeType.ADD) {
@@ -330,46 +527,251 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         Collections.sort(targetTables);
     }
 
-    private void executeSqlByTableAndOperation(ISqlTransaction transaction) {
-        for (TargetTableDefintion targetTableDefinition : targetTables) {
+    /**
+     * Without parallel tables there is one lane that writes all of the
+     * tables on one transaction. With parallel tables, tables that are tied
+     * together by model relations or foreign keys share a lane and are
+     * written parents first. Every other table gets its own lane with its
+     * own connection so that independent tables can be written concurrently.
+     */
+    protected List<WriterLane> createLanes() {
+        List<WriterLane> lanes = new ArrayList<>();
+        if (!parallelTables || targetTables.size() < 2) {
+            lanes.add(new WriterLane(targetTables));
+            return lanes;
+        }
+
+        Map<TargetTableDefintion, Set<TargetTableDefintion>> parents = new LinkedHashMap<>();
+        Map<String, TargetTableDefintion> byEntityId = new HashMap<>();
+        Map<String, TargetTableDefintion> byTableName = new HashMap<>();
+        for (TargetTableDefintion targetTable : targetTables) {
+            parents.put(targetTable, new LinkedHashSet<>());
+            byEntityId.put(targetTable.getModelEntity().getId(), targetTable);
+            byTableName.put(targetTable.getInsertTable().getTable().getName().toLowerCase(), targetTable);
+        }
+
+        RelationalModel model = (RelationalModel) getInputModel();
+        if (model.getModelRelations() != null) {
+            for (ModelRelation relation : model.getModelRelations()) {
+                for (ModelRelationMapping mapping : relation.getModelRelationMappings()) {
+                    ModelAttrib source = model.getAttributeById(mapping.getSourceAttribId());
+                    ModelAttrib target = model.getAttributeById(mapping.getTargetAttribId());
+                    if (source != null && target != null) {
+                        TargetTableDefintion child = byEntityId.get(source.getEntityId());
+                        TargetTableDefintion parent = byEntityId.get(target.getEntityId());
+                        if (source.isPk() && !target.isPk()) {
+                            TargetTableDefintion swap = child;
+                            child = parent;
+                            parent = swap;
+                        }
+                        if (child != null && parent != null && child != parent) {
+                            parents.get(child).add(parent);
+                        }
+                    }
+                }
+            }
+        }
+        for (TargetTableDefintion targetTable : targetTables) {
+            for (ForeignKey foreignKey : targetTable.getInsertTable().getTable().getForeignKeys()) {
+                String foreignTableName = foreignKey.getForeignTableName();
+                TargetTableDefintion parent = foreignTableName != null ? byTableName.get(foreignTableName.toLowerCase()) : null;
+                if (parent != null && parent != targetTable) {
+                    parents.get(targetTable).add(parent);
+                }
+            }
+        }
+
+        Map<TargetTableDefintion, WriterLane> laneByTable = new HashMap<>();
+        for (TargetTableDefintion targetTable : orderParentsFirst(parents)) {
+            WriterLane lane = null;
+            for (TargetTableDefintion parent : parents.get(targetTable)) {
+                WriterLane parentLane = laneByTable.get(parent);
+                if (lane == null) {
+                    lane = parentLane;
+                } else if (parentLane != lane) {
+                    lane.merge(parentLane);
+                    lanes.remove(parentLane);
+                    for (TargetTableDefintion moved : parentLane.targetTables) {
+                        laneByTable.put(moved, lane);
+                    }
+                }
+            }
+            if (lane == null) {
+                lane = new WriterLane(new ArrayList<>());
+                lanes.add(lane);
+            }
+            lane.targetTables.add(targetTable);
+            laneByTable.put(targetTable, lane);
+        }
+
+        if (lanes.size() > parallelTablesThreads) {
+            lanes.sort((a, b) -> Integer.compare(b.targetTables.size(), a.targetTables.size()));
+            List<WriterLane> capped = new ArrayList<>(lanes.subList(0, parallelTablesThreads));
+            for (WriterLane extra : lanes.subList(parallelTablesThreads, lanes.size())) {
+                WriterLane smallest = capped.get(0);
+                for (WriterLane lane : capped) {
+                    if (lane.targetTables.size() < smallest.targetTables.size()) {
+                        smallest = lane;
+                    }
+                }
+                smallest.merge(extra);
+            }
+            lanes = capped;
+        }
+
+        if (lanes.size() > 1) {
+            String prefix = String.format("%s-lane", LogUtils.normalizeName(getFlowStep().getName()));
+            laneExecutor = ThreadUtils.createFixedThreadPool(prefix, Integer.MAX_VALUE, lanes.size());
+        }
+        log(LogLevel.INFO, "Writing %d tables using %d lanes", targetTables.size(), lanes.size());
+        return lanes;
+    }
+
+    /**
+     * Orders the tables so that each one comes after the tables it depends
+     * on. A table that depends on itself is not held back by it. When only
+     * tables that wait on a cycle are left, the cycle is broken at the first
+     * table of it that is reached by following the parents of the first
+     * remaining table.
+     */
+    protected static <T> List<T> orderParentsFirst(Map<T, Set<T>> parents) {
+        List<T> ordered = new ArrayList<>(parents.size());
+        Set<T> remaining = new LinkedHashSet<>(parents.keySet());
+        while (!remaining.isEmpty()) {
+            T next = null;
+            for (T candidate : remaining) {
+                boolean ready = true;
+                for (T parent : parents.get(candidate)) {
+                    if (parent != candidate && remaining.contains(parent)) {
+                        ready = false;
+                        break;
+                    }
+                }
+                if (ready) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                Set<T> visited = new HashSet<>();
+                next = remaining.iterator().next();
+                while (visited.add(next)) {
+                    for (T parent : parents.get(next)) {
+                        if (parent != next && remaining.contains(parent)) {
+                            next = parent;
+                            break;
+                        }
+                    }
+                }
+            }
+            remaining.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    private void executeLanes() {
+        List<WriterLane> activeLanes = new ArrayList<>();
+        for (WriterLane lane : lanes) {
+            if (lane.hasRows()) {
+                activeLanes.add(lane);
+            }
+        }
+        try {
+            if (laneExecutor == null || activeLanes.size() < 2) {
+                for (WriterLane lane : activeLanes) {
+                    executeSqlByTableAndOperation(lane);
+                }
+            } else {
+                if (bulkLoad && bulkLoader == null) {
+                    bulkLoader = new RdbmsBulkLoader(databasePlatform.getName());
+                }
+                List<Future<?>> futures = new ArrayList<>(activeLanes.size());
+                for (WriterLane lane : activeLanes) {
+                    futures.add(laneExecutor.submit(() -> executeSqlByTableAndOperation(lane)));
+                }
+                /*
+                 * Wait for every lane, even after one fails, so that no lane
+                 * is still using its connection when the transactions are
+                 * rolled back
+                 */
+                Throwable laneError = null;
+                boolean interrupted = false;
+                for (Future<?> future : futures) {
+                    while (true) {
+                        try {
+                            future.get();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        } catch (ExecutionException e) {
+                            if (laneError == null) {
+                                laneError = e.getCause();
+                            }
+                            break;
+                        }
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                if (laneError instanceof RuntimeException) {
+                    throw (RuntimeException) laneError;
+                } else if (laneError instanceof Error) {
+                    throw (Error) laneError;
+                } else if (laneError != null) {
+                    throw new RuntimeException(laneError);
+                }
+            }
+        } finally {
+            for (WriterLane lane : activeLanes) {
+                results.addAll(lane.results);
+                lane.results.clear();
+                totalStatementCount += lane.statementCount;
+                lane.statementCount = 0;
+                sqlDuration += lane.sqlDuration;
+                lane.sqlDuration = 0;
+            }
+        }
+    }
+
+    private void executeSqlByTableAndOperation(WriterLane lane) {
+        lane.begin();
+        for (TargetTableDefintion targetTableDefinition : lane.targetTables) {
             WriteStats stats = getStats(targetTableDefinition);
-            executeSqlDeletes(targetTableDefinition.getDeleteTable(), transaction, stats);
-            executeSqlChanges(targetTableDefinition, transaction, stats);
-            executeSqlInserts(targetTableDefinition, transaction, stats);
+            stats.uncommitted = true;
+            executeSqlDeletes(targetTableDefinition.getDeleteTable(), lane, stats);
+            executeSqlChanges(targetTableDefinition, lane, stats);
+            executeSqlInserts(targetTableDefinition, lane, stats);
         }
     }
 
     private WriteStats getStats(TargetTableDefintion targetTableDefinition) {
-        WriteStats stats = statsMap.get(targetTableDefinition);
-        if (stats == null) {
-            stats = new WriteStats();
-            statsMap.put(targetTableDefinition, stats);
-        }
-        return stats;
+        return statsMap.computeIfAbsent(targetTableDefinition, k -> new WriteStats());
     }
 
-    private void executeSqlDeletes(TargetTable targetTable, ISqlTransaction transaction, WriteStats stats) {
+    private void executeSqlDeletes(TargetTable targetTable, WriterLane lane, WriteStats stats) {
         for (EntityData inputRow : targetTable.getRowValues()) {
             Object[] rowData = getValues(false, targetTable, inputRow);
-            int count = executeSql(targetTable, transaction, rowData);
+            int count = executeSql(targetTable, lane, rowData);
             stats.deleteCount += count;
         }
     }
 
-    private void executeSqlChanges(TargetTableDefintion targetTableDefinition, ISqlTransaction transaction, WriteStats stats) {
+    private void executeSqlChanges(TargetTableDefintion targetTableDefinition, WriterLane lane, WriteStats stats) {
 
         TargetTable targetUpdateTable = targetTableDefinition.getUpdateTable();
         TargetTable targetInsertTable = targetTableDefinition.getInsertTable();
 
         for (EntityData inputRow : targetUpdateTable.getRowValues()) {
             Object[] rowData = getValues(false, targetUpdateTable, inputRow);
-            int count = executeSql(targetUpdateTable, transaction, rowData);
+            int count = executeSql(targetUpdateTable, lane, rowData);
             stats.updateCount += count;
             if (!batchMode) {
                 if (insertFallback && count == 0) {
                     log.debug("Falling back to insert");
                     rowData = getValues(false, targetInsertTable, inputRow);
-                    count = executeSql(targetInsertTable, transaction, rowData);
+                    count = executeSql(targetInsertTable, lane, rowData);
                     stats.fallbackInsertCount += count;
                 } else if (count == 0 && !continueOnError) {
                     throw new SqlException(String.format("Failed to update row: \n%s\nWith values: \n%s\nWith types: \n%s\n",
@@ -382,20 +784,32 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         }
     }
 
-    private void executeSqlInserts(TargetTableDefintion targetTableDefinition, ISqlTransaction transaction, WriteStats stats) {
+    private void executeSqlInserts(TargetTableDefintion targetTableDefinition, WriterLane lane, WriteStats stats) {
         TargetTable targetUpdateTable = targetTableDefinition.getUpdateTable();
         TargetTable targetInsertTable = targetTableDefinition.getInsertTable();
 
-        for (EntityData inputRow : targetInsertTable.getRowValues()) {
+        List<EntityData> inputRows = targetInsertTable.getRowValues();
+        if (upsert) {
+            for (EntityData inputRow : inputRows) {
+                Object[] rowData = getValues(false, targetInsertTable, inputRow);
+                stats.upsertCount += executeUpsert(targetTableDefinition.getUpsertSql(), targetInsertTable.getStatement().getTypes(),
+                        lane, rowData);
+            }
+            return;
+        } else if (isBulkLoaded(targetInsertTable) && inputRows.size() > 1 && lane.transaction instanceof JdbcSqlTransaction) {
+            inputRows = executeBulkInserts(targetInsertTable, lane, stats);
+        }
+
+        for (EntityData inputRow : inputRows) {
             try {
                 Object[] rowData = getValues(false, targetInsertTable, inputRow);
-                int count = executeSql(targetInsertTable, transaction, rowData);
+                int count = executeSql(targetInsertTable, lane, rowData);
                 stats.insertCount += count;
             } catch (UniqueKeyException e) {
                 if (replaceRows) {
                     log.debug("Falling back to update");
                     Object[] rowData = getValues(false, targetUpdateTable, inputRow);
-                    int count = execute(transaction, targetUpdateTable.getStatement(), new Object(), rowData);
+                    int count = execute(lane, targetUpdateTable.getStatement(), new Object(), rowData);
                     stats.fallbackUpdateCount += count;
                 } else if (!continueOnError) {
                     throw e;
@@ -406,20 +820,140 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         }
     }
 
-    private int executeSql(TargetTable targetTable, ISqlTransaction transaction, Object[] rowData) {
-        int count = execute(transaction, targetTable.getStatement(), new Object(), rowData);
+    /*
+     * Bulk load applies to every table unless it was limited to a list of
+     * table names, with or without the table prefix and suffix
+     */
+    protected boolean isBulkLoaded(TargetTable targetTable) {
+        if (!bulkLoad) {
+            return false;
+        } else if (bulkLoadTables.isEmpty()) {
+            return true;
+        }
+        String name = targetTable.getTable().getName().toLowerCase();
+        String baseName = name;
+        if (baseName.startsWith(tablePrefix.toLowerCase())) {
+            baseName = baseName.substring(tablePrefix.length());
+        }
+        if (baseName.endsWith(tableSuffix.toLowerCase())) {
+            baseName = baseName.substring(0, baseName.length() - tableSuffix.length());
+        }
+        return bulkLoadTables.contains(name) || bulkLoadTables.contains(baseName);
+    }
+
+    /**
+     * Inserts all the rows for a table in bulk. The load runs inside a
+     * savepoint so that when it fails, for example on a constraint
+     * violation, it can be rolled back and the rows returned to be inserted
+     * one at a time with the usual replace and continue on error handling.
+     * 
+     * @return the rows that still need to be inserted
+     */
+    private List<EntityData> executeBulkInserts(TargetTable targetTable, WriterLane lane, WriteStats stats) {
+        if (bulkLoader == null) {
+            bulkLoader = new RdbmsBulkLoader(databasePlatform.getName());
+        }
+        List<EntityData> inputRows = targetTable.getRowValues();
+        List<Object[]> values = new ArrayList<>(inputRows.size());
+        for (EntityData inputRow : inputRows) {
+            values.add(getValues(false, targetTable, inputRow));
+        }
+
+        JdbcSqlTransaction transaction = (JdbcSqlTransaction) lane.transaction;
+        transaction.flush();
+        Connection connection = transaction.getConnection();
+        Savepoint savepoint = null;
+        long ts = System.currentTimeMillis();
+        try {
+            savepoint = connection.setSavepoint();
+            int count = bulkLoader.load(connection, targetTable.getStatement(), values);
+            stats.insertCount += count;
+            lane.results.add(new Result(targetTable.getStatement().getSql(), count));
+            lane.statementCount++;
+            getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber, count);
+            return Collections.emptyList();
+        } catch (Exception ex) {
+            log(LogLevel.WARN, "Bulk load of %d rows into %s using %s failed.  Falling back to row by row inserts.  The error was: %s",
+                    values.size(), targetTable.getTable().getFullyQualifiedTableName(), bulkLoader.getLoadMethod(), ex.getMessage());
+            if (savepoint != null) {
+                try {
+                    connection.rollback(savepoint);
+                } catch (SQLException e) {
+                    throw new SqlException(e);
+                }
+            }
+            return inputRows;
+        } finally {
+            lane.sqlDuration += System.currentTimeMillis() - ts;
+        }
+    }
+
+    /**
+     * Builds an insert or update statement for the table from its key
+     * columns. The update list comes from the update table, so update
+     * disabled columns are only written on insert.
+     */
+    protected String buildUpsertSql(TargetTableDefintion targetTableDefinition) {
+        TargetTable insertTable = targetTableDefinition.getInsertTable();
+        Table updateTable = targetTableDefinition.getUpdateTable().getTable();
+        String quote = quoteIdentifiers ? databasePlatform.getDatabaseInfo().getDelimiterToken() : null;
+        quote = quote == null ? "" : quote;
+        List<String> columns = new ArrayList<>();
+        List<String> keyColumns = new ArrayList<>();
+        List<String> updateColumns = new ArrayList<>();
+        for (Column column : insertTable.getTable().getColumns()) {
+            String columnName = quote + column.getName() + quote;
+            columns.add(columnName);
+            if (column.isPrimaryKey()) {
+                keyColumns.add(columnName);
+            }
+        }
+        for (Column column : updateTable.getColumns()) {
+            if (!column.isPrimaryKey()) {
+                if (insertTable.getTable().findColumn(column.getName()) != null) {
+                    updateColumns.add(quote + column.getName() + quote);
+                } else {
+                    log(LogLevel.WARN, "Upsert can not update %s on %s because it is not an insert column", column.getName(),
+                            insertTable.getTable().getFullyQualifiedTableName());
+                }
+            }
+        }
+        if (keyColumns.isEmpty()) {
+            throw new MisconfiguredException("Upsert requires a primary key on %s", insertTable.getTable().getFullyQualifiedTableName());
+        }
+        String sql = RdbmsUpsertBuilder.build(databasePlatform.getName(), RdbmsUpsertBuilder.getTableName(insertTable.getStatement()
+                .getSql()), columns, keyColumns, updateColumns);
+        if (sql == null) {
+            throw new MisconfiguredException("Upsert is not supported on %s", databasePlatform.getName());
+        }
+        return sql;
+    }
+
+    private int executeSql(TargetTable targetTable, WriterLane lane, Object[] rowData) {
+        return executeSql(targetTable.getStatement().getSql(), targetTable.getStatement().getTypes(), lane, rowData);
+    }
+
+    private int executeSql(String sql, int[] types, WriterLane lane, Object[] rowData) {
+        return countResult(sql, lane, execute(lane, sql, types, new Object(), rowData));
+    }
+
+    private int executeUpsert(String sql, int[] types, WriterLane lane, Object[] rowData) {
+        int count = execute(lane, sql, types, new Object(), rowData);
+        return countResult(sql, lane, RdbmsUpsertBuilder.normalizeCount(databasePlatform.getName(), count));
+    }
+
+    private int countResult(String sql, WriterLane lane, int count) {
         if (count > 0) {
-            results.add(new Result(targetTable.getStatement().getSql(), count));
-            totalStatementCount++;
-            getComponentStatistics().incrementNumberEntitiesProcessed(count);
+            lane.results.add(new Result(sql, count));
+            lane.statementCount++;
+            getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber, count);
         }
         return count;
     }
 
-    private void write(ISqlTransaction transaction, EntityDataMessage inputMessage, ISendMessageCallback callback, boolean unitOfWorkLastMessage) {
+    private void write(EntityDataMessage inputMessage, ISendMessageCallback callback, boolean unitOfWorkLastMessage) {
         sortAndStoreRowsByTableAndOperation(inputMessage.getPayload());
-        executeSqlByTableAndOperation(transaction);
-        writeStats(false);       
+        executeLanes();
     }
 
     private void writeStats(boolean force) {
@@ -458,6 +992,14 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
                         msg.append(stats.deleteCount);
                         rowCount += stats.deleteCount;
                     }
+                    if (stats.upsertCount > 0) {
+                        if (msg.length() > 0) {
+                            msg.append(", ");
+                        }
+                        msg.append("Upserted: ");
+                        msg.append(stats.upsertCount);
+                        rowCount += stats.upsertCount;
+                    }
                     if (stats.fallbackInsertCount > 0) {
                         if (msg.length() > 0) {
                             msg.append(", ");
@@ -474,6 +1016,18 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
                         msg.append(stats.ignoredCount);
                         rowCount += stats.ignoredCount;
                     }
+                    if (stats.commitCount > 0) {
+                        if (msg.length() > 0) {
+                            msg.append(", ");
+                        }
+                        msg.append("Commits: ");
+                        msg.append(stats.commitCount);
+                        msg.append(" (average ");
+                        msg.append(LogUtils.formatDuration(stats.commitDuration / stats.commitCount));
+                        msg.append(", max ");
+                        msg.append(LogUtils.formatDuration(stats.maxCommitDuration));
+                        msg.append(")");
+                    }
                     if (msg.length() > 0) {
                         log(LogLevel.INFO, "%s: %s",
                                 table.getInsertTable().getTable().getFullyQualifiedTableName(),
@@ -483,45 +1037,59 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
             }
             info("Ran a total of %d statements in %s", rowCount,
                     LogUtils.formatDuration(sqlDuration));
+            if (commitCount > 0) {
+                info("Committed %d transactions in %s", commitCount, LogUtils.formatDuration(commitDuration));
+            }
             sqlDuration = 0;
-            statsMap.clear();
+            commitCount = 0;
+            commitDuration = 0;
+            statsMap.values().removeIf(stats -> !stats.uncommitted);
+            statsMap.replaceAll((table, stats) -> {
+                WriteStats next = new WriteStats();
+                next.uncommitted = true;
+                return next;
+            });
             lastStatsLogTime = System.currentTimeMillis();
         }
     }
 
-    private int execute(ISqlTransaction transaction, DmlStatement dmlStatement, Object marker, Object[] data) {
-        String sql = dmlStatement.getSql();
-        if (!sql.equals(lastPreparedDml)) {
+    private int execute(WriterLane lane, DmlStatement dmlStatement, Object marker, Object[] data) {
+        return execute(lane, dmlStatement.getSql(), dmlStatement.getTypes(), marker, data);
+    }
+
+    private int execute(WriterLane lane, String sql, int[] types, Object marker, Object[] data) {
+        ISqlTransaction transaction = lane.transaction;
+        if (!sql.equals(lane.lastPreparedDml)) {
             transaction.flush();
             if (log.isDebugEnabled()) {
                 log.debug("Preparing dml: {}", sql);
             }
             transaction.prepare(sql);
-            lastPreparedDml = sql;
+            lane.lastPreparedDml = sql;
         }
         if (log.isDebugEnabled()) {
-            log.debug("Submitting data {} with types {}", Arrays.toString(data), Arrays.toString(dmlStatement.getTypes()));
+            log.debug("Submitting data {} with types {}", Arrays.toString(data), Arrays.toString(types));
         }
         long ts = System.currentTimeMillis();
         try {
-            return transaction.addRow(marker, data, dmlStatement.getTypes());
+            return transaction.addRow(marker, data, types);
         } catch (Exception ex) {
             if (!(replaceRows && ex instanceof UniqueKeyException)) {
                 if (continueOnError) {
                     log(LogLevel.WARN, String.format("Failed to run the following sql: \n%s\nWith values: \n%s\nWith types: \n%s\n."
                             + "Continue on Error flag set - Continuing load",
-                            dmlStatement.getSql(), Arrays.toString(data), Arrays.toString(dmlStatement.getTypes())));
+                            sql, Arrays.toString(data), Arrays.toString(types)));
                     return 0;
                 } else {
                     log(LogLevel.ERROR, String.format("Failed to run the following sql: \n%s\nWith values: \n%s\nWith types: \n%s\n",
-                            dmlStatement.getSql(), Arrays.toString(data), Arrays.toString(dmlStatement.getTypes())));
+                            sql, Arrays.toString(data), Arrays.toString(types)));
                     throw ex;
                 }
             } else {
                 throw ex;
             }
         } finally {
-            sqlDuration += System.currentTimeMillis()-ts;
+            lane.sqlDuration += System.currentTimeMillis()-ts;
         }
     }
 
@@ -539,17 +1107,31 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
     public void setTablePrefix(String tablePrefix) {
         this.tablePrefix = tablePrefix;
         this.targetTables = null;
+        this.lanes = null;
     }
 
     public void setTableSuffix(String tableSuffix) {
         this.tableSuffix = tableSuffix;
         this.targetTables = null;
+        this.lanes = null;
+    }
+
+    public void setParallelTables(boolean parallelTables) {
+        this.parallelTables = parallelTables;
     }
 
     public void setBatchMode(boolean batchMode) {
         this.batchMode = batchMode;
     }
 
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+    public void setUpsert(boolean upsert) {
+        this.upsert = upsert;
+    }
+
     public void setFitToColumn(boolean fitToColumn) {
         this.fitToColumn = fitToColumn;
     }
@@ -595,6 +1177,7 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         TargetTable updateTable;
         TargetTable insertTable;
         TargetTable deleteTable;
+        String upsertSql;
         Integer order;
 
         public TargetTableDefintion(ModelEntity modelEntity, TargetTable updateTable, TargetTable insertTable, TargetTable deleteTable) {
@@ -626,6 +1209,14 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
             return order;
         }
 
+        public String getUpsertSql() {
+            return upsertSql;
+        }
+
+        public void setUpsertSql(String upsertSql) {
+            this.upsertSql = upsertSql;
+        }
+
         public void setOrder(Integer order) {
             this.order = order;
         }
@@ -765,6 +1356,54 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         }
     }
 
+    /**
+     * A set of tables that are written in order on their own transaction.
+     * The results and durations are collected on the lane and folded into
+     * the writer's totals once all of the lanes for a message are done.
+     */
+    class WriterLane {
+        List<TargetTableDefintion> targetTables;
+        ISqlTransaction transaction;
+        String lastPreparedDml;
+        List<Result> results = new ArrayList<Result>();
+        int statementCount;
+        long sqlDuration;
+
+        WriterLane(List<TargetTableDefintion> targetTables) {
+            this.targetTables = targetTables;
+        }
+
+        void merge(WriterLane lane) {
+            List<TargetTableDefintion> merged = new ArrayList<>(lane.targetTables);
+            merged.addAll(targetTables);
+            targetTables = merged;
+        }
+
+        boolean hasRows() {
+            for (TargetTableDefintion targetTable : targetTables) {
+                if (targetTable.getDeleteTable().getRowValues().size() > 0 || targetTable.getUpdateTable().getRowValues().size() > 0
+                        || targetTable.getInsertTable().getRowValues().size() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void begin() {
+            if (transaction == null) {
+                transaction = databasePlatform.getSqlTemplate().startSqlTransaction();
+                transaction.setInBatchMode(batchMode);
+                lastPreparedDml = null;
+            }
+        }
+
+        void close() {
+            transaction.close();
+            transaction = null;
+            lastPreparedDml = null;
+        }
+    }
+
     class WriteStats {
         int ignoredCount;
         int insertCount;
@@ -772,5 +1411,10 @@ public class RdbmsWriter extends AbstractRdbmsComponentRuntime {
         int updateCount;
         int fallbackInsertCount;
         int fallbackUpdateCount;
+        int upsertCount;
+        int commitCount;
+        long commitDuration;
+        long maxCommitDuration;
+        boolean uncommitted;
     }
 }
@@ -0,0 +1,58 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class RdbmsBulkLoaderTest {
+
+    @Test
+    public void testGetMultiRowInsertSql() {
+        assertEquals("insert into t (a, b) values (?, ?),(?, ?),(?, ?)",
+                RdbmsBulkLoader.getMultiRowInsertSql("insert into t (a, b) values (?, ?)", 3));
+        assertEquals("insert into \"values\" (\"a\") values (?)",
+                RdbmsBulkLoader.getMultiRowInsertSql("insert into \"values\" (\"a\") values (?)", 1));
+        assertEquals("INSERT INTO t (a) VALUES (?),(?)", RdbmsBulkLoader.getMultiRowInsertSql("INSERT INTO t (a) VALUES (?)", 2));
+    }
+
+    @Test
+    public void testGetCopySql() {
+        assertEquals("copy t (a, b) from stdin with csv", RdbmsBulkLoader.getCopySql("insert into t (a, b) values (?, ?)"));
+        assertEquals("copy \"public\".\"t\" (\"a\", \"values\") from stdin with csv",
+                RdbmsBulkLoader.getCopySql("INSERT INTO \"public\".\"t\" (\"a\", \"values\") VALUES (?, ?)"));
+    }
+
+    @Test
+    public void testToCsv() {
+        assertEquals("\"1\",,\"\"\n", RdbmsBulkLoader.toCsv(Collections.singletonList(new Object[] { 1, null, "" })));
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\n",
+                RdbmsBulkLoader.toCsv(Collections.singletonList(new Object[] { "a,b", "say \"hi\"", "two\nlines" })));
+        assertEquals("\"\\x00ff10\",\"" + new Timestamp(1000).toString() + "\"\n\"x\",\n", RdbmsBulkLoader.toCsv(Arrays.asList(
+                new Object[] { new byte[] { 0, (byte) 0xFF, 0x10 }, new java.util.Date(1000) }, new Object[] { "x", null })));
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RdbmsUpsertBuilderTest {
+
+    List<String> columns = Arrays.asList("id", "name", "created");
+
+    List<String> keyColumns = Collections.singletonList("id");
+
+    List<String> updateColumns = Collections.singletonList("name");
+
+    @Test
+    public void testPostgres() {
+        assertEquals("insert into t (id, name, created) values (?, ?, ?) on conflict (id) do update set name = excluded.name",
+                RdbmsUpsertBuilder.build("postgres", "t", columns, keyColumns, updateColumns));
+        assertEquals("insert into t (id, name, created) values (?, ?, ?) on conflict (id) do nothing",
+                RdbmsUpsertBuilder.build("PostgreSQL", "t", columns, keyColumns, Collections.emptyList()));
+    }
+
+    @Test
+    public void testMySql() {
+        assertEquals("insert into t (id, name, created) values (?, ?, ?) on duplicate key update name = values(name)",
+                RdbmsUpsertBuilder.build("mysql", "t", columns, keyColumns, updateColumns));
+        assertEquals("insert into t (id, name, created) values (?, ?, ?) on duplicate key update id = values(id)",
+                RdbmsUpsertBuilder.build("mariadb", "t", columns, keyColumns, Collections.emptyList()));
+    }
+
+    @Test
+    public void testH2() {
+        assertEquals("merge into t (id, name, created) key (id) values (?, ?, ?)",
+                RdbmsUpsertBuilder.build("h2", "t", columns, keyColumns, updateColumns));
+    }
+
+    @Test
+    public void testOracle() {
+        assertEquals("merge into t t using (select ? id, ? name, ? created from dual) s on (t.id = s.id)"
+                + " when matched then update set t.name = s.name"
+                + " when not matched then insert (id, name, created) values (s.id, s.name, s.created)",
+                RdbmsUpsertBuilder.build("oracle", "t", columns, keyColumns, updateColumns));
+    }
+
+    @Test
+    public void testMsSql() {
+        assertEquals("merge into t as t using (select ? as id, ? as name, ? as created) as s on (t.id = s.id and t.name = s.name)"
+                + " when not matched then insert (id, name, created) values (s.id, s.name, s.created);",
+                RdbmsUpsertBuilder.build("mssql2008", "t", columns, Arrays.asList("id", "name"), Collections.emptyList()));
+    }
+
+    @Test
+    public void testUnsupportedPlatform() {
+        assertNull(RdbmsUpsertBuilder.build("sqlite", "t", columns, keyColumns, updateColumns));
+        assertNull(RdbmsUpsertBuilder.build(null, "t", columns, keyColumns, updateColumns));
+    }
+
+    @Test
+    public void testNormalizeCount() {
+        assertEquals(1, RdbmsUpsertBuilder.normalizeCount("mysql", 2));
+        assertEquals(1, RdbmsUpsertBuilder.normalizeCount("mariadb", 1));
+        assertEquals(0, RdbmsUpsertBuilder.normalizeCount("mysql", 0));
+        assertEquals(2, RdbmsUpsertBuilder.normalizeCount("postgres", 2));
+    }
+
+    @Test
+    public void testGetTableName() {
+        assertEquals("\"public\".\"t\"", RdbmsUpsertBuilder.getTableName("INSERT INTO \"public\".\"t\" (\"id\") VALUES (?)"));
+        assertEquals("t", RdbmsUpsertBuilder.getTableName("insert into t(id) values (?)"));
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RdbmsWriterTest {
+
+    @Test
+    public void testOrderParentsFirst() {
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        parents.put("line", set("order", "item"));
+        parents.put("order", set("customer"));
+        parents.put("item", set());
+        parents.put("customer", set());
+        assertEquals(Arrays.asList("item", "customer", "order", "line"), RdbmsWriter.orderParentsFirst(parents));
+    }
+
+    @Test
+    public void testOrderParentsFirstWithSelfReference() {
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        parents.put("employee", set("employee", "department"));
+        parents.put("department", set());
+        assertEquals(Arrays.asList("department", "employee"), RdbmsWriter.orderParentsFirst(parents));
+    }
+
+    @Test
+    public void testOrderParentsFirstWithCycle() {
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        parents.put("c", set("a"));
+        parents.put("a", set("b"));
+        parents.put("b", set("a"));
+        parents.put("d", set());
+        assertEquals(Arrays.asList("d", "a", "c", "b"), RdbmsWriter.orderParentsFirst(parents));
+    }
+
+    @Test
+    public void testOrderParentsFirstWithCycleOfThree() {
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        parents.put("a", set("c"));
+        parents.put("b", set("a"));
+        parents.put("c", set("b"));
+        parents.put("d", set("b"));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), RdbmsWriter.orderParentsFirst(parents));
+    }
+
+    private static Set<String> set(String... values) {
+        return new LinkedHashSet<>(Arrays.asList(values));
+    }
+
+}
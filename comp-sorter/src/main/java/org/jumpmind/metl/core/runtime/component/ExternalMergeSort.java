@@ -0,0 +1,221 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
+import org.jumpmind.metl.core.runtime.EntityDataSpillFile;
+
+/**
+ * Sorts rows within a memory budget. Rows are collected until the budget is
+ * used up, then the run is sorted and spilled to a temp file. When the rows
+ * are read back the runs are merged with a heap. If there are more runs than
+ * can be merged at once they are merged into bigger runs first.
+ * <p>
+ * Rows are compared by a key that is taken from each row once, when the row
+ * is added or read back from a run, instead of on every comparison.
+ */
+class ExternalMergeSort<K> implements Closeable {
+
+    static final int MAX_MERGE_FAN_IN = 64;
+
+    Function<EntityData, K> keyOf;
+
+    Comparator<Keyed<K>> comparator;
+
+    EntityDataLayout layout;
+
+    long memoryBudget;
+
+    List<Keyed<K>> run = new ArrayList<>();
+
+    long runSize;
+
+    List<File> runFiles = new ArrayList<>();
+
+    long count;
+
+    ExternalMergeSort(Function<EntityData, K> keyOf, Comparator<? super K> keyComparator, EntityDataLayout layout,
+            long memoryBudget) {
+        this.keyOf = keyOf;
+        this.comparator = (a, b) -> keyComparator.compare(a.key, b.key);
+        this.layout = layout;
+        this.memoryBudget = memoryBudget;
+    }
+
+    void add(EntityData data) {
+        run.add(new Keyed<>(keyOf.apply(data), data));
+        runSize += EntityDataSpillFile.estimateSize(data);
+        count++;
+        if (runSize >= memoryBudget) {
+            spill();
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    int getRunCount() {
+        return runFiles.size();
+    }
+
+    /**
+     * Hands the rows to the consumer in sorted order. The last run is merged
+     * from memory instead of being spilled.
+     */
+    void forEach(Consumer<EntityData> consumer) {
+        Collections.sort(run, comparator);
+        try {
+            while (runFiles.size() + 1 > MAX_MERGE_FAN_IN) {
+                List<File> files = new ArrayList<>(runFiles.subList(0, MAX_MERGE_FAN_IN));
+                runFiles.removeAll(files);
+                File merged = EntityDataSpillFile.createTempFile("metl-sort");
+                try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(merged, layout)) {
+                    merge(files, Collections.<Keyed<K>> emptyList(), (data) -> {
+                        try {
+                            writer.write(data);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+                runFiles.add(0, merged);
+                delete(files);
+            }
+            merge(runFiles, run, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        run.clear();
+        runSize = 0;
+        delete(runFiles);
+        runFiles.clear();
+        count = 0;
+    }
+
+    protected void spill() {
+        Collections.sort(run, comparator);
+        try {
+            File file = EntityDataSpillFile.createTempFile("metl-sort");
+            runFiles.add(file);
+            try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(file, layout)) {
+                for (Keyed<K> keyed : run) {
+                    writer.write(keyed.data);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.clear();
+        runSize = 0;
+    }
+
+    protected void merge(List<File> files, List<Keyed<K>> memoryRun, Consumer<EntityData> consumer) throws IOException {
+        List<EntityDataSpillFile.Reader> readers = new ArrayList<>(files.size());
+        PriorityQueue<RunCursor> heap = new PriorityQueue<>(files.size() + 1, (a, b) -> {
+            int compare = comparator.compare(a.head, b.head);
+            return compare != 0 ? compare : Integer.compare(a.index, b.index);
+        });
+        try {
+            for (File file : files) {
+                EntityDataSpillFile.Reader reader = new EntityDataSpillFile.Reader(file, layout);
+                readers.add(reader);
+                RunCursor cursor = new RunCursor(readers.size() - 1, reader, null);
+                if (cursor.next()) {
+                    heap.add(cursor);
+                }
+            }
+            RunCursor memoryCursor = new RunCursor(readers.size(), null, memoryRun.iterator());
+            if (memoryCursor.next()) {
+                heap.add(memoryCursor);
+            }
+            while (!heap.isEmpty()) {
+                RunCursor cursor = heap.poll();
+                consumer.accept(cursor.head.data);
+                if (cursor.next()) {
+                    heap.add(cursor);
+                }
+            }
+        } finally {
+            for (EntityDataSpillFile.Reader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    protected void delete(List<File> files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    static class Keyed<K> {
+        final K key;
+        final EntityData data;
+
+        Keyed(K key, EntityData data) {
+            this.key = key;
+            this.data = data;
+        }
+    }
+
+    class RunCursor {
+        int index;
+        EntityDataSpillFile.Reader reader;
+        Iterator<Keyed<K>> iterator;
+        Keyed<K> head;
+
+        RunCursor(int index, EntityDataSpillFile.Reader reader, Iterator<Keyed<K>> iterator) {
+            this.index = index;
+            this.reader = reader;
+            this.iterator = iterator;
+        }
+
+        boolean next() throws IOException {
+            if (reader != null) {
+                EntityData data = reader.read();
+                head = data != null ? new Keyed<>(keyOf.apply(data), data) : null;
+            } else {
+                head = iterator.hasNext() ? iterator.next() : null;
+            }
+            return head != null;
+        }
+    }
+
+}
@@ -20,14 +20,19 @@
  */
 package org.jumpmind.metl.core.runtime.component;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.h2.Driver;
@@ -36,6 +41,7 @@ import org.jumpmind.metl.core.model.ModelAttrib;
 import org.jumpmind.metl.core.model.ModelEntity;
 import org.jumpmind.metl.core.runtime.ControlMessage;
 import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.LogLevel;
 import org.jumpmind.metl.core.runtime.Message;
@@ -63,6 +69,16 @@ public class Sorter extends AbstractComponentRuntime {
 
     public final static String ATTRIBUTE_SORTER_ENABLED = "sort.enabled";
 
+    public final static String EXTERNAL_SORT = "external.sort";
+
+    public final static String EXTERNAL_SORT_MEMORY = "external.sort.memory.mb";
+
+    static final int NUMBER = 0;
+    static final int DATE = 1;
+    static final int BOOLEAN = 2;
+    static final int BYTES = 3;
+    static final int OTHER = 4;
+
     int rowsPerMessage;
 
     IDatabasePlatform databasePlatform;
@@ -82,11 +98,23 @@ public class Sorter extends AbstractComponentRuntime {
     Throwable error;
     
     boolean entitySort = true;
+
+    boolean externalSort = false;
+
+    long externalSortMemory = 256 * 1024 * 1024;
+
+    EntityDataLayout layout;
+
+    ExternalMergeSort<Object[]> rowSort;
+
+    Map<ModelEntity, ExternalMergeSort<Object[]>> entitySorts;
     
     @Override
     public void start() {
         TypedProperties properties = getTypedProperties();
         rowsPerMessage = properties.getInt(ROWS_PER_MESSAGE);
+        externalSort = properties.is(EXTERNAL_SORT, externalSort);
+        externalSortMemory = properties.getLong(EXTERNAL_SORT_MEMORY, 256) * 1024 * 1024;
         String sortAttribute = properties.get(SORT_ATTRIBUTE);
         RelationalModel inputModel = (RelationalModel) this.getComponent().getInputModel();
         Component component = context.getFlowStep().getComponent();
@@ -142,7 +170,9 @@ public class Sorter extends AbstractComponentRuntime {
     @Override
     public void handle(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
     	if (inputMessage instanceof EntityDataMessage) {
-            if (!entitySort) {
+            if (externalSort) {
+                addToExternalSort(((EntityDataMessage)inputMessage).getPayload());
+            } else if (!entitySort) {
 	            createDatabase();
 	            loadIntoDatabase(inputMessage);
             }
@@ -151,7 +181,7 @@ public class Sorter extends AbstractComponentRuntime {
             for (int i = 0; i < payload.size(); i++) {
                 getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
                 
-                if (entitySort) {
+                if (entitySort && !externalSort) {
                 	EntityData record = payload.get(i);
                 	sortedRecords.add(record);
                 }
@@ -159,7 +189,9 @@ public class Sorter extends AbstractComponentRuntime {
     	}
 
     	if (unitOfWorkBoundaryReached && error == null) {
-    		if (entitySort) {
+    		if (externalSort) {
+    			sendExternalSort(callback);
+    		} else if (entitySort) {
     			ArrayList<EntityData> dataToSend = new ArrayList<EntityData>();
     			
     			sort();
@@ -183,6 +215,341 @@ public class Sorter extends AbstractComponentRuntime {
     	}
     }
 
+    @Override
+    public void stop() {
+        closeExternalSort();
+        super.stop();
+    }
+
+    protected void addToExternalSort(List<EntityData> payload) {
+        if (layout == null) {
+            RelationalModel inputModel = (RelationalModel) getInputModel();
+            layout = EntityDataLayout.forModel(inputModel);
+            if (entitySort) {
+                rowSort = createExternalSort(Collections.singletonList(inputModel.getAttributeById(sortAttributeId)),
+                        externalSortMemory);
+            } else {
+                entitySorts = new LinkedHashMap<>();
+                long memoryPerEntity = Math.max(externalSortMemory / entities.size(), 1);
+                for (ModelEntity entity : entities) {
+                    List<ModelAttrib> sortAttributes = new ArrayList<>();
+                    for (ComponentAttribSetting componentAttribute : sortKeyAttributeIdList) {
+                        for (ModelAttrib attribute : entity.getModelAttributes()) {
+                            if (componentAttribute.getAttributeId().equals(attribute.getId())) {
+                                sortAttributes.add(attribute);
+                                break;
+                            }
+                        }
+                    }
+                    entitySorts.put(entity, createExternalSort(sortAttributes, memoryPerEntity));
+                }
+            }
+        }
+
+        for (EntityData record : payload) {
+            if (rowSort != null) {
+                rowSort.add(record);
+            } else {
+                /*
+                 * Like the database sort, each entity is sorted and sent on
+                 * its own with just the attributes of that entity
+                 */
+                for (Map.Entry<ModelEntity, ExternalMergeSort<Object[]>> entry : entitySorts.entrySet()) {
+                    List<ModelAttrib> attributes = entry.getKey().getModelAttributes();
+                    boolean hasEntity = false;
+                    for (ModelAttrib attribute : attributes) {
+                        if (record.containsKey(attribute.getId())) {
+                            hasEntity = true;
+                            break;
+                        }
+                    }
+                    if (hasEntity) {
+                        EntityData entityRecord = layout.newEntityData();
+                        for (ModelAttrib attribute : attributes) {
+                            entityRecord.put(attribute.getId(), record.get(attribute.getId()));
+                        }
+                        entry.getValue().add(entityRecord);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void sendExternalSort(ISendMessageCallback callback) {
+        try {
+            if (rowSort != null) {
+                sendExternalSort(rowSort, callback);
+            } else if (entitySorts != null) {
+                for (Map.Entry<ModelEntity, ExternalMergeSort<Object[]>> entry : entitySorts.entrySet()) {
+                    sendExternalSort(entry.getValue(), callback);
+                    info("Sorted %d records for %s", entry.getValue().getCount(), entry.getKey().getName());
+                }
+            }
+        } finally {
+            closeExternalSort();
+        }
+    }
+
+    protected void sendExternalSort(ExternalMergeSort<Object[]> sort, ISendMessageCallback callback) {
+        if (sort.getRunCount() > 0) {
+            log(LogLevel.INFO, "Merging %d sorted runs of %d records", sort.getRunCount() + 1, sort.getCount());
+        }
+        final ArrayList<EntityData> dataToSend = new ArrayList<EntityData>();
+        sort.forEach((record) -> {
+            dataToSend.add(record);
+            if (dataToSend.size() >= rowsPerMessage) {
+                callback.sendEntityDataMessage(null, new ArrayList<EntityData>(dataToSend));
+                dataToSend.clear();
+            }
+        });
+        if (dataToSend.size() > 0) {
+            callback.sendEntityDataMessage(null, dataToSend);
+        }
+    }
+
+    protected void closeExternalSort() {
+        if (rowSort != null) {
+            rowSort.close();
+        }
+        if (entitySorts != null) {
+            for (ExternalMergeSort<Object[]> sort : entitySorts.values()) {
+                sort.close();
+            }
+        }
+        rowSort = null;
+        entitySorts = null;
+        layout = null;
+    }
+
+    protected ExternalMergeSort<Object[]> createExternalSort(List<ModelAttrib> sortAttributes, long memoryBudget) {
+        return new ExternalMergeSort<>(createKeyExtractor(sortAttributes), createKeyComparator(sortAttributes), layout,
+                memoryBudget);
+    }
+
+    /**
+     * Takes the values of the sort attributes from a row. The values are
+     * converted once, when the row is buffered or read back from a run, so
+     * that comparing rows does not convert them again. See
+     * {@link #toSortKey}.
+     */
+    protected static Function<EntityData, Object[]> createKeyExtractor(List<ModelAttrib> sortAttributes) {
+        final int size = sortAttributes.size();
+        final String[] attributeIds = new String[size];
+        final boolean[] numeric = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            ModelAttrib attribute = sortAttributes.get(i);
+            attributeIds[i] = attribute.getId();
+            numeric[i] = attribute.getDataType() != null && attribute.getDataType().isNumeric();
+        }
+        return (data) -> {
+            Object[] key = new Object[size];
+            for (int i = 0; i < size; i++) {
+                key[i] = toSortKey(data.get(attributeIds[i]), numeric[i]);
+            }
+            return key;
+        };
+    }
+
+    /**
+     * Compares the keys of {@link #createKeyExtractor} by each of the sort
+     * attributes in turn. Values are compared by the data type of the
+     * attribute so that numbers and dates that arrive as strings still sort
+     * by value. Nulls sort first.
+     */
+    protected static Comparator<Object[]> createKeyComparator(List<ModelAttrib> sortAttributes) {
+        Comparator<Object[]> comparator = (o1, o2) -> 0;
+        for (int i = 0; i < sortAttributes.size(); i++) {
+            final int index = i;
+            DataType dataType = sortAttributes.get(i).getDataType();
+            Comparator<Object> valueComparator;
+            if (dataType != null && dataType.isNumeric()) {
+                valueComparator = Sorter::compareNumberKeys;
+            } else if (dataType != null && dataType.isTimestamp()) {
+                valueComparator = Sorter::compareDates;
+            } else {
+                valueComparator = Sorter::compareValues;
+            }
+            comparator = comparator.thenComparing((Object[] key) -> key[index], Comparator.nullsFirst(valueComparator));
+        }
+        return comparator;
+    }
+
+    /**
+     * Converts finite numbers to BigDecimal, and for a numeric attribute
+     * strings that can be read as numbers too. Infinities, NaN and values
+     * that are not numbers are kept as they are.
+     */
+    static Object toSortKey(Object value, boolean numeric) {
+        if ((numeric || value instanceof Number) && specialOf(value) == 0) {
+            BigDecimal number = toBigDecimal(value);
+            if (number != null) {
+                return number;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Compares values converted by {@link #toSortKey} for a numeric attribute
+     * in the order of {@link #compareNumbers} without reading them again.
+     */
+    static int compareNumberKeys(Object o1, Object o2) {
+        boolean numeric1 = o1 instanceof Number;
+        boolean numeric2 = o2 instanceof Number;
+        if (numeric1 && numeric2) {
+            int special1 = specialOf(o1);
+            int special2 = specialOf(o2);
+            if (special1 != 0 || special2 != 0) {
+                return Integer.compare(special1, special2);
+            }
+            return ((BigDecimal) o1).compareTo((BigDecimal) o2);
+        } else if (numeric1) {
+            return -1;
+        } else if (numeric2) {
+            return 1;
+        } else {
+            return compareValues(o1, o2);
+        }
+    }
+
+    /**
+     * Numbers and values that can be read as numbers sort first by their
+     * numeric value. Infinities sort before and after every finite number
+     * and NaN sorts last. The rest follow in the order of
+     * {@link #compareValues}.
+     */
+    static int compareNumbers(Object o1, Object o2) {
+        BigDecimal number1 = toBigDecimal(o1);
+        BigDecimal number2 = toBigDecimal(o2);
+        boolean numeric1 = number1 != null || o1 instanceof Number;
+        boolean numeric2 = number2 != null || o2 instanceof Number;
+        if (numeric1 && numeric2) {
+            int special1 = specialOf(o1);
+            int special2 = specialOf(o2);
+            if (special1 != 0 || special2 != 0) {
+                return Integer.compare(special1, special2);
+            }
+            return number1.compareTo(number2);
+        } else if (numeric1) {
+            return -1;
+        } else if (numeric2) {
+            return 1;
+        } else {
+            return compareValues(o1, o2);
+        }
+    }
+
+    /**
+     * Dates sort first by their instant. The rest follow in the order of
+     * {@link #compareValues}.
+     */
+    static int compareDates(Object o1, Object o2) {
+        if (o1 instanceof Date && o2 instanceof Date) {
+            return compareValues(o1, o2);
+        } else if (o1 instanceof Date) {
+            return -1;
+        } else if (o2 instanceof Date) {
+            return 1;
+        } else {
+            return compareValues(o1, o2);
+        }
+    }
+
+    /**
+     * Orders any two values so that the order stays total and transitive
+     * when an attribute holds values of different types. Numbers sort first
+     * by value, then dates by instant and nanos, booleans, byte arrays and
+     * last everything else by class name and value.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static int compareValues(Object o1, Object o2) {
+        int kind1 = kindOf(o1);
+        int kind2 = kindOf(o2);
+        if (kind1 != kind2) {
+            return Integer.compare(kind1, kind2);
+        } else if (kind1 == NUMBER) {
+            return compareNumbers(o1, o2);
+        } else if (kind1 == DATE) {
+            int compare = Long.compare(((Date) o1).getTime(), ((Date) o2).getTime());
+            return compare != 0 ? compare : Integer.compare(nanosOf(o1), nanosOf(o2));
+        } else if (kind1 == BOOLEAN) {
+            return Boolean.compare((Boolean) o1, (Boolean) o2);
+        } else if (kind1 == BYTES) {
+            byte[] bytes1 = (byte[]) o1;
+            byte[] bytes2 = (byte[]) o2;
+            for (int i = 0; i < Math.min(bytes1.length, bytes2.length); i++) {
+                int compare = Integer.compare(bytes1[i] & 0xFF, bytes2[i] & 0xFF);
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return Integer.compare(bytes1.length, bytes2.length);
+        } else if (o1.getClass() == o2.getClass() && o1 instanceof Comparable) {
+            return ((Comparable) o1).compareTo(o2);
+        } else {
+            int compare = o1.getClass().getName().compareTo(o2.getClass().getName());
+            return compare != 0 ? compare : o1.toString().compareTo(o2.toString());
+        }
+    }
+
+    static int kindOf(Object value) {
+        if (value instanceof Number) {
+            return NUMBER;
+        } else if (value instanceof Date) {
+            return DATE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof byte[]) {
+            return BYTES;
+        } else {
+            return OTHER;
+        }
+    }
+
+    /**
+     * @return -1 for negative infinity, 1 for positive infinity, 2 for NaN
+     *         and 0 for any other value
+     */
+    static int specialOf(Object number) {
+        if (number instanceof Double || number instanceof Float) {
+            double value = ((Number) number).doubleValue();
+            if (Double.isNaN(value)) {
+                return 2;
+            } else if (value == Double.POSITIVE_INFINITY) {
+                return 1;
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                return -1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the nanos within the millisecond, which are not part of
+     *         {@link Date#getTime()}
+     */
+    static int nanosOf(Object date) {
+        return date instanceof java.sql.Timestamp ? ((java.sql.Timestamp) date).getNanos() % 1000000 : 0;
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        try {
+            if (value instanceof BigDecimal) {
+                return (BigDecimal) value;
+            } else if (value instanceof BigInteger) {
+                return new BigDecimal((BigInteger) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                return specialOf(value) == 0 ? BigDecimal.valueOf(((Number) value).doubleValue()) : null;
+            } else if (value instanceof Number) {
+                return BigDecimal.valueOf(((Number) value).longValue());
+            } else if (value instanceof String) {
+                return new BigDecimal(((String) value).trim());
+            }
+        } catch (NumberFormatException e) {
+        }
+        return null;
+    }
+
     private void sort() {
     	Collections.sort(sortedRecords, new Comparator<EntityData>() {
     		@Override
@@ -0,0 +1,129 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.junit.Test;
+
+public class ExternalMergeSortTest {
+
+    static final Comparator<EntityData> BY_KEY = (o1, o2) -> Integer.compare((Integer) o1.get("key"), (Integer) o2.get("key"));
+
+    @Test
+    public void testSortInMemory() {
+        try (ExternalMergeSort<EntityData> sort = new ExternalMergeSort<>(Function.identity(), BY_KEY, null, Long.MAX_VALUE)) {
+            addRows(sort, 100);
+            assertEquals(0, sort.getRunCount());
+            assertSorted(collect(sort), 100);
+        }
+    }
+
+    @Test
+    public void testMultiPassMergeOverMemoryBudget() {
+        int rowCount = ExternalMergeSort.MAX_MERGE_FAN_IN * 3 + 10;
+        List<File> files = new ArrayList<>();
+        try (ExternalMergeSort<EntityData> sort = new ExternalMergeSort<>(Function.identity(), BY_KEY, null, 1)) {
+            addRows(sort, rowCount);
+            assertEquals(rowCount, sort.getCount());
+            assertEquals(rowCount, sort.getRunCount());
+            files.addAll(sort.runFiles);
+            List<EntityData> sorted = collect(sort);
+            assertTrue(sort.getRunCount() < ExternalMergeSort.MAX_MERGE_FAN_IN);
+            files.addAll(sort.runFiles);
+            assertSorted(sorted, rowCount);
+        }
+        for (File file : files) {
+            assertFalse(file.getName(), file.exists());
+        }
+    }
+
+    @Test
+    public void testMergeWithRowsLeftInMemory() {
+        int rowCount = 1000;
+        try (ExternalMergeSort<EntityData> sort = new ExternalMergeSort<>(Function.identity(), BY_KEY, null, 2000)) {
+            addRows(sort, rowCount);
+            assertTrue(sort.getRunCount() > ExternalMergeSort.MAX_MERGE_FAN_IN);
+            assertFalse(sort.run.isEmpty());
+            assertSorted(collect(sort), rowCount);
+        }
+    }
+
+    @Test
+    public void testKeysAreTakenOncePerRow() {
+        int rowCount = ExternalMergeSort.MAX_MERGE_FAN_IN - 1;
+        AtomicInteger keysTaken = new AtomicInteger();
+        Function<EntityData, Integer> keyOf = (data) -> {
+            keysTaken.incrementAndGet();
+            return (Integer) data.get("key");
+        };
+        try (ExternalMergeSort<Integer> sort = new ExternalMergeSort<>(keyOf, Integer::compare, null, Long.MAX_VALUE)) {
+            addRows(sort, rowCount);
+            assertSorted(collect(sort), rowCount);
+            assertEquals(rowCount, keysTaken.get());
+        }
+        keysTaken.set(0);
+        try (ExternalMergeSort<Integer> sort = new ExternalMergeSort<>(keyOf, Integer::compare, null, 1)) {
+            addRows(sort, rowCount);
+            assertSorted(collect(sort), rowCount);
+            assertEquals("once when buffered and once when read back", rowCount * 2, keysTaken.get());
+        }
+    }
+
+    private void addRows(ExternalMergeSort<?> sort, int count) {
+        for (int i = 0; i < count; i++) {
+            EntityData data = new EntityData();
+            data.put("key", (i * 7919) % 31);
+            data.put("sequence", i);
+            sort.add(data);
+        }
+    }
+
+    private List<EntityData> collect(ExternalMergeSort<?> sort) {
+        List<EntityData> rows = new ArrayList<>();
+        sort.forEach(rows::add);
+        return rows;
+    }
+
+    private void assertSorted(List<EntityData> rows, int count) {
+        assertEquals(count, rows.size());
+        for (int i = 1; i < rows.size(); i++) {
+            EntityData previous = rows.get(i - 1);
+            EntityData current = rows.get(i);
+            int compare = BY_KEY.compare(previous, current);
+            assertTrue(compare <= 0);
+            if (compare == 0) {
+                assertTrue("ties keep their arrival order", (Integer) previous.get("sequence") < (Integer) current.get("sequence"));
+            }
+        }
+    }
+
+}
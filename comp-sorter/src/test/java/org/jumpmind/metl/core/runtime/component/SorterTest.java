@@ -0,0 +1,121 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class SorterTest {
+
+    @Test
+    public void testCompareValuesIsTotalAndTransitive() {
+        assertTotalOrder(Sorter::compareValues, mixedValues());
+    }
+
+    @Test
+    public void testCompareNumbersIsTotalAndTransitive() {
+        assertTotalOrder(Sorter::compareNumbers, mixedValues());
+    }
+
+    @Test
+    public void testCompareDatesIsTotalAndTransitive() {
+        assertTotalOrder(Sorter::compareDates, mixedValues());
+    }
+
+    @Test
+    public void testCompareNumbers() {
+        assertTrue(Sorter.compareNumbers("10", "9") > 0);
+        assertTrue(Sorter.compareNumbers(" 2 ", 3L) < 0);
+        assertEquals(0, Sorter.compareNumbers(new BigDecimal("1.50"), 1.5d));
+        assertEquals(0, Sorter.compareNumbers(BigInteger.TEN, (short) 10));
+        assertTrue(Sorter.compareNumbers(1000000, "abc") < 0);
+        assertTrue(Sorter.compareNumbers(Double.NEGATIVE_INFINITY, Long.MIN_VALUE) < 0);
+        assertTrue(Sorter.compareNumbers(Double.POSITIVE_INFINITY, new BigDecimal("1E+400")) > 0);
+        assertTrue(Sorter.compareNumbers(Double.NaN, Double.POSITIVE_INFINITY) > 0);
+    }
+
+    @Test
+    public void testCompareDates() {
+        Timestamp timestamp = new Timestamp(1000);
+        assertEquals(0, Sorter.compareDates(new Date(1000), timestamp));
+        timestamp.setNanos(500);
+        assertTrue(Sorter.compareDates(new Date(1000), timestamp) < 0);
+        assertTrue(Sorter.compareDates(timestamp, new Date(1001)) < 0);
+        assertTrue(Sorter.compareDates(new java.sql.Date(5000), "1970-01-01") < 0);
+    }
+
+    @Test
+    public void testSortKeysCompareLikeTheirValues() {
+        List<Object> values = mixedValues();
+        for (Object a : values) {
+            for (Object b : values) {
+                assertEquals(a + " and " + b, Integer.signum(Sorter.compareNumbers(a, b)),
+                        Integer.signum(Sorter.compareNumberKeys(Sorter.toSortKey(a, true), Sorter.toSortKey(b, true))));
+                assertEquals(a + " and " + b, Integer.signum(Sorter.compareValues(a, b)),
+                        Integer.signum(Sorter.compareValues(Sorter.toSortKey(a, false), Sorter.toSortKey(b, false))));
+            }
+        }
+    }
+
+    private List<Object> mixedValues() {
+        Timestamp timestamp = new Timestamp(1000);
+        Timestamp timestampWithNanos = new Timestamp(1000);
+        timestampWithNanos.setNanos(500);
+        Timestamp laterTimestamp = new Timestamp(1001);
+        laterTimestamp.setNanos(1000001);
+        return Arrays.asList(1, 2L, (short) -3, new BigDecimal("1.0"), new BigDecimal("1E+400"), BigInteger.ONE, 1.5d, 2.5f,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, "10", "9", " 9", "abc", "", new Date(1000),
+                new java.sql.Date(1000), timestamp, timestampWithNanos, laterTimestamp, new Date(999), Boolean.TRUE,
+                Boolean.FALSE, new byte[] { 1 }, new byte[] { (byte) 0xFF }, new byte[0], UUID.fromString("0-0-0-0-1"),
+                UUID.fromString("0-0-0-0-2"));
+    }
+
+    private void assertTotalOrder(Comparator<Object> comparator, List<Object> values) {
+        for (Object a : values) {
+            for (Object b : values) {
+                int ab = Integer.signum(comparator.compare(a, b));
+                assertEquals(a + " and " + b, -ab, Integer.signum(comparator.compare(b, a)));
+                for (Object c : values) {
+                    int bc = Integer.signum(comparator.compare(b, c));
+                    int ac = Integer.signum(comparator.compare(a, c));
+                    if (ab <= 0 && bc <= 0) {
+                        assertTrue(a + ", " + b + " and " + c, ac <= 0);
+                    }
+                    if (ab == 0) {
+                        assertEquals(a + ", " + b + " and " + c, bc, ac);
+                    }
+                }
+            }
+        }
+    }
+
+}
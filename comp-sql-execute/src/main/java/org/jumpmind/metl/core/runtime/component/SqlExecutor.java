@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
 import org.jumpmind.db.sql.SqlScriptReader;
@@ -40,6 +41,7 @@ import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
 import org.jumpmind.metl.core.runtime.TextMessage;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
+import org.jumpmind.metl.core.runtime.resource.IDatasourceRuntime;
 import org.jumpmind.properties.TypedProperties;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
@@ -51,6 +53,9 @@ public class SqlExecutor extends AbstractRdbmsComponentRuntime {
 
     public static final String TYPE = "Sql Executor";    
 
+    private static final Pattern DDL = Pattern.compile("^\\s*(create|alter|drop|rename|comment)\\s.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
     List<String> sqls;
 
     String runWhen = PER_MESSAGE;
@@ -142,6 +147,9 @@ public class SqlExecutor extends AbstractRdbmsComponentRuntime {
                 log(LogLevel.INFO, "About to run: %s", sqlToExecute);
                 log(LogLevel.INFO, "Passing params: %s", paramMap);
                 resultCount = template.update(sqlToExecute, paramMap);  
+                if (DDL.matcher(sqlToExecute).matches() && getResourceRuntime() instanceof IDatasourceRuntime) {
+                    ((IDatasourceRuntime) getResourceRuntime()).clearTableCache();
+                }
                 getComponentStatistics().incrementNumberEntitiesProcessed(resultCount);
                 sqlCount++;
             }            
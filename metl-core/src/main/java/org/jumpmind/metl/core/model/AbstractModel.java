@@ -21,10 +21,18 @@
 package org.jumpmind.metl.core.model;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractModel extends AbstractNamedObject {
 
     private static final long serialVersionUID = 1L;
+
+    /*
+     * Counts changes to the structure of all models, which are entities,
+     * attributes and schema objects being added, removed, renamed or given
+     * another id. An index built at the current count is still current.
+     */
+    private static final AtomicLong structureModifications = new AtomicLong();
     
     String rowId = UUID.randomUUID().toString();
 
@@ -42,6 +50,14 @@ public abstract class AbstractModel extends AbstractNamedObject {
 
     public AbstractModel() {        
     }
+
+    static long getStructureModifications() {
+        return structureModifications.get();
+    }
+
+    static void structureModified() {
+        structureModifications.incrementAndGet();
+    }
     
     public AbstractModel(String id) {
         this.setId(id);
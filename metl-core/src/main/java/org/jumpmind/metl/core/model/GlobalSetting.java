@@ -49,6 +49,14 @@ public class GlobalSetting extends Setting {
     
     public static final int DEFAULT_AUDIT_EVENT_RETENTION_IN_DAYS = 30;
 
+    public static final String AGENT_MAX_CONCURRENT_FLOWS = "agent.max.concurrent.flows";
+    public static final String AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT = "agent.max.concurrent.flows.per.deployment";
+    public static final String AGENT_MAX_PENDING_FLOWS = "agent.max.pending.flows";
+
+    public static final int DEFAULT_AGENT_MAX_CONCURRENT_FLOWS = 0;
+    public static final int DEFAULT_AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT = 0;
+    public static final int DEFAULT_AGENT_MAX_PENDING_FLOWS = 1000;
+
     public final static String LDAP_HOST = "console.auth.ldap.host";
     public final static String LDAP_BASE_DN = "console.auth.ldap.baseDN";
     public final static String LDAP_SEARCH_ATR = "console.auth.ldap.searchAttribute";
@@ -20,6 +20,9 @@
  */
 package org.jumpmind.metl.core.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.jumpmind.db.sql.Row;
 import org.jumpmind.metl.core.runtime.EntityData;
 
@@ -30,6 +33,8 @@ public class HierarchicalModel extends AbstractModel implements IModel {
     public static final String TYPE = "HIERARCHICAL";
 
     ModelSchemaObject rootObject;
+
+    transient volatile Index index;
     
     public HierarchicalModel() {
         
@@ -50,25 +55,60 @@ public class HierarchicalModel extends AbstractModel implements IModel {
 
     public void setRootObject(ModelSchemaObject rootObject) {
         this.rootObject = rootObject;
+        this.index = null;
     }
     
+    /**
+     * Finds a descendant of the root object by its id. A miss is answered from
+     * the index like a hit. The index is rebuilt on the next lookup after any
+     * schema object is added, removed or given another id, so a lookup never
+     * scans the tree unless the schema changed since the last one.
+     */
     public ModelSchemaObject getObjectById(String objectId) {
-        return getObjectById(rootObject, objectId);
+        if (rootObject == null || objectId == null) {
+            return null;
+        }
+        Index index = this.index;
+        if (index == null || !index.isCurrent(rootObject)) {
+            index = new Index(rootObject);
+            this.index = index;
+        }
+        return index.objectsById.get(objectId);
     }
-    
-    private ModelSchemaObject getObjectById(ModelSchemaObject object, String objectId) {
-        ModelSchemaObject objectToReturn = null;
-        for (ModelSchemaObject childObject : object.getChildObjects()) {
-            if (childObject.getId().equals(objectId)) {
-                objectToReturn = childObject;
-            }
+
+    /**
+     * Drop the object index. It is rebuilt on the next lookup, so this is only
+     * needed when a list of schema objects was changed without going through
+     * the model classes, for example through a sub list.
+     */
+    public void invalidateIndex() {
+        index = null;
+    }
+
+    static class Index {
+
+        final ModelSchemaObject rootObject;
+
+        final long structureModifications;
+
+        final Map<String, ModelSchemaObject> objectsById = new HashMap<>();
+
+        Index(ModelSchemaObject rootObject) {
+            this.structureModifications = getStructureModifications();
+            this.rootObject = rootObject;
+            index(rootObject);
         }
-        if (objectToReturn == null) {
+
+        private void index(ModelSchemaObject object) {
             for (ModelSchemaObject childObject : object.getChildObjects()) {
-                getObjectById(childObject, objectId);
+                objectsById.putIfAbsent(childObject.getId(), childObject);
+                index(childObject);
             }
         }
-        return objectToReturn;
+
+        boolean isCurrent(ModelSchemaObject rootObject) {
+            return rootObject == this.rootObject && structureModifications == getStructureModifications();
+        }
     }
 
     @Override
@@ -69,6 +69,13 @@ public class ModelAttrib extends AbstractNamedObject implements IAuditable, Comp
 
 	public void setName(String name) {
 		this.name = name;
+		AbstractModel.structureModified();
+	}
+
+	@Override
+	public void setId(String id) {
+		super.setId(id);
+		AbstractModel.structureModified();
 	}
 
 	public DataType getDataType() {
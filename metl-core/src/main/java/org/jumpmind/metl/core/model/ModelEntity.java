@@ -20,7 +20,6 @@
  */
 package org.jumpmind.metl.core.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ModelEntity extends AbstractNamedObject implements IAuditable, Comparable<ModelEntity> {
@@ -36,7 +35,7 @@ public class ModelEntity extends AbstractNamedObject implements IAuditable, Comp
     String description;
 
     public ModelEntity() {
-        modelAttributes = new ArrayList<ModelAttrib>();
+        modelAttributes = new ModelList<ModelAttrib>();
     }
 
     public ModelEntity(String id, String name) {
@@ -50,7 +49,8 @@ public class ModelEntity extends AbstractNamedObject implements IAuditable, Comp
     }
 
     public void setModelAttributes(List<ModelAttrib> modelAttributes) {
-        this.modelAttributes = modelAttributes;
+        this.modelAttributes = ModelList.of(modelAttributes);
+        AbstractModel.structureModified();
     }
 
     public void addModelAttribute(ModelAttrib modelAttribute) {
@@ -94,6 +94,13 @@ public class ModelEntity extends AbstractNamedObject implements IAuditable, Comp
 
     public void setName(String name) {
         this.name = name;
+        AbstractModel.structureModified();
+    }
+
+    @Override
+    public void setId(String id) {
+        super.setId(id);
+        AbstractModel.structureModified();
     }
     
     public String getDescription() {
@@ -0,0 +1,138 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A list of entities, attributes or schema objects that reports every change
+ * to {@link AbstractModel#structureModified()} so that model indexes know
+ * when to rebuild.
+ */
+class ModelList<E> extends ArrayList<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    ModelList() {
+    }
+
+    ModelList(Collection<? extends E> c) {
+        super(c);
+    }
+
+    @Override
+    public boolean add(E e) {
+        AbstractModel.structureModified();
+        return super.add(e);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        AbstractModel.structureModified();
+        super.add(index, element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        AbstractModel.structureModified();
+        return super.addAll(c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        AbstractModel.structureModified();
+        return super.addAll(index, c);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        AbstractModel.structureModified();
+        return super.set(index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        AbstractModel.structureModified();
+        return super.remove(index);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        AbstractModel.structureModified();
+        return super.remove(o);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        AbstractModel.structureModified();
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        AbstractModel.structureModified();
+        return super.retainAll(c);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        AbstractModel.structureModified();
+        return super.removeIf(filter);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        AbstractModel.structureModified();
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        AbstractModel.structureModified();
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public void sort(Comparator<? super E> c) {
+        AbstractModel.structureModified();
+        super.sort(c);
+    }
+
+    @Override
+    public void clear() {
+        AbstractModel.structureModified();
+        super.clear();
+    }
+
+    /**
+     * @return the list itself when it already reports changes, otherwise a
+     *         copy that does
+     */
+    static <E> List<E> of(List<E> list) {
+        return list == null || list instanceof ModelList ? list : new ModelList<E>(list);
+    }
+
+}
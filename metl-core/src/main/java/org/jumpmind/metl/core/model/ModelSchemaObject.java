@@ -20,7 +20,6 @@
  */
 package org.jumpmind.metl.core.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ModelSchemaObject extends AbstractNamedObject implements IAuditable {
@@ -54,7 +53,7 @@ public class ModelSchemaObject extends AbstractNamedObject implements IAuditable
     List<ModelSchemaObject> childObjects;
     
     public ModelSchemaObject() {
-        childObjects = new ArrayList<ModelSchemaObject>();
+        childObjects = new ModelList<ModelSchemaObject>();
     }
 
     public ModelSchemaObject(String id, String name) {
@@ -63,6 +62,12 @@ public class ModelSchemaObject extends AbstractNamedObject implements IAuditable
         this.name = name;
     }
 
+    @Override
+    public void setId(String id) {
+        super.setId(id);
+        AbstractModel.structureModified();
+    }
+
     public String getModelId() {
         return modelId;
     }
@@ -148,7 +153,8 @@ public class ModelSchemaObject extends AbstractNamedObject implements IAuditable
     }
 
     public void setChildObjects(List<ModelSchemaObject> childObjects) {
-        this.childObjects = childObjects;
+        this.childObjects = ModelList.of(childObjects);
+        AbstractModel.structureModified();
     }
 
     public String getRefModelId() {
@@ -22,7 +22,9 @@ package org.jumpmind.metl.core.model;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,6 +42,8 @@ public class RelationalModel extends AbstractModel implements IModel, IAuditable
     
     List<ModelRelation> modelRelations;
 
+    transient volatile Index index;
+
     public RelationalModel() {
         initializeModel();
     }
@@ -54,47 +58,35 @@ public class RelationalModel extends AbstractModel implements IModel, IAuditable
     }
 
     private void initializeModel() {
-        this.modelEntities = new ArrayList<ModelEntity>();
+        this.modelEntities = new ModelList<ModelEntity>();
         this.modelRelations = new ArrayList<ModelRelation>();
     }
 
-	public ModelEntity getEntityById(String entityId) {
-        for (ModelEntity entity : modelEntities) {
-            if (entity.getId().equalsIgnoreCase(entityId)) {
-                return entity;
-            }
+    public ModelEntity getEntityById(String entityId) {
+        if (entityId == null) {
+            return null;
         }
-        return null;
+        return getIndex().getEntityById(entityId);
     }
 
     public ModelEntity getEntityByName(String entityName) {
-        for (ModelEntity entity : modelEntities) {
-            if (entity.getName().equalsIgnoreCase(entityName)) {
-                return entity;
-            }
+        if (entityName == null) {
+            return null;
         }
-        return null;
+        return getIndex().getEntityByName(entityName);
     }
 
     public ModelAttrib getAttributeById(String attributeId) {
-        for (ModelEntity entity : modelEntities) {
-            for (ModelAttrib modelAttribute : entity.getModelAttributes()) {
-                if (modelAttribute.getId().equalsIgnoreCase(attributeId)) {
-                    return modelAttribute;
-                }
-            }
+        if (attributeId == null) {
+            return null;
         }
-        return null;
+        return getIndex().getAttributeById(attributeId);
     }
 
     public ModelAttrib getAttributeByName(String entityName, String attributeName) {
         ModelEntity entity = getEntityByName(entityName);
-        if (entity != null) {
-            for (ModelAttrib modelAttribute : entity.getModelAttributes()) {
-                if (modelAttribute.getName().equalsIgnoreCase(attributeName)) {
-                    return modelAttribute;
-                }
-            }
+        if (entity != null && attributeName != null) {
+            return getIndex().getAttributeByName(entity, attributeName);
         }
         return null;
     }
@@ -111,12 +103,32 @@ public class RelationalModel extends AbstractModel implements IModel, IAuditable
         return attributes;
     }
 
+    /**
+     * Drop the lookup indexes. They are rebuilt automatically when entities
+     * or attributes are added, removed, renamed or given another id through
+     * the model classes, so this is only needed when a list of entities or
+     * attributes was changed some other way, for example through a sub list.
+     */
+    public void invalidateIndex() {
+        index = null;
+    }
+
+    protected Index getIndex() {
+        Index index = this.index;
+        if (index == null || !index.isCurrent(modelEntities)) {
+            index = new Index(modelEntities);
+            this.index = index;
+        }
+        return index;
+    }
+
     public List<ModelEntity> getModelEntities() {
         return modelEntities;
     }
 
     public void setModelEntities(List<ModelEntity> modelEntities) {
-        this.modelEntities = modelEntities;
+        this.modelEntities = ModelList.of(modelEntities);
+        this.index = null;
     }
     
     public List<ModelRelation> getModelRelations() {
@@ -205,5 +217,91 @@ public class RelationalModel extends AbstractModel implements IModel, IAuditable
     public String getType() {
         return TYPE;
     }
-    
+
+    /**
+     * Hash lookups for entities and attributes. The index remembers the entity
+     * list and the structure modification count it was built from, so telling
+     * whether it is current does not walk the model. Any entity, attribute or
+     * schema object change in any model rebuilds it on its next lookup.
+     */
+    static class Index {
+
+        final List<ModelEntity> entityList;
+
+        final long structureModifications;
+
+        final Map<String, ModelEntity> entitiesById = new HashMap<>();
+
+        final Map<String, ModelEntity> entitiesByLowerCaseId = new HashMap<>();
+
+        final Map<String, ModelEntity> entitiesByName = new HashMap<>();
+
+        final Map<String, ModelAttrib> attributesById = new HashMap<>();
+
+        final Map<String, ModelAttrib> attributesByLowerCaseId = new HashMap<>();
+
+        final Map<ModelEntity, Map<String, ModelAttrib>> attributesByEntityAndName = new IdentityHashMap<>();
+
+        Index(List<ModelEntity> entityList) {
+            /* read first so that a change made while building is not missed */
+            this.structureModifications = getStructureModifications();
+            this.entityList = entityList;
+            int size = entityList != null ? entityList.size() : 0;
+            for (int i = 0; i < size; i++) {
+                ModelEntity entity = entityList.get(i);
+                List<ModelAttrib> attributes = entity.getModelAttributes();
+                putIfAbsent(entitiesById, entitiesByLowerCaseId, entity.getId(), entity);
+                if (entity.getName() != null) {
+                    entitiesByName.putIfAbsent(entity.getName().toLowerCase(Locale.ENGLISH), entity);
+                }
+                Map<String, ModelAttrib> attributesByName = new HashMap<>();
+                attributesByEntityAndName.put(entity, attributesByName);
+                if (attributes != null) {
+                    for (ModelAttrib attribute : attributes) {
+                        putIfAbsent(attributesById, attributesByLowerCaseId, attribute.getId(), attribute);
+                        if (attribute.getName() != null) {
+                            attributesByName.putIfAbsent(attribute.getName().toLowerCase(Locale.ENGLISH), attribute);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static <T> void putIfAbsent(Map<String, T> byId, Map<String, T> byLowerCaseId, String id, T value) {
+            if (id != null) {
+                byId.putIfAbsent(id, value);
+                byLowerCaseId.putIfAbsent(id.toLowerCase(Locale.ENGLISH), value);
+            }
+        }
+
+        boolean isCurrent(List<ModelEntity> entityList) {
+            return entityList == this.entityList && structureModifications == getStructureModifications();
+        }
+
+        ModelEntity getEntityById(String entityId) {
+            ModelEntity entity = entitiesById.get(entityId);
+            if (entity == null) {
+                entity = entitiesByLowerCaseId.get(entityId.toLowerCase(Locale.ENGLISH));
+            }
+            return entity;
+        }
+
+        ModelEntity getEntityByName(String entityName) {
+            return entitiesByName.get(entityName.toLowerCase(Locale.ENGLISH));
+        }
+
+        ModelAttrib getAttributeById(String attributeId) {
+            ModelAttrib attribute = attributesById.get(attributeId);
+            if (attribute == null) {
+                attribute = attributesByLowerCaseId.get(attributeId.toLowerCase(Locale.ENGLISH));
+            }
+            return attribute;
+        }
+
+        ModelAttrib getAttributeByName(ModelEntity entity, String attributeName) {
+            Map<String, ModelAttrib> attributesByName = attributesByEntityAndName.get(entity);
+            return attributesByName != null ? attributesByName.get(attributeName.toLowerCase(Locale.ENGLISH)) : null;
+        }
+    }
+
 }
@@ -128,6 +128,11 @@ public abstract class AbstractService {
             Map<String, Object> params) {
         List<? extends Setting> settings = persistenceManager.find(clazz, params, null, null,
                 tableName(clazz));
+        prepareSettings(settings);
+        return settings;
+    }
+
+    protected void prepareSettings(List<? extends Setting> settings) {
         for (Setting setting : settings) {
             if (isPassword(setting)) {
                 String value = setting.getValue();
@@ -145,7 +150,6 @@ public abstract class AbstractService {
             }
         }
         AbstractObjectLastUpdateTimeDescSorter.sort(settings);
-        return settings;
     }    
     
     protected boolean isPassword(Setting setting) {
@@ -95,11 +95,19 @@ public class ConfigurationService extends AbstractService
     
     private List<IConfigurationChangedListener> configurationChangedListeners = Collections.synchronizedList(new ArrayList<>());
 
+    protected DeployedFlowCache deployedFlowCache = new DeployedFlowCache(60000);
+
     public ConfigurationService(IOperationsService operationsService, ISecurityService securityService, IDatabasePlatform databasePlatform,
             IPersistenceManager persistenceManager, String tablePrefix) {
         super(securityService, persistenceManager, tablePrefix);
         this.operationsService = operationsService;
         this.databasePlatform = databasePlatform;
+        this.configurationChangedListeners.add(deployedFlowCache);
+    }
+
+    @Override
+    public DeployedFlowCache getDeployedFlowCache() {
+        return deployedFlowCache;
     }
     
     @Override
@@ -228,6 +236,23 @@ public class ConfigurationService extends AbstractService
         return flowVersion;
     }
 
+    @Override
+    public Flow findDeployedFlow(String id) {
+        if (!deployedFlowCache.isEnabled()) {
+            return findFlow(id);
+        }
+        DeployedFlowCache.Generation generation = deployedFlowCache.getGeneration();
+        Flow flow = generation.getFlows().get(id);
+        if (flow == null) {
+            flow = new Flow();
+            flow.setId(id);
+            refresh((AbstractObject) flow);
+            refreshFlowRelations(flow, generation.getModels(), generation.getResources());
+            generation.getFlows().put(id, flow);
+        }
+        return flow;
+    }
+
     @Override
     public Folder findFirstFolderWithName(String name, FolderType type) {
         Map<String, Object> byType = new HashMap<String, Object>();
@@ -524,11 +549,9 @@ public class ConfigurationService extends AbstractService
     public IModel findModel(String id) {        
         Map<String, Object> params = new HashMap<String, Object>();
         params.put("id", id);
-        List<RelationalModel> relModel = persistenceManager.find(RelationalModel.class, params, null, null,
-                tableName(RelationalModel.class));
         
         IModel model = null;
-        if (relModel.size() > 0) {
+        if (count(RelationalModel.class, params) > 0) {
             model = findRelationalModel(id);
         } else {
             model = findHierarchicalModel(id);
@@ -676,6 +699,7 @@ public class ConfigurationService extends AbstractService
 
     @Override
     public boolean delete(FlowStepLink link) {
+        deployedFlowCache.invalidate();
         return persistenceManager.delete(link, null, null, tableName(FlowStepLink.class));
     }
 
@@ -694,12 +718,16 @@ public class ConfigurationService extends AbstractService
 
     protected void refresh(Flow flow) {
         refresh((AbstractObject) flow);
-        refreshFlowRelations(flow);
+        refreshFlowRelations(flow, new HashMap<>(), new HashMap<>());
     }
 
-
-    
-    private void refreshFlowRelations(Flow flow) {
+    /**
+     * Loads the parameters, steps, components, component settings and links
+     * of a flow with one query per table rather than one set of queries per
+     * step. Models and resources are looked up in, and added to, the passed
+     * in maps so they can be shared across flows.
+     */
+    private void refreshFlowRelations(Flow flow, Map<String, IModel> models, Map<String, Resource> resources) {
         flow.setFlowSteps(new ArrayList<>());
         flow.setFlowStepLinks(new ArrayList<>());
         Map<String, Object> versionParams = new HashMap<String, Object>();
@@ -718,11 +746,45 @@ public class ConfigurationService extends AbstractService
             }
         });
 
-        Map<String, IModel> models = new HashMap<>();
-        Map<String, Resource> resources = new HashMap<>();
+        String flowStepComponents = String.format("select component_id from %1$s_flow_step where flow_id=?", tablePrefix);
+        Map<String, Component> components = new HashMap<>();
+        for (Component component : findForFlow(Component.class, "id", flowStepComponents, flow.getId())) {
+            components.put(component.getId(), component);
+        }
+        Map<String, List<ComponentSetting>> settings = groupByComponentId(
+                findForFlow(ComponentSetting.class, "component_id", flowStepComponents, flow.getId()));
+        Map<String, List<ComponentEntitySetting>> entitySettings = groupByComponentId(
+                findForFlow(ComponentEntitySetting.class, "component_id", flowStepComponents, flow.getId()));
+        Map<String, List<ComponentAttribSetting>> attributeSettings = groupByComponentId(
+                findForFlow(ComponentAttribSetting.class, "component_id", flowStepComponents, flow.getId()));
+        Map<String, List<ComponentModelSetting>> modelSettings = groupByComponentId(
+                findForFlow(ComponentModelSetting.class, "component_id", flowStepComponents, flow.getId()));
+
+        Map<String, List<FlowStepLink>> linksBySourceStepId = new HashMap<>();
+        for (FlowStepLink link : findForFlow(FlowStepLink.class, "source_step_id",
+                String.format("select id from %1$s_flow_step where flow_id=?", tablePrefix), flow.getId())) {
+            List<FlowStepLink> links = linksBySourceStepId.get(link.getSourceStepId());
+            if (links == null) {
+                links = new ArrayList<>();
+                linksBySourceStepId.put(link.getSourceStepId(), links);
+            }
+            links.add(link);
+        }
 
         for (FlowStep step : steps) {
-            Component component = findComponent(step.getComponentId(), false);
+            /*
+             * a component referenced by more than one step still gets its own
+             * instance per step
+             */
+            Component component = components.remove(step.getComponentId());
+            if (component != null) {
+                component.setSettings(listOrEmpty(settings.get(component.getId())));
+                component.setEntitySettings(listOrEmpty(entitySettings.get(component.getId())));
+                component.setAttributeSettings(listOrEmpty(attributeSettings.get(component.getId())));
+                component.setModelSettings(listOrEmpty(modelSettings.get(component.getId())));
+            } else {
+                component = findComponent(step.getComponentId(), false);
+            }
             step.setComponent(component);
             flow.getFlowSteps().add(step);
 
@@ -756,20 +818,62 @@ public class ConfigurationService extends AbstractService
                 Resource resource = resources.get(resourceId);
                 if (resource == null) {
                     resource = findResource(resourceId);
-                    resources.put(resourceId, resource);
+                    if (resource != null) {
+                        resources.put(resourceId, resource);
+                    }
                 }
                 component.setResource(resource);
             }
 
-            Map<String, Object> linkParams = new HashMap<String, Object>();
-            linkParams.put("sourceStepId", step.getId());
+            List<FlowStepLink> dataLinks = linksBySourceStepId.get(step.getId());
+            if (dataLinks != null) {
+                flow.getFlowStepLinks().addAll(dataLinks);
+            }
+        }
+    }
 
-            List<FlowStepLink> dataLinks = persistenceManager.find(FlowStepLink.class, linkParams,
-                    null, null, tableName(FlowStepLink.class));
-            for (FlowStepLink dataLink : dataLinks) {
-                flow.getFlowStepLinks().add(dataLink);
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> findForFlow(final Class<T> clazz, String column, String subSelect, String flowId) {
+        ISqlTemplate template = databasePlatform.getSqlTemplate();
+        final String tableName = tableName(clazz);
+        String sql = String.format("select * from %s where %s in (%s)", tableName, column, subSelect);
+        List<T> list = template.query(sql, new ISqlRowMapper<T>() {
+            @Override
+            public T mapRow(Row row) {
+                return persistenceManager.map(row, clazz, null, null, tableName);
             }
+        }, new Object[] { flowId });
+        if (list.size() > 0 && list.get(0) instanceof Setting) {
+            prepareSettings((List<? extends Setting>) list);
         }
+        return list;
+    }
+
+    protected <T extends Setting> Map<String, List<T>> groupByComponentId(List<T> settings) {
+        Map<String, List<T>> byComponentId = new HashMap<>();
+        for (T setting : settings) {
+            String componentId = null;
+            if (setting instanceof ComponentSetting) {
+                componentId = ((ComponentSetting) setting).getComponentId();
+            } else if (setting instanceof ComponentEntitySetting) {
+                componentId = ((ComponentEntitySetting) setting).getComponentId();
+            } else if (setting instanceof ComponentAttribSetting) {
+                componentId = ((ComponentAttribSetting) setting).getComponentId();
+            } else if (setting instanceof ComponentModelSetting) {
+                componentId = ((ComponentModelSetting) setting).getComponentId();
+            }
+            List<T> list = byComponentId.get(componentId);
+            if (list == null) {
+                list = new ArrayList<>();
+                byComponentId.put(componentId, list);
+            }
+            list.add(setting);
+        }
+        return byComponentId;
+    }
+
+    private static <T> List<T> listOrEmpty(List<T> list) {
+        return list != null ? list : new ArrayList<>();
     }
 
     @Override
@@ -879,6 +983,7 @@ public class ConfigurationService extends AbstractService
         }
 
         persistenceManager.delete(modelEntity, null, null, tableName(ModelEntity.class));
+        deployedFlowCache.invalidate();
     }
 
     @Override
@@ -891,6 +996,7 @@ public class ConfigurationService extends AbstractService
             delete(setting);
         }
         persistenceManager.delete(modelAttribute, null, null, tableName(ModelAttrib.class));
+        deployedFlowCache.invalidate();
     }
 
     @Override
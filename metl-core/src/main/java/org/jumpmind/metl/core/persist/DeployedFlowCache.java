@@ -0,0 +1,139 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.persist;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jumpmind.metl.core.model.AbstractObject;
+import org.jumpmind.metl.core.model.AuditEvent;
+import org.jumpmind.metl.core.model.Flow;
+import org.jumpmind.metl.core.model.IModel;
+import org.jumpmind.metl.core.model.Resource;
+
+/**
+ * Holds fully hydrated flow definitions, together with the models and
+ * resources they reference, for the runtime. Entries belong to a
+ * {@link Generation}. Any configuration change starts a new generation so a
+ * flow that was being loaded while the change happened is stored in the old,
+ * discarded generation instead of the current one. A generation also expires
+ * after the configured time to live so that changes made by another server
+ * against the same configuration database are eventually picked up.
+ * <p>
+ * Cached graphs are shared between executions and must be treated as read
+ * only.
+ */
+public class DeployedFlowCache implements IConfigurationChangedListener {
+
+    long timeToLiveMs;
+
+    volatile Generation current;
+
+    public DeployedFlowCache(long timeToLiveMs) {
+        this.timeToLiveMs = timeToLiveMs;
+        this.current = new Generation(0);
+    }
+
+    public boolean isEnabled() {
+        return timeToLiveMs > 0;
+    }
+
+    public void setTimeToLiveMs(long timeToLiveMs) {
+        this.timeToLiveMs = timeToLiveMs;
+        invalidate();
+    }
+
+    public long getTimeToLiveMs() {
+        return timeToLiveMs;
+    }
+
+    public long getVersion() {
+        return current.version;
+    }
+
+    public Generation getGeneration() {
+        Generation generation = current;
+        if (System.currentTimeMillis() - generation.createTime > timeToLiveMs) {
+            synchronized (this) {
+                if (generation == current) {
+                    current = new Generation(generation.version + 1);
+                }
+                generation = current;
+            }
+        }
+        return generation;
+    }
+
+    public synchronized void invalidate() {
+        current = new Generation(current.version + 1);
+    }
+
+    @Override
+    public void onSave(AbstractObject object) {
+        if (!(object instanceof AuditEvent)) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onDelete(AbstractObject object) {
+        invalidate();
+    }
+
+    @Override
+    public void onMultiRowUpdate() {
+        invalidate();
+    }
+
+    public static class Generation {
+
+        final long version;
+
+        final long createTime = System.currentTimeMillis();
+
+        final Map<String, Flow> flows = new ConcurrentHashMap<>();
+
+        final Map<String, IModel> models = new ConcurrentHashMap<>();
+
+        final Map<String, Resource> resources = new ConcurrentHashMap<>();
+
+        Generation(long version) {
+            this.version = version;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Map<String, Flow> getFlows() {
+            return flows;
+        }
+
+        public Map<String, IModel> getModels() {
+            return models;
+        }
+
+        public Map<String, Resource> getResources() {
+            return resources;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.persist;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the execution purge job. The counters are updated while a purge
+ * is running and keep the totals of the last run once it finishes.
+ */
+public class ExecutionPurgeStatistics {
+
+    volatile boolean running;
+
+    volatile String status;
+
+    volatile Date startTime;
+
+    volatile Date endTime;
+
+    final AtomicLong executionsPurged = new AtomicLong();
+
+    final AtomicLong executionStepsPurged = new AtomicLong();
+
+    final AtomicLong logFilesDeleted = new AtomicLong();
+
+    void start() {
+        executionsPurged.set(0);
+        executionStepsPurged.set(0);
+        logFilesDeleted.set(0);
+        status = null;
+        endTime = null;
+        startTime = new Date();
+        running = true;
+    }
+
+    void finish() {
+        status = null;
+        endTime = new Date();
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the execution status currently being purged
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public Date getEndTime() {
+        return endTime;
+    }
+
+    public long getExecutionsPurged() {
+        return executionsPurged.get();
+    }
+
+    public long getExecutionStepsPurged() {
+        return executionStepsPurged.get();
+    }
+
+    public long getLogFilesDeleted() {
+        return logFilesDeleted.get();
+    }
+
+}
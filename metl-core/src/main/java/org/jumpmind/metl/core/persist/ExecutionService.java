@@ -25,14 +25,19 @@ import static org.apache.commons.lang.StringUtils.isNotBlank;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
@@ -43,8 +48,10 @@ import org.jumpmind.db.model.Table;
 import org.jumpmind.db.platform.IDatabasePlatform;
 import org.jumpmind.db.sql.ISqlRowMapper;
 import org.jumpmind.db.sql.ISqlTemplate;
+import org.jumpmind.db.sql.ISqlTransaction;
 import org.jumpmind.db.sql.Row;
 import org.jumpmind.db.sql.mapper.StringMapper;
+import org.jumpmind.metl.core.model.AbstractObject;
 import org.jumpmind.metl.core.model.Agent;
 import org.jumpmind.metl.core.model.AgentProjectVersionFlowDeployment;
 import org.jumpmind.metl.core.model.Execution;
@@ -54,6 +61,7 @@ import org.jumpmind.metl.core.model.ExecutionStepLog;
 import org.jumpmind.metl.core.runtime.ExecutionTrackerLogger;
 import org.jumpmind.metl.core.runtime.ExecutionTrackerRecorder;
 import org.jumpmind.metl.core.runtime.IExecutionTracker;
+import org.jumpmind.metl.core.runtime.flow.AsyncRecorder;
 import org.jumpmind.metl.core.security.ISecurityService;
 import org.jumpmind.metl.core.util.LogUtils;
 import org.jumpmind.persist.IPersistenceManager;
@@ -70,6 +78,8 @@ public class ExecutionService extends AbstractService implements IExecutionServi
     
     protected IDatabasePlatform databasePlatform;
 
+    protected ExecutionPurgeStatistics purgeStatistics = new ExecutionPurgeStatistics();
+
     public ExecutionService(ISecurityService securityService, IPersistenceManager persistenceManager, IDatabasePlatform databasePlatform, String tablePrefix, Environment env) {
         super(securityService, persistenceManager, tablePrefix);
         this.databasePlatform = databasePlatform;
@@ -119,49 +129,140 @@ public class ExecutionService extends AbstractService implements IExecutionServi
         return new File(LogUtils.getLogDir(), executionStepId + ".log");
     }
     
-    protected List<ExecutionStepLog> findExecutionStepLogs(Set<String> executionStepIds, int limit, Set<String> statuses) {
+    /**
+     * Merge the logs of the steps by create time and stop after limit records
+     * in total. Each step log is read in order and only as far as the merge
+     * needs it.
+     */
+    @Override
+    public List<ExecutionStepLog> findExecutionStepLogs(Set<String> executionStepIds, int limit, Set<String> levels) {
         List<ExecutionStepLog> executionStepLogs = new ArrayList<>();
-        for (String executionStepId : executionStepIds) {
-            File file = getExecutionStepLog(executionStepId);
-            if (file.exists()) {
-                CsvReader reader = null;
-                try {
-                    reader = new CsvReader(file.getAbsolutePath(),'"',Charset.forName("UTF-8"));
-                    long id = 1;
-                    while (reader.readRecord()) {
-                        if (limit > 0) {
-                            String[] values = reader.getValues();
-                            if (values != null && values.length > 2 && isNotBlank(values[0]) && isNotBlank(values[1])
-                                    && isNotBlank(values[2])) {
-                                String level = values[0];
-                                if (statuses == null || statuses.size() == 0
-                                        || statuses.contains(level)) {
-                                    ExecutionStepLog stepLog = new ExecutionStepLog();
-                                    stepLog.setExecutionStepId(executionStepId);
-                                    stepLog.setCreateTime(FormatUtils.parseDate(values[1],
-                                            FormatUtils.TIMESTAMP_PATTERNS));
-                                    stepLog.setLevel(level);
-                                    stepLog.setLogText(values[2]);
-                                    stepLog.setId(Long.toString(id++));
-                                    executionStepLogs.add(stepLog);
-                                }
+        PriorityQueue<StepLogCursor> cursors = new PriorityQueue<>();
+        try {
+            int order = 0;
+            for (String executionStepId : executionStepIds) {
+                StepLogCursor cursor = new StepLogCursor(executionStepId, order++, limit, levels);
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            while (executionStepLogs.size() < limit && !cursors.isEmpty()) {
+                StepLogCursor cursor = cursors.poll();
+                executionStepLogs.add(cursor.current);
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+        } catch (IOException e) {
+            log.error("", e);
+        } finally {
+            for (StepLogCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+        return executionStepLogs;
+    }
+
+    @Override
+    public long countExecutionStepLogs(String executionStepId) {
+        return countExecutionStepLogs(executionStepId, null);
+    }
+
+    @Override
+    public long countExecutionStepLogs(String executionStepId, Set<String> levels) {
+        File file = getExecutionStepLog(executionStepId);
+        ExecutionStepLogReader reader = new ExecutionStepLogReader(executionStepId, file);
+        if (reader.isIndexed()) {
+            try {
+                return reader.count(levels);
+            } catch (IOException e) {
+                log.error("", e);
+                return 0;
+            } finally {
+                reader.close();
+            }
+        } else {
+            return scanExecutionStepLog(executionStepId, file, 0, Integer.MAX_VALUE, levels, false).size();
+        }
+    }
+
+    @Override
+    public List<ExecutionStepLog> findExecutionStepLogs(String executionStepId, long offset, int limit, Set<String> levels) {
+        return findExecutionStepLogs(executionStepId, offset, limit, levels, false);
+    }
+
+    @Override
+    public List<ExecutionStepLog> findLastExecutionStepLogs(String executionStepId, int limit, Set<String> levels) {
+        return findExecutionStepLogs(executionStepId, 0, limit, levels, true);
+    }
+
+    protected List<ExecutionStepLog> findExecutionStepLogs(String executionStepId, long offset, int limit, Set<String> levels,
+            boolean last) {
+        File file = getExecutionStepLog(executionStepId);
+        ExecutionStepLogReader reader = new ExecutionStepLogReader(executionStepId, file);
+        if (reader.isIndexed()) {
+            try {
+                return last ? reader.findLast(limit, levels) : reader.find(offset, limit, levels);
+            } catch (IOException e) {
+                log.error("", e);
+                return new ArrayList<>(0);
+            } finally {
+                reader.close();
+            }
+        } else {
+            return scanExecutionStepLog(executionStepId, file, offset, limit, levels, last);
+        }
+    }
+
+    /**
+     * Read a log that was written before logs were indexed by parsing it from
+     * the start
+     */
+    protected List<ExecutionStepLog> scanExecutionStepLog(String executionStepId, File file, long offset, int limit,
+            Set<String> levels, boolean last) {
+        LinkedList<ExecutionStepLog> executionStepLogs = new LinkedList<>();
+        if (file.exists()) {
+            CsvReader reader = null;
+            try {
+                reader = new CsvReader(file.getAbsolutePath(),'"',Charset.forName("UTF-8"));
+                long id = 1;
+                while ((last || executionStepLogs.size() < limit) && reader.readRecord()) {
+                    String[] values = reader.getValues();
+                    if (values != null && values.length > 2 && isNotBlank(values[0]) && isNotBlank(values[1])
+                            && isNotBlank(values[2])) {
+                        String level = values[0];
+                        long recordNumber = id++;
+                        if (levels == null || levels.size() == 0 || levels.contains(level)) {
+                            if (offset > 0) {
+                                offset--;
+                                continue;
+                            }
+                            ExecutionStepLog stepLog = new ExecutionStepLog();
+                            stepLog.setExecutionStepId(executionStepId);
+                            stepLog.setCreateTime(FormatUtils.parseDate(values[1],
+                                    FormatUtils.TIMESTAMP_PATTERNS));
+                            stepLog.setLevel(level);
+                            stepLog.setLogText(values[2]);
+                            stepLog.setId(Long.toString(recordNumber));
+                            executionStepLogs.add(stepLog);
+                            if (last && executionStepLogs.size() > limit) {
+                                executionStepLogs.removeFirst();
                             }
-                            limit--;
-                        } else {
-                            break;
                         }
                     }
-                } catch (IOException e) {
-                    log.error("", e);
-                } finally {
-                    if (reader != null) {
-                        reader.close();
-                    }
+                }
+            } catch (IOException e) {
+                log.error("", e);
+            } finally {
+                if (reader != null) {
+                    reader.close();
                 }
             }
         }
-
-        Collections.sort(executionStepLogs);
         return executionStepLogs;
     }
 
@@ -181,20 +282,96 @@ public class ExecutionService extends AbstractService implements IExecutionServi
         return findExecutionStepLogs(executionStepIds, Integer.MAX_VALUE, statuses);
     }
 
+    /**
+     * Reads one step log in order for the merge in
+     * {@link ExecutionService#findExecutionStepLogs(Set, int, Set)}. Logs
+     * without an index are read up front, but never more than limit records.
+     */
+    class StepLogCursor implements Comparable<StepLogCursor> {
+
+        int order;
+
+        Set<String> levels;
+
+        ExecutionStepLogReader reader;
+
+        Iterator<ExecutionStepLog> scanned;
+
+        ExecutionStepLog current;
+
+        StepLogCursor(String executionStepId, int order, int limit, Set<String> levels) {
+            this.order = order;
+            this.levels = levels;
+            File file = getExecutionStepLog(executionStepId);
+            ExecutionStepLogReader reader = new ExecutionStepLogReader(executionStepId, file);
+            if (reader.isIndexed()) {
+                this.reader = reader;
+            } else {
+                this.scanned = scanExecutionStepLog(executionStepId, file, 0, limit, levels, false).iterator();
+            }
+        }
+
+        boolean next() throws IOException {
+            if (reader != null) {
+                current = reader.next(levels);
+            } else {
+                current = scanned.hasNext() ? scanned.next() : null;
+            }
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(StepLogCursor other) {
+            Date time = current.getCreateTime();
+            Date otherTime = other.current.getCreateTime();
+            int compare = 0;
+            if (time != null && otherTime != null) {
+                compare = time.compareTo(otherTime);
+            } else if (time != otherTime) {
+                compare = time == null ? -1 : 1;
+            }
+            return compare != 0 ? compare : Integer.compare(order, other.order);
+        }
+
+        void close() {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
     class PurgeExecutionHandler implements Runnable {
         @Override
         public void run() {
+            if (databasePlatform == null) {
+                return;
+            }
+            Table table = databasePlatform.readTableFromDatabase(null, null, tableName(Execution.class));
+            if (table == null) {
+                log.info("Could not run execution purge because the execution table had not been created yet");
+                return;
+            }
             ExecutionStatus[] toPurge = new ExecutionStatus[] { ExecutionStatus.CANCELLED, ExecutionStatus.DONE, ExecutionStatus.ERROR,
                     ExecutionStatus.ABANDONED };
-            for (ExecutionStatus executionStatus : toPurge) {
-                String retentionTimeInMs = environment.getProperty("execution.retention.time.ms", Long.toString(1000 * 60 * 60 * 24 * 7));
-                retentionTimeInMs = environment.getProperty("execution.retention.time.ms." + executionStatus.name().toLowerCase(),
-                        retentionTimeInMs);
-                purgeExecutions(executionStatus.name(), Integer.parseInt(retentionTimeInMs));
+            purgeStatistics.start();
+            try {
+                for (ExecutionStatus executionStatus : toPurge) {
+                    String retentionTimeInMs = environment.getProperty("execution.retention.time.ms", Long.toString(1000 * 60 * 60 * 24 * 7));
+                    retentionTimeInMs = environment.getProperty("execution.retention.time.ms." + executionStatus.name().toLowerCase(),
+                            retentionTimeInMs);
+                    purgeExecutions(executionStatus.name(), Integer.parseInt(retentionTimeInMs));
+                }
+            } finally {
+                purgeStatistics.finish();
             }
         }
     }
 
+    @Override
+    public ExecutionPurgeStatistics getPurgeStatistics() {
+        return purgeStatistics;
+    }
+
     public void markAbandoned(String agentId) {
         log.info("Marking executions as abadoned for the agent with the id: {}", agentId);
         ISqlTemplate template = databasePlatform.getSqlTemplate();
@@ -263,6 +440,84 @@ public class ExecutionService extends AbstractService implements IExecutionServi
                 }, params.values().toArray());
     }
     
+    @Override
+    public void updateAll(Collection<? extends AbstractObject> objects) {
+        List<Execution> executions = new ArrayList<>();
+        List<ExecutionStep> executionSteps = new ArrayList<>();
+        for (AbstractObject object : objects) {
+            if (object instanceof Execution) {
+                executions.add((Execution) object);
+            } else if (object instanceof ExecutionStep) {
+                executionSteps.add((ExecutionStep) object);
+            } else {
+                save(object);
+            }
+        }
+
+        if (executions.size() > 0 || executionSteps.size() > 0) {
+            ISqlTransaction transaction = databasePlatform.getSqlTemplate().startSqlTransaction();
+            try {
+                transaction.setInBatchMode(true);
+                updateExecutions(transaction, executions);
+                updateExecutionSteps(transaction, executionSteps);
+                transaction.commit();
+            } catch (Throwable ex) {
+                transaction.rollback();
+                log.warn("Failed to batch update {} executions and {} execution steps.  Saving them one at a time", executions.size(),
+                        executionSteps.size(), ex);
+                for (Execution execution : executions) {
+                    save(execution);
+                }
+                for (ExecutionStep executionStep : executionSteps) {
+                    save(executionStep);
+                }
+            } finally {
+                transaction.close();
+            }
+        }
+    }
+
+    protected void updateExecutions(ISqlTransaction transaction, List<Execution> executions) {
+        if (executions.size() > 0) {
+            transaction.prepare(String.format("update %1$s_execution set agent_id=?, flow_id=?, deployment_id=?, deployment_name=?, "
+                    + "agent_name=?, host_name=?, flow_name=?, status=?, parameters=?, start_time=?, end_time=?, last_update_by=?, "
+                    + "last_update_time=? where id=?", tablePrefix));
+            int[] types = new int[] { Types.CHAR, Types.CHAR, Types.CHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                    Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP, Types.CHAR };
+            for (Execution e : executions) {
+                e.setLastUpdateTime(new Date());
+                transaction.addRow(e,
+                        new Object[] { e.getAgentId(), e.getFlowId(), e.getDeploymentId(), e.getDeploymentName(), e.getAgentName(),
+                                e.getHostName(), e.getFlowName(), e.getStatus(), e.getParameters(), e.getStartTime(), e.getEndTime(),
+                                e.getLastUpdateBy(), e.getLastUpdateTime(), e.getId() },
+                        types);
+            }
+            transaction.flush();
+        }
+    }
+
+    protected void updateExecutionSteps(ISqlTransaction transaction, List<ExecutionStep> executionSteps) {
+        if (executionSteps.size() > 0) {
+            transaction.prepare(String.format("update %1$s_execution_step set execution_id=?, thread_number=?, flow_step_id=?, "
+                    + "component_name=?, approximate_order=?, status=?, messages_received=?, messages_produced=?, payload_received=?, "
+                    + "payload_produced=?, entities_processed=?, start_time=?, end_time=?, handle_duration=?, queue_duration=? "
+                    + "where id=?", tablePrefix));
+            int[] types = new int[] { Types.CHAR, Types.INTEGER, Types.CHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.INTEGER,
+                    Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT,
+                    Types.BIGINT, Types.CHAR };
+            for (ExecutionStep step : executionSteps) {
+                step.setLastUpdateTime(new Date());
+                transaction.addRow(step,
+                        new Object[] { step.getExecutionId(), step.getThreadNumber(), step.getFlowStepId(), step.getComponentName(),
+                                step.getApproximateOrder(), step.getStatus(), step.getMessagesReceived(), step.getMessagesProduced(),
+                                step.getPayloadReceived(), step.getPayloadProduced(), step.getEntitiesProcessed(), step.getStartTime(),
+                                step.getEndTime(), step.getHandleDuration(), step.getQueueDuration(), step.getId() },
+                        types);
+            }
+            transaction.flush();
+        }
+    }
+    
     @Override
     public void deleteExecution(String executionId) {
         ISqlTemplate template = databasePlatform.getSqlTemplate();
@@ -270,8 +525,9 @@ public class ExecutionService extends AbstractService implements IExecutionServi
                 String.format("select id from %1$s_execution_step where execution_id = ?", tablePrefix),
                 new StringMapper(),  executionId );
         for (String executionStepId : executionStepIds) {
-            File file = new File(LogUtils.getLogDir(), executionStepId + ".log");
+            File file = getExecutionStepLog(executionStepId);
             FileUtils.deleteQuietly(file);
+            FileUtils.deleteQuietly(ExecutionStepLogWriter.getIndexFile(file));
         }
         template.update(String.format(
                 "delete from %1$s_execution_step where execution_id in (select id from %1$s_execution where id=?)", tablePrefix),
@@ -281,48 +537,59 @@ public class ExecutionService extends AbstractService implements IExecutionServi
     }
 
     protected void purgeExecutions(String status, int retentionTimeInMs) {
-        if (databasePlatform != null) {
-            Table table = databasePlatform.readTableFromDatabase(null, null, tableName(Execution.class));
-            if (table != null) {
-                Date purgeBefore = DateUtils.addMilliseconds(new Date(), -retentionTimeInMs);
-                log.debug("Purging executions with the status of {} before {}", status, purgeBefore);
-                ISqlTemplate template = databasePlatform.getSqlTemplate();
-
-                long ts = System.currentTimeMillis();
-                
-                List<String> executionIds = template.query(
-                        String.format("select id from %1$s_execution where last_update_time <= ? and status=?", tablePrefix),
-                        new StringMapper(), new Object[] { purgeBefore, status });
-                
-                if (0 > executionIds.size()) {
-                   log.info("It took {}ms to find {} executions to purge with a status of {}", System.currentTimeMillis()-ts, executionIds.size(), status);
-                }
-                int countSteps = 0;
-                int countExecutions = 0;
-                for (String id : executionIds) {
-                    List<String> executionStepIds = template.query(
-                            String.format("select id from %1$s_execution_step where execution_id = ?", tablePrefix),
-                            new StringMapper(), new Object[] { id });                    
-                    for (String executionStepId : executionStepIds) {
-                        File file = new File(LogUtils.getLogDir(), executionStepId + ".log");
-                        FileUtils.deleteQuietly(file);
-                        countSteps += template.update(String.format("delete from %1$s_execution_step where id=?", tablePrefix), executionStepId);
-                    }
-                    countExecutions += template.update(String.format("delete from %1$s_execution where id=?", tablePrefix), id);
-                    
-                    if (System.currentTimeMillis() - ts > 60000) {
-                        log.info("Purged {} execution records and {} execution step records with the status of {} so far ...", new Object[] { countExecutions, countSteps, status });
-                        ts = System.currentTimeMillis();
+        Date purgeBefore = DateUtils.addMilliseconds(new Date(), -retentionTimeInMs);
+        log.debug("Purging executions with the status of {} before {}", status, purgeBefore);
+        ISqlTemplate template = databasePlatform.getSqlTemplate();
+        int batchSize = Integer.parseInt(environment.getProperty("execution.purge.batch.size", "500"));
+        purgeStatistics.status = status;
+
+        long ts = System.currentTimeMillis();
+        int countSteps = 0;
+        int countExecutions = 0;
+        List<String> executionIds;
+        int executions = 0;
+        do {
+            /*
+             * Purge in bounded chunks, oldest first, so that each delete only
+             * holds its locks for a short time
+             */
+            executionIds = template.query(
+                    String.format("select id from %1$s_execution where last_update_time <= ? and status=? order by last_update_time",
+                            tablePrefix),
+                    batchSize, new StringMapper(), new Object[] { purgeBefore, status });
+            if (executionIds.size() > 0) {
+                String inClause = StringUtils.repeat("?", ",", executionIds.size());
+                Object[] args = executionIds.toArray();
+                List<String> executionStepIds = template.query(
+                        String.format("select id from %1$s_execution_step where execution_id in (%2$s)", tablePrefix, inClause),
+                        new StringMapper(), args);
+                executionStepIds.parallelStream().forEach((executionStepId) -> {
+                    File logFile = getExecutionStepLog(executionStepId);
+                    FileUtils.deleteQuietly(ExecutionStepLogWriter.getIndexFile(logFile));
+                    if (FileUtils.deleteQuietly(logFile)) {
+                        purgeStatistics.logFilesDeleted.incrementAndGet();
                     }
+                });
+                int steps = template.update(
+                        String.format("delete from %1$s_execution_step where execution_id in (%2$s)", tablePrefix, inClause), args);
+                executions = template.update(String.format("delete from %1$s_execution where id in (%2$s)", tablePrefix, inClause),
+                        args);
+                countSteps += steps;
+                countExecutions += executions;
+                purgeStatistics.executionStepsPurged.addAndGet(steps);
+                purgeStatistics.executionsPurged.addAndGet(executions);
+
+                if (System.currentTimeMillis() - ts > 60000) {
+                    log.info("Purged {} execution records and {} execution step records with the status of {} so far ...",
+                            new Object[] { countExecutions, countSteps, status });
+                    ts = System.currentTimeMillis();
                 }
-                
-                log.debug("Purged {} execution records and {} execution step records with the status of {}", new Object[] { countExecutions, countSteps, status });
-                if (!log.isDebugEnabled() && (countSteps > 0 || countExecutions > 0)) {
-                    log.info("Finished purging {} execution records and {} execution step records with the status of {}", new Object[] { countExecutions, countSteps, status });
-                }
-            } else {
-                log.info("Could not run execution purge for status '{}' because table had not been created yet", status);
             }
+        } while (executionIds.size() >= batchSize && executions > 0);
+
+        log.debug("Purged {} execution records and {} execution step records with the status of {}", new Object[] { countExecutions, countSteps, status });
+        if (!log.isDebugEnabled() && (countSteps > 0 || countExecutions > 0)) {
+            log.info("Finished purging {} execution records and {} execution step records with the status of {}", new Object[] { countExecutions, countSteps, status });
         }
     }
 
@@ -332,8 +599,12 @@ public class ExecutionService extends AbstractService implements IExecutionServi
         
         IExecutionTracker executionTracker = null;
         if (threadService != null && executionService != null) {
+            AsyncRecorder recorder = new AsyncRecorder(executionService,
+                    Long.parseLong(environment.getProperty("execution.recorder.batch.window.ms", "0")),
+                    Long.parseLong(environment.getProperty("execution.recorder.log.flush.bytes", Long.toString(64 * 1024))),
+                    Long.parseLong(environment.getProperty("execution.recorder.log.flush.interval.ms", "1000")));
             executionTracker = new ExecutionTrackerRecorder(agent, deployment, threadService,
-                    executionService, userId, flowParameters.toString());
+                    recorder, userId, flowParameters.toString());
         } else {
             executionTracker = new ExecutionTrackerLogger(deployment);
         }
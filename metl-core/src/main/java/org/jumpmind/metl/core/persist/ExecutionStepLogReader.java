@@ -0,0 +1,262 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.persist;
+
+import static org.apache.commons.lang.StringUtils.isNotBlank;
+import static org.jumpmind.metl.core.persist.ExecutionStepLogWriter.INDEX_ENTRY_SIZE;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.jumpmind.metl.core.model.ExecutionStepLog;
+import org.jumpmind.symmetric.csv.CsvReader;
+
+/**
+ * Reads execution step logs through the index written by
+ * {@link ExecutionStepLogWriter}. Only the index is scanned to page, tail or
+ * filter by level, and only the selected records are read from the log.
+ */
+public class ExecutionStepLogReader implements AutoCloseable {
+
+    static final int ENTRIES_PER_READ = 1024;
+
+    String executionStepId;
+
+    File logFile;
+
+    File indexFile;
+
+    RandomAccessFile log;
+
+    RandomAccessFile index;
+
+    long nextRecord;
+
+    long cursorCount = -1;
+
+    long cursorStart;
+
+    int cursorEntries;
+
+    byte[] cursorBlock;
+
+    ByteBuffer cursorBuffer;
+
+    public ExecutionStepLogReader(String executionStepId, File logFile) {
+        this.executionStepId = executionStepId;
+        this.logFile = logFile;
+        this.indexFile = ExecutionStepLogWriter.getIndexFile(logFile);
+    }
+
+    public boolean isIndexed() {
+        return indexFile.exists() && logFile.exists();
+    }
+
+    /**
+     * @return the number of records in the log, not counting a partially
+     *         written index entry
+     */
+    public long count() {
+        return indexFile.length() / INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * @return the number of records with one of the levels, or of all records
+     *         when levels is empty
+     */
+    public long count(Set<String> levels) throws IOException {
+        long count = count();
+        if (levels == null || levels.size() == 0) {
+            return count;
+        }
+        long matches = 0;
+        byte[] block = new byte[ENTRIES_PER_READ * INDEX_ENTRY_SIZE];
+        for (long start = 0; start < count; start += ENTRIES_PER_READ) {
+            int entries = (int) Math.min(ENTRIES_PER_READ, count - start);
+            ByteBuffer buffer = readIndex(start, entries, block);
+            for (int i = 0; i < entries; i++) {
+                if (read(start + i, buffer, i, levels, true) != null) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Find up to limit records starting at the record number offset, counting
+     * from zero. When levels is not empty only records with one of the levels
+     * are returned and offset counts matching records.
+     */
+    public List<ExecutionStepLog> find(long offset, int limit, Set<String> levels) throws IOException {
+        List<ExecutionStepLog> logs = new ArrayList<>();
+        long count = count();
+        long skip = offset;
+        byte[] block = new byte[ENTRIES_PER_READ * INDEX_ENTRY_SIZE];
+        for (long start = 0; start < count && logs.size() < limit; start += ENTRIES_PER_READ) {
+            int entries = (int) Math.min(ENTRIES_PER_READ, count - start);
+            ByteBuffer buffer = readIndex(start, entries, block);
+            for (int i = 0; i < entries && logs.size() < limit; i++) {
+                ExecutionStepLog stepLog = read(start + i, buffer, i, levels, skip > 0);
+                if (stepLog != null) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        logs.add(stepLog);
+                    }
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Find the last limit records, oldest first. When levels is not empty only
+     * records with one of the levels are returned.
+     */
+    public List<ExecutionStepLog> findLast(int limit, Set<String> levels) throws IOException {
+        List<ExecutionStepLog> logs = new ArrayList<>();
+        long count = count();
+        byte[] block = new byte[ENTRIES_PER_READ * INDEX_ENTRY_SIZE];
+        for (long end = count; end > 0 && logs.size() < limit; end -= ENTRIES_PER_READ) {
+            long start = Math.max(0, end - ENTRIES_PER_READ);
+            int entries = (int) (end - start);
+            ByteBuffer buffer = readIndex(start, entries, block);
+            for (int i = entries - 1; i >= 0 && logs.size() < limit; i--) {
+                ExecutionStepLog stepLog = read(start + i, buffer, i, levels, false);
+                if (stepLog != null) {
+                    logs.add(stepLog);
+                }
+            }
+        }
+        Collections.reverse(logs);
+        return logs;
+    }
+
+    /**
+     * Read the log one record at a time, starting with the first one. Records
+     * written after the first call are not seen.
+     * 
+     * @return the next record with one of the levels, or null when there are
+     *         no more
+     */
+    public ExecutionStepLog next(Set<String> levels) throws IOException {
+        if (cursorCount < 0) {
+            cursorCount = count();
+            cursorBlock = new byte[ENTRIES_PER_READ * INDEX_ENTRY_SIZE];
+        }
+        while (nextRecord < cursorCount) {
+            if (cursorBuffer == null || nextRecord >= cursorStart + cursorEntries) {
+                cursorStart = nextRecord;
+                cursorEntries = (int) Math.min(ENTRIES_PER_READ, cursorCount - nextRecord);
+                cursorBuffer = readIndex(cursorStart, cursorEntries, cursorBlock);
+            }
+            long recordNumber = nextRecord++;
+            ExecutionStepLog stepLog = read(recordNumber, cursorBuffer, (int) (recordNumber - cursorStart), levels, false);
+            if (stepLog != null) {
+                return stepLog;
+            }
+        }
+        return null;
+    }
+
+    protected ByteBuffer readIndex(long start, int entries, byte[] block) throws IOException {
+        if (index == null) {
+            index = new RandomAccessFile(indexFile, "r");
+        }
+        index.seek(start * INDEX_ENTRY_SIZE);
+        index.readFully(block, 0, entries * INDEX_ENTRY_SIZE);
+        return ByteBuffer.wrap(block, 0, entries * INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * @param skipping
+     *            when true the record only needs to be counted, so its text is
+     *            not read unless that is needed to check the level
+     */
+    protected ExecutionStepLog read(long recordNumber, ByteBuffer buffer, int entry, Set<String> levels, boolean skipping)
+            throws IOException {
+        int position = entry * INDEX_ENTRY_SIZE;
+        long offset = buffer.getLong(position);
+        int length = buffer.getInt(position + 8);
+        String level = ExecutionStepLogWriter.fromLevelCode(buffer.get(position + 12));
+        long createTime = buffer.getLong(position + 13);
+        boolean filtered = levels != null && levels.size() > 0;
+        if (level != null && filtered && !levels.contains(level)) {
+            return null;
+        }
+        if (skipping && (level != null || !filtered)) {
+            return new ExecutionStepLog();
+        }
+
+        if (log == null) {
+            log = new RandomAccessFile(logFile, "r");
+        }
+        if (offset + length > log.length()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        log.seek(offset);
+        log.readFully(bytes);
+        CsvReader reader = new CsvReader(new ByteArrayInputStream(bytes), ExecutionStepLogWriter.CHARSET);
+        try {
+            reader.setDelimiter(ExecutionStepLogWriter.DELIMITER);
+            if (reader.readRecord()) {
+                String[] values = reader.getValues();
+                if (values != null && values.length > 2 && isNotBlank(values[0]) && isNotBlank(values[1]) && isNotBlank(values[2])
+                        && (!filtered || levels.contains(values[0]))) {
+                    ExecutionStepLog stepLog = new ExecutionStepLog();
+                    stepLog.setExecutionStepId(executionStepId);
+                    stepLog.setCreateTime(new Date(createTime));
+                    stepLog.setLevel(values[0]);
+                    stepLog.setLogText(values[2]);
+                    stepLog.setId(Long.toString(recordNumber + 1));
+                    return stepLog;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (index != null) {
+                index.close();
+            }
+            if (log != null) {
+                log.close();
+            }
+        } catch (IOException e) {
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.persist;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import org.jumpmind.metl.core.model.ExecutionStepLog;
+import org.jumpmind.symmetric.csv.CsvWriter;
+import org.jumpmind.util.FormatUtils;
+
+/**
+ * Writes an execution step log in the existing CSV format and, next to it, a
+ * fixed width index with the offset, length, level and time of every record.
+ * The index lets {@link ExecutionStepLogReader} page, tail and filter a log by
+ * level without parsing the whole file.
+ */
+public class ExecutionStepLogWriter {
+
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /* offset (long), length (int), level (byte) and create time (long) */
+    public static final int INDEX_ENTRY_SIZE = 8 + 4 + 1 + 8;
+
+    public static final Charset CHARSET = Charset.forName("UTF-8");
+
+    public static final char DELIMITER = '"';
+
+    OutputStream logOut;
+
+    DataOutputStream indexOut;
+
+    ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+
+    CsvWriter recordWriter;
+
+    long offset;
+
+    public ExecutionStepLogWriter(File logFile) throws IOException {
+        this.logOut = new BufferedOutputStream(new FileOutputStream(logFile));
+        this.indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile(logFile))));
+        this.recordWriter = new CsvWriter(record, DELIMITER, CHARSET);
+    }
+
+    public static File getIndexFile(File logFile) {
+        return new File(logFile.getParentFile(), logFile.getName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * @return the number of bytes written to the log
+     */
+    public int write(ExecutionStepLog stepLog, String logText) throws IOException {
+        record.reset();
+        recordWriter.writeRecord(new String[] { stepLog.getLevel(), FormatUtils.TIMESTAMP_FORMATTER.format(stepLog.getCreateTime()),
+                logText });
+        recordWriter.flush();
+        int length = record.size();
+        record.writeTo(logOut);
+        indexOut.writeLong(offset);
+        indexOut.writeInt(length);
+        indexOut.writeByte(toLevelCode(stepLog.getLevel()));
+        indexOut.writeLong(stepLog.getCreateTime().getTime());
+        offset += length;
+        return length;
+    }
+
+    /**
+     * Flush the log before the index so that the index never points past the
+     * end of the log
+     */
+    public void flush() throws IOException {
+        logOut.flush();
+        indexOut.flush();
+    }
+
+    public void close() {
+        try {
+            flush();
+        } catch (IOException e) {
+        }
+        try {
+            logOut.close();
+        } catch (IOException e) {
+        }
+        try {
+            indexOut.close();
+        } catch (IOException e) {
+        }
+    }
+
+    static byte toLevelCode(String level) {
+        if (level != null) {
+            switch (level) {
+                case "DEBUG":
+                    return 1;
+                case "INFO":
+                    return 2;
+                case "WARN":
+                    return 3;
+                case "ERROR":
+                    return 4;
+                default:
+                    break;
+            }
+        }
+        return 0;
+    }
+
+    static String fromLevelCode(byte code) {
+        switch (code) {
+            case 1:
+                return "DEBUG";
+            case 2:
+                return "INFO";
+            case 3:
+                return "WARN";
+            case 4:
+                return "ERROR";
+            default:
+                return null;
+        }
+    }
+
+}
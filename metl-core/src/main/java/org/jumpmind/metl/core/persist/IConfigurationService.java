@@ -106,6 +106,14 @@ public interface IConfigurationService {
     public Folder findFirstFolderWithName(String name, FolderType type);
 
     public Flow findFlow(String id);
+
+    /**
+     * Returns the flow from the deployed flow cache, loading it when it is
+     * not cached. The returned flow is shared and must not be modified.
+     */
+    public Flow findDeployedFlow(String id);
+
+    public DeployedFlowCache getDeployedFlowCache();
     
     public FlowName findFlowName(String id);
 
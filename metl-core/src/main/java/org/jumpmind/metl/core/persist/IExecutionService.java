@@ -21,6 +21,7 @@
 package org.jumpmind.metl.core.persist;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +39,13 @@ public interface IExecutionService {
 
     public void save(AbstractObject object);
 
+    /**
+     * Update existing execution and execution step rows in as few round trips
+     * as the database allows. Objects that have not been saved before should
+     * go through {@link #save(AbstractObject)}.
+     */
+    public void updateAll(Collection<? extends AbstractObject> objects);
+
     public List<Execution> findExecutions(Map<String, Object> params, int limit);
 
     public Execution findExecution(String id);
@@ -49,6 +57,32 @@ public interface IExecutionService {
     public List<ExecutionStepLog> findExecutionStepLogs(String executionStepId, int limit);
     
     public List<ExecutionStepLog> findExecutionStepLogs(Set<String> executionStepIds, int limit);
+
+    /**
+     * @return the first limit records of the step logs in create time order.
+     *         Only records with one of the given levels are returned unless
+     *         levels is null or empty.
+     */
+    public List<ExecutionStepLog> findExecutionStepLogs(Set<String> executionStepIds, int limit, Set<String> levels);
+
+    public long countExecutionStepLogs(String executionStepId);
+
+    /**
+     * @return the number of records in a step log with one of the given
+     *         levels, or of all records when levels is null or empty
+     */
+    public long countExecutionStepLogs(String executionStepId, Set<String> levels);
+
+    /**
+     * Page through a step log. Offset and limit count records with one of the
+     * given levels, or all records when levels is null or empty.
+     */
+    public List<ExecutionStepLog> findExecutionStepLogs(String executionStepId, long offset, int limit, Set<String> levels);
+
+    /**
+     * @return the last limit records of a step log, oldest first
+     */
+    public List<ExecutionStepLog> findLastExecutionStepLogs(String executionStepId, int limit, Set<String> levels);
     
     public void markAbandoned(String agentId);
     
@@ -57,6 +91,8 @@ public interface IExecutionService {
     public List<String> findExecutedFlowIds();
 
     public File getExecutionStepLog(String executionStepId);
+
+    public ExecutionPurgeStatistics getPurgeStatistics();
     
     public IExecutionTracker getExecutionTracker(ExecutorService threadService, IExecutionService executionService, 
             Agent agent, AgentProjectVersionFlowDeployment deployment, String userId, Map<String, String> flowParameters);
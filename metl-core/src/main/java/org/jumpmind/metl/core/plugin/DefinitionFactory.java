@@ -28,6 +28,7 @@ import static org.jumpmind.metl.core.runtime.component.ComponentSettingsConstant
 import static org.jumpmind.metl.core.runtime.component.ComponentSettingsConstants.LOG_INPUT;
 import static org.jumpmind.metl.core.runtime.component.ComponentSettingsConstants.LOG_OUTPUT;
 import static org.jumpmind.metl.core.runtime.component.ComponentSettingsConstants.NOTES;
+import static org.jumpmind.metl.core.runtime.component.ComponentSettingsConstants.TRANSFER_PAYLOAD_OWNERSHIP;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -374,6 +375,8 @@ public class DefinitionFactory implements IDefinitionFactory {
                                     .add(new XMLSetting(LOG_OUTPUT, "Log Output", "false", Type.BOOLEAN, false));
                             xmlComponent.getSettings().getSetting()
                                     .add(new XMLSetting(INBOUND_QUEUE_CAPACITY, "Inbound Queue Capacity", "100", Type.INTEGER, true));
+                            xmlComponent.getSettings().getSetting().add(
+                                    new XMLSetting(TRANSFER_PAYLOAD_OWNERSHIP, "Transfer Payload Ownership", "false", Type.BOOLEAN, false));
                             xmlComponent.getSettings().getSetting().add(new XMLSetting(NOTES, "Notes", null, Type.MULTILINE_TEXT, false));
                         } else {
                             if (!classLoader.equals(componentsById.get(id).getClassLoader())) {
@@ -41,6 +41,7 @@ public class XMLSetting implements Serializable {
     public enum Type {
         @XmlEnumValue("text")TEXT, 
         @XmlEnumValue("integer")INTEGER, 
+        @XmlEnumValue("decimal")DECIMAL, 
         @XmlEnumValue("boolean")BOOLEAN, 
         @XmlEnumValue("choice")CHOICE, 
         @XmlEnumValue("password")PASSWORD, 
@@ -34,11 +34,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.commons.lang.math.NumberUtils;
 import org.jumpmind.metl.core.model.Agent;
 import org.jumpmind.metl.core.model.AgentDeploy;
 import org.jumpmind.metl.core.model.AgentFlowDeployParm;
@@ -49,6 +51,7 @@ import org.jumpmind.metl.core.model.Flow;
 import org.jumpmind.metl.core.model.FlowName;
 import org.jumpmind.metl.core.model.FlowParameter;
 import org.jumpmind.metl.core.model.FlowStep;
+import org.jumpmind.metl.core.model.GlobalSetting;
 import org.jumpmind.metl.core.model.Notification;
 import org.jumpmind.metl.core.model.ProjectVersion;
 import org.jumpmind.metl.core.model.ProjectVersionDepends;
@@ -64,6 +67,7 @@ import org.jumpmind.metl.core.plugin.XMLResourceDefinition;
 import org.jumpmind.metl.core.runtime.component.IComponentDeploymentListener;
 import org.jumpmind.metl.core.runtime.component.IComponentRuntimeFactory;
 import org.jumpmind.metl.core.runtime.component.Results;
+import org.jumpmind.metl.core.runtime.flow.FlowPlan;
 import org.jumpmind.metl.core.runtime.flow.FlowRuntime;
 import org.jumpmind.metl.core.runtime.resource.IResourceRuntime;
 import org.jumpmind.metl.core.runtime.subscribe.ISubscribeManager;
@@ -121,6 +125,10 @@ public class AgentRuntime {
 
     Map<AgentDeploy, List<FlowRuntime>> runningFlows = Collections.synchronizedMap(new HashMap<>());
 
+    Map<String, FlowPlan> flowPlans = new ConcurrentHashMap<>();
+
+    FlowAdmissionController admissionController;
+
     public AgentRuntime(Agent agent, IOperationsService operationsService, IConfigurationService configurationService,
             IExecutionService executionService, IComponentRuntimeFactory componentFactory, IDefinitionFactory definitionFactory,
             IHttpRequestMappingRegistry httpRequestMappingRegistry, ISubscribeManager subscribeManager) {
@@ -194,6 +202,12 @@ public class AgentRuntime {
 
             this.globalSettings = operationsService.findGlobalSettingsAsMap();
 
+            this.admissionController = new FlowAdmissionController(flowExecutionScheduler,
+                    getGlobalSetting(GlobalSetting.AGENT_MAX_CONCURRENT_FLOWS, GlobalSetting.DEFAULT_AGENT_MAX_CONCURRENT_FLOWS),
+                    getGlobalSetting(GlobalSetting.AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT,
+                            GlobalSetting.DEFAULT_AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT),
+                    getGlobalSetting(GlobalSetting.AGENT_MAX_PENDING_FLOWS, GlobalSetting.DEFAULT_AGENT_MAX_PENDING_FLOWS));
+
             List<AgentDeploy> deployments = new ArrayList<AgentDeploy>(agent.getAgentDeployments());
             for (AgentDeploy deployment : deployments) {
                 deploy(deployment);
@@ -210,7 +224,7 @@ public class AgentRuntime {
             
             // loop through the deployed agents and start those that are set to run on startup
             for (AgentDeploy deployment : deployments) {
-                Flow flow = configurationService.findFlow(deployment.getFlowId());
+                Flow flow = configurationService.findDeployedFlow(deployment.getFlowId());
                 ProjectVersion projectVersion = configurationService.findProjectVersion(flow.getProjectVersionId());
                 if (!projectVersion.isDeleted()) {
                 	DeploymentStatus status = deployment.getDeploymentStatus();
@@ -232,7 +246,7 @@ public class AgentRuntime {
     }
 
     protected AgentProjectVersionFlowDeployment createAgentProjectVersionFlowDeployment(AgentDeploy deployment) {
-        Flow flow = configurationService.findFlow(deployment.getFlowId());
+        Flow flow = configurationService.findDeployedFlow(deployment.getFlowId());
         ProjectVersion projectVersion = configurationService.findProjectVersion(flow.getProjectVersionId());
         return new AgentProjectVersionFlowDeployment(deployment, flow, projectVersion);
     }
@@ -280,6 +294,14 @@ public class AgentRuntime {
         return started;
     }
 
+    protected int getGlobalSetting(String name, int defaultValue) {
+        return globalSettings != null ? NumberUtils.toInt(globalSettings.get(name), defaultValue) : defaultValue;
+    }
+
+    public FlowAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
     public synchronized AgentDeploy deploy(Flow flow, Map<String, String> parameters) {
         AgentDeploy deployment = agent.getAgentDeploymentFor(flow);
         if (deployment == null) {
@@ -318,7 +340,7 @@ public class AgentRuntime {
     }
 
     protected void deploy(AgentDeploy deployment) {
-        Flow flow = configurationService.findFlow(deployment.getFlowId());
+        Flow flow = configurationService.findDeployedFlow(deployment.getFlowId());
         ProjectVersion projectVersion = configurationService.findProjectVersion(flow.getProjectVersionId());
         if (!projectVersion.isDeleted()) {
             deploy(deployment, flow, projectVersion);
@@ -335,6 +357,8 @@ public class AgentRuntime {
             try {
                 log.info("Deploying '{}' to '{}'", deployment.getName(), agent.getName());
 
+                flowPlans.remove(deployment.getId());
+
                 deployResources(flow);
 
                 AgentProjectVersionFlowDeployment agentProjectVersionFlowDeployment = new AgentProjectVersionFlowDeployment(deployment, flow,
@@ -367,7 +391,7 @@ public class AgentRuntime {
     }
 
     protected void deployResources(AgentDeploy deployment) {
-        Flow flow = configurationService.findFlow(deployment.getFlowId());
+        Flow flow = configurationService.findDeployedFlow(deployment.getFlowId());
         deployResources(flow);
     }
 
@@ -487,9 +511,11 @@ public class AgentRuntime {
     public FlowRuntime createFlowRuntime(String userId, AgentDeploy deployment, Map<String, String> runtimeParameters) throws Exception {
         String executionId = createExecutionId();
         List<Notification> notifications = operationsService.findNotificationsForDeployment(deployment);
-        return new FlowRuntime(executionId, userId, findDeployed(deployment), agent, componentRuntimeFactory, definitionFactory,
+        FlowRuntime flowRuntime = new FlowRuntime(executionId, userId, findDeployed(deployment), agent, componentRuntimeFactory, definitionFactory,
                 flowStepsExecutionThreads, operationsService, configurationService, executionService, deployedResources, notifications, globalSettings,
-                runtimeParameters);
+                runtimeParameters, flowPlans);
+        flowRuntime.setAdmissionController(admissionController);
+        return flowRuntime;
     }
 
     public Results execute(String userId, AgentDeploy deployment, Map<String, String> runtimeParameters) throws Exception {
@@ -533,7 +559,10 @@ public class AgentRuntime {
             doComponentDeploymentEvent(agentProjectVersionFlowDeployment,
                     (l, f, s, c) -> l.onUndeploy(agent, agentProjectVersionFlowDeployment, s, c));
         }
-
+        flowPlans.remove(deployment.getId());
+        if (admissionController != null) {
+            admissionController.clearPending(deployment.getId());
+        }
 
         if (nextStatus != null) {
             deployment.setStatus(nextStatus.name());
@@ -629,30 +658,38 @@ public class AgentRuntime {
 
         @Override
         public void run() {
-            if (isBlank(executionId)) {
-                executionId = createExecutionId();
+            if (deployment == null) {
+                log.warn("A flow was scheduled on the '{}' agent for a deployment that is no longer deployed", agent.getName());
+                return;
+            }
+            String id = isBlank(executionId) ? createExecutionId() : executionId;
+            executionId = null;
+            if (!admissionController.submit(deployment.getAgentDeployment().getId(), () -> runAdmitted(id))) {
+                log.warn("Deployment '{}' was not run on the '{}' agent because {} executions are already waiting to run",
+                        deployment.getName(), agent.getName(), admissionController.getPendingCount());
             }
+        }
+
+        protected void runAdmitted(String executionId) {
             FlowRuntime flowRuntime = null;
             try {
                 log.info("Deployment '{}' is running on the '{}' agent", deployment.getName(), agent.getName());
                 List<Notification> notifications = operationsService.findNotificationsForDeployment(deployment.getAgentDeployment());
                 flowRuntime = new FlowRuntime(executionId, userId, deployment, agent, componentRuntimeFactory, definitionFactory,
                         flowStepsExecutionThreads, operationsService, configurationService, executionService, deployedResources,
-                        notifications, globalSettings, runtimeParameters);
+                        notifications, globalSettings, runtimeParameters, flowPlans);
                 addToRunning(deployment.getAgentDeployment(), flowRuntime);
                 flowRuntime.execute();
             } catch (Exception e) {
                 log.error("Error while waiting for the flow to complete", e);
             } finally {
-                if (deployment != null) {
-                    removeFromRunning(deployment.getAgentDeployment(), flowRuntime);
-                    AgentProjectVersionFlowDeployment agentProjectVersionFlowDeployment = findDeployed(deployment.getAgentDeployment());
-                    if (agentProjectVersionFlowDeployment != null) {
-                        log.info("Scheduled '{}' on '{}' is finished", agentProjectVersionFlowDeployment.getFlow().getName(),
-                                agent.getName());
-                    }
+                admissionController.release(deployment.getAgentDeployment().getId());
+                removeFromRunning(deployment.getAgentDeployment(), flowRuntime);
+                AgentProjectVersionFlowDeployment agentProjectVersionFlowDeployment = findDeployed(deployment.getAgentDeployment());
+                if (agentProjectVersionFlowDeployment != null) {
+                    log.info("Scheduled '{}' on '{}' is finished", agentProjectVersionFlowDeployment.getFlow().getName(),
+                            agent.getName());
                 }
-                executionId = null;                
             }
         }
     }
@@ -681,6 +718,11 @@ public class AgentRuntime {
                 if (agent.getStatus().equals(AgentStatus.REQUEST_REFRESH.name())) {
                     log.info("Agent '" + agent.getName() + "' is refreshing settings");
                     globalSettings = operationsService.findGlobalSettingsAsMap();
+                    admissionController.setLimits(
+                            getGlobalSetting(GlobalSetting.AGENT_MAX_CONCURRENT_FLOWS, GlobalSetting.DEFAULT_AGENT_MAX_CONCURRENT_FLOWS),
+                            getGlobalSetting(GlobalSetting.AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT,
+                                    GlobalSetting.DEFAULT_AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT),
+                            getGlobalSetting(GlobalSetting.AGENT_MAX_PENDING_FLOWS, GlobalSetting.DEFAULT_AGENT_MAX_PENDING_FLOWS));
                     agent.setStatus(AgentStatus.RUNNING.name());
                     operationsService.save(agent);
                 }
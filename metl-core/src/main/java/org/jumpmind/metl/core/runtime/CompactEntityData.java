@@ -0,0 +1,524 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.jumpmind.util.LinkedCaseInsensitiveMap;
+
+/**
+ * An {@link EntityData} that stores the attributes of its model in an array
+ * indexed by the ordinals of an {@link EntityDataLayout} instead of in a hash
+ * map. It still behaves like a case insensitive map keyed by attribute id so
+ * components that are not aware of it keep working. Keys that are not part of
+ * the layout are kept in an overflow map.
+ * <p>
+ * It has to extend {@link EntityData} because rows are passed around as
+ * {@link EntityData} everywhere, so every row still carries the fields of the
+ * empty parent maps (roughly 100 bytes). None of the inherited map methods
+ * are used, which means the hash tables, the entry objects and the case
+ * insensitive key map of the parent are never allocated. That is where the
+ * savings come from: an array slot per attribute instead of an entry object,
+ * a table slot and a lower case key per attribute.
+ */
+public class CompactEntityData extends EntityData {
+
+    private static final long serialVersionUID = 1L;
+
+    static final Object ABSENT = new Absent();
+
+    EntityDataLayout layout;
+
+    Object[] values;
+
+    int count;
+
+    LinkedCaseInsensitiveMap<Object> overflow;
+
+    public CompactEntityData(EntityDataLayout layout) {
+        this.layout = layout;
+        this.values = new Object[layout.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ABSENT;
+        }
+    }
+
+    protected CompactEntityData(CompactEntityData source) {
+        this.layout = source.layout;
+        this.values = source.values.clone();
+        this.count = source.count;
+        this.changeType = source.changeType;
+        if (source.overflow != null) {
+            this.overflow = new LinkedCaseInsensitiveMap<Object>();
+            this.overflow.putAll(source.overflow);
+        }
+    }
+
+    public EntityDataLayout getLayout() {
+        return layout;
+    }
+
+    public Object get(int ordinal) {
+        Object value = values[ordinal];
+        return value == ABSENT ? null : value;
+    }
+
+    public boolean containsKey(int ordinal) {
+        return values[ordinal] != ABSENT;
+    }
+
+    public Object put(int ordinal, Object value) {
+        Object old = values[ordinal];
+        values[ordinal] = value;
+        if (old == ABSENT) {
+            count++;
+            return null;
+        }
+        return old;
+    }
+
+    public Object remove(int ordinal) {
+        Object old = values[ordinal];
+        if (old == ABSENT) {
+            return null;
+        }
+        values[ordinal] = ABSENT;
+        count--;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return count + (overflow != null ? overflow.size() : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int ordinal = layout.getOrdinal(key);
+        if (ordinal >= 0) {
+            return values[ordinal] != ABSENT;
+        }
+        return overflow != null && overflow.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Object object : values) {
+            if (object != ABSENT && Objects.equals(object, value)) {
+                return true;
+            }
+        }
+        return overflow != null && overflow.containsValue(value);
+    }
+
+    @Override
+    public Object get(Object key) {
+        int ordinal = layout.getOrdinal(key);
+        if (ordinal >= 0) {
+            return get(ordinal);
+        }
+        return overflow != null ? overflow.get(key) : null;
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        return containsKey(key) ? get(key) : defaultValue;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int ordinal = layout.getOrdinal(key);
+        if (ordinal >= 0) {
+            return put(ordinal, value);
+        }
+        if (overflow == null) {
+            overflow = new LinkedCaseInsensitiveMap<Object>();
+        }
+        return overflow.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> map) {
+        for (Map.Entry<? extends String, ? extends Object> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        Object old = get(key);
+        if (old == null) {
+            put(key, value);
+        }
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int ordinal = layout.getOrdinal(key);
+        if (ordinal >= 0) {
+            return remove(ordinal);
+        }
+        return overflow != null ? overflow.remove(key) : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (containsKey(key) && Objects.equals(get(key), value)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        if (containsKey(key) && Objects.equals(get(key), oldValue)) {
+            put(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function) {
+        for (Map.Entry<String, Object> entry : entrySet()) {
+            entry.setValue(function.apply(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction) {
+        Object value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        Object old = get(key);
+        if (old != null) {
+            Object value = remappingFunction.apply(key, old);
+            if (value != null) {
+                put(key, value);
+            } else {
+                remove(key);
+            }
+            return value;
+        }
+        return null;
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        Object value = remappingFunction.apply(key, get(key));
+        if (value != null) {
+            put(key, value);
+        } else {
+            remove(key);
+        }
+        return value;
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+        Object old = get(key);
+        Object newValue = old == null ? value : remappingFunction.apply(old, value);
+        if (newValue != null) {
+            put(key, newValue);
+        } else {
+            remove(key);
+        }
+        return newValue;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (Map.Entry<String, Object> entry : entrySet()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ABSENT;
+        }
+        count = 0;
+        overflow = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return new Values();
+    }
+
+    /**
+     * Does not call the parent clone because it would copy every entry into
+     * the hash table of the parent map.
+     */
+    @Override
+    public Object clone() {
+        return new CompactEntityData(this);
+    }
+
+    @Override
+    public CompactEntityData copy() {
+        return new CompactEntityData(this);
+    }
+
+    class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        int next = -1;
+
+        int current = -1;
+
+        Iterator<Map.Entry<String, Object>> overflowIterator;
+
+        boolean inOverflow = false;
+
+        EntryIterator() {
+            advance();
+        }
+
+        void advance() {
+            next++;
+            while (next < values.length && values[next] == ABSENT) {
+                next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) {
+                return true;
+            }
+            if (overflowIterator == null && overflow != null) {
+                overflowIterator = overflow.entrySet().iterator();
+            }
+            return overflowIterator != null && overflowIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (next < values.length) {
+                current = next;
+                advance();
+                return new Entry(current);
+            } else if (hasNext()) {
+                inOverflow = true;
+                return overflowIterator.next();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (inOverflow) {
+                overflowIterator.remove();
+            } else if (current >= 0 && values[current] != ABSENT) {
+                CompactEntityData.this.remove(current);
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    class Entry implements Map.Entry<String, Object> {
+
+        int ordinal;
+
+        Entry(int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public String getKey() {
+            return layout.getAttributeId(ordinal);
+        }
+
+        @Override
+        public Object getValue() {
+            return get(ordinal);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(ordinal, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof Map.Entry) {
+                Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactEntityData.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactEntityData.this.clear();
+        }
+    }
+
+    class KeySet extends AbstractSet<String> {
+        @Override
+        public Iterator<String> iterator() {
+            EntryIterator entries = new EntryIterator();
+            return new Iterator<String>() {
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                public String next() {
+                    return entries.next().getKey();
+                }
+
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            if (containsKey(key)) {
+                CompactEntityData.this.remove(key);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return CompactEntityData.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactEntityData.this.clear();
+        }
+    }
+
+    class Values extends AbstractCollection<Object> {
+        @Override
+        public Iterator<Object> iterator() {
+            EntryIterator entries = new EntryIterator();
+            return new Iterator<Object>() {
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                public Object next() {
+                    return entries.next().getValue();
+                }
+
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return CompactEntityData.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactEntityData.this.clear();
+        }
+    }
+
+    static final class Absent implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        protected Object readResolve() {
+            return ABSENT;
+        }
+    }
+
+}
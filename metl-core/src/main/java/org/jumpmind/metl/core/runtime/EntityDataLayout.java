@@ -0,0 +1,165 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+
+/**
+ * Maps the attributes of a {@link RelationalModel} to fixed ordinals so that
+ * {@link CompactEntityData} can hold a row in an array. Layouts are shared
+ * between all components that use the same model so that rows can be passed
+ * between them without re-resolving attribute ids. Layouts are cached by model
+ * id and last update time and the least recently used ones are dropped once
+ * there are more than {@link #MAX_CACHED_LAYOUTS}.
+ */
+public class EntityDataLayout implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int MAX_CACHED_LAYOUTS = 256;
+
+    static final Map<String, EntityDataLayout> layoutsByModelVersion = new LinkedHashMap<String, EntityDataLayout>(16, .75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EntityDataLayout> eldest) {
+            return size() > MAX_CACHED_LAYOUTS;
+        }
+    };
+
+    final String modelId;
+
+    final String modelVersion;
+
+    final String[] attributeIds;
+
+    final Map<String, Integer> ordinalsById;
+
+    final Map<String, Integer> ordinalsByLowerCaseId;
+
+    EntityDataLayout(String modelId, String modelVersion, String[] attributeIds) {
+        this.modelId = modelId;
+        this.modelVersion = modelVersion;
+        this.attributeIds = attributeIds;
+        this.ordinalsById = new HashMap<>(attributeIds.length * 2);
+        this.ordinalsByLowerCaseId = new HashMap<>(attributeIds.length * 2);
+        for (int i = 0; i < attributeIds.length; i++) {
+            ordinalsById.put(attributeIds[i], i);
+            ordinalsByLowerCaseId.put(attributeIds[i].toLowerCase(), i);
+        }
+    }
+
+    public static EntityDataLayout forModel(RelationalModel model) {
+        String[] attributeIds = getAttributeIds(model);
+        String modelVersion = model.getLastUpdateTime() != null ? Long.toString(model.getLastUpdateTime().getTime()) : "";
+        synchronized (layoutsByModelVersion) {
+            String key = model.getId() + ":" + modelVersion;
+            EntityDataLayout layout = layoutsByModelVersion.get(key);
+            if (layout == null || !Arrays.equals(layout.attributeIds, attributeIds)) {
+                layout = new EntityDataLayout(model.getId(), modelVersion, attributeIds);
+                layoutsByModelVersion.put(key, layout);
+            }
+            return layout;
+        }
+    }
+
+    static String[] getAttributeIds(RelationalModel model) {
+        List<String> attributeIds = new ArrayList<>();
+        for (ModelEntity entity : model.getModelEntities()) {
+            for (ModelAttrib attribute : entity.getModelAttributes()) {
+                attributeIds.add(attribute.getId());
+            }
+        }
+        return attributeIds.toArray(new String[attributeIds.size()]);
+    }
+
+    protected Object readResolve() {
+        synchronized (layoutsByModelVersion) {
+            EntityDataLayout layout = layoutsByModelVersion.get(modelId + ":" + modelVersion);
+            if (layout != null && Arrays.equals(layout.attributeIds, attributeIds)) {
+                return layout;
+            }
+        }
+        return this;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    public int size() {
+        return attributeIds.length;
+    }
+
+    public String getAttributeId(int ordinal) {
+        return attributeIds[ordinal];
+    }
+
+    /**
+     * @return the ordinal of the attribute or -1 if the attribute is not part
+     *         of this layout
+     */
+    public int getOrdinal(Object attributeId) {
+        if (attributeId instanceof String) {
+            Integer ordinal = ordinalsById.get(attributeId);
+            if (ordinal == null) {
+                ordinal = ordinalsByLowerCaseId.get(((String) attributeId).toLowerCase());
+            }
+            return ordinal != null ? ordinal : -1;
+        }
+        return -1;
+    }
+
+    public CompactEntityData newEntityData() {
+        return new CompactEntityData(this);
+    }
+
+    /**
+     * Read an attribute by ordinal when the row was built with this layout and
+     * fall back to a lookup by attribute id otherwise.
+     */
+    public Object get(EntityData data, int ordinal) {
+        if (data instanceof CompactEntityData && ((CompactEntityData) data).layout == this) {
+            return ((CompactEntityData) data).get(ordinal);
+        } else {
+            return data.get(attributeIds[ordinal]);
+        }
+    }
+
+    public boolean containsKey(EntityData data, int ordinal) {
+        if (data instanceof CompactEntityData && ((CompactEntityData) data).layout == this) {
+            return ((CompactEntityData) data).containsKey(ordinal);
+        } else {
+            return data.containsKey(attributeIds[ordinal]);
+        }
+    }
+
+}
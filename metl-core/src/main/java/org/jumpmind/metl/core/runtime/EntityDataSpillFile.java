@@ -0,0 +1,400 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+
+/**
+ * A compressed temp file of {@link EntityData} rows for components that
+ * need to hold more rows than fit in memory. Attributes of the layout are
+ * written by ordinal and values are written with a type tag so that rows
+ * read back with the same Java types they were written with.
+ */
+public class EntityDataSpillFile {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INTEGER = 2;
+    static final byte LONG = 3;
+    static final byte BIG_DECIMAL = 4;
+    static final byte DOUBLE = 5;
+    static final byte FLOAT = 6;
+    static final byte TRUE = 7;
+    static final byte FALSE = 8;
+    static final byte TIMESTAMP = 9;
+    static final byte SQL_DATE = 10;
+    static final byte TIME = 11;
+    static final byte DATE = 12;
+    static final byte BYTES = 13;
+    static final byte SHORT = 14;
+    static final byte BYTE = 15;
+    static final byte BIG_INTEGER = 16;
+    static final byte SERIALIZED = 99;
+
+    private EntityDataSpillFile() {
+    }
+
+    public static File createTempFile(String prefix) throws IOException {
+        File file = File.createTempFile(prefix, ".spill");
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * A rough estimate of the heap used by a row, good enough to decide when
+     * to spill.
+     */
+    public static long estimateSize(EntityData data) {
+        long size = 64;
+        for (Object value : data.values()) {
+            size += 32;
+            if (value instanceof String) {
+                size += 40 + ((String) value).length() * 2;
+            } else if (value instanceof byte[]) {
+                size += 16 + ((byte[]) value).length;
+            } else if (value instanceof BigDecimal || value instanceof Date) {
+                size += 40;
+            } else if (value != null) {
+                size += 16;
+            }
+        }
+        return size;
+    }
+
+    public static class Writer implements Closeable {
+
+        File file;
+
+        EntityDataLayout layout;
+
+        Deflater deflater;
+
+        DataOutputStream out;
+
+        long count;
+
+        public Writer(File file, EntityDataLayout layout) throws IOException {
+            this.file = file;
+            this.layout = layout;
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+            this.out = openOutput(file, deflater);
+        }
+
+        public void write(EntityData data) throws IOException {
+            writeEntityData(out, layout, data);
+            count++;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    public static class Reader implements Closeable {
+
+        EntityDataLayout layout;
+
+        Inflater inflater;
+
+        DataInputStream in;
+
+        public Reader(File file, EntityDataLayout layout) throws IOException {
+            this.layout = layout;
+            this.inflater = new Inflater();
+            this.in = openInput(file, inflater);
+        }
+
+        /**
+         * @return the next row or null at the end of the file
+         */
+        public EntityData read() throws IOException {
+            return readEntityData(in, layout);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    static DataOutputStream openOutput(File file, Deflater deflater) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(new FileOutputStream(file), deflater, BUFFER_SIZE), BUFFER_SIZE));
+    }
+
+    static DataInputStream openInput(File file, Inflater inflater) throws IOException {
+        return new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(new FileInputStream(file), inflater, BUFFER_SIZE), BUFFER_SIZE));
+    }
+
+    static void writeEntityData(DataOutputStream out, EntityDataLayout layout, EntityData data) throws IOException {
+        out.writeByte(data.getChangeType().ordinal());
+        writeVarInt(out, data.size());
+        if (data instanceof CompactEntityData && ((CompactEntityData) data).getLayout() == layout) {
+            CompactEntityData compact = (CompactEntityData) data;
+            int written = 0;
+            for (int ordinal = 0; ordinal < layout.size(); ordinal++) {
+                if (compact.containsKey(ordinal)) {
+                    writeVarInt(out, ordinal + 1);
+                    writeValue(out, compact.get(ordinal));
+                    written++;
+                }
+            }
+            if (written < data.size()) {
+                for (Map.Entry<String, Object> entry : data.entrySet()) {
+                    if (layout.getOrdinal(entry.getKey()) < 0) {
+                        writeVarInt(out, 0);
+                        writeString(out, entry.getKey());
+                        writeValue(out, entry.getValue());
+                    }
+                }
+            }
+        } else {
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                int ordinal = layout != null ? layout.getOrdinal(entry.getKey()) : -1;
+                writeVarInt(out, ordinal + 1);
+                if (ordinal < 0) {
+                    writeString(out, entry.getKey());
+                }
+                writeValue(out, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the next row or null at the end of the stream
+     */
+    static EntityData readEntityData(DataInputStream in, EntityDataLayout layout) throws IOException {
+        int changeType = in.read();
+        if (changeType < 0) {
+            return null;
+        }
+        EntityData data = layout != null ? layout.newEntityData() : new EntityData();
+        data.setChangeType(ChangeType.values()[changeType]);
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            int ordinal = readVarInt(in) - 1;
+            if (ordinal >= 0) {
+                ((CompactEntityData) data).put(ordinal, readValue(in));
+            } else {
+                String key = readString(in);
+                data.put(key, readValue(in));
+            }
+        }
+        return data;
+    }
+
+    static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            BigDecimal decimal = (BigDecimal) value;
+            writeVarInt(out, decimal.scale());
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(TIME);
+            out.writeLong(((Date) value).getTime());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else {
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+            writeBytes(out, bytes.toByteArray());
+        }
+    }
+
+    static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case BIG_DECIMAL:
+                int scale = readVarInt(in);
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case TIME:
+                return new Time(in.readLong());
+            case DATE:
+                return new Date(in.readLong());
+            case BYTES:
+                return readBytes(in);
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case SERIALIZED:
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            default:
+                throw new IOException("Unknown value type in spill file: " + type);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        writeVarInt(out, value.length);
+        out.write(value);
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] value = new byte[readVarInt(in)];
+        in.readFully(value);
+        return value;
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed length in spill file");
+    }
+
+}
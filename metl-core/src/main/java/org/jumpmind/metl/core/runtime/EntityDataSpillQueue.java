@@ -0,0 +1,172 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+
+/**
+ * A first in, first out queue of rows that keeps up to a memory budget on
+ * the heap. When the budget is used up the rows in memory are written to a
+ * {@link EntityDataSpillFile} and read back in order when they reach the
+ * head of the queue. Rows can be added while the queue is being drained.
+ */
+public class EntityDataSpillQueue implements Closeable {
+
+    EntityDataLayout layout;
+
+    long memoryBudget;
+
+    String prefix;
+
+    ArrayDeque<EntityData> memory = new ArrayDeque<>();
+
+    long memorySize;
+
+    ArrayDeque<File> files = new ArrayDeque<>();
+
+    File readFile;
+
+    EntityDataSpillFile.Reader reader;
+
+    EntityData next;
+
+    long size;
+
+    int spillCount;
+
+    public EntityDataSpillQueue(String prefix, EntityDataLayout layout, long memoryBudget) {
+        this.prefix = prefix;
+        this.layout = layout;
+        this.memoryBudget = memoryBudget;
+    }
+
+    public void add(EntityData data) {
+        memory.add(data);
+        memorySize += EntityDataSpillFile.estimateSize(data);
+        size++;
+        if (memorySize > memoryBudget) {
+            spill();
+        }
+    }
+
+    public EntityData peek() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next;
+    }
+
+    public EntityData poll() {
+        EntityData data = peek();
+        if (data != null) {
+            next = null;
+            size--;
+        }
+        return data;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of times rows were written to disk
+     */
+    public int getSpillCount() {
+        return spillCount;
+    }
+
+    @Override
+    public void close() {
+        closeReader();
+        for (File file : files) {
+            file.delete();
+        }
+        files.clear();
+        memory.clear();
+        memorySize = 0;
+        next = null;
+        size = 0;
+    }
+
+    protected void spill() {
+        try {
+            File file = EntityDataSpillFile.createTempFile(prefix);
+            files.add(file);
+            try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(file, layout)) {
+                for (EntityData data : memory) {
+                    writer.write(data);
+                }
+            }
+            spillCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        memory.clear();
+        memorySize = 0;
+    }
+
+    protected EntityData readNext() {
+        try {
+            while (true) {
+                if (reader != null) {
+                    EntityData data = reader.read();
+                    if (data != null) {
+                        return data;
+                    }
+                    closeReader();
+                } else if (!files.isEmpty()) {
+                    readFile = files.poll();
+                    reader = new EntityDataSpillFile.Reader(readFile, layout);
+                } else {
+                    EntityData data = memory.poll();
+                    if (data != null) {
+                        memorySize -= EntityDataSpillFile.estimateSize(data);
+                    }
+                    return data;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected void closeReader() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+            }
+            readFile.delete();
+            reader = null;
+            readFile = null;
+        }
+    }
+
+}
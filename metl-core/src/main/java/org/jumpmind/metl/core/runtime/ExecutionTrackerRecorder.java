@@ -59,11 +59,16 @@ public class ExecutionTrackerRecorder extends ExecutionTrackerLogger {
 
     public ExecutionTrackerRecorder(Agent agent, AgentProjectVersionFlowDeployment agentDeployment, ExecutorService threadService,
             IExecutionService executionService, String userId, String parameters) {
+        this(agent, agentDeployment, threadService, new AsyncRecorder(executionService), userId, parameters);
+    }
+
+    public ExecutionTrackerRecorder(Agent agent, AgentProjectVersionFlowDeployment agentDeployment, ExecutorService threadService,
+            AsyncRecorder recorder, String userId, String parameters) {
         super(agentDeployment);
         this.agent = agent;
         this.userId = userId;
         this.parameters = parameters;
-        this.recorder = new AsyncRecorder(executionService);
+        this.recorder = recorder;
         threadService.execute(this.recorder);
     }
 
@@ -170,13 +175,7 @@ public class ExecutionTrackerRecorder extends ExecutionTrackerLogger {
         if (lastUpdateTime == null || (System.currentTimeMillis() - lastUpdateTime.getTime() > TIME_BETWEEN_MESSAGE_UPDATES_IN_MS)) {
             ComponentStatistics stats = context.getComponentStatistics();
             if (stats != null) {
-                step.setEntitiesProcessed(stats.getNumberEntitiesProcessed(threadNumber));
-                step.setMessagesReceived(stats.getNumberInboundMessages(threadNumber));
-                step.setMessagesProduced(stats.getNumberOutboundMessages(threadNumber));
-                step.setPayloadProduced(stats.getNumberOutboundPayload(threadNumber));
-                step.setPayloadReceived(stats.getNumberInboundPayload(threadNumber));
-                step.setHandleDuration(stats.getTimeSpentInHandle(threadNumber));
-                step.setQueueDuration(stats.getTimeSpentWaiting(threadNumber));
+                updateStatistics(step, stats.getSnapshot(threadNumber));
                 lastStatUpdate.put(step, new Date());
             }
             step.setLastUpdateTime(new Date());
@@ -196,13 +195,7 @@ public class ExecutionTrackerRecorder extends ExecutionTrackerLogger {
             step.setStatus(error != null ? ExecutionStatus.ERROR.name() : ExecutionStatus.READY.name());
             ComponentStatistics stats = context.getComponentStatistics();
             if (stats != null) {
-                step.setEntitiesProcessed(stats.getNumberEntitiesProcessed(threadNumber));
-                step.setMessagesReceived(stats.getNumberInboundMessages(threadNumber));
-                step.setMessagesProduced(stats.getNumberOutboundMessages(threadNumber));
-                step.setPayloadProduced(stats.getNumberOutboundPayload(threadNumber));
-                step.setPayloadReceived(stats.getNumberInboundPayload(threadNumber));
-                step.setHandleDuration(stats.getTimeSpentInHandle(threadNumber));
-                step.setQueueDuration(stats.getTimeSpentWaiting(threadNumber));
+                updateStatistics(step, stats.getSnapshot(threadNumber));
                 lastStatUpdate.put(step, new Date());
             }
             step.setLastUpdateTime(new Date());
@@ -231,13 +224,7 @@ public class ExecutionTrackerRecorder extends ExecutionTrackerLogger {
         step.setStatus(status.name());
         ComponentStatistics stats = context.getComponentStatistics();
         if (stats != null) {
-            step.setEntitiesProcessed(stats.getNumberEntitiesProcessed(threadNumber));
-            step.setMessagesReceived(stats.getNumberInboundMessages(threadNumber));
-            step.setMessagesProduced(stats.getNumberOutboundMessages(threadNumber));
-            step.setPayloadProduced(stats.getNumberOutboundPayload(threadNumber));
-            step.setPayloadReceived(stats.getNumberInboundPayload(threadNumber));
-            step.setHandleDuration(stats.getTimeSpentInHandle(threadNumber));
-            step.setQueueDuration(stats.getTimeSpentWaiting(threadNumber));
+            updateStatistics(step, stats.getSnapshot(threadNumber));
             lastStatUpdate.put(step, new Date());
         }
         step.setLastUpdateTime(new Date());
@@ -247,6 +234,16 @@ public class ExecutionTrackerRecorder extends ExecutionTrackerLogger {
         }
     }
 
+    private void updateStatistics(ExecutionStep step, ComponentStatistics.Snapshot stats) {
+        step.setEntitiesProcessed(stats.getNumberEntitiesProcessed());
+        step.setMessagesReceived(stats.getNumberInboundMessages());
+        step.setMessagesProduced(stats.getNumberOutboundMessages());
+        step.setPayloadProduced(stats.getNumberOutboundPayload());
+        step.setPayloadReceived(stats.getNumberInboundPayload());
+        step.setHandleDuration(stats.getTimeSpentInHandle());
+        step.setQueueDuration(stats.getTimeSpentWaiting());
+    }
+
     @Override
     public void flowStepFailedOnComplete(ComponentContext context, Throwable error) {
         super.flowStepFailedOnComplete(context, error);
@@ -0,0 +1,274 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Limits how many flows an agent runs at once, both overall and per
+ * deployment. Every running step holds a thread for the life of its flow, so
+ * capping concurrent flows is what keeps a burst of triggers from exhausting
+ * the operating system's thread limit. Executions that cannot be admitted
+ * wait in a pending queue and are admitted in arrival order as running flows
+ * finish. Scheduled executions are dispatched from the queue and callers that
+ * wait for their results block until their turn comes. Only scheduled
+ * executions count against the pending limit. A limit of zero or less means
+ * unlimited.
+ * <p>
+ * An execution started synchronously from a component of a flow that is
+ * already running is not counted again. The parent holds its slot until the
+ * child returns, so making the child wait for a slot could deadlock the agent.
+ */
+public class FlowAdmissionController {
+
+    int maxConcurrentFlows;
+
+    int maxConcurrentFlowsPerDeployment;
+
+    int maxPendingFlows;
+
+    int running;
+
+    Map<String, Integer> runningByDeployment = new HashMap<>();
+
+    Deque<Pending> pending = new ArrayDeque<>();
+
+    Executor dispatcher;
+
+    static final ThreadLocal<Boolean> flowThread = new ThreadLocal<>();
+
+    public FlowAdmissionController(Executor dispatcher, int maxConcurrentFlows, int maxConcurrentFlowsPerDeployment,
+            int maxPendingFlows) {
+        this.dispatcher = dispatcher;
+        setLimits(maxConcurrentFlows, maxConcurrentFlowsPerDeployment, maxPendingFlows);
+    }
+
+    public void setLimits(int maxConcurrentFlows, int maxConcurrentFlowsPerDeployment, int maxPendingFlows) {
+        synchronized (this) {
+            this.maxConcurrentFlows = maxConcurrentFlows;
+            this.maxConcurrentFlowsPerDeployment = maxConcurrentFlowsPerDeployment;
+            this.maxPendingFlows = maxPendingFlows;
+        }
+        dispatchPending();
+    }
+
+    /**
+     * Runs the execution now if it can be admitted, otherwise queues it.
+     * 
+     * @return false if the pending queue is full and the execution was
+     *         rejected
+     */
+    public boolean submit(String deploymentId, Runnable execution) {
+        synchronized (this) {
+            if (pending.size() > 0 || !tryAdmit(deploymentId)) {
+                if (maxPendingFlows > 0 && getPendingExecutionCount() >= maxPendingFlows) {
+                    return false;
+                }
+                pending.add(new Pending(deploymentId, execution));
+                return true;
+            }
+        }
+        execution.run();
+        return true;
+    }
+
+    /**
+     * Blocks the calling thread until the execution can be admitted. Used for
+     * executions that return results to their caller. The caller waits in the
+     * same queue as scheduled executions.
+     * 
+     * @return false if the caller is a thread of a running flow, in which
+     *         case nothing was admitted and {@link #release(String)} must not
+     *         be called
+     */
+    public boolean acquire(String deploymentId) throws InterruptedException {
+        if (isFlowThread()) {
+            return false;
+        }
+        Pending waiter = new Pending(deploymentId, null);
+        synchronized (this) {
+            if (pending.size() == 0 && tryAdmit(deploymentId)) {
+                return true;
+            }
+            pending.add(waiter);
+        }
+        /* executions ahead of this one may be waiting on a per deployment limit only */
+        dispatchPending();
+        synchronized (this) {
+            try {
+                while (!waiter.admitted) {
+                    wait();
+                }
+                return true;
+            } catch (InterruptedException e) {
+                pending.remove(waiter);
+            }
+        }
+        if (waiter.admitted) {
+            release(deploymentId);
+        } else {
+            dispatchPending();
+        }
+        throw new InterruptedException();
+    }
+
+    public void release(String deploymentId) {
+        unadmit(deploymentId);
+        dispatchPending();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Drops the queued scheduled executions of a deployment. Callers that are
+     * waiting for a slot keep waiting.
+     */
+    public synchronized void clearPending(String deploymentId) {
+        Iterator<Pending> i = pending.iterator();
+        while (i.hasNext()) {
+            Pending next = i.next();
+            if (next.execution != null && next.deploymentId.equals(deploymentId)) {
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Marks the current thread as running part of an admitted flow. Returns
+     * whether it was already marked, to be passed to
+     * {@link #exitFlowThread(boolean)}.
+     */
+    public static boolean enterFlowThread() {
+        boolean wasFlowThread = isFlowThread();
+        flowThread.set(Boolean.TRUE);
+        return wasFlowThread;
+    }
+
+    public static void exitFlowThread(boolean wasFlowThread) {
+        if (!wasFlowThread) {
+            flowThread.remove();
+        }
+    }
+
+    public static boolean isFlowThread() {
+        return Boolean.TRUE.equals(flowThread.get());
+    }
+
+    protected int getPendingExecutionCount() {
+        int count = 0;
+        for (Pending next : pending) {
+            if (next.execution != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    protected void dispatchPending() {
+        while (true) {
+            Pending next = null;
+            synchronized (this) {
+                Iterator<Pending> i = pending.iterator();
+                while (i.hasNext() && next == null) {
+                    Pending candidate = i.next();
+                    if (tryAdmit(candidate.deploymentId)) {
+                        i.remove();
+                        if (candidate.execution == null) {
+                            candidate.admitted = true;
+                            notifyAll();
+                        } else {
+                            next = candidate;
+                        }
+                    } else if (isAgentFull()) {
+                        break;
+                    }
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            try {
+                dispatcher.execute(next.execution);
+            } catch (RejectedExecutionException e) {
+                unadmit(next.deploymentId);
+                break;
+            }
+        }
+    }
+
+    protected synchronized void unadmit(String deploymentId) {
+        running--;
+        Integer count = runningByDeployment.get(deploymentId);
+        if (count == null || count <= 1) {
+            runningByDeployment.remove(deploymentId);
+        } else {
+            runningByDeployment.put(deploymentId, count - 1);
+        }
+        notifyAll();
+    }
+
+    protected boolean isAgentFull() {
+        return maxConcurrentFlows > 0 && running >= maxConcurrentFlows;
+    }
+
+    protected boolean tryAdmit(String deploymentId) {
+        if (isAgentFull()) {
+            return false;
+        }
+        Integer count = runningByDeployment.get(deploymentId);
+        if (count == null) {
+            count = 0;
+        }
+        if (maxConcurrentFlowsPerDeployment > 0 && count >= maxConcurrentFlowsPerDeployment) {
+            return false;
+        }
+        running++;
+        runningByDeployment.put(deploymentId, count + 1);
+        return true;
+    }
+
+    static class Pending {
+
+        final String deploymentId;
+
+        final Runnable execution;
+
+        boolean admitted;
+
+        Pending(String deploymentId, Runnable execution) {
+            this.deploymentId = deploymentId;
+            this.execution = execution;
+        }
+    }
+
+}
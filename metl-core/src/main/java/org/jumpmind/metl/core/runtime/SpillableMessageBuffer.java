@@ -0,0 +1,255 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Holds messages that a component has to wait on before it can send them.
+ * Messages are kept in memory until their estimated size reaches the memory
+ * budget. After that the rest are written to a compressed temp file. Rows of
+ * an {@link EntityDataMessage} are written with the {@link EntityDataSpillFile}
+ * encoding and other messages are serialized. The messages are handed back
+ * in the order they were added.
+ */
+public class SpillableMessageBuffer implements Closeable {
+
+    static final int MESSAGE_OVERHEAD = 256;
+
+    static final byte ENTITY_DATA_MESSAGE = 1;
+    static final byte SERIALIZED_MESSAGE = 2;
+
+    String prefix;
+
+    EntityDataLayout layout;
+
+    long memoryBudget;
+
+    List<Message> memory = new ArrayList<>();
+
+    long memorySize;
+
+    File file;
+
+    Deflater deflater;
+
+    DataOutputStream out;
+
+    int spilledCount;
+
+    public SpillableMessageBuffer(String prefix, EntityDataLayout layout, long memoryBudget) {
+        this.prefix = prefix;
+        this.layout = layout;
+        this.memoryBudget = memoryBudget;
+    }
+
+    public void add(Message message) {
+        try {
+            if (out == null) {
+                long messageSize = estimateSize(message);
+                if (memorySize + messageSize <= memoryBudget) {
+                    memory.add(message);
+                    memorySize += messageSize;
+                    return;
+                }
+                file = EntityDataSpillFile.createTempFile(prefix);
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                out = EntityDataSpillFile.openOutput(file, deflater);
+            }
+            write(message);
+            spilledCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return memory.size() + spilledCount;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of messages that were written to disk
+     */
+    public int getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Hands every message to the consumer in the order they were added and
+     * then empties the buffer.
+     */
+    public void replay(Consumer<Message> consumer) {
+        try {
+            for (Message message : memory) {
+                consumer.accept(message);
+            }
+            memory.clear();
+            memorySize = 0;
+            if (out != null) {
+                closeOutput();
+                Inflater inflater = new Inflater();
+                try (DataInputStream in = EntityDataSpillFile.openInput(file, inflater)) {
+                    Message message = read(in);
+                    while (message != null) {
+                        consumer.accept(message);
+                        message = read(in);
+                    }
+                } finally {
+                    inflater.end();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        memory.clear();
+        memorySize = 0;
+        spilledCount = 0;
+        closeOutput();
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+    }
+
+    protected void write(Message message) throws IOException {
+        if (message.getClass() == EntityDataMessage.class) {
+            out.writeByte(ENTITY_DATA_MESSAGE);
+            EntityDataSpillFile.writeBytes(out, serialize(message.getHeader()));
+            List<EntityData> payload = ((EntityDataMessage) message).getPayload();
+            EntityDataSpillFile.writeVarInt(out, payload != null ? payload.size() + 1 : 0);
+            if (payload != null) {
+                for (EntityData data : payload) {
+                    EntityDataSpillFile.writeEntityData(out, layout, data);
+                }
+            }
+        } else {
+            out.writeByte(SERIALIZED_MESSAGE);
+            EntityDataSpillFile.writeBytes(out, serialize(message));
+        }
+    }
+
+    protected Message read(DataInputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            return null;
+        } else if (type == ENTITY_DATA_MESSAGE) {
+            MessageHeader header = (MessageHeader) deserialize(EntityDataSpillFile.readBytes(in));
+            EntityDataMessage message = new EntityDataMessage(header.getOriginatingStepId());
+            message.header = header;
+            int count = EntityDataSpillFile.readVarInt(in) - 1;
+            if (count >= 0) {
+                ArrayList<EntityData> payload = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    payload.add(EntityDataSpillFile.readEntityData(in, layout));
+                }
+                message.setPayload(payload);
+            }
+            return message;
+        } else if (type == SERIALIZED_MESSAGE) {
+            return (Message) deserialize(EntityDataSpillFile.readBytes(in));
+        } else {
+            throw new IOException("Unknown message type in spill file: " + type);
+        }
+    }
+
+    protected void closeOutput() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+            } finally {
+                deflater.end();
+                out = null;
+                deflater = null;
+            }
+        }
+    }
+
+    /**
+     * A rough estimate of the heap used by a message, good enough to decide
+     * when to spill.
+     */
+    public static long estimateSize(Message message) {
+        long size = MESSAGE_OVERHEAD;
+        if (message instanceof EntityDataMessage) {
+            List<EntityData> payload = ((EntityDataMessage) message).getPayload();
+            if (payload != null) {
+                for (EntityData data : payload) {
+                    size += EntityDataSpillFile.estimateSize(data);
+                }
+            }
+        } else if (message instanceof TextMessage) {
+            List<String> payload = ((TextMessage) message).getPayload();
+            if (payload != null) {
+                for (String text : payload) {
+                    size += 40 + (text != null ? text.length() * 2 : 0);
+                }
+            }
+        } else if (message instanceof BinaryMessage) {
+            byte[] payload = ((BinaryMessage) message).getPayload();
+            if (payload != null) {
+                size += payload.length;
+            }
+        }
+        return size;
+    }
+
+    static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+            objectOut.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Object deserialize(byte[] bytes) throws IOException {
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectIn.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+}
@@ -187,6 +187,7 @@ public class StandaloneFlowRunner {
 
                 IImportExportService importService = new ImportExportService(databasePlatform, persistenceManager, tablePrefix,
                         configurationService, operationsService, new SecurityService());
+                importService.addConfigurationChangeListener(configurationService.getDeployedFlowCache());
 
                 executionService = new ExecutionService(securityService, persistenceManager, databasePlatform, tablePrefix, new StandardEnvironment());
                 agentRuntime = new AgentRuntime(new Agent("test"), operationsService, configurationService, executionService,
@@ -27,6 +27,8 @@ final public class ComponentSettingsConstants {
     
     public final static String INBOUND_QUEUE_CAPACITY = "inbound.queue.capacity";     
     
+    public final static String TRANSFER_PAYLOAD_OWNERSHIP = "transfer.payload.ownership";
+    
     public final static String ENABLED = "enabled";
 
     public final static String LOG_INPUT = "logInput";
@@ -39,6 +41,10 @@ final public class ComponentSettingsConstants {
     
     public final static String RUN_WHEN = "run.when";
     
+    public final static String COMPACT_ENTITY_DATA = "compact.entity.data";
+    
+    public final static String BUFFER_MEMORY = "buffer.memory.mb";
+    
     public final static String ERROR_HANDLER = "error.handler";
     
     public static final String PER_UNIT_OF_WORK = "PER UNIT OF WORK";
@@ -20,128 +20,220 @@
  */
 package org.jumpmind.metl.core.runtime.component;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Per thread counters for a flow step. Each thread number gets its own slot
+ * so that updating a counter is a single atomic add that does not allocate
+ * and does not contend with the other threads of a multi-threaded step.
+ */
 public class ComponentStatistics {
 
-    private Map<Integer, Integer> numberInboundMessages = new ConcurrentHashMap<>();
-    private Map<Integer, Integer> numberOutboundMessages = new ConcurrentHashMap<>();
-    private Map<Integer, Integer> numberEntitiesProcessed = new ConcurrentHashMap<>();
-    private Map<Integer, Integer> numberInboundPayload = new ConcurrentHashMap<>();
-    private Map<Integer, Integer> numberOutboundPayload = new ConcurrentHashMap<>();
-    private Map<Integer, Long> timeSpentInHandle = new ConcurrentHashMap<>();
-    private Map<Integer, Long> timeSpentWaiting = new ConcurrentHashMap<>();
-    
-    
+    static final int INBOUND_MESSAGES = 0;
+    static final int OUTBOUND_MESSAGES = 1;
+    static final int ENTITIES_PROCESSED = 2;
+    static final int INBOUND_PAYLOAD = 3;
+    static final int OUTBOUND_PAYLOAD = 4;
+    static final int TIME_SPENT_IN_HANDLE = 5;
+    static final int TIME_SPENT_WAITING = 6;
+
+    /*
+     * Sized to a multiple of a cache line so that the counters of one thread
+     * do not share a line with the counters of another
+     */
+    static final int SLOT_SIZE = 16;
+
+    private volatile AtomicLongArray[] slots = new AtomicLongArray[8];
+
+    private AtomicLongArray slot(int thread) {
+        AtomicLongArray[] slots = this.slots;
+        AtomicLongArray slot = thread >= 0 && thread < slots.length ? slots[thread] : null;
+        return slot != null ? slot : newSlot(thread);
+    }
+
+    private synchronized AtomicLongArray newSlot(int thread) {
+        if (thread < 0) {
+            throw new IllegalArgumentException("Invalid thread number: " + thread);
+        }
+        AtomicLongArray[] slots = this.slots;
+        if (thread >= slots.length) {
+            AtomicLongArray[] grown = new AtomicLongArray[Math.max(thread + 1, slots.length * 2)];
+            System.arraycopy(slots, 0, grown, 0, slots.length);
+            slots = grown;
+        } else if (slots[thread] != null) {
+            return slots[thread];
+        } else {
+            slots = slots.clone();
+        }
+        AtomicLongArray slot = new AtomicLongArray(SLOT_SIZE);
+        slots[thread] = slot;
+        this.slots = slots;
+        return slot;
+    }
+
+    private long get(int thread, int counter) {
+        AtomicLongArray[] slots = this.slots;
+        AtomicLongArray slot = thread >= 0 && thread < slots.length ? slots[thread] : null;
+        return slot != null ? slot.get(counter) : 0;
+    }
+
+    private void add(int thread, int counter, long amount) {
+        slot(thread).getAndAdd(counter, amount);
+    }
+
+    private void set(int thread, int counter, long value) {
+        slot(thread).set(counter, value);
+    }
+
+    /**
+     * @return a point in time copy of the counters for one thread that can be
+     *         handed off to a recorder
+     */
+    public Snapshot getSnapshot(int thread) {
+        return new Snapshot(get(thread, INBOUND_MESSAGES), get(thread, OUTBOUND_MESSAGES), get(thread, ENTITIES_PROCESSED),
+                get(thread, INBOUND_PAYLOAD), get(thread, OUTBOUND_PAYLOAD), get(thread, TIME_SPENT_IN_HANDLE),
+                get(thread, TIME_SPENT_WAITING));
+    }
+
     public long getTimeSpentInHandle(int thread) {
-        Long number = timeSpentInHandle.get(thread);
-        return number != null ? number : 0;
+        return get(thread, TIME_SPENT_IN_HANDLE);
     }
     
     public long getTimeSpentWaiting(int thread) {
-        Long number = timeSpentWaiting.get(thread);
-        return number != null ? number : 0;
+        return get(thread, TIME_SPENT_WAITING);
     }
     
     public void incrementTimeSpentInHandle(int thread, long amount) {
         if (amount > 0) {
-            Long number = timeSpentInHandle.get(thread);
-            if (number != null) {
-                number = number + amount;
-            } else {
-                number = amount;
-            }
-            timeSpentInHandle.put(thread, number);
+            add(thread, TIME_SPENT_IN_HANDLE, amount);
         }
     }
 
     public void incrementTimeSpentWaiting(int thread, long amount) {
         if (amount > 0) {
-            Long number = timeSpentWaiting.get(thread);
-            if (number != null) {
-                number = number + amount;
-            } else {
-                number = amount;
-            }
-            timeSpentWaiting.put(thread, number);
+            add(thread, TIME_SPENT_WAITING, amount);
         }
     }
 
     public int getNumberInboundMessages(int thread) {
-        Integer number = numberInboundMessages.get(thread);
-        return number != null ? number : 0;
+        return (int) get(thread, INBOUND_MESSAGES);
     }
 
     public void setNumberInboundMessages(int thread, int numberInboundMessages) {
-        this.numberInboundMessages.put(thread, numberInboundMessages);
+        set(thread, INBOUND_MESSAGES, numberInboundMessages);
     }
 
     public void incrementInboundMessages(int thread) {
-        this.numberInboundMessages.put(thread, getNumberInboundMessages(thread)+1);
+        add(thread, INBOUND_MESSAGES, 1);
     }
 
     public void setNumberOutboundMessages(int thread, int numberOutboundMessages) {
-        this.numberOutboundMessages.put(thread, numberOutboundMessages);
+        set(thread, OUTBOUND_MESSAGES, numberOutboundMessages);
     }
 
     public int getNumberOutboundMessages(int thread) {
-        Integer number = numberOutboundMessages.get(thread);
-        return number != null ? number : 0;
+        return (int) get(thread, OUTBOUND_MESSAGES);
     }
 
     public void incrementOutboundMessages(int thread) {
-        this.numberOutboundMessages.put(thread, getNumberOutboundMessages(thread)+1);
+        add(thread, OUTBOUND_MESSAGES, 1);
     }
 
     public void setNumberEntitiesProcessed(int thread, int numberEntitiesProcessed) {
-        this.numberEntitiesProcessed.put(thread, getNumberEntitiesProcessed(thread)+1);
+        set(thread, ENTITIES_PROCESSED, numberEntitiesProcessed);
     }
 
     public int getNumberEntitiesProcessed(int thread) {
-        Integer number = numberEntitiesProcessed.get(thread);
-        return number != null ? number : 0;
+        return (int) get(thread, ENTITIES_PROCESSED);
     }
 
     public void incrementNumberEntitiesProcessed(int thread) {
-        this.numberEntitiesProcessed.put(thread, getNumberEntitiesProcessed(thread)+1);
+        add(thread, ENTITIES_PROCESSED, 1);
     }
 
     public void incrementNumberEntitiesProcessed(int thread, int count) {
-        this.numberEntitiesProcessed.put(thread, getNumberEntitiesProcessed(thread)+count);
+        add(thread, ENTITIES_PROCESSED, count);
     }
     
     public void setNumberInboundPayload(int thread, int numberInboundPayload) {
-        this.numberInboundPayload.put(thread, getNumberInboundPayload(thread)+1);
+        set(thread, INBOUND_PAYLOAD, numberInboundPayload);
     }
 
     public int getNumberInboundPayload(int thread) {
-        Integer number = numberInboundPayload.get(thread);
-        return number != null ? number : 0;
+        return (int) get(thread, INBOUND_PAYLOAD);
     }
 
     public void incrementNumberInboundPayload(int thread) {
-        this.numberInboundPayload.put(thread, getNumberInboundPayload(thread)+1);
+        add(thread, INBOUND_PAYLOAD, 1);
     }
 
     public void incrementNumberInboundPayload(int thread, int count) {
-        this.numberInboundPayload.put(thread, getNumberInboundPayload(thread)+count);
+        add(thread, INBOUND_PAYLOAD, count);
     }
     
     public void setNumberOutboundPayload(int thread, int numberOutboundPayload) {
-        this.numberOutboundPayload.put(thread, getNumberOutboundPayload(thread)+1);
+        set(thread, OUTBOUND_PAYLOAD, numberOutboundPayload);
     }
 
     public int getNumberOutboundPayload(int thread) {
-        Integer number = numberOutboundPayload.get(thread);
-        return number != null ? number : 0;
+        return (int) get(thread, OUTBOUND_PAYLOAD);
     }
 
     public void incrementNumberOutboundPayload(int thread) {
-        this.numberOutboundPayload.put(thread, getNumberOutboundPayload(thread)+1);
+        add(thread, OUTBOUND_PAYLOAD, 1);
     }
 
     public void incrementNumberOutboundPayload(int thread, int count) {
-        this.numberOutboundPayload.put(thread, getNumberOutboundPayload(thread)+count);
+        add(thread, OUTBOUND_PAYLOAD, count);
+    }
+
+    public static class Snapshot {
+
+        final long numberInboundMessages;
+        final long numberOutboundMessages;
+        final long numberEntitiesProcessed;
+        final long numberInboundPayload;
+        final long numberOutboundPayload;
+        final long timeSpentInHandle;
+        final long timeSpentWaiting;
+
+        Snapshot(long numberInboundMessages, long numberOutboundMessages, long numberEntitiesProcessed, long numberInboundPayload,
+                long numberOutboundPayload, long timeSpentInHandle, long timeSpentWaiting) {
+            this.numberInboundMessages = numberInboundMessages;
+            this.numberOutboundMessages = numberOutboundMessages;
+            this.numberEntitiesProcessed = numberEntitiesProcessed;
+            this.numberInboundPayload = numberInboundPayload;
+            this.numberOutboundPayload = numberOutboundPayload;
+            this.timeSpentInHandle = timeSpentInHandle;
+            this.timeSpentWaiting = timeSpentWaiting;
+        }
+
+        public long getNumberInboundMessages() {
+            return numberInboundMessages;
+        }
+
+        public long getNumberOutboundMessages() {
+            return numberOutboundMessages;
+        }
+
+        public long getNumberEntitiesProcessed() {
+            return numberEntitiesProcessed;
+        }
+
+        public long getNumberInboundPayload() {
+            return numberInboundPayload;
+        }
+
+        public long getNumberOutboundPayload() {
+            return numberOutboundPayload;
+        }
+
+        public long getTimeSpentInHandle() {
+            return timeSpentInHandle;
+        }
+
+        public long getTimeSpentWaiting() {
+            return timeSpentWaiting;
+        }
     }
 }
@@ -52,6 +52,18 @@ public class Deduper extends AbstractComponentRuntime {
 
     public final static String ATTRIBUTE_DEDUPE_ENABLED = "dedupe.enabled";
     
+    public final static String DEDUPE_METHOD = "dedupe.method";
+    
+    public static final String METHOD_KEY = "KEY";
+    public static final String METHOD_FINGERPRINT = "FINGERPRINT";
+    public static final String METHOD_PROBABILISTIC = "PROBABILISTIC";
+    
+    public final static String FINGERPRINT_MEMORY = "fingerprint.memory.mb";
+    
+    public final static String PREFILTER_EXPECTED_ROWS = "prefilter.expected.rows";
+    
+    public final static String PREFILTER_ERROR_RATE = "prefilter.error.rate";
+    
     int rowsPerMessage = 1000;
     
     String dedupeType = DEDUPE_ENTITY;
@@ -63,6 +75,16 @@ public class Deduper extends AbstractComponentRuntime {
     String preserveRecord = PRESERVE_FIRST;
 
     LinkedHashMap<String, EntityData> deduped = new LinkedHashMap<String, EntityData>();
+    
+    String dedupeMethod = METHOD_KEY;
+    
+    RowFingerprint fingerprint;
+    
+    FingerprintSet seen;
+    
+    ArrayList<EntityData> dataToSend;
+    
+    ArrayList<EntityData> lastRecords;
 
     @Override
     public void start() {
@@ -96,6 +118,59 @@ public class Deduper extends AbstractComponentRuntime {
 	    				"At least one attribute must be specified when Dedupe Type of 'ATTRIBUTE' is selected.");
 	        }	
         }
+        
+        dedupeMethod = properties.get(DEDUPE_METHOD, METHOD_KEY);
+        if (!METHOD_KEY.equals(dedupeMethod)) {
+            startFingerprinting(properties, inputModel);
+        }
+    }
+    
+    protected void startFingerprinting(TypedProperties properties, RelationalModel inputModel) {
+        List<String> attributeIds = dedupeKeyAttributeIdList;
+        if (!DEDUPE_ATTRIBUTE.equals(dedupeType)) {
+            attributeIds = new ArrayList<>();
+            for (ModelEntity entity : inputModel.getModelEntities()) {
+                for (ModelAttrib attribute : entity.getModelAttributes()) {
+                    attributeIds.add(attribute.getId());
+                }
+            }
+        }
+        fingerprint = new RowFingerprint(attributeIds);
+
+        long expectedRows = properties.getLong(PREFILTER_EXPECTED_ROWS, 10000000);
+        double errorRate;
+        try {
+            errorRate = Double.parseDouble(properties.get(PREFILTER_ERROR_RATE, "0.001"));
+        } catch (NumberFormatException e) {
+            errorRate = -1;
+        }
+        if (errorRate <= 0 || errorRate >= 1) {
+            throw new MisconfiguredException("The prefilter error rate must be a number between 0 and 1");
+        }
+
+        boolean preserveLast = PRESERVE_LAST.equals(preserveRecord);
+        if (METHOD_PROBABILISTIC.equals(dedupeMethod)) {
+            if (preserveLast) {
+                throw new MisconfiguredException("The %s dedupe method can only preserve the first record", METHOD_PROBABILISTIC);
+            }
+            seen = FingerprintSet.probabilistic(expectedRows, errorRate);
+        } else {
+            long memory = properties.getLong(FINGERPRINT_MEMORY, 256) * 1024 * 1024;
+            seen = new FingerprintSet(memory, true, preserveLast, expectedRows, errorRate);
+        }
+        if (preserveLast) {
+            lastRecords = new ArrayList<>();
+        } else {
+            dataToSend = new ArrayList<>(rowsPerMessage);
+        }
+    }
+    
+    @Override
+    public void stop() {
+        if (seen != null) {
+            seen.close();
+        }
+        super.stop();
     }
     
     @Override
@@ -105,6 +180,16 @@ public class Deduper extends AbstractComponentRuntime {
 
     @Override
     public void handle(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
+        if (fingerprint != null) {
+            if (inputMessage instanceof EntityDataMessage) {
+                dedupeByFingerprint(((EntityDataMessage) inputMessage).getPayload(), callback);
+            }
+            if (unitOfWorkBoundaryReached) {
+                sendFingerprinted(callback);
+            }
+            return;
+        }
+        
         if (inputMessage instanceof EntityDataMessage) {
             ArrayList<EntityData> payload = ((EntityDataMessage)inputMessage).getPayload();
             for (EntityData entityData : payload) {
@@ -150,5 +235,44 @@ public class Deduper extends AbstractComponentRuntime {
             }
         }
     }
+    
+    protected void dedupeByFingerprint(List<EntityData> payload, ISendMessageCallback callback) {
+        for (EntityData entityData : payload) {
+            fingerprint.compute(entityData);
+            if (lastRecords != null) {
+                int index = seen.putIfAbsent(fingerprint.hi, fingerprint.lo, lastRecords.size());
+                if (index < 0) {
+                    getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
+                    lastRecords.add(entityData);
+                } else {
+                    lastRecords.set(index, entityData);
+                }
+            } else if (seen.add(fingerprint.hi, fingerprint.lo)) {
+                getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
+                dataToSend.add(entityData);
+                if (dataToSend.size() >= rowsPerMessage) {
+                    callback.sendEntityDataMessage(null, dataToSend);
+                    dataToSend = new ArrayList<>(rowsPerMessage);
+                }
+            }
+        }
+    }
+    
+    protected void sendFingerprinted(ISendMessageCallback callback) {
+        if (seen.getSpillCount() > 0) {
+            info("Deduped %d records with %d spills of the fingerprints to disk", seen.size(), seen.getSpillCount());
+        }
+        if (lastRecords != null) {
+            for (int i = 0; i < lastRecords.size(); i += rowsPerMessage) {
+                callback.sendEntityDataMessage(null,
+                        new ArrayList<>(lastRecords.subList(i, Math.min(i + rowsPerMessage, lastRecords.size()))));
+            }
+            lastRecords = new ArrayList<>();
+        } else if (dataToSend.size() > 0) {
+            callback.sendEntityDataMessage(null, dataToSend);
+            dataToSend = new ArrayList<>(rowsPerMessage);
+        }
+        seen.close();
+    }
 
 }
@@ -48,7 +48,7 @@ public class EmbedFlowFlowManipulator implements IFlowManipulator {
                         "When using the 'Call Flow' component you must specify the flow you want to call.  It is currently blank");
             }
 
-            Flow flowToCall = configurationService.findFlow(flowId);
+            Flow flowToCall = configurationService.findDeployedFlow(flowId);
 
             List<FlowStep> finalSteps = flow.getFlowSteps();
             List<FlowStepLink> finalLinks = flow.getFlowStepLinks();
@@ -61,9 +61,13 @@ public class EmbedFlowFlowManipulator implements IFlowManipulator {
 
             List<FlowStep> flowToCallFinalSteps = flowToCall.findFinalSteps();
 
-            // Add links and steps from the callable flow to this flow
-            finalSteps.addAll(flowToCall.getFlowSteps());
-            finalLinks.addAll(flowToCall.getFlowStepLinks());
+            // Add copies of the links and steps from the callable flow to this flow
+            for (FlowStep flowToCallStep : flowToCall.getFlowSteps()) {
+                finalSteps.add((FlowStep) flowToCallStep.clone());
+            }
+            for (FlowStepLink flowToCallLink : flowToCall.getFlowStepLinks()) {
+                finalLinks.add((FlowStepLink) flowToCallLink.clone());
+            }
 
             // Add links from source steps to this flow's startup steps
             for (FlowStep flowToCallStartStep : flowToCallStartSteps) {
@@ -0,0 +1,517 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jumpmind.metl.core.runtime.EntityDataSpillFile;
+
+/**
+ * A set of 128 bit fingerprints kept in open addressing primitive arrays.
+ * <p>
+ * When the table would grow past its memory budget it is sorted and written
+ * to a run file that is searched through a sparse block index. A bloom
+ * filter is put in front of the runs when the first one is written so that
+ * most new fingerprints are accepted without reading from disk. Runs are
+ * merged once there are too many of them.
+ * <p>
+ * A probabilistic set only keeps the bloom filter. It uses a fixed amount
+ * of memory but treats a new fingerprint as seen at the configured error
+ * rate.
+ */
+class FingerprintSet implements Closeable {
+
+    static final int MIN_CAPACITY = 1024;
+
+    static final int ENTRY_BYTES = 16;
+
+    static final int BLOCK_ENTRIES = 512;
+
+    static final int MAX_RUNS = 8;
+
+    long memoryBudget;
+
+    boolean spillable;
+
+    long expectedRows;
+
+    double errorRate;
+
+    long[] his;
+
+    long[] los;
+
+    int[] values;
+
+    int count;
+
+    BloomFilter prefilter;
+
+    List<Run> runs = new ArrayList<>();
+
+    long size;
+
+    int spillCount;
+
+    FingerprintSet(long memoryBudget, boolean spillable, boolean withValues, long expectedRows, double errorRate) {
+        this.memoryBudget = memoryBudget;
+        this.spillable = spillable && !withValues;
+        this.expectedRows = expectedRows;
+        this.errorRate = errorRate;
+        allocate(MIN_CAPACITY, withValues);
+    }
+
+    private FingerprintSet(long expectedRows, double errorRate) {
+        this.expectedRows = expectedRows;
+        this.errorRate = errorRate;
+        this.prefilter = new BloomFilter(expectedRows, errorRate);
+    }
+
+    static FingerprintSet probabilistic(long expectedRows, double errorRate) {
+        return new FingerprintSet(expectedRows, errorRate);
+    }
+
+    /**
+     * @return true if the fingerprint was not in the set
+     */
+    boolean add(long hi, long lo) {
+        if (his == null) {
+            boolean added = prefilter.put(hi, lo);
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        if (find(hi, lo) >= 0) {
+            return false;
+        }
+        if (prefilter != null && prefilter.mightContain(hi, lo) && runsContain(hi, lo)) {
+            return false;
+        }
+        insert(hi, lo, -1);
+        return true;
+    }
+
+    /**
+     * Adds the fingerprint with a value if it is not in the set.
+     *
+     * @return the value already stored for the fingerprint or -1 if it was
+     *         added
+     */
+    int putIfAbsent(long hi, long lo, int value) {
+        int slot = find(hi, lo);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        insert(hi, lo, value);
+        return -1;
+    }
+
+    long size() {
+        return size;
+    }
+
+    int getSpillCount() {
+        return spillCount;
+    }
+
+    @Override
+    public void close() {
+        for (Run run : runs) {
+            run.close();
+        }
+        runs.clear();
+        if (his != null) {
+            allocate(MIN_CAPACITY, values != null);
+            prefilter = null;
+        } else {
+            prefilter.clear();
+        }
+        size = 0;
+    }
+
+    protected void allocate(int capacity, boolean withValues) {
+        his = new long[capacity];
+        los = new long[capacity];
+        values = withValues ? new int[capacity] : null;
+        count = 0;
+    }
+
+    protected int find(long hi, long lo) {
+        int mask = his.length - 1;
+        int slot = (int) (hi ^ (hi >>> 32)) & mask;
+        while (his[slot] != 0 || los[slot] != 0) {
+            if (his[slot] == hi && los[slot] == lo) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1 - slot;
+    }
+
+    protected void insert(long hi, long lo, int value) {
+        if ((count + 1) * 4L > his.length * 3L) {
+            long grownSize = his.length * 2L * (ENTRY_BYTES + (values != null ? 4 : 0));
+            if (spillable && grownSize > memoryBudget) {
+                spill();
+            } else {
+                resize(his.length * 2);
+            }
+        }
+        int slot = -1 - find(hi, lo);
+        his[slot] = hi;
+        los[slot] = lo;
+        if (values != null) {
+            values[slot] = value;
+        }
+        count++;
+        size++;
+        if (prefilter != null) {
+            prefilter.put(hi, lo);
+        }
+    }
+
+    protected void resize(int capacity) {
+        long[] oldHis = his;
+        long[] oldLos = los;
+        int[] oldValues = values;
+        allocate(capacity, oldValues != null);
+        for (int i = 0; i < oldHis.length; i++) {
+            if (oldHis[i] != 0 || oldLos[i] != 0) {
+                int slot = -1 - find(oldHis[i], oldLos[i]);
+                his[slot] = oldHis[i];
+                los[slot] = oldLos[i];
+                if (oldValues != null) {
+                    values[slot] = oldValues[i];
+                }
+                count++;
+            }
+        }
+    }
+
+    protected void spill() {
+        int index = 0;
+        for (int i = 0; i < his.length; i++) {
+            if (his[i] != 0 || los[i] != 0) {
+                his[index] = his[i];
+                los[index] = los[i];
+                index++;
+            }
+        }
+        sort(his, los, 0, count - 1);
+
+        if (prefilter == null) {
+            prefilter = new BloomFilter(expectedRows, errorRate);
+            for (int i = 0; i < count; i++) {
+                prefilter.put(his[i], los[i]);
+            }
+        }
+
+        try {
+            RunWriter writer = new RunWriter();
+            for (int i = 0; i < count; i++) {
+                writer.write(his[i], los[i]);
+            }
+            runs.add(writer.finish());
+            if (runs.size() > MAX_RUNS) {
+                mergeRuns();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spillCount++;
+
+        Arrays.fill(his, 0);
+        Arrays.fill(los, 0);
+        count = 0;
+    }
+
+    protected boolean runsContain(long hi, long lo) {
+        try {
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                if (runs.get(i).contains(hi, lo)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected void mergeRuns() throws IOException {
+        List<DataInputStream> inputs = new ArrayList<>(runs.size());
+        try {
+            long[] headHis = new long[runs.size()];
+            long[] headLos = new long[runs.size()];
+            long[] remaining = new long[runs.size()];
+            for (int i = 0; i < runs.size(); i++) {
+                Run run = runs.get(i);
+                inputs.add(new DataInputStream(new BufferedInputStream(new FileInputStream(run.file), 64 * 1024)));
+                remaining[i] = run.count;
+                if (remaining[i] > 0) {
+                    headHis[i] = inputs.get(i).readLong();
+                    headLos[i] = inputs.get(i).readLong();
+                }
+            }
+            RunWriter writer = new RunWriter();
+            while (true) {
+                int min = -1;
+                for (int i = 0; i < remaining.length; i++) {
+                    if (remaining[i] > 0 && (min < 0 || compare(headHis[i], headLos[i], headHis[min], headLos[min]) < 0)) {
+                        min = i;
+                    }
+                }
+                if (min < 0) {
+                    break;
+                }
+                writer.write(headHis[min], headLos[min]);
+                if (--remaining[min] > 0) {
+                    headHis[min] = inputs.get(min).readLong();
+                    headLos[min] = inputs.get(min).readLong();
+                }
+            }
+            Run merged = writer.finish();
+            for (Run run : runs) {
+                run.close();
+            }
+            runs.clear();
+            runs.add(merged);
+        } finally {
+            for (DataInputStream input : inputs) {
+                input.close();
+            }
+        }
+    }
+
+    static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int compare = Long.compare(hi1, hi2);
+        return compare != 0 ? compare : Long.compare(lo1, lo2);
+    }
+
+    static void sort(long[] his, long[] los, int from, int to) {
+        while (to - from > 16) {
+            int middle = (from + to) >>> 1;
+            long pivotHi = his[middle];
+            long pivotLo = los[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (compare(his[i], los[i], pivotHi, pivotLo) < 0) {
+                    i++;
+                }
+                while (compare(his[j], los[j], pivotHi, pivotLo) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(his, los, i++, j--);
+                }
+            }
+            if (j - from < to - i) {
+                sort(his, los, from, j);
+                from = i;
+            } else {
+                sort(his, los, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && compare(his[j - 1], los[j - 1], his[j], los[j]) > 0; j--) {
+                swap(his, los, j, j - 1);
+            }
+        }
+    }
+
+    static void swap(long[] his, long[] los, int i, int j) {
+        long hi = his[i];
+        his[i] = his[j];
+        his[j] = hi;
+        long lo = los[i];
+        los[i] = los[j];
+        los[j] = lo;
+    }
+
+    static class RunWriter {
+        File file;
+        DataOutputStream out;
+        long count;
+        long[] indexHis = new long[16];
+        long[] indexLos = new long[16];
+        long lastHi;
+        long lastLo;
+
+        RunWriter() throws IOException {
+            file = EntityDataSpillFile.createTempFile("metl-dedupe");
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+        }
+
+        void write(long hi, long lo) throws IOException {
+            if (count % BLOCK_ENTRIES == 0) {
+                int block = (int) (count / BLOCK_ENTRIES);
+                if (block == indexHis.length) {
+                    indexHis = Arrays.copyOf(indexHis, block * 2);
+                    indexLos = Arrays.copyOf(indexLos, block * 2);
+                }
+                indexHis[block] = hi;
+                indexLos[block] = lo;
+            }
+            out.writeLong(hi);
+            out.writeLong(lo);
+            lastHi = hi;
+            lastLo = lo;
+            count++;
+        }
+
+        Run finish() throws IOException {
+            out.close();
+            int blocks = (int) ((count + BLOCK_ENTRIES - 1) / BLOCK_ENTRIES);
+            return new Run(file, count, Arrays.copyOf(indexHis, blocks), Arrays.copyOf(indexLos, blocks), lastHi, lastLo);
+        }
+    }
+
+    static class Run {
+        File file;
+        long count;
+        long[] indexHis;
+        long[] indexLos;
+        long lastHi;
+        long lastLo;
+        RandomAccessFile access;
+        byte[] block = new byte[BLOCK_ENTRIES * ENTRY_BYTES];
+
+        Run(File file, long count, long[] indexHis, long[] indexLos, long lastHi, long lastLo) throws IOException {
+            this.file = file;
+            this.count = count;
+            this.indexHis = indexHis;
+            this.indexLos = indexLos;
+            this.lastHi = lastHi;
+            this.lastLo = lastLo;
+            this.access = new RandomAccessFile(file, "r");
+        }
+
+        boolean contains(long hi, long lo) throws IOException {
+            if (count == 0 || compare(hi, lo, indexHis[0], indexLos[0]) < 0 || compare(hi, lo, lastHi, lastLo) > 0) {
+                return false;
+            }
+            int low = 0;
+            int high = indexHis.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (compare(indexHis[middle], indexLos[middle], hi, lo) <= 0) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            long first = (long) low * BLOCK_ENTRIES;
+            int entries = (int) Math.min(BLOCK_ENTRIES, count - first);
+            access.seek(first * ENTRY_BYTES);
+            access.readFully(block, 0, entries * ENTRY_BYTES);
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            int from = 0;
+            int to = entries - 1;
+            while (from <= to) {
+                int middle = (from + to) >>> 1;
+                int compare = compare(buffer.getLong(middle * ENTRY_BYTES), buffer.getLong(middle * ENTRY_BYTES + 8), hi, lo);
+                if (compare == 0) {
+                    return true;
+                } else if (compare < 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle - 1;
+                }
+            }
+            return false;
+        }
+
+        void close() {
+            try {
+                access.close();
+            } catch (IOException e) {
+            }
+            file.delete();
+        }
+    }
+
+    static class BloomFilter {
+        long[] bits;
+        long numBits;
+        int hashes;
+
+        BloomFilter(long expectedRows, double errorRate) {
+            expectedRows = Math.max(expectedRows, 1);
+            double ln2 = Math.log(2);
+            long wanted = (long) Math.ceil(-expectedRows * Math.log(errorRate) / (ln2 * ln2));
+            long words = Math.min(Math.max((wanted + 63) / 64, 1), Integer.MAX_VALUE - 8);
+            bits = new long[(int) words];
+            numBits = words * 64;
+            hashes = (int) Math.min(Math.max(Math.round((double) numBits / expectedRows * ln2), 1), 30);
+        }
+
+        /**
+         * @return true if a bit changed, which means the fingerprint was
+         *         definitely not added before
+         */
+        boolean put(long hi, long lo) {
+            boolean changed = false;
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((hi + i * lo) & Long.MAX_VALUE) % numBits;
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits[word] & mask) == 0) {
+                    bits[word] |= mask;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        void clear() {
+            Arrays.fill(bits, 0);
+        }
+
+        boolean mightContain(long hi, long lo) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((hi + i * lo) & Long.MAX_VALUE) % numBits;
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
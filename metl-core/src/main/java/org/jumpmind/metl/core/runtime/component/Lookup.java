@@ -24,7 +24,6 @@ import static org.apache.commons.lang.StringUtils.isBlank;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +34,7 @@ import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
+import org.jumpmind.metl.core.runtime.SpillableMessageBuffer;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
 import org.jumpmind.properties.TypedProperties;
 
@@ -58,7 +58,7 @@ public class Lookup extends AbstractComponentRuntime {
 
     Map<Object, Object> lookup = new HashMap<Object, Object>();
 
-    List<Message> queuedWhileWaitingForLookup = new ArrayList<Message>();
+    SpillableMessageBuffer queuedWhileWaitingForLookup;
 
     @Override
     public void start() {
@@ -84,6 +84,16 @@ public class Lookup extends AbstractComponentRuntime {
         if (link == null) {
             throw new MisconfiguredException("The lookup data source is missing"); 
         }
+        
+        queuedWhileWaitingForLookup = createMessageBuffer();
+    }
+    
+    @Override
+    public void stop() {
+        if (queuedWhileWaitingForLookup != null) {
+            queuedWhileWaitingForLookup.close();
+        }
+        super.stop();
     }
 
     @Override
@@ -110,13 +120,11 @@ public class Lookup extends AbstractComponentRuntime {
             lookupInitialized = inputMessage instanceof ControlMessage;
 
             if (lookupInitialized) {
-                Iterator<Message> messages = queuedWhileWaitingForLookup.iterator();
-                while (messages.hasNext()) {
-                    Message message = messages.next();
+                queuedWhileWaitingForLookup.replay((message) -> {
                     if (message instanceof EntityDataMessage) {
                         enhanceAndSend((EntityDataMessage)message, callback, unitOfWorkBoundaryReached);
                     }
-                }
+                });
             }
         } else if (!lookupInitialized) {
             queuedWhileWaitingForLookup.add(inputMessage);
@@ -0,0 +1,254 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
+import org.jumpmind.metl.core.runtime.EntityDataSpillFile;
+
+/**
+ * Merges rows that share a {@link MergeKey}. Groups are kept in key order
+ * until the memory budget is used up and then written to a run file as
+ * partial groups. Groups are handed out in key order by merging the runs
+ * with the groups still in memory, either all of them or only those below
+ * a key that no more rows can arrive for. Later rows win over earlier ones
+ * for every attribute they have a value for.
+ */
+class MergeGroups implements Closeable {
+
+    static final int MAX_RUNS = 64;
+
+    static final long ENTRY_OVERHEAD = 96;
+
+    List<String> attributeIds;
+
+    EntityDataLayout layout;
+
+    long memoryBudget;
+
+    TreeMap<MergeKey, EntityData> groups = new TreeMap<>();
+
+    long memorySize;
+
+    List<Run> runs = new ArrayList<>();
+
+    int spillCount;
+
+    MergeGroups(List<String> attributeIds, EntityDataLayout layout, long memoryBudget) {
+        this.attributeIds = attributeIds;
+        this.layout = layout;
+        this.memoryBudget = memoryBudget;
+    }
+
+    void add(MergeKey key, EntityData row) {
+        EntityData group = groups.get(key);
+        if (group != null) {
+            merge(row, group);
+        } else {
+            groups.put(key, row.copy());
+            memorySize += ENTRY_OVERHEAD;
+        }
+        memorySize += EntityDataSpillFile.estimateSize(row);
+        if (memorySize > memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Hands the merged groups with keys below the limit to the consumer in
+     * key order. A null limit hands out every group.
+     */
+    void emit(MergeKey limit, Consumer<EntityData> consumer) {
+        try {
+            while (true) {
+                MergeKey smallest = groups.isEmpty() ? null : groups.firstKey();
+                for (Run run : runs) {
+                    if (smallest == null || run.key.compareTo(smallest) < 0) {
+                        smallest = run.key;
+                    }
+                }
+                if (smallest == null || (limit != null && smallest.compareTo(limit) >= 0)) {
+                    break;
+                }
+                consumer.accept(take(smallest));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int getSpillCount() {
+        return spillCount;
+    }
+
+    @Override
+    public void close() {
+        for (Run run : runs) {
+            run.close();
+        }
+        runs.clear();
+        groups.clear();
+        memorySize = 0;
+    }
+
+    /**
+     * Removes the partial groups for a key from the runs, oldest first, and
+     * from memory and merges them.
+     */
+    protected EntityData take(MergeKey key) throws IOException {
+        EntityData merged = null;
+        Iterator<Run> i = runs.iterator();
+        while (i.hasNext()) {
+            Run run = i.next();
+            if (run.key.compareTo(key) == 0) {
+                if (merged == null) {
+                    merged = run.row;
+                } else {
+                    merge(run.row, merged);
+                }
+                if (!run.next()) {
+                    run.close();
+                    i.remove();
+                }
+            }
+        }
+        EntityData group = groups.remove(key);
+        if (group != null) {
+            memorySize = Math.max(memorySize - EntityDataSpillFile.estimateSize(group) - ENTRY_OVERHEAD, 0);
+            if (merged == null) {
+                merged = group;
+            } else {
+                merge(group, merged);
+            }
+        }
+        return merged;
+    }
+
+    protected void spill() {
+        try {
+            File file = EntityDataSpillFile.createTempFile("metl-merge");
+            try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(file, layout)) {
+                for (EntityData group : groups.values()) {
+                    writer.write(group);
+                }
+            }
+            groups.clear();
+            memorySize = 0;
+            addRun(file);
+            spillCount++;
+            if (runs.size() > MAX_RUNS) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Merges the rest of every run into a single run.
+     */
+    protected void compact() throws IOException {
+        File file = EntityDataSpillFile.createTempFile("metl-merge");
+        try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(file, layout)) {
+            while (!runs.isEmpty()) {
+                MergeKey smallest = null;
+                for (Run run : runs) {
+                    if (smallest == null || run.key.compareTo(smallest) < 0) {
+                        smallest = run.key;
+                    }
+                }
+                EntityData merged = null;
+                Iterator<Run> i = runs.iterator();
+                while (i.hasNext()) {
+                    Run run = i.next();
+                    if (run.key.compareTo(smallest) == 0) {
+                        if (merged == null) {
+                            merged = run.row;
+                        } else {
+                            merge(run.row, merged);
+                        }
+                        if (!run.next()) {
+                            run.close();
+                            i.remove();
+                        }
+                    }
+                }
+                writer.write(merged);
+            }
+        }
+        addRun(file);
+    }
+
+    protected void addRun(File file) throws IOException {
+        Run run = new Run(file, new EntityDataSpillFile.Reader(file, layout));
+        if (run.next()) {
+            runs.add(run);
+        } else {
+            run.close();
+        }
+    }
+
+    static void merge(EntityData source, EntityData target) {
+        for (Map.Entry<String, Object> column : source.entrySet()) {
+            if (column.getValue() != null) {
+                target.put(column.getKey(), column.getValue());
+            }
+        }
+    }
+
+    class Run {
+        File file;
+        EntityDataSpillFile.Reader reader;
+        EntityData row;
+        MergeKey key;
+
+        Run(File file, EntityDataSpillFile.Reader reader) {
+            this.file = file;
+            this.reader = reader;
+        }
+
+        boolean next() throws IOException {
+            row = reader.read();
+            key = row != null ? MergeKey.of(row, attributeIds) : null;
+            return row != null;
+        }
+
+        void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+            }
+            file.delete();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+
+/**
+ * The values of the merge attributes of a row. Whole numbers are compared
+ * as longs and decimals without their trailing zeros so that the same key
+ * read as different Java types still matches. Dates of any type are
+ * compared by their time down to the nanosecond. Keys sort with nulls first.
+ * Keys are only meant to be compared, not hashed.
+ */
+class MergeKey implements Comparable<MergeKey> {
+
+    final Object[] values;
+
+    MergeKey(Object[] values) {
+        this.values = values;
+    }
+
+    static MergeKey of(EntityData row, List<String> attributeIds) {
+        Object[] values = new Object[attributeIds.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = normalize(row.get(attributeIds.get(i)));
+        }
+        return new MergeKey(values);
+    }
+
+    static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+            if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19) {
+                return decimal.longValueExact();
+            }
+            return decimal;
+        }
+        return value;
+    }
+
+    @Override
+    public int compareTo(MergeKey other) {
+        for (int i = 0; i < values.length; i++) {
+            int compare = compareValues(values[i], other.values[i]);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(values);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        } else if (a == null) {
+            return -1;
+        } else if (b == null) {
+            return 1;
+        } else if (a instanceof Long && b instanceof Long) {
+            return Long.compare((Long) a, (Long) b);
+        } else if (a instanceof Number && b instanceof Number) {
+            if (a instanceof Double || a instanceof Float || b instanceof Double || b instanceof Float) {
+                return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+            }
+            return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+        } else if (a instanceof Date && b instanceof Date) {
+            int compare = Long.compare(((Date) a).getTime(), ((Date) b).getTime());
+            return compare != 0 ? compare : Integer.compare(nanosOf((Date) a), nanosOf((Date) b));
+        } else if (a instanceof byte[] && b instanceof byte[]) {
+            byte[] left = (byte[]) a;
+            byte[] right = (byte[]) b;
+            for (int i = 0; i < Math.min(left.length, right.length); i++) {
+                int compare = Integer.compare(left[i] & 0xFF, right[i] & 0xFF);
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return Integer.compare(left.length, right.length);
+        } else if (a.getClass() == b.getClass() && a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        } else {
+            int compare = a.getClass().getName().compareTo(b.getClass().getName());
+            return compare != 0 ? compare : a.toString().compareTo(b.toString());
+        }
+    }
+
+    /**
+     * The part of a timestamp below a millisecond, which {@link Date#getTime}
+     * leaves out.
+     */
+    static int nanosOf(Date date) {
+        return date instanceof Timestamp ? ((Timestamp) date).getNanos() % 1000000 : 0;
+    }
+
+}
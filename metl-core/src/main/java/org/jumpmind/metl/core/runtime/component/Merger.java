@@ -21,15 +21,22 @@
 package org.jumpmind.metl.core.runtime.component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jumpmind.metl.core.model.Component;
 import org.jumpmind.metl.core.model.ComponentAttribSetting;
+import org.jumpmind.metl.core.model.FlowStep;
+import org.jumpmind.metl.core.model.FlowStepLink;
 import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.runtime.ControlMessage;
 import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MisconfiguredException;
@@ -40,10 +47,34 @@ public class Merger extends AbstractComponentRuntime {
     public static final String TYPE = "Merger";
 
     public final static String MERGE_ATTRIBUTE = "merge.attribute";
+    
+    public final static String MERGE_MODE = "merge.mode";
+    
+    public final static String MODE_IN_MEMORY = "IN MEMORY";
+    
+    public final static String MODE_SORTED_INPUT = "SORTED INPUT";
+    
+    public final static String MODE_EXTERNAL = "EXTERNAL";
+    
+    public final static String MERGE_MEMORY = "merge.memory.mb";
 
     Map<Object, EntityData> mergedData = new LinkedHashMap<Object, EntityData>();
 
     List<String> attributesToMergeOn = new ArrayList<String>();
+    
+    String mergeMode = MODE_IN_MEMORY;
+    
+    int rowsPerMessage = 1000;
+    
+    MergeGroups mergeGroups;
+    
+    Set<String> sourceStepIds = new HashSet<>();
+    
+    Map<String, MergeKey> lastKeys = new HashMap<>();
+    
+    Set<String> finishedSourceStepIds = new HashSet<>();
+    
+    ArrayList<EntityData> dataToSend;
 
     @Override
     public void start() {
@@ -66,6 +97,27 @@ public class Merger extends AbstractComponentRuntime {
         if (attributesToMergeOn.size() == 0) {
             throw new MisconfiguredException("At least one attribute must be selected for joining.");
         }
+        
+        mergeMode = properties.get(MERGE_MODE, MODE_IN_MEMORY);
+        if (!MODE_IN_MEMORY.equals(mergeMode)) {
+            rowsPerMessage = properties.getInt(ROWS_PER_MESSAGE, rowsPerMessage);
+            mergeGroups = new MergeGroups(attributesToMergeOn, EntityDataLayout.forModel(inputModel),
+                    properties.getLong(MERGE_MEMORY, 256) * 1024 * 1024);
+            dataToSend = new ArrayList<EntityData>(rowsPerMessage);
+            for (FlowStepLink link : getFlow().getFlowStepLinks()) {
+                if (link.getTargetStepId().equals(getFlowStepId())) {
+                    sourceStepIds.add(link.getSourceStepId());
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void stop() {
+        if (mergeGroups != null) {
+            mergeGroups.close();
+        }
+        super.stop();
     }
 
     @Override
@@ -75,6 +127,11 @@ public class Merger extends AbstractComponentRuntime {
 
     @Override
     public void handle(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
+        if (mergeGroups != null) {
+            mergeAndStream(inputMessage, callback, unitOfWorkBoundaryReached);
+            return;
+        }
+        
         if (inputMessage instanceof EntityDataMessage) {
             ArrayList<EntityData> payload = ((EntityDataMessage)inputMessage).getPayload();
             join(payload);
@@ -96,6 +153,65 @@ public class Merger extends AbstractComponentRuntime {
         }
     }
 
+    protected void mergeAndStream(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
+        String sourceStepId = inputMessage.getHeader().getOriginatingStepId();
+        boolean sortedInput = MODE_SORTED_INPUT.equals(mergeMode);
+        if (inputMessage instanceof EntityDataMessage) {
+            for (EntityData entityData : ((EntityDataMessage) inputMessage).getPayload()) {
+                getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
+                MergeKey key = MergeKey.of(entityData, attributesToMergeOn);
+                if (sortedInput) {
+                    MergeKey lastKey = lastKeys.get(sourceStepId);
+                    if (lastKey != null && key.compareTo(lastKey) < 0) {
+                        FlowStep sourceStep = getFlow().findFlowStepWithId(sourceStepId);
+                        throw new MisconfiguredException(
+                                "The input from '%s' is not sorted on the merge attributes.  %s came after %s.  Sort the input or use the %s merge mode",
+                                sourceStep != null ? sourceStep.getName() : sourceStepId, key, lastKey, MODE_EXTERNAL);
+                    }
+                    lastKeys.put(sourceStepId, key);
+                }
+                mergeGroups.add(key, entityData);
+            }
+        } else if (inputMessage instanceof ControlMessage) {
+            finishedSourceStepIds.add(sourceStepId);
+        }
+
+        if (unitOfWorkBoundaryReached) {
+            mergeGroups.emit(null, (data) -> send(data, callback));
+            if (dataToSend.size() > 0) {
+                callback.sendEntityDataMessage(null, dataToSend);
+                dataToSend = new ArrayList<EntityData>(rowsPerMessage);
+            }
+            if (mergeGroups.getSpillCount() > 0) {
+                info("Merged groups were spilled to disk %d times", mergeGroups.getSpillCount());
+            }
+            mergeGroups.close();
+            lastKeys.clear();
+            finishedSourceStepIds.clear();
+        } else if (sortedInput) {
+            MergeKey watermark = null;
+            for (String stepId : sourceStepIds) {
+                if (!finishedSourceStepIds.contains(stepId)) {
+                    MergeKey lastKey = lastKeys.get(stepId);
+                    if (lastKey == null) {
+                        return;
+                    } else if (watermark == null || lastKey.compareTo(watermark) < 0) {
+                        watermark = lastKey;
+                    }
+                }
+            }
+            mergeGroups.emit(watermark, (data) -> send(data, callback));
+        }
+    }
+    
+    protected void send(EntityData data, ISendMessageCallback callback) {
+        dataToSend.add(data);
+        if (dataToSend.size() >= rowsPerMessage) {
+            callback.sendEntityDataMessage(null, dataToSend);
+            dataToSend = new ArrayList<EntityData>(rowsPerMessage);
+        }
+    }
+
     private void join(ArrayList<EntityData> records) {
         for (EntityData entityData : records) {
             getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber);
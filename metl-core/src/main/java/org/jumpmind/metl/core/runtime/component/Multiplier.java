@@ -23,13 +23,13 @@ package org.jumpmind.metl.core.runtime.component;
 import static org.apache.commons.lang.StringUtils.isBlank;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import org.jumpmind.metl.core.runtime.ControlMessage;
 import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.Message;
+import org.jumpmind.metl.core.runtime.SpillableMessageBuffer;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
 
 public class Multiplier extends AbstractComponentRuntime {
@@ -46,7 +46,7 @@ public class Multiplier extends AbstractComponentRuntime {
 
     List<EntityData> multipliers = new ArrayList<EntityData>();
 
-    List<Message> queuedWhileWaitingForMultiplier = new ArrayList<Message>();
+    SpillableMessageBuffer queuedWhileWaitingForMultiplier;
 
     @Override
     public void start() {
@@ -58,6 +58,16 @@ public class Multiplier extends AbstractComponentRuntime {
         if (isBlank(sourceStepId) || getFlow().findFlowStepWithId(sourceStepId) == null) {
             throw new IllegalStateException("The source step must be specified");
         }
+        
+        queuedWhileWaitingForMultiplier = createMessageBuffer();
+    }
+    
+    @Override
+    public void stop() {
+        if (queuedWhileWaitingForMultiplier != null) {
+            queuedWhileWaitingForMultiplier.close();
+        }
+        super.stop();
     }
 
     @Override
@@ -76,13 +86,11 @@ public class Multiplier extends AbstractComponentRuntime {
             multipliersInitialized = inputMessage instanceof ControlMessage;
 
             if (multipliersInitialized) {
-                Iterator<Message> messages = queuedWhileWaitingForMultiplier.iterator();
-                while (messages.hasNext()) {
-                    Message message = messages.next();
+                queuedWhileWaitingForMultiplier.replay((message) -> {
                     if (message instanceof EntityDataMessage) {
                         multiply((EntityDataMessage) message, callback);
                     }
-                }
+                });
             }
         } else if (!multipliersInitialized) {
             queuedWhileWaitingForMultiplier.add(inputMessage);
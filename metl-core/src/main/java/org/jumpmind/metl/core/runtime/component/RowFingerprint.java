@@ -0,0 +1,186 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+
+/**
+ * Hashes the values of a list of attributes into a 128 bit fingerprint
+ * without building a key string. The mixing follows MurmurHash3. Each value
+ * is hashed with a type tag and strings with their length so that
+ * neighbouring values can not run together. After {@link #compute} the
+ * fingerprint is in {@link #hi} and {@link #lo}, which are never both zero.
+ */
+class RowFingerprint {
+
+    static final long C1 = 0x87c37b91114253d5L;
+    static final long C2 = 0x4cf5ad432745937fL;
+
+    static final long NULL = 1;
+    static final long STRING = 2;
+    static final long INTEGRAL = 3;
+    static final long DECIMAL = 4;
+    static final long FLOATING = 5;
+    static final long BOOLEAN = 6;
+    static final long DATE = 7;
+    static final long BYTES = 8;
+    static final long OTHER = 9;
+
+    List<String> attributeIds;
+
+    long hi;
+
+    long lo;
+
+    long words;
+
+    RowFingerprint(List<String> attributeIds) {
+        this.attributeIds = attributeIds;
+    }
+
+    void compute(EntityData data) {
+        hi = 0;
+        lo = 0;
+        words = 0;
+        for (String attributeId : attributeIds) {
+            update(data.get(attributeId));
+        }
+        finish();
+    }
+
+    protected void update(Object value) {
+        if (value == null) {
+            update(NULL);
+        } else if (value instanceof String) {
+            update(STRING);
+            update((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            update(INTEGRAL);
+            update(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            BigInteger unscaled = decimal.unscaledValue();
+            if (unscaled.bitLength() < 64) {
+                update(DECIMAL);
+                update(decimal.scale());
+                update(unscaled.longValue());
+            } else {
+                update(OTHER);
+                update(decimal.toString());
+            }
+        } else if (value instanceof Double || value instanceof Float) {
+            update(FLOATING);
+            update(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Boolean) {
+            update(BOOLEAN);
+            update((Boolean) value ? 1 : 0);
+        } else if (value instanceof Date) {
+            update(DATE);
+            update(((Date) value).getTime());
+            if (value instanceof Timestamp) {
+                update(((Timestamp) value).getNanos());
+            }
+        } else if (value instanceof byte[]) {
+            update(BYTES);
+            update((byte[]) value);
+        } else {
+            update(OTHER);
+            update(value.toString());
+        }
+    }
+
+    protected void update(String value) {
+        int length = value.length();
+        update(length);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            update((long) value.charAt(i) | (long) value.charAt(i + 1) << 16 | (long) value.charAt(i + 2) << 32
+                    | (long) value.charAt(i + 3) << 48);
+        }
+        if (i < length) {
+            long word = 0;
+            for (int shift = 0; i < length; i++, shift += 16) {
+                word |= (long) value.charAt(i) << shift;
+            }
+            update(word);
+        }
+    }
+
+    protected void update(byte[] value) {
+        update(value.length);
+        long word = 0;
+        for (int i = 0; i < value.length; i++) {
+            word |= (value[i] & 0xFFL) << ((i & 7) * 8);
+            if ((i & 7) == 7) {
+                update(word);
+                word = 0;
+            }
+        }
+        if ((value.length & 7) != 0) {
+            update(word);
+        }
+    }
+
+    protected void update(long k) {
+        long k1 = Long.rotateLeft(k * C1, 31) * C2;
+        hi ^= k1;
+        hi = Long.rotateLeft(hi, 27) + lo;
+        hi = hi * 5 + 0x52dce729;
+
+        long k2 = Long.rotateLeft(k * C2, 33) * C1;
+        lo ^= k2;
+        lo = Long.rotateLeft(lo, 31) + hi;
+        lo = lo * 5 + 0x38495ab5;
+
+        words++;
+    }
+
+    protected void finish() {
+        hi ^= words;
+        lo ^= words;
+        hi += lo;
+        lo += hi;
+        hi = mix(hi);
+        lo = mix(lo);
+        hi += lo;
+        lo += hi;
+        if (hi == 0 && lo == 0) {
+            lo = 1;
+        }
+    }
+
+    static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+}
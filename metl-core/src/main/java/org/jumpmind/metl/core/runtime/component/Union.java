@@ -25,16 +25,24 @@ import java.util.ArrayList;
 import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
 import org.jumpmind.metl.core.runtime.Message;
+import org.jumpmind.metl.core.runtime.SpillableMessageBuffer;
 import org.jumpmind.metl.core.runtime.flow.ISendMessageCallback;
 
 public class Union extends AbstractComponentRuntime {
 
     public static final String TYPE = "Union";
+    
+    int rowsPerMessage;
         
-    ArrayList<EntityData> dataToSend = new ArrayList<EntityData>();
+    SpillableMessageBuffer dataToSend;
+    
+    long rowsToSend;
 
     @Override
     public void start() {
+        rowsPerMessage = getTypedProperties().getInt(ROWS_PER_MESSAGE, 0);
+        dataToSend = createMessageBuffer();
+        rowsToSend = 0;
     }
         
     @Override
@@ -46,14 +54,41 @@ public class Union extends AbstractComponentRuntime {
     public void handle( Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {    	
         if (inputMessage instanceof EntityDataMessage) {
             ArrayList<EntityData> payload = ((EntityDataMessage)inputMessage).getPayload();
-            dataToSend.addAll(payload);
-            getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber, payload.size());
+            if (payload != null && payload.size() > 0) {
+                dataToSend.add(inputMessage);
+                rowsToSend += payload.size();
+            }
+            getComponentStatistics().incrementNumberEntitiesProcessed(threadNumber, payload != null ? payload.size() : 0);
         }
 
-        if (unitOfWorkBoundaryReached && dataToSend.size() != 0) {
-            callback.sendEntityDataMessage(null, dataToSend);
-            dataToSend.clear();
+        if (unitOfWorkBoundaryReached && rowsToSend != 0) {
+            sendData(callback);
+        }
+    }
+    
+    protected void sendData(ISendMessageCallback callback) {
+        ArrayList<EntityData> batch = new ArrayList<EntityData>();
+        dataToSend.replay((message) -> {
+            for (EntityData data : ((EntityDataMessage) message).getPayload()) {
+                batch.add(data);
+                if (rowsPerMessage > 0 && batch.size() >= rowsPerMessage) {
+                    callback.sendEntityDataMessage(null, new ArrayList<EntityData>(batch));
+                    batch.clear();
+                }
+            }
+        });
+        if (batch.size() > 0) {
+            callback.sendEntityDataMessage(null, batch);
+        }
+        rowsToSend = 0;
+    }
+    
+    @Override
+    public void stop() {
+        if (dataToSend != null) {
+            dataToSend.close();
         }
+        super.stop();
     }
 
 }
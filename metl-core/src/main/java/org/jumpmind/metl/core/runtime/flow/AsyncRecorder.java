@@ -22,24 +22,23 @@ package org.jumpmind.metl.core.runtime.flow;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.commons.lang.StringUtils;
 import org.jumpmind.metl.core.model.AbstractObject;
 import org.jumpmind.metl.core.model.ExecutionStepLog;
+import org.jumpmind.metl.core.persist.ExecutionStepLogWriter;
 import org.jumpmind.metl.core.persist.IExecutionService;
 import org.jumpmind.metl.core.util.LogUtils;
-import org.jumpmind.symmetric.csv.CsvWriter;
 import org.jumpmind.util.AppUtils;
-import org.jumpmind.util.FormatUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,11 +54,43 @@ public class AsyncRecorder implements Runnable {
 
     protected boolean stopping = false;
 
-    protected Map<String, CsvWriter> logWriters = new HashMap<>();
+    protected Map<String, ExecutionStepLogWriter> logWriters = new HashMap<>();
+
+    protected long batchWindowMs;
+
+    protected long logFlushBytes;
+
+    protected long logFlushIntervalMs;
+
+    protected Set<String> savedIds = new HashSet<>();
+
+    protected Set<ExecutionStepLogWriter> unflushedWriters = new HashSet<>();
+
+    protected long unflushedLogBytes;
+
+    protected long lastLogFlushTime = System.currentTimeMillis();
 
     public AsyncRecorder(IExecutionService executionService) {
+        this(executionService, 0, 0, 0);
+    }
+
+    /**
+     * @param batchWindowMs
+     *            when greater than zero, updates are collected for this long,
+     *            coalesced by id and written with one batch per table. Step
+     *            logs are then flushed when either of the log flush thresholds
+     *            is reached instead of after every record.
+     */
+    public AsyncRecorder(IExecutionService executionService, long batchWindowMs, long logFlushBytes, long logFlushIntervalMs) {
         this.inQueue = new LinkedBlockingQueue<AbstractObject>();
         this.executionService = executionService;
+        this.batchWindowMs = batchWindowMs;
+        this.logFlushBytes = logFlushBytes;
+        this.logFlushIntervalMs = logFlushIntervalMs;
+    }
+
+    protected boolean isBatched() {
+        return batchWindowMs > 0;
     }
 
     public void record(AbstractObject object) {
@@ -80,45 +111,77 @@ public class AsyncRecorder implements Runnable {
             synchronized (inQueue) {
                 inQueue.drainTo(toProcess);
                 if (toProcess.isEmpty()) {
-                    inQueue.wait();
+                    if (isBatched()) {
+                        inQueue.wait(logFlushIntervalMs > 0 ? logFlushIntervalMs : batchWindowMs);
+                    } else {
+                        inQueue.wait();
+                    }
+                }
+            }
+
+            if (isBatched() && toProcess.size() > 0 && !stopping) {
+                AppUtils.sleep(batchWindowMs);
+                synchronized (inQueue) {
+                    inQueue.drainTo(toProcess);
                 }
             }
             
+            List<AbstractObject> toUpdate = new ArrayList<>();
             for (int i = toProcess.size() - 1; i >= 0; i--) {
                 AbstractObject object = toProcess.get(i);
                 if (object != null && !(object instanceof ExecutionStepLog)) {
                     if (!processed.contains(object.getId())) {
-                        executionService.save(object);
+                        if (isBatched() && savedIds.contains(object.getId())) {
+                            toUpdate.add(object);
+                        } else {
+                            executionService.save(object);
+                            if (isBatched()) {
+                                savedIds.add(object.getId());
+                            }
+                        }
                         processed.add(object.getId());
                     }
                 }
             }
 
+            if (toUpdate.size() > 0) {
+                executionService.updateAll(toUpdate);
+            }
+
             for (int i = 0; i < toProcess.size(); i++) {
                 AbstractObject object = toProcess.get(i);
                 if (object instanceof ExecutionStepLog) {
                     ExecutionStepLog stepLog = (ExecutionStepLog) object;
                     String executionStepId = stepLog.getExecutionStepId();
-                    CsvWriter writer = logWriters.get(executionStepId);
-                    if (writer == null) {
-                        File logFile = new File(LogUtils.getLogDir(), executionStepId + ".log");
-                        writer = new CsvWriter(logFile.getAbsolutePath(), '"',
-                                Charset.forName("UTF-8"));
-                        logWriters.put(executionStepId, writer);
-                    }
+                    ExecutionStepLogWriter writer = logWriters.get(executionStepId);
                     try {
-                        writer.writeRecord(new String[] { stepLog.getLevel(),
-                                FormatUtils.TIMESTAMP_FORMATTER.format(stepLog.getCreateTime()),
-                                StringUtils.abbreviate(stepLog.getLogText(), 100000) });
-                        writer.flush();
+                        if (writer == null) {
+                            File logFile = new File(LogUtils.getLogDir(), executionStepId + ".log");
+                            writer = new ExecutionStepLogWriter(logFile);
+                            logWriters.put(executionStepId, writer);
+                        }
+                        int length = writer.write(stepLog, StringUtils.abbreviate(stepLog.getLogText(), 100000));
+                        if (isBatched()) {
+                            unflushedWriters.add(writer);
+                            unflushedLogBytes += length;
+                        } else {
+                            writer.flush();
+                        }
                     } catch (IOException e) {
-                        writer.close();
+                        if (writer != null) {
+                            writer.close();
+                            unflushedWriters.remove(writer);
+                        }
                         logWriters.remove(executionStepId);
                         log.error("", e);
                     }
                 }
             }
 
+            if (isBatched()) {
+                flushLogs();
+            }
+
             if (toProcess.size() == 0) {
                 AppUtils.sleep(5);
             }
@@ -128,6 +191,23 @@ public class AsyncRecorder implements Runnable {
         }
     }
 
+    protected void flushLogs() {
+        long now = System.currentTimeMillis();
+        if (unflushedWriters.size() > 0
+                && (stopping || unflushedLogBytes >= logFlushBytes || now - lastLogFlushTime >= logFlushIntervalMs)) {
+            for (ExecutionStepLogWriter writer : unflushedWriters) {
+                try {
+                    writer.flush();
+                } catch (Exception e) {
+                    log.error("", e);
+                }
+            }
+            unflushedWriters.clear();
+            unflushedLogBytes = 0;
+            lastLogFlushTime = now;
+        }
+    }
+
     @Override
     public void run() {
         running = true;
@@ -153,9 +233,9 @@ public class AsyncRecorder implements Runnable {
             AppUtils.sleep(10);
         }
 
-        Collection<CsvWriter> writers = logWriters.values();
-        for (CsvWriter csvWriter : writers) {
-            csvWriter.close();
+        Collection<ExecutionStepLogWriter> writers = logWriters.values();
+        for (ExecutionStepLogWriter writer : writers) {
+            writer.close();
         }
     }
 
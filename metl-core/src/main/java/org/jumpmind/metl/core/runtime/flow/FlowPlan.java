@@ -0,0 +1,377 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.flow;
+
+import static org.apache.commons.lang.StringUtils.isNotBlank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.metl.core.model.AbstractObject;
+import org.jumpmind.metl.core.model.Component;
+import org.jumpmind.metl.core.model.ComponentAttribSetting;
+import org.jumpmind.metl.core.model.ComponentEntitySetting;
+import org.jumpmind.metl.core.model.ComponentModelSetting;
+import org.jumpmind.metl.core.model.Flow;
+import org.jumpmind.metl.core.model.FlowStep;
+import org.jumpmind.metl.core.model.FlowStepLink;
+import org.jumpmind.metl.core.model.HierarchicalModel;
+import org.jumpmind.metl.core.model.IModel;
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.ModelSchemaObject;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.model.Resource;
+import org.jumpmind.metl.core.model.Setting;
+import org.jumpmind.metl.core.persist.IConfigurationService;
+import org.jumpmind.metl.core.plugin.IDefinitionFactory;
+import org.jumpmind.metl.core.plugin.XMLComponentDefinition;
+import org.jumpmind.metl.core.runtime.component.AbstractComponentRuntime;
+import org.jumpmind.metl.core.runtime.component.ComponentSettingsConstants;
+
+/**
+ * The parts of a {@link FlowRuntime} that only depend on the flow definition:
+ * the manipulated flow, the enabled steps with their component definitions
+ * and static settings, and the links between them as index arrays. A plan is
+ * compiled once per deployed flow and shared by every execution of that
+ * deployment, which then only has to create fresh component state.
+ */
+public class FlowPlan {
+
+    final Flow flow;
+
+    final List<Object> signature;
+
+    final Flow manipulatedFlow;
+
+    final long configurationVersion;
+
+    final boolean manipulated;
+
+    final List<Step> steps;
+
+    final Map<String, Step> stepsById;
+
+    FlowPlan(Flow flow, Flow manipulatedFlow, long configurationVersion, boolean manipulated, List<Step> steps) {
+        this.flow = flow;
+        this.signature = signature(flow);
+        this.manipulatedFlow = manipulatedFlow;
+        this.configurationVersion = configurationVersion;
+        this.manipulated = manipulated;
+        this.steps = Collections.unmodifiableList(steps);
+        this.stepsById = new HashMap<>(steps.size());
+        for (Step step : steps) {
+            this.stepsById.put(step.flowStep.getId(), step);
+        }
+    }
+
+    public static FlowPlan compile(Flow flow, IDefinitionFactory definitionFactory, IConfigurationService configurationService) {
+        long configurationVersion = configurationService != null ? configurationService.getDeployedFlowCache().getVersion() : 0;
+        boolean manipulated = false;
+        Flow manipulatedFlow = (Flow) flow.clone();
+        manipulatedFlow.setFlowParameters(new ArrayList<>());
+        manipulatedFlow.getFlowParameters().addAll(flow.getFlowParameters());
+        /*
+         * The flow may be shared through the deployed flow cache, so the
+         * manipulators and the step ordering work on copies of its steps and
+         * links
+         */
+        manipulatedFlow.setFlowSteps(new ArrayList<>());
+        for (FlowStep flowStep : flow.getFlowSteps()) {
+            manipulatedFlow.getFlowSteps().add((FlowStep) flowStep.clone());
+        }
+        manipulatedFlow.setFlowStepLinks(new ArrayList<>());
+        for (FlowStepLink link : flow.getFlowStepLinks()) {
+            manipulatedFlow.getFlowStepLinks().add((FlowStepLink) link.clone());
+        }
+
+        for (FlowStep flowStep : new ArrayList<>(manipulatedFlow.getFlowSteps())) {
+            XMLComponentDefinition componentDefintion = definitionFactory.getComponentDefinition(flow.getProjectVersionId(),
+                    flowStep.getComponent().getType());
+            if (isNotBlank(componentDefintion.getFlowManipulatorClassName())) {
+                try {
+                    IFlowManipulator flowManipulator = (IFlowManipulator) Class
+                            .forName(componentDefintion.getFlowManipulatorClassName())
+                            .newInstance();
+                    manipulatedFlow = flowManipulator.manipulate(manipulatedFlow, flowStep, configurationService);
+                    manipulated = true;
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
+        List<Step> steps = new ArrayList<>();
+        Map<String, Step> enabledStepsById = new HashMap<>();
+        for (FlowStep flowStep : manipulatedFlow.getFlowSteps()) {
+            Component component = flowStep.getComponent();
+            if (component.getBoolean(AbstractComponentRuntime.ENABLED, true)) {
+                Step step = new Step(steps.size(), flowStep,
+                        definitionFactory.getComponentDefinition(component.getProjectVersionId(), component.getType()));
+                steps.add(step);
+                enabledStepsById.put(flowStep.getId(), step);
+            }
+        }
+
+        List<List<Integer>> targets = new ArrayList<>(steps.size());
+        List<List<Integer>> sources = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            targets.add(new ArrayList<>());
+            sources.add(new ArrayList<>());
+        }
+        for (FlowStepLink link : manipulatedFlow.getFlowStepLinks()) {
+            Step source = enabledStepsById.get(link.getSourceStepId());
+            Step target = enabledStepsById.get(link.getTargetStepId());
+            if (source != null && target != null) {
+                targets.get(source.index).add(target.index);
+                sources.get(target.index).add(source.index);
+            }
+        }
+        for (Step step : steps) {
+            step.targets = toArray(targets.get(step.index));
+            step.sources = toArray(sources.get(step.index));
+        }
+
+        manipulatedFlow.calculateApproximateOrder();
+
+        return new FlowPlan(flow, manipulatedFlow, configurationVersion, manipulated, steps);
+    }
+
+    /**
+     * A plan stays current as long as the deployed flow still has the same
+     * steps, components, settings, resources, models and links it had when
+     * the plan was compiled.
+     * The comparison is against a copy taken at compile time, so a flow that
+     * was changed in place is recompiled too. Flows that were manipulated
+     * pulled in other flow definitions, so they are also recompiled when the
+     * configuration changes.
+     */
+    public boolean isCurrent(Flow flow, IConfigurationService configurationService) {
+        return signature.equals(signature(flow)) && (!manipulated || configurationService == null
+                || configurationService.getDeployedFlowCache().getVersion() == configurationVersion);
+    }
+
+    /**
+     * Copies the parts of a flow definition that a plan depends on into an
+     * immutable list of values.
+     */
+    static List<Object> signature(Flow flow) {
+        List<Object> signature = new ArrayList<>();
+        signature.add(flow.getId());
+        signature.add(time(flow.getLastUpdateTime()));
+        for (FlowStep flowStep : flow.getFlowSteps()) {
+            signature.add(flowStep.getId());
+            Component component = flowStep.getComponent();
+            if (component != null) {
+                signature.add(component.getId());
+                signature.add(component.getType());
+                signature.add(time(component.getLastUpdateTime()));
+                addSettings(signature, component.getSettings());
+                if (component.getEntitySettings() != null) {
+                    for (ComponentEntitySetting setting : component.getEntitySettings()) {
+                        signature.add(setting.getEntityId());
+                        signature.add(setting.getName());
+                        signature.add(setting.getValue());
+                    }
+                }
+                if (component.getAttributeSettings() != null) {
+                    for (ComponentAttribSetting setting : component.getAttributeSettings()) {
+                        signature.add(setting.getAttributeId());
+                        signature.add(setting.getName());
+                        signature.add(setting.getValue());
+                    }
+                }
+                if (component.getModelSettings() != null) {
+                    for (ComponentModelSetting setting : component.getModelSettings()) {
+                        signature.add(setting.getModelObjectId());
+                        signature.add(setting.getName());
+                        signature.add(setting.getValue());
+                    }
+                }
+                Resource resource = component.getResource();
+                signature.add(resource != null ? resource.getId() : null);
+                if (resource != null) {
+                    signature.add(time(resource.getLastUpdateTime()));
+                    addSettings(signature, resource.getSettings());
+                }
+                addModel(signature, component.getInputModel());
+                addModel(signature, component.getOutputModel());
+            }
+        }
+        for (FlowStepLink link : flow.getFlowStepLinks()) {
+            signature.add(link.getSourceStepId());
+            signature.add(link.getTargetStepId());
+        }
+        return Collections.unmodifiableList(signature);
+    }
+
+    private static void addSettings(List<Object> signature, List<Setting> settings) {
+        if (settings != null) {
+            for (Setting setting : settings) {
+                signature.add(setting.getName());
+                signature.add(setting.getValue());
+            }
+        }
+    }
+
+    /*
+     * Components keep references to their models, so the contents of a model
+     * are part of the signature and not just its id
+     */
+    private static void addModel(List<Object> signature, IModel model) {
+        signature.add(model != null ? model.getId() : null);
+        if (model instanceof AbstractObject) {
+            signature.add(time(((AbstractObject) model).getLastUpdateTime()));
+        }
+        if (model instanceof RelationalModel) {
+            for (ModelEntity entity : ((RelationalModel) model).getModelEntities()) {
+                signature.add(entity.getId());
+                signature.add(entity.getName());
+                for (ModelAttrib attribute : entity.getModelAttributes()) {
+                    signature.add(attribute.getId());
+                    signature.add(attribute.getName());
+                    signature.add(attribute.getType());
+                    signature.add(attribute.getTypeEntityId());
+                    signature.add(attribute.isPk());
+                    signature.add(attribute.getAttributeOrder());
+                }
+            }
+        } else if (model instanceof HierarchicalModel) {
+            addSchemaObject(signature, ((HierarchicalModel) model).getRootObject());
+        }
+    }
+
+    private static void addSchemaObject(List<Object> signature, ModelSchemaObject object) {
+        if (object != null) {
+            signature.add(object.getId());
+            signature.add(object.getName());
+            signature.add(object.getType());
+            signature.add(object.getRefModelId());
+            signature.add(object.getPattern());
+            if (object.getChildObjects() != null) {
+                for (ModelSchemaObject child : object.getChildObjects()) {
+                    addSchemaObject(signature, child);
+                }
+            }
+            signature.add(null);
+        }
+    }
+
+    private static Long time(Date date) {
+        return date != null ? date.getTime() : null;
+    }
+
+    public Flow getFlow() {
+        return flow;
+    }
+
+    public Flow getManipulatedFlow() {
+        return manipulatedFlow;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public Step getStep(String flowStepId) {
+        return stepsById.get(flowStepId);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    public static class Step {
+
+        final int index;
+
+        final FlowStep flowStep;
+
+        final XMLComponentDefinition componentDefinition;
+
+        final int inboundQueueCapacity;
+
+        final int threadCount;
+
+        final boolean transferPayloadOwnership;
+
+        int[] targets;
+
+        int[] sources;
+
+        Step(int index, FlowStep flowStep, XMLComponentDefinition componentDefinition) {
+            this.index = index;
+            this.flowStep = flowStep;
+            this.componentDefinition = componentDefinition;
+            Component component = flowStep.getComponent();
+            this.inboundQueueCapacity = component.getInt(AbstractComponentRuntime.INBOUND_QUEUE_CAPACITY, 1000);
+            this.threadCount = component.getInt(StepRuntime.THREAD_COUNT, 1);
+            this.transferPayloadOwnership = component.getBoolean(ComponentSettingsConstants.TRANSFER_PAYLOAD_OWNERSHIP, false);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public FlowStep getFlowStep() {
+            return flowStep;
+        }
+
+        public XMLComponentDefinition getComponentDefinition() {
+            return componentDefinition;
+        }
+
+        public int getInboundQueueCapacity() {
+            return inboundQueueCapacity;
+        }
+
+        public int getThreadCount() {
+            return threadCount;
+        }
+
+        public boolean isTransferPayloadOwnership() {
+            return transferPayloadOwnership;
+        }
+
+        public int[] getTargets() {
+            return targets;
+        }
+
+        public int[] getSources() {
+            return sources;
+        }
+
+        public boolean isStartStep() {
+            return sources.length == 0;
+        }
+    }
+
+}
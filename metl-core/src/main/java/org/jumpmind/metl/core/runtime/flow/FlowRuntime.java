@@ -48,16 +48,14 @@ import org.jumpmind.metl.core.model.AgentProjectVersionFlowDeployment;
 import org.jumpmind.metl.core.model.Flow;
 import org.jumpmind.metl.core.model.FlowParameter;
 import org.jumpmind.metl.core.model.FlowStep;
-import org.jumpmind.metl.core.model.FlowStepLink;
 import org.jumpmind.metl.core.model.Notification;
 import org.jumpmind.metl.core.persist.IConfigurationService;
 import org.jumpmind.metl.core.persist.IExecutionService;
 import org.jumpmind.metl.core.persist.IOperationsService;
 import org.jumpmind.metl.core.plugin.IDefinitionFactory;
-import org.jumpmind.metl.core.plugin.XMLComponentDefinition;
 import org.jumpmind.metl.core.runtime.ControlMessage;
+import org.jumpmind.metl.core.runtime.FlowAdmissionController;
 import org.jumpmind.metl.core.runtime.IExecutionTracker;
-import org.jumpmind.metl.core.runtime.component.AbstractComponentRuntime;
 import org.jumpmind.metl.core.runtime.component.ComponentContext;
 import org.jumpmind.metl.core.runtime.component.ComponentStatistics;
 import org.jumpmind.metl.core.runtime.component.IComponentRuntime;
@@ -116,6 +114,12 @@ public class FlowRuntime {
     
     Flow manipulatedFlow;
 
+    FlowPlan flowPlan;
+
+    FlowAdmissionController admissionController;
+
+    final Object completionSignal = new Object();
+
     public FlowRuntime(String executionId, String userId, AgentProjectVersionFlowDeployment deployment, Agent agent,
             IComponentRuntimeFactory componentRuntimeFactory,
             IDefinitionFactory componentDefinitionFactory,            
@@ -136,9 +140,22 @@ public class FlowRuntime {
             IConfigurationService configurationService, IExecutionService executionService,
             Map<String, IResourceRuntime> deployedResources, List<Notification> notifications,
             Map<String, String> globalSettings, Map<String, String> runtimeParameters) {
+        this(executionId, userId, deployment, agent, componentRuntimeFactory, definitionFactory,
+                threadService, operationsService, configurationService, executionService,
+                deployedResources, notifications, globalSettings, runtimeParameters, null);
+    }
+
+    public FlowRuntime(String executionId, String userId, AgentProjectVersionFlowDeployment deployment, Agent agent,
+            IComponentRuntimeFactory componentRuntimeFactory,
+            IDefinitionFactory definitionFactory,
+            ExecutorService threadService, IOperationsService operationsService,
+            IConfigurationService configurationService, IExecutionService executionService,
+            Map<String, IResourceRuntime> deployedResources, List<Notification> notifications,
+            Map<String, String> globalSettings, Map<String, String> runtimeParameters,
+            Map<String, FlowPlan> flowPlans) {
         
         if (agent.isAutoRefresh() && configurationService != null && operationsService != null) {
-            deployment.setFlow(configurationService.findFlow(deployment.getFlow().getId()));
+            deployment.setFlow(configurationService.findDeployedFlow(deployment.getFlow().getId()));
             deployment.setAgentDeployment(operationsService.findAgentDeployment(deployment.getAgentDeployment().getId()));
             operationsService.refreshAgentParameters(agent);
         }
@@ -164,51 +181,52 @@ public class FlowRuntime {
                 
         this.stepRuntimes = new HashMap<String, StepRuntime>();
 
-        manipulatedFlow = manipulateFlow(deployment.getFlow());
+        flowPlan = findFlowPlan(deployment, flowPlans);
+        manipulatedFlow = flowPlan.getManipulatedFlow();
         
-        /* create a step runtime for every component in the flow */
-        for (FlowStep flowStep : manipulatedFlow.getFlowSteps()) {
-            boolean enabled = flowStep.getComponent().getBoolean(AbstractComponentRuntime.ENABLED,
-                    true);
-            if (enabled) {
-                ComponentContext context = new ComponentContext(deployment.getAgentDeployment(), flowStep,
-                        manipulatedFlow, executionTracker, deployedResources, flowParameters,
-                        globalSettings, flowVariables);
-                StepRuntime stepRuntime = new StepRuntime(componentRuntimeFactory,
-                        definitionFactory, context, this);
-                stepRuntimes.put(flowStep.getId(), stepRuntime);
-            }
+        /* create a step runtime for every enabled component in the flow */
+        List<FlowPlan.Step> steps = flowPlan.getSteps();
+        StepRuntime[] runtimes = new StepRuntime[steps.size()];
+        for (FlowPlan.Step step : steps) {
+            ComponentContext context = new ComponentContext(deployment.getAgentDeployment(), step.getFlowStep(),
+                    manipulatedFlow, executionTracker, deployedResources, flowParameters,
+                    globalSettings, flowVariables);
+            StepRuntime stepRuntime = new StepRuntime(componentRuntimeFactory,
+                    definitionFactory, step, context, this);
+            runtimes[step.getIndex()] = stepRuntime;
+            stepRuntimes.put(step.getFlowStep().getId(), stepRuntime);
         }
 
-        List<FlowStepLink> links = manipulatedFlow.getFlowStepLinks();
-
         /* for each step runtime, set their list of msgTarget step runtimes */
-        for (String stepId : stepRuntimes.keySet()) {
-            List<StepRuntime> targetStepRuntimes = new ArrayList<StepRuntime>();
-            List<StepRuntime> sourceStepRuntimes = new ArrayList<StepRuntime>();
-            for (FlowStepLink flowStepLink : links) {
-                if (stepId.equals(flowStepLink.getSourceStepId())) {
-                    StepRuntime runtime = stepRuntimes.get(flowStepLink.getTargetStepId());
-                    if (runtime != null) {
-                        targetStepRuntimes.add(runtime);
-                    }
-                }
-                if (stepId.equals(flowStepLink.getTargetStepId())) {
-                    StepRuntime runtime = stepRuntimes.get(flowStepLink.getSourceStepId());
-                    if (runtime != null) {
-                        sourceStepRuntimes.add(runtime);
-                    }
-                }
+        for (FlowPlan.Step step : steps) {
+            List<StepRuntime> targetStepRuntimes = new ArrayList<StepRuntime>(step.getTargets().length);
+            for (int target : step.getTargets()) {
+                targetStepRuntimes.add(runtimes[target]);
             }
-            StepRuntime runtime = stepRuntimes.get(stepId);
-            if (runtime != null) {
-                runtime.setTargetStepRuntimes(targetStepRuntimes);
-                runtime.setSourceStepRuntimes(sourceStepRuntimes);
+            List<StepRuntime> sourceStepRuntimes = new ArrayList<StepRuntime>(step.getSources().length);
+            for (int source : step.getSources()) {
+                sourceStepRuntimes.add(runtimes[source]);
             }
+            StepRuntime runtime = runtimes[step.getIndex()];
+            runtime.setTargetStepRuntimes(targetStepRuntimes);
+            runtime.setSourceStepRuntimes(sourceStepRuntimes);
         }
+    }
 
-        /* start up each step runtime */
-        manipulatedFlow.calculateApproximateOrder();        
+    /*
+     * Reuse the compiled plan for this deployment unless the deployed flow has
+     * changed since it was compiled.
+     */
+    protected FlowPlan findFlowPlan(AgentProjectVersionFlowDeployment deployment, Map<String, FlowPlan> flowPlans) {
+        String key = deployment.getAgentDeployment().getId();
+        FlowPlan plan = flowPlans != null ? flowPlans.get(key) : null;
+        if (plan == null || !plan.isCurrent(deployment.getFlow(), configurationService)) {
+            plan = FlowPlan.compile(deployment.getFlow(), definitionFactory, configurationService);
+            if (flowPlans != null) {
+                flowPlans.put(key, plan);
+            }
+        }
+        return plan;
     }
 
     public AgentProjectVersionFlowDeployment getAgentProjectVersionFlowDeployment() {
@@ -243,7 +261,31 @@ public class FlowRuntime {
         return response;
     }
 
+    public void setAdmissionController(FlowAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    /*
+     * When an admission controller has been set, wait for the agent to have
+     * room for this execution before any step threads are started. A flow
+     * executed from a component of a running flow is not admitted again.
+     */
     public Results execute() throws Exception {
+        if (admissionController == null) {
+            return executeFlow();
+        }
+        String deploymentId = agentProjectVersionFlowDeployment.getAgentDeployment().getId();
+        boolean admitted = admissionController.acquire(deploymentId);
+        try {
+            return executeFlow();
+        } finally {
+            if (admitted) {
+                admissionController.release(deploymentId);
+            }
+        }
+    }
+
+    protected Results executeFlow() throws Exception {
         try {
             start();
         } catch (Exception ex) {
@@ -312,33 +354,6 @@ public class FlowRuntime {
         }
     }
 
-    protected Flow manipulateFlow(Flow flow) {        
-        Flow clone = (Flow)flow.clone();
-        clone.setFlowParameters(new ArrayList<>());
-        clone.getFlowParameters().addAll(flow.getFlowParameters());
-        clone.setFlowSteps(new ArrayList<>());
-        clone.getFlowSteps().addAll(flow.getFlowSteps());
-        clone.setFlowStepLinks(new ArrayList<>());
-        clone.getFlowStepLinks().addAll(flow.getFlowStepLinks());
-
-        for (FlowStep flowStep : new ArrayList<>(clone.getFlowSteps())) {
-            XMLComponentDefinition componentDefintion = definitionFactory.getComponentDefinition(flow.getProjectVersionId(), flowStep.getComponent().getType());
-            if (isNotBlank(componentDefintion.getFlowManipulatorClassName())) {
-                try {
-                    IFlowManipulator flowManipulator = (IFlowManipulator) Class
-                            .forName(componentDefintion.getFlowManipulatorClassName())
-                            .newInstance();
-                    clone = flowManipulator.manipulate(clone, flowStep, configurationService);
-                } catch (RuntimeException e) {
-                    throw e;
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
-        return clone;
-    }
-
     public static Map<String, String> getFlowParameters(Agent agent,
             AgentProjectVersionFlowDeployment agentDeployment) {
         Map<String, String> params = new HashMap<String, String>();
@@ -383,11 +398,23 @@ public class FlowRuntime {
     }
 
     /*
-     * Waiting until all steps have exited
+     * Waiting until all steps have exited. Each step signals stepFinished()
+     * when it shuts down, so there is no need to spin.
      */
     public void waitForFlowCompletion() {
-        while (isRunning()) {
-            AppUtils.sleep(5);
+        synchronized (completionSignal) {
+            while (isRunning()) {
+                try {
+                    completionSignal.wait(500);
+                } catch (InterruptedException e) {
+                }
+            }
+        }
+    }
+
+    void stepFinished() {
+        synchronized (completionSignal) {
+            completionSignal.notifyAll();
         }
     }
 
@@ -455,19 +482,11 @@ public class FlowRuntime {
 
     protected List<StepRuntime> findStartSteps() {
         List<StepRuntime> starterSteps = new ArrayList<StepRuntime>();
-        for (String stepId : stepRuntimes.keySet()) {
-            List<FlowStepLink> links = manipulatedFlow.getFlowStepLinks();
-            boolean isTargetStep = false;
-            for (FlowStepLink flowStepLink : links) {
-                if (stepRuntimes.get(flowStepLink.getSourceStepId()) != null
-                        && stepId.equals(flowStepLink.getTargetStepId())) {
-                    isTargetStep = true;
-                }
-            }
-
-            if (!isTargetStep) {
-                stepRuntimes.get(stepId).getComponentContext().setStartStep(true);
-                starterSteps.add(stepRuntimes.get(stepId));
+        for (FlowPlan.Step step : flowPlan.getSteps()) {
+            if (step.isStartStep()) {
+                StepRuntime stepRuntime = stepRuntimes.get(step.getFlowStep().getId());
+                stepRuntime.getComponentContext().setStartStep(true);
+                starterSteps.add(stepRuntime);
             }
         }
         return starterSteps;
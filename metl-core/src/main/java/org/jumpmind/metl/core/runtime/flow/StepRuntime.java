@@ -49,6 +49,7 @@ import org.jumpmind.metl.core.runtime.ContentMessage;
 import org.jumpmind.metl.core.runtime.ControlMessage;
 import org.jumpmind.metl.core.runtime.EntityData;
 import org.jumpmind.metl.core.runtime.EntityDataMessage;
+import org.jumpmind.metl.core.runtime.FlowAdmissionController;
 import org.jumpmind.metl.core.runtime.LogLevel;
 import org.jumpmind.metl.core.runtime.Message;
 import org.jumpmind.metl.core.runtime.MessageHeader;
@@ -64,7 +65,6 @@ import org.jumpmind.metl.core.runtime.component.IComponentRuntime;
 import org.jumpmind.metl.core.runtime.component.IComponentRuntimeFactory;
 import org.jumpmind.metl.core.util.LogUtils;
 import org.jumpmind.metl.core.util.ThreadUtils;
-import org.jumpmind.util.AppUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,6 +78,12 @@ public class StepRuntime implements Runnable {
 
     public static final String UNIT_OF_WORK_FLOW = "Flow";
 
+    /*
+     * Upper bound on how long an idle step waits to be signalled before it
+     * re-checks its running state
+     */
+    static final long MAX_IDLE_WAIT_MS = 1000;
+
     protected BlockingQueue<Message> inQueue;
 
     protected Executor componentRuntimeExecutor;
@@ -126,18 +132,33 @@ public class StepRuntime implements Runnable {
     
     int threadCount;
 
+    IComponentRuntime[] componentRuntimes;
+
+    boolean transferPayloadOwnership;
+
     public StepRuntime(IComponentRuntimeFactory componentFactory, IDefinitionFactory componentDefinitionFactory, ComponentContext componentContext, FlowRuntime flowRuntime) {
+        this(componentFactory, componentDefinitionFactory,
+                new FlowPlan.Step(-1, componentContext.getFlowStep(),
+                        componentDefinitionFactory.getComponentDefinition(
+                                componentContext.getFlowStep().getComponent().getProjectVersionId(),
+                                componentContext.getFlowStep().getComponent().getType())),
+                componentContext, flowRuntime);
+    }
+
+    public StepRuntime(IComponentRuntimeFactory componentFactory, IDefinitionFactory componentDefinitionFactory, FlowPlan.Step step,
+            ComponentContext componentContext, FlowRuntime flowRuntime) {
         this.flowRuntime = flowRuntime;
         this.componentContext = componentContext;
-        this.queueCapacity = componentContext.getFlowStep().getComponent().getInt(AbstractComponentRuntime.INBOUND_QUEUE_CAPACITY, 1000);
+        this.queueCapacity = step.getInboundQueueCapacity();
         this.inQueue = new LinkedBlockingQueue<Message>(queueCapacity);
         this.sourceStepRuntimeUnitOfWorkReceived = new HashMap<String, Boolean>();
         this.targetStepRuntimeUnitOfWorkSent = new HashSet<String>();
         this.componentRuntimeFactory = componentFactory;
         this.componentDefintionFactory = componentDefinitionFactory;
-        this.componentDefintion = componentDefintionFactory.getComponentDefinition(componentContext.getFlowStep().getComponent().getProjectVersionId(), getComponentType());        
-        Component component = componentContext.getFlowStep().getComponent();
-        this.threadCount = component.getInt(StepRuntime.THREAD_COUNT, 1);        
+        this.componentDefintion = step.getComponentDefinition();
+        this.threadCount = step.getThreadCount();
+        this.transferPayloadOwnership = step.isTransferPayloadOwnership();
+        this.componentRuntimes = new IComponentRuntime[threadCount + 1];
         for (int threadNumber = 1; threadNumber <= threadCount; threadNumber++) {
             createComponentRuntime(threadNumber);
         }
@@ -199,6 +220,9 @@ public class StepRuntime implements Runnable {
                     throw new CancellationException();
                 }
             }
+            synchronized (this) {
+                notifyAll();
+            }
         }
     }
 
@@ -237,6 +261,15 @@ public class StepRuntime implements Runnable {
         String type = getComponentType();
         IComponentRuntime componentRuntime = componentRuntimeFactory.create(componentContext.getFlowStep().getComponent().getProjectVersionId(), type, componentContext, threadNumber);
         componentContext.getComponentRuntimeByThread().put(threadNumber, componentRuntime);
+        componentRuntimes[threadNumber] = componentRuntime;
+    }
+
+    protected IComponentRuntime getComponentRuntime(int threadNumber) {
+        if (threadNumber > 0 && threadNumber < componentRuntimes.length) {
+            return componentRuntimes[threadNumber];
+        } else {
+            return componentContext.getComponentRuntimeByThread().get(threadNumber);
+        }
     }
 
     protected void recordError(int threadNumber, Throwable ex) {
@@ -276,24 +309,26 @@ public class StepRuntime implements Runnable {
                 /*
                  * Continue to poll as long as the flow is running. other
                  * components could be generating messages which could block if
-                 * we don't continue to poll
+                 * we don't continue to poll. When the queue is empty we wait
+                 * to be signalled by queue() instead of sleeping so that a
+                 * message is picked up as soon as it arrives.
                  */
                 Message inputMessage = null;
                 synchronized (this) {
                     inputMessage = inQueue.poll();
+                    if (inputMessage == null && running && !cancelled) {
+                        waitForMessage();
+                        inputMessage = inQueue.poll();
+                    }
                     if (inputMessage != null && !(inputMessage instanceof ShutdownMessage)) {
                         activeCount++;
                     }
                 }
-                if (running && !cancelled) {
-                    if (inputMessage != null) {
-                        if (inputMessage instanceof ShutdownMessage) {
-                            process((ShutdownMessage) inputMessage, target);
-                        } else {
-                            process(inputMessage, target);
-                        }
-                    } else if (running && !cancelled) {
-                        AppUtils.sleep(50);
+                if (running && !cancelled && inputMessage != null) {
+                    if (inputMessage instanceof ShutdownMessage) {
+                        process((ShutdownMessage) inputMessage, target);
+                    } else {
+                        process(inputMessage, target);
                     }
                 }
             }
@@ -302,8 +337,21 @@ public class StepRuntime implements Runnable {
         }
     }
     
+    protected synchronized void waitForMessage() {
+        try {
+            wait(MAX_IDLE_WAIT_MS);
+        } catch (InterruptedException e) {
+            /*
+             * Interrupts are ignored like the sleep they replaced. A step is
+             * stopped through cancel() so that it still shuts down its
+             * targets and signals the flow that it finished.
+             */
+        }
+    }
+
     protected synchronized void decrementActiveCount() {
         activeCount--;
+        notifyAll();
     }
     
     protected synchronized int getActiveCountPlusQueueSize() {
@@ -318,8 +366,8 @@ public class StepRuntime implements Runnable {
          * race conditions.
          */
         if (threadCount > 1) {
-            while (unitOfWorkBoundaryReached && activeCount > 1) {
-                AppUtils.sleep(5);
+            if (unitOfWorkBoundaryReached) {
+                waitForOtherThreadsToFinish();
             }
             this.componentRuntimeExecutor.execute(() -> processOnAnotherThread(inputMessage, unitOfWorkBoundaryReached, target));    
         } else {
@@ -327,6 +375,15 @@ public class StepRuntime implements Runnable {
         }
     }
 
+    protected synchronized void waitForOtherThreadsToFinish() {
+        while (activeCount > 1) {
+            try {
+                wait(MAX_IDLE_WAIT_MS);
+            } catch (InterruptedException e) {
+            }
+        }
+    }
+
     protected void processOnAnotherThread(Message inputMessage, boolean unitOfWorkBoundaryReached, SendMessageCallback callback) {
         int threadNumber = ThreadUtils.getThreadNumber(threadCount);
         try {
@@ -343,7 +400,7 @@ public class StepRuntime implements Runnable {
             
             componentContext.getExecutionTracker().beforeHandle(threadNumber, componentContext);            
 
-            IComponentRuntime componentRuntime = componentContext.getComponentRuntimeByThread().get(threadNumber);
+            IComponentRuntime componentRuntime = getComponentRuntime(threadNumber);
 
             Component component = componentContext.getFlowStep().getComponent();
             boolean logInput = component.getBoolean(AbstractComponentRuntime.LOG_INPUT, false);
@@ -354,6 +411,7 @@ public class StepRuntime implements Runnable {
             callback.setCurrentInputMessage(threadNumber, inputMessage);
             long ts = System.currentTimeMillis();
             
+            boolean wasFlowThread = FlowAdmissionController.enterFlowThread();
             try {
                 ComponentContext.projectVersionId.set(componentContext.getManipulatedFlow().getProjectVersionId());
                 Thread.currentThread().setContextClassLoader(componentRuntime.getClass().getClassLoader());
@@ -367,6 +425,8 @@ public class StepRuntime implements Runnable {
                 } else {
                     throw re;
                 }
+            } finally {
+                FlowAdmissionController.exitFlowThread(wasFlowThread);
             }
             
             statistics.incrementTimeSpentInHandle(threadNumber, System.currentTimeMillis()-ts-callback.useQueueTime(threadNumber));
@@ -388,7 +448,7 @@ public class StepRuntime implements Runnable {
             }
             
         } catch (Throwable ex) {
-            recordError(ThreadUtils.getThreadNumber(threadCount), ex);
+            recordError(threadNumber, ex);
         } finally {
             componentContext.getExecutionTracker().afterHandle(threadNumber, componentContext, error);
             decrementActiveCount();
@@ -517,6 +577,7 @@ public class StepRuntime implements Runnable {
         }
 
         recordFlowStepFinished();
+        flowRuntime.stepFinished();
     }
 
     private void shutdownThreads(boolean waitForShutdown) {
@@ -559,6 +620,7 @@ public class StepRuntime implements Runnable {
             if (!finished) {
                 recordFlowStepFinished();
             }
+            flowRuntime.stepFinished();
         }
     }
 
@@ -677,11 +739,19 @@ public class StepRuntime implements Runnable {
 
     class SendMessageCallback implements ISendMessageCallback {
 
-        Map<Integer, Message> currentInputMessages = new HashMap<>();
-        Map<Integer, Long> queueTime = new HashMap<>();
+        /*
+         * Per thread state is indexed by thread number. Slot 0 collects
+         * threads that are not part of the step's pool.
+         */
+        Message[] currentInputMessages = new Message[threadCount + 1];
+        long[] queueTime = new long[threadCount + 1];
+
+        private int slot(int threadNumber) {
+            return threadNumber > 0 && threadNumber <= threadCount ? threadNumber : 0;
+        }
 
         private void setCurrentInputMessage(int threadNumber, Message currentInputMessage) {
-            currentInputMessages.put(threadNumber, currentInputMessage);
+            currentInputMessages[slot(threadNumber)] = currentInputMessage;
         }
 
         private Message createMessage(Message newMessage) {
@@ -691,14 +761,15 @@ public class StepRuntime implements Runnable {
         private Message createMessage(Message newMessage, Map<String, Serializable> headerSettings) {
             ComponentStatistics statistics = componentContext.getComponentStatistics();
             MessageHeader header = newMessage.getHeader();
-            Message inputMessage = currentInputMessages.get(ThreadUtils.getThreadNumber(threadCount));
+            int threadNumber = ThreadUtils.getThreadNumber(threadCount);
+            Message inputMessage = currentInputMessages[slot(threadNumber)];
             if (inputMessage != null) {
                 header.putAll(inputMessage.getHeader());
             }
             if (headerSettings != null) {
                 header.putAll(headerSettings);
             }
-            header.setSequenceNumber(statistics.getNumberOutboundMessages(ThreadUtils.getThreadNumber(threadCount)));
+            header.setSequenceNumber(statistics.getNumberOutboundMessages(threadNumber));
             return newMessage;
         }
 
@@ -720,6 +791,30 @@ public class StepRuntime implements Runnable {
             return payload;
         }
 
+        /*
+         * When payload ownership is transferred the same payload would be
+         * shared by every target, so targets that mutate their input get
+         * their own copy
+         */
+        private Message copyForTarget(Message message) {
+            Message copied = null;
+            String originatingStepId = message.getHeader().getOriginatingStepId();
+            if (message instanceof EntityDataMessage) {
+                copied = new EntityDataMessage(originatingStepId, copy(((EntityDataMessage) message).getPayload()));
+            } else if (message instanceof TextMessage) {
+                copied = new TextMessage(originatingStepId, copy(((TextMessage) message).getPayload()));
+            } else if (message instanceof BinaryMessage) {
+                copied = new BinaryMessage(originatingStepId, copy(((BinaryMessage) message).getPayload()));
+            } else {
+                return message;
+            }
+            MessageHeader header = copied.getHeader();
+            header.putAll(message.getHeader());
+            header.setExecutionId(message.getHeader().getExecutionId());
+            header.setSequenceNumber(message.getHeader().getSequenceNumber());
+            return copied;
+        }
+
         private void sendMessage(Message message, String... targetFlowStepIds) {
             ComponentStatistics statistics = componentContext.getComponentStatistics();
             int threadNumber = ThreadUtils.getThreadNumber(threadCount);
@@ -746,6 +841,7 @@ public class StepRuntime implements Runnable {
 
             Collection<String> targetStepIds = targetFlowStepIds != null ? Arrays.asList(targetFlowStepIds) : Collections.emptyList();
 
+            List<StepRuntime> forwardTo = new ArrayList<>(targetStepRuntimes.size());
             for (StepRuntime targetRuntime : targetStepRuntimes) {
                 boolean forward = targetStepIds == null || targetStepIds.size() == 0
                         || targetStepIds.contains(targetRuntime.getComponentContext().getFlowStep().getId());
@@ -755,40 +851,49 @@ public class StepRuntime implements Runnable {
                     forward = false;
                 }
                 if (forward) {
-                    try {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Sending " + message.getClass().getSimpleName() + " to "
-                                    + targetRuntime.getComponentContext().getFlowStep().getName());
-                        }
+                    forwardTo.add(targetRuntime);
+                }
+            }
+
+            boolean copyForEachTarget = transferPayloadOwnership && forwardTo.size() > 1;
+            boolean first = true;
+            for (StepRuntime targetRuntime : forwardTo) {
+                try {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Sending " + message.getClass().getSimpleName() + " to "
+                                + targetRuntime.getComponentContext().getFlowStep().getName());
+                    }
+                    /*
+                     * The payload was handed over without a copy, so only one
+                     * target may own it. Every other target gets its own copy.
+                     */
+                    if (copyForEachTarget && !first) {
+                        targetRuntime.queue(copyForTarget(message));
+                    } else {
                         targetRuntime.queue(message);
-                        if (message instanceof ControlMessage) {
-                            targetStepRuntimeUnitOfWorkSent.add(targetRuntime.getComponentContext().getFlowStep().getId());
-                        }
-                    } catch (Exception e) {
-                        if (e instanceof RuntimeException) {
-                            throw (RuntimeException) e;
-                        } else {
-                            throw new RuntimeException(e);
-                        }
+                    }
+                    first = false;
+                    if (message instanceof ControlMessage) {
+                        targetStepRuntimeUnitOfWorkSent.add(targetRuntime.getComponentContext().getFlowStep().getId());
+                    }
+                } catch (Exception e) {
+                    if (e instanceof RuntimeException) {
+                        throw (RuntimeException) e;
+                    } else {
+                        throw new RuntimeException(e);
                     }
                 }
             }
             
             long queueTime = System.currentTimeMillis()-ts;
-            Long totalQueueTime = this.queueTime.get(threadNumber);
-            if (totalQueueTime == null) {
-                totalQueueTime = 0l;
-            }
-            totalQueueTime += queueTime;
-            this.queueTime.put(threadNumber, totalQueueTime);
+            this.queueTime[slot(threadNumber)] += queueTime;
             statistics.incrementTimeSpentWaiting(threadNumber, queueTime);
         }
         
         protected long useQueueTime(int threadNumber) {
-            Long time = this.queueTime.remove(threadNumber);
-            if (time == null) {
-                time = 0l;
-            }             
+            int slot = slot(threadNumber);
+            long time = this.queueTime[slot];
+            this.queueTime[slot] = 0;
             return time;
         }
         
@@ -820,7 +925,9 @@ public class StepRuntime implements Runnable {
 
         @Override
         public void sendBinaryMessage(Map<String, Serializable> messageHeaders, byte[] payload, String... targetStepIds) {
-            payload = copy(payload);
+            if (!transferPayloadOwnership) {
+                payload = copy(payload);
+            }
             FlowStep flowStep = componentContext.getFlowStep();
             sendMessage(createMessage(new BinaryMessage(flowStep.getId(), payload), messageHeaders), targetStepIds);
             contentMessagesSentCount++;
@@ -829,7 +936,9 @@ public class StepRuntime implements Runnable {
         @Override
         public void sendEntityDataMessage(Map<String, Serializable> messageHeaders, ArrayList<EntityData> payload, String... targetStepIds) {
             validateEntityData(payload);
-            payload = copy(payload);
+            if (!transferPayloadOwnership) {
+                payload = copy(payload);
+            }
             FlowStep flowStep = componentContext.getFlowStep();
             sendMessage(createMessage(new EntityDataMessage(flowStep.getId(), payload), messageHeaders), targetStepIds);
             contentMessagesSentCount++;
@@ -844,7 +953,9 @@ public class StepRuntime implements Runnable {
 
         @Override
         public void sendTextMessage(Map<String, Serializable> messageHeaders, ArrayList<String> payload, String... targetStepIds) {
-            payload = copy(payload);
+            if (!transferPayloadOwnership) {
+                payload = copy(payload);
+            }
             FlowStep flowStep = componentContext.getFlowStep();
             sendMessage(createMessage(new TextMessage(flowStep.getId(), payload), messageHeaders), targetStepIds);
             contentMessagesSentCount++;
@@ -20,6 +20,8 @@
  */
 package org.jumpmind.metl.core.runtime.resource;
 
+import java.util.function.Supplier;
+
 import org.jumpmind.db.model.Table;
 
 public interface IDatasourceRuntime extends IResourceRuntime {
@@ -27,5 +29,22 @@ public interface IDatasourceRuntime extends IResourceRuntime {
     public void putTableInCache(String catalogName, String schemaName, String tableName, Table table);
     
     public Table getTableFromCache(String catalogName, String schemaName, String tableName);
+
+    /**
+     * Returns the cached table, calling the loader on a miss. Concurrent
+     * callers that miss on the same table share one call to the loader. A
+     * null result is cached too.
+     */
+    public Table getTableFromCache(String catalogName, String schemaName, String tableName, Supplier<Table> loader);
+
+    /**
+     * Loads the table again with the loader and caches it. Concurrent callers
+     * share one call to the loader.
+     */
+    public Table refreshTableInCache(String catalogName, String schemaName, String tableName, Supplier<Table> loader);
+
+    public void removeTableFromCache(String catalogName, String schemaName, String tableName);
+
+    public void clearTableCache();
     
 }
@@ -20,6 +20,7 @@
  */
 package org.jumpmind.metl.core.util;
 
+import java.util.BitSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -33,10 +34,23 @@ final public class ThreadUtils {
     private ThreadUtils() {
     }
 
+    /**
+     * Returns the 1 based number of the current thread within a pool created
+     * by {@link #createFixedThreadPool(String, int, int)}. Pool threads carry
+     * their number, so only threads from elsewhere fall back to parsing the
+     * thread name.
+     */
     public static int getThreadNumber(int maxThreads) {
         if (maxThreads == 1) {
             return 1;
         } else {
+            Thread thread = Thread.currentThread();
+            if (thread instanceof WorkerThread) {
+                int slot = ((WorkerThread) thread).slot;
+                if (slot > 0 && slot <= maxThreads) {
+                    return slot;
+                }
+            }
             int threadNumber = 1;
             String name = Thread.currentThread().getName();
             int lastIndex = name.lastIndexOf("-");
@@ -54,7 +68,7 @@ final public class ThreadUtils {
           ThreadPoolExecutor executor =  new ThreadPoolExecutor(threadCount, threadCount,
                 0L, TimeUnit.MILLISECONDS,
                 new LinkedBlockingQueue<Runnable>(queueCapacity),
-                new CustomThreadFactory(namePrefix));
+                new CustomThreadFactory(namePrefix, threadCount));
             executor.setRejectedExecutionHandler((r, e) -> {try {
                 e.getQueue().put(r);
             } catch (Exception e1) {
@@ -67,18 +81,67 @@ final public class ThreadUtils {
         return Executors.newCachedThreadPool(new CustomThreadFactory(namePrefix));
     }
 
+    /**
+     * A pool thread that knows its slot in a fixed size pool, or 0 when it
+     * belongs to an unbounded pool. A thread of a fixed size pool claims a
+     * free slot when it starts and gives it back when it terminates.
+     */
+    public static class WorkerThread extends Thread {
+
+        volatile int slot;
+
+        CustomThreadFactory factory;
+
+        public WorkerThread(Runnable r, int slot) {
+            super(r);
+            this.slot = slot;
+        }
+
+        WorkerThread(Runnable r, CustomThreadFactory factory) {
+            super(r);
+            this.factory = factory;
+        }
+
+        @Override
+        public void run() {
+            if (factory == null) {
+                super.run();
+            } else {
+                slot = factory.claimSlot();
+                setName(factory.namePrefix + "-" + slot);
+                try {
+                    super.run();
+                } finally {
+                    factory.releaseSlot(slot);
+                }
+            }
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+    }
+
     static class CustomThreadFactory implements ThreadFactory {
 
         String namePrefix;
+        int maxThreads;
         final AtomicInteger threadNumber = new AtomicInteger(1);
+        final BitSet usedSlots = new BitSet();
 
         public CustomThreadFactory(String namePrefix) {
+            this(namePrefix, 0);
+        }
+
+        public CustomThreadFactory(String namePrefix, int maxThreads) {
             this.namePrefix = namePrefix;
+            this.maxThreads = maxThreads;
         }
 
         public Thread newThread(Runnable r) {
-            Thread t = new Thread(r);
-            t.setName(namePrefix + "-" + threadNumber.getAndIncrement());
+            int number = threadNumber.getAndIncrement();
+            Thread t = maxThreads > 0 ? new WorkerThread(r, this) : new WorkerThread(r, 0);
+            t.setName(namePrefix + "-" + number);
             if (t.isDaemon()) {
                 t.setDaemon(false);
             }
@@ -87,5 +150,33 @@ final public class ThreadUtils {
             }
             return t;
         }
+
+        /*
+         * The pool creates the replacement for a thread that died while the
+         * dying thread is still running, so the replacement waits here until
+         * the dying thread has given its slot back.
+         */
+        synchronized int claimSlot() {
+            boolean interrupted = false;
+            int slot = usedSlots.nextClearBit(1);
+            while (slot > maxThreads) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                slot = usedSlots.nextClearBit(1);
+            }
+            usedSlots.set(slot);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return slot;
+        }
+
+        synchronized void releaseSlot(int slot) {
+            usedSlots.clear(slot);
+            notifyAll();
+        }
     }
 }
@@ -0,0 +1,150 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class ModelIndexTest {
+
+    @Test
+    public void testRelationalLookups() {
+        RelationalModel model = new RelationalModel("model");
+        ModelEntity customer = entity("customer", "CUSTOMER", "id", "name");
+        ModelEntity order = entity("order", "ORDER", "id", "total");
+        model.getModelEntities().add(customer);
+        model.getModelEntities().add(order);
+
+        assertSame(customer, model.getEntityById("customer"));
+        assertSame(order, model.getEntityById("ORDER"));
+        assertSame(order, model.getEntityByName("order"));
+        assertSame(customer.getModelAttributes().get(1), model.getAttributeById("customer.name"));
+        assertSame(customer.getModelAttributes().get(1), model.getAttributeById("CUSTOMER.NAME"));
+        assertSame(order.getModelAttributes().get(0), model.getAttributeByName("ORDER", "id"));
+        assertEquals(2, model.getAttributesByName("ID").size());
+        assertNull(model.getAttributeById("missing"));
+        assertNull(model.getAttributeById(null));
+        assertNull(model.getAttributeByName("ORDER", "missing"));
+    }
+
+    @Test
+    public void testRelationalIndexFollowsChanges() {
+        RelationalModel model = new RelationalModel("model");
+        ModelEntity customer = entity("customer", "CUSTOMER", "id");
+        model.getModelEntities().add(customer);
+        assertNull(model.getAttributeById("customer.name"));
+
+        ModelAttrib name = new ModelAttrib("customer.name", "customer", "NAME");
+        customer.addModelAttribute(name);
+        assertSame(name, model.getAttributeById("customer.name"));
+
+        customer.removeModelAttribute(name);
+        assertNull(model.getAttributeById("customer.name"));
+
+        name.setName("FULL_NAME");
+        customer.addModelAttribute(name);
+        assertSame(name, model.getAttributeByName("CUSTOMER", "full_name"));
+        name.setName("DISPLAY_NAME");
+        assertSame(name, model.getAttributeByName("CUSTOMER", "display_name"));
+        assertNull(model.getAttributeByName("CUSTOMER", "full_name"));
+
+        customer.setName("CLIENT");
+        assertSame(customer, model.getEntityByName("client"));
+        assertNull(model.getEntityByName("customer"));
+
+        customer.setId("client");
+        assertSame(customer, model.getEntityById("client"));
+        assertNull(model.getEntityById("customer"));
+
+        customer.getModelAttributes().removeIf(attribute -> attribute == name);
+        assertNull(model.getAttributeByName("CLIENT", "display_name"));
+
+        model.setModelEntities(new ArrayList<>());
+        assertNull(model.getEntityById("customer"));
+        assertNull(model.getAttributeById("customer.id"));
+        model.getModelEntities().add(customer);
+        assertSame(customer, model.getEntityById("client"));
+    }
+
+    @Test
+    public void testMissesUseTheIndex() {
+        RelationalModel model = new RelationalModel("model");
+        model.getModelEntities().add(entity("customer", "CUSTOMER", "id"));
+        assertNull(model.getEntityByName("missing"));
+        RelationalModel.Index index = model.index;
+        assertNull(model.getEntityByName("missing"));
+        assertNull(model.getAttributeByName("CUSTOMER", "missing"));
+        assertNull(model.getAttributeById("missing"));
+        assertSame(index, model.index);
+
+        HierarchicalModel hierarchicalModel = new HierarchicalModel("model");
+        ModelSchemaObject root = new ModelSchemaObject("root", "ROOT");
+        root.getChildObjects().add(new ModelSchemaObject("child", "CHILD"));
+        hierarchicalModel.setRootObject(root);
+        assertNull(hierarchicalModel.getObjectById("missing"));
+        HierarchicalModel.Index hierarchicalIndex = hierarchicalModel.index;
+        assertNull(hierarchicalModel.getObjectById("missing"));
+        assertSame(hierarchicalIndex, hierarchicalModel.index);
+    }
+
+    @Test
+    public void testHierarchicalLookups() {
+        HierarchicalModel model = new HierarchicalModel("model");
+        ModelSchemaObject root = new ModelSchemaObject("root", "ROOT");
+        ModelSchemaObject child = new ModelSchemaObject("child", "CHILD");
+        ModelSchemaObject grandChild = new ModelSchemaObject("grandchild", "GRANDCHILD");
+        root.getChildObjects().add(child);
+        child.getChildObjects().add(grandChild);
+        model.setRootObject(root);
+
+        assertSame(child, model.getObjectById("child"));
+        assertSame(grandChild, model.getObjectById("grandchild"));
+        assertNull(model.getObjectById("missing"));
+
+        ModelSchemaObject added = new ModelSchemaObject("added", "ADDED");
+        grandChild.getChildObjects().add(added);
+        assertSame(added, model.getObjectById("added"));
+
+        added.setId("renamed");
+        assertSame(added, model.getObjectById("renamed"));
+        assertNull(model.getObjectById("added"));
+
+        child.getChildObjects().remove(grandChild);
+        assertNull(model.getObjectById("grandchild"));
+        assertNull(model.getObjectById("renamed"));
+
+        model.setRootObject(new ModelSchemaObject("root", "ROOT"));
+        assertNull(model.getObjectById("child"));
+    }
+
+    private ModelEntity entity(String id, String name, String... attributeNames) {
+        ModelEntity entity = new ModelEntity(id, name);
+        for (String attributeName : attributeNames) {
+            entity.addModelAttribute(new ModelAttrib(id + "." + attributeName, id, attributeName.toUpperCase()));
+        }
+        return entity;
+    }
+}
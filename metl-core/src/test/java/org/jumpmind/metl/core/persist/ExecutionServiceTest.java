@@ -0,0 +1,158 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.persist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.jumpmind.metl.core.model.ExecutionStepLog;
+import org.jumpmind.metl.core.util.LogUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+public class ExecutionServiceTest {
+
+    static final long START = 1500000000000l;
+
+    File logDir;
+
+    File previousLogDir;
+
+    ExecutionService executionService;
+
+    @Before
+    public void setup() throws Exception {
+        previousLogDir = LogUtils.getLogDir();
+        logDir = Files.createTempDirectory("metl-logs").toFile();
+        LogUtils.setLogDir(logDir);
+        executionService = new ExecutionService(null, null, null, "METL_", new StandardEnvironment());
+
+        /* step a logs every even second and step b every odd second */
+        writeLog("a", 0, "INFO", "ERROR", "INFO", "DEBUG", "ERROR", "INFO");
+        writeLog("b", 1, "INFO", "INFO", "WARN", "ERROR");
+        writeLog("legacy", 0, "INFO", "ERROR", "INFO", "DEBUG", "ERROR", "INFO");
+        assertTrue(ExecutionStepLogWriter.getIndexFile(executionService.getExecutionStepLog("legacy")).delete());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        LogUtils.setLogDir(previousLogDir);
+        FileUtils.deleteDirectory(logDir);
+    }
+
+    @Test
+    public void testOffsetAndLimit() {
+        for (String stepId : Arrays.asList("a", "legacy")) {
+            assertEquals(Arrays.asList(stepId + "-0", stepId + "-1", stepId + "-2"),
+                    texts(executionService.findExecutionStepLogs(stepId, 0, 3, null)));
+            assertEquals(Arrays.asList(stepId + "-2", stepId + "-3"),
+                    texts(executionService.findExecutionStepLogs(stepId, 2, 2, null)));
+            assertEquals(Arrays.asList(stepId + "-5"), texts(executionService.findExecutionStepLogs(stepId, 5, 10, null)));
+            assertEquals(0, executionService.findExecutionStepLogs(stepId, 6, 10, null).size());
+            assertEquals(6, executionService.countExecutionStepLogs(stepId));
+        }
+        List<ExecutionStepLog> logs = executionService.findExecutionStepLogs("a", 1, 1, null);
+        assertEquals("2", logs.get(0).getId());
+        assertEquals("ERROR", logs.get(0).getLevel());
+        assertEquals(new Date(START + 2000), logs.get(0).getCreateTime());
+    }
+
+    @Test
+    public void testTail() {
+        for (String stepId : Arrays.asList("a", "legacy")) {
+            assertEquals(Arrays.asList(stepId + "-4", stepId + "-5"),
+                    texts(executionService.findLastExecutionStepLogs(stepId, 2, null)));
+            assertEquals(6, executionService.findLastExecutionStepLogs(stepId, 10, null).size());
+            assertEquals(Arrays.asList(stepId + "-1", stepId + "-4"),
+                    texts(executionService.findLastExecutionStepLogs(stepId, 5, levels("ERROR"))));
+            assertEquals(Arrays.asList(stepId + "-4"), texts(executionService.findLastExecutionStepLogs(stepId, 1, levels("ERROR"))));
+        }
+    }
+
+    @Test
+    public void testLevelFiltering() {
+        for (String stepId : Arrays.asList("a", "legacy")) {
+            assertEquals(Arrays.asList(stepId + "-1", stepId + "-4"),
+                    texts(executionService.findExecutionStepLogs(stepId, 0, 10, levels("ERROR"))));
+            assertEquals(Arrays.asList(stepId + "-4"), texts(executionService.findExecutionStepLogs(stepId, 1, 10, levels("ERROR"))));
+            assertEquals(Arrays.asList(stepId + "-2", stepId + "-3"),
+                    texts(executionService.findExecutionStepLogs(stepId, 1, 2, levels("INFO", "DEBUG"))));
+            assertEquals(Arrays.asList(stepId + "-1", stepId + "-4"), texts(executionService.findExecutionStepLogsInError(stepId)));
+            assertEquals(2, executionService.countExecutionStepLogs(stepId, levels("ERROR")));
+            assertEquals(4, executionService.countExecutionStepLogs(stepId, levels("INFO", "DEBUG")));
+            assertEquals(6, executionService.countExecutionStepLogs(stepId, null));
+        }
+    }
+
+    @Test
+    public void testLimitAppliesAcrossSteps() {
+        Set<String> stepIds = new LinkedHashSet<>(Arrays.asList("a", "b"));
+        assertEquals(Arrays.asList("a-0", "b-0", "a-1", "b-1", "a-2"), texts(executionService.findExecutionStepLogs(stepIds, 5)));
+        assertEquals(10, executionService.findExecutionStepLogs(stepIds, 100).size());
+        assertEquals(Arrays.asList("a-1", "b-3", "a-4"), texts(executionService.findExecutionStepLogs(stepIds, 10, levels("ERROR"))));
+        assertEquals(Arrays.asList("a-1", "b-3"), texts(executionService.findExecutionStepLogs(stepIds, 2, levels("ERROR"))));
+
+        /* steps that log at the same time keep the order they were asked for in */
+        stepIds = new LinkedHashSet<>(Arrays.asList("legacy", "a"));
+        assertEquals(Arrays.asList("legacy-0", "a-0", "legacy-1"), texts(executionService.findExecutionStepLogs(stepIds, 3)));
+        assertEquals(0, executionService.findExecutionStepLogs(Collections.singleton("missing"), 3).size());
+    }
+
+    protected void writeLog(String stepId, int firstSecond, String... levels) throws Exception {
+        ExecutionStepLogWriter writer = new ExecutionStepLogWriter(executionService.getExecutionStepLog(stepId));
+        try {
+            for (int i = 0; i < levels.length; i++) {
+                ExecutionStepLog stepLog = new ExecutionStepLog();
+                stepLog.setLevel(levels[i]);
+                stepLog.setCreateTime(new Date(START + (firstSecond + i * 2) * 1000l));
+                writer.write(stepLog, stepId + "-" + i);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    protected Set<String> levels(String... levels) {
+        return new HashSet<>(Arrays.asList(levels));
+    }
+
+    protected List<String> texts(List<ExecutionStepLog> logs) {
+        List<String> texts = new ArrayList<>(logs.size());
+        for (ExecutionStepLog log : logs) {
+            texts.add(log.getLogText());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+import org.junit.Test;
+
+public class CompactEntityDataTest {
+
+    @Test
+    public void testPutGetRemove() {
+        CompactEntityData data = EntityDataLayout.forModel(model("putget", "id", "name", "total")).newEntityData();
+        assertTrue(data.isEmpty());
+        assertNull(data.put("putget.id", 1));
+        assertNull(data.put("PUTGET.NAME", null));
+        assertEquals(2, data.size());
+        assertEquals(1, data.get("putget.id"));
+        assertEquals(1, data.get("PutGet.Id"));
+        assertTrue(data.containsKey("putget.name"));
+        assertNull(data.get("putget.name"));
+        assertFalse(data.containsKey("putget.total"));
+        assertEquals("fallback", data.getOrDefault("putget.total", "fallback"));
+        assertNull(data.getOrDefault("putget.name", "fallback"));
+
+        assertEquals(1, data.put("putget.id", 2));
+        assertEquals(2, data.size());
+        assertTrue(data.containsValue(2));
+        assertFalse(data.containsValue(1));
+
+        assertEquals(2, data.remove("PUTGET.ID"));
+        assertNull(data.remove("putget.id"));
+        assertEquals(1, data.size());
+        assertFalse(data.containsKey("putget.id"));
+    }
+
+    @Test
+    public void testKeysOutsideTheLayout() {
+        CompactEntityData data = EntityDataLayout.forModel(model("overflow", "id")).newEntityData();
+        data.put("overflow.id", 1);
+        data.put("extra", "x");
+        assertEquals(2, data.size());
+        assertEquals("x", data.get("EXTRA"));
+        assertTrue(data.containsValue("x"));
+        assertEquals("x", data.remove("extra"));
+        assertEquals(1, data.size());
+        assertNull(data.get("extra"));
+    }
+
+    @Test
+    public void testIteration() {
+        CompactEntityData data = EntityDataLayout.forModel(model("iterate", "a", "b", "c", "d")).newEntityData();
+        data.put("iterate.d", 4);
+        data.put("iterate.b", 2);
+        data.put("extra", 5);
+
+        List<String> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+        assertEquals("[iterate.b, iterate.d, extra]", keys.toString());
+        assertEquals("[2, 4, 5]", values.toString());
+        assertEquals(keys, new ArrayList<>(data.keySet()));
+        assertEquals(values, new ArrayList<>(data.values()));
+
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            entry.setValue(((Integer) entry.getValue()) * 10);
+        }
+        assertEquals(20, data.get("iterate.b"));
+        assertEquals(50, data.get("extra"));
+
+        Iterator<Map.Entry<String, Object>> i = data.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry<String, Object> entry = i.next();
+            if (!entry.getKey().equals("iterate.d")) {
+                i.remove();
+            }
+        }
+        assertEquals(1, data.size());
+        assertEquals(40, data.get("iterate.d"));
+
+        data.keySet().remove("iterate.d");
+        assertTrue(data.isEmpty());
+        assertFalse(data.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testCopy() {
+        CompactEntityData data = EntityDataLayout.forModel(model("copy", "id", "name")).newEntityData();
+        data.put("copy.id", 1);
+        data.put("extra", "x");
+        data.setChangeType(ChangeType.CHG);
+
+        CompactEntityData copy = data.copy();
+        assertNotSame(data, copy);
+        assertSame(data.getLayout(), copy.getLayout());
+        assertEquals(ChangeType.CHG, copy.getChangeType());
+        assertEquals(data, copy);
+
+        copy.put("copy.id", 2);
+        copy.put("copy.name", "b");
+        copy.put("extra", "y");
+        assertEquals(1, data.get("copy.id"));
+        assertFalse(data.containsKey("copy.name"));
+        assertEquals("x", data.get("extra"));
+        assertEquals(3, copy.size());
+
+        EntityData cloned = (EntityData) data.clone();
+        assertTrue(cloned instanceof CompactEntityData);
+        assertEquals(data, cloned);
+        cloned.clear();
+        assertTrue(cloned.isEmpty());
+        assertEquals(2, data.size());
+    }
+
+    @Test
+    public void testEqualsPlainEntityData() {
+        CompactEntityData data = EntityDataLayout.forModel(model("equals", "id", "name")).newEntityData();
+        data.put("equals.id", 1);
+        data.put("equals.name", "a");
+        EntityData plain = new EntityData();
+        plain.put("equals.id", 1);
+        plain.put("equals.name", "a");
+        assertEquals(plain, data);
+        assertEquals(data, plain);
+        assertEquals(plain.hashCode(), data.hashCode());
+    }
+
+    @Test
+    public void testLayoutFollowsModelVersion() {
+        RelationalModel model = model("version", "id", "name");
+        model.setLastUpdateTime(new Date(1000));
+        EntityDataLayout layout = EntityDataLayout.forModel(model);
+        assertSame(layout, EntityDataLayout.forModel(model));
+
+        model.setLastUpdateTime(new Date(2000));
+        model.getModelEntities().get(0).addModelAttribute(new ModelAttrib("version.total", "version", "TOTAL"));
+        EntityDataLayout changed = EntityDataLayout.forModel(model);
+        assertNotSame(layout, changed);
+        assertEquals(3, changed.size());
+        assertEquals(-1, layout.getOrdinal("version.total"));
+    }
+
+    @Test
+    public void testLayoutCacheIsBounded() {
+        for (int i = 0; i < EntityDataLayout.MAX_CACHED_LAYOUTS * 2; i++) {
+            EntityDataLayout.forModel(model("bounded" + i, "id"));
+        }
+        synchronized (EntityDataLayout.layoutsByModelVersion) {
+            assertEquals(EntityDataLayout.MAX_CACHED_LAYOUTS, EntityDataLayout.layoutsByModelVersion.size());
+        }
+    }
+
+    private RelationalModel model(String id, String... attributeNames) {
+        RelationalModel model = new RelationalModel(id);
+        ModelEntity entity = new ModelEntity(id, id.toUpperCase());
+        for (String attributeName : attributeNames) {
+            entity.addModelAttribute(new ModelAttrib(id + "." + attributeName, id, attributeName.toUpperCase()));
+        }
+        model.getModelEntities().add(entity);
+        return model;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.UUID;
+
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+import org.junit.Test;
+
+public class EntityDataSpillFileTest {
+
+    @Test
+    public void testValueRoundTrip() throws Exception {
+        Timestamp timestamp = new Timestamp(1500000000123L);
+        timestamp.setNanos(123456789);
+        assertRoundTrip(EntityDataSpillFile.NULL, null);
+        assertRoundTrip(EntityDataSpillFile.STRING, "h\u00e9llo \u4e16\u754c");
+        assertRoundTrip(EntityDataSpillFile.STRING, "");
+        assertRoundTrip(EntityDataSpillFile.INTEGER, Integer.MIN_VALUE);
+        assertRoundTrip(EntityDataSpillFile.LONG, Long.MAX_VALUE);
+        assertRoundTrip(EntityDataSpillFile.BIG_DECIMAL, new BigDecimal("-12345678901234567890.1230"));
+        assertRoundTrip(EntityDataSpillFile.BIG_DECIMAL, new BigDecimal("1E+5"));
+        assertRoundTrip(EntityDataSpillFile.DOUBLE, Double.NaN);
+        assertRoundTrip(EntityDataSpillFile.DOUBLE, -0.5d);
+        assertRoundTrip(EntityDataSpillFile.FLOAT, 1.25f);
+        assertRoundTrip(EntityDataSpillFile.TRUE, Boolean.TRUE);
+        assertRoundTrip(EntityDataSpillFile.FALSE, Boolean.FALSE);
+        assertRoundTrip(EntityDataSpillFile.TIMESTAMP, timestamp);
+        assertRoundTrip(EntityDataSpillFile.SQL_DATE, new java.sql.Date(1500000000000L));
+        assertRoundTrip(EntityDataSpillFile.TIME, new Time(45296000L));
+        assertRoundTrip(EntityDataSpillFile.DATE, new Date(1500000000123L));
+        assertRoundTrip(EntityDataSpillFile.BYTES, new byte[] { 0, -1, 127, -128 });
+        assertRoundTrip(EntityDataSpillFile.BYTES, new byte[0]);
+        assertRoundTrip(EntityDataSpillFile.SHORT, Short.MIN_VALUE);
+        assertRoundTrip(EntityDataSpillFile.BYTE, (byte) -7);
+        assertRoundTrip(EntityDataSpillFile.BIG_INTEGER, new BigInteger("-98765432109876543210"));
+        assertRoundTrip(EntityDataSpillFile.SERIALIZED, UUID.fromString("6a2f41a3-c54c-fce8-32d2-0324e1c32e22"));
+    }
+
+    @Test
+    public void testUnknownTypeFails() throws Exception {
+        try {
+            EntityDataSpillFile.readValue(new DataInputStream(new ByteArrayInputStream(new byte[] { 42 })));
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("42"));
+        }
+    }
+
+    @Test
+    public void testVarIntRoundTrip() throws Exception {
+        int[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int value : values) {
+            EntityDataSpillFile.writeVarInt(out, value);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (int value : values) {
+            assertEquals(value, EntityDataSpillFile.readVarInt(in));
+        }
+    }
+
+    @Test
+    public void testFileRoundTrip() throws Exception {
+        EntityDataLayout layout = EntityDataLayout.forModel(model("spill", "id", "name", "amount"));
+        CompactEntityData first = layout.newEntityData();
+        first.put("spill.id", 1);
+        first.put("spill.name", null);
+        first.put("extra", "outside the layout");
+        first.setChangeType(ChangeType.CHG);
+        CompactEntityData second = layout.newEntityData();
+        second.put("spill.amount", new BigDecimal("2.50"));
+        second.setChangeType(ChangeType.DEL);
+        EntityData plain = new EntityData();
+        plain.put("spill.id", 3L);
+        plain.put("other", new byte[] { 1, 2 });
+
+        File file = EntityDataSpillFile.createTempFile("metl-test");
+        try {
+            try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(file, layout)) {
+                writer.write(first);
+                writer.write(second);
+                writer.write(plain);
+                assertEquals(3, writer.getCount());
+            }
+            try (EntityDataSpillFile.Reader reader = new EntityDataSpillFile.Reader(file, layout)) {
+                EntityData data = reader.read();
+                assertEquals(ChangeType.CHG, data.getChangeType());
+                assertEquals(3, data.size());
+                assertEquals(1, data.get("spill.id"));
+                assertTrue(data.containsKey("spill.name"));
+                assertNull(data.get("spill.name"));
+                assertEquals("outside the layout", data.get("extra"));
+
+                data = reader.read();
+                assertEquals(ChangeType.DEL, data.getChangeType());
+                assertEquals(1, data.size());
+                assertEquals(new BigDecimal("2.50"), data.get("spill.amount"));
+
+                data = reader.read();
+                assertEquals(ChangeType.ADD, data.getChangeType());
+                assertEquals(2, data.size());
+                assertEquals(3L, data.get("spill.id"));
+                assertArrayEquals(new byte[] { 1, 2 }, (byte[]) data.get("other"));
+
+                assertNull(reader.read());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testFileRoundTripWithoutLayout() throws Exception {
+        EntityData data = new EntityData();
+        data.put("a", "x");
+        data.put("b", null);
+        File file = EntityDataSpillFile.createTempFile("metl-test");
+        try {
+            try (EntityDataSpillFile.Writer writer = new EntityDataSpillFile.Writer(file, null)) {
+                writer.write(data);
+            }
+            try (EntityDataSpillFile.Reader reader = new EntityDataSpillFile.Reader(file, null)) {
+                EntityData read = reader.read();
+                assertEquals(2, read.size());
+                assertEquals("x", read.get("a"));
+                assertTrue(read.containsKey("b"));
+                assertNull(reader.read());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private void assertRoundTrip(byte expectedType, Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            EntityDataSpillFile.writeValue(out, value);
+        }
+        byte[] written = bytes.toByteArray();
+        assertEquals(expectedType, written[0]);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(written));
+        Object read = EntityDataSpillFile.readValue(in);
+        assertEquals(-1, in.read());
+        if (value == null) {
+            assertNull(read);
+        } else if (value instanceof byte[]) {
+            assertArrayEquals((byte[]) value, (byte[]) read);
+        } else {
+            assertEquals(value.getClass(), read.getClass());
+            assertEquals(value, read);
+        }
+    }
+
+    private RelationalModel model(String id, String... attributeNames) {
+        RelationalModel model = new RelationalModel(id);
+        ModelEntity entity = new ModelEntity(id, id.toUpperCase());
+        for (String attributeName : attributeNames) {
+            entity.addModelAttribute(new ModelAttrib(id + "." + attributeName, id, attributeName.toUpperCase()));
+        }
+        model.getModelEntities().add(entity);
+        return model;
+    }
+
+}
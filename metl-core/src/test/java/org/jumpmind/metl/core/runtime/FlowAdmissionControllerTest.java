@@ -0,0 +1,186 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class FlowAdmissionControllerTest {
+
+    @Test
+    public void testQueuesWhenAgentIsFull() {
+        List<Runnable> dispatched = new ArrayList<>();
+        FlowAdmissionController controller = new FlowAdmissionController(dispatched::add, 1, 0, 0);
+        List<String> ran = new ArrayList<>();
+        assertTrue(controller.submit("a", () -> ran.add("a1")));
+        assertTrue(controller.submit("b", () -> ran.add("b1")));
+        assertEquals(1, ran.size());
+        assertEquals(1, controller.getPendingCount());
+
+        controller.release("a");
+        assertEquals(1, dispatched.size());
+        assertEquals(0, controller.getPendingCount());
+        assertEquals(1, controller.getRunningCount());
+        dispatched.get(0).run();
+        assertEquals("b1", ran.get(1));
+    }
+
+    @Test
+    public void testPerDeploymentLimit() {
+        List<Runnable> dispatched = new ArrayList<>();
+        FlowAdmissionController controller = new FlowAdmissionController(dispatched::add, 0, 1, 0);
+        List<String> ran = new ArrayList<>();
+        controller.submit("a", () -> ran.add("a1"));
+        controller.submit("a", () -> ran.add("a2"));
+        assertEquals(1, ran.size());
+
+        /* b is behind a queued run of a, so it waits to keep arrival order */
+        controller.submit("b", () -> ran.add("b1"));
+        assertEquals(2, controller.getPendingCount());
+
+        controller.release("a");
+        assertEquals(2, dispatched.size());
+        assertEquals(0, controller.getPendingCount());
+        assertEquals(2, controller.getRunningCount());
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() {
+        FlowAdmissionController controller = new FlowAdmissionController(r -> {
+        }, 1, 0, 1);
+        assertTrue(controller.submit("a", () -> {
+        }));
+        assertTrue(controller.submit("a", () -> {
+        }));
+        assertFalse(controller.submit("a", () -> {
+        }));
+    }
+
+    @Test
+    public void testSyncCallerWaitsBehindQueuedExecution() throws Exception {
+        List<Runnable> dispatched = new ArrayList<>();
+        FlowAdmissionController controller = new FlowAdmissionController(dispatched::add, 1, 0, 0);
+        controller.submit("a", () -> {
+        });
+        controller.submit("b", () -> {
+        });
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread caller = acquireOnAnotherThread(controller, "c", acquired);
+        waitForPendingCount(controller, 2);
+
+        controller.release("a");
+        assertEquals(1, dispatched.size());
+        assertEquals(1, controller.getPendingCount());
+        assertFalse(acquired.get());
+
+        controller.release("b");
+        caller.join(5000);
+        assertTrue(acquired.get());
+        assertEquals(0, controller.getPendingCount());
+        assertEquals(1, controller.getRunningCount());
+    }
+
+    @Test
+    public void testQueuedExecutionWaitsBehindSyncCaller() throws Exception {
+        List<Runnable> dispatched = new ArrayList<>();
+        FlowAdmissionController controller = new FlowAdmissionController(dispatched::add, 1, 0, 0);
+        assertTrue(controller.acquire("a"));
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread caller = acquireOnAnotherThread(controller, "b", acquired);
+        waitForPendingCount(controller, 1);
+        controller.submit("c", () -> {
+        });
+        assertEquals(2, controller.getPendingCount());
+
+        controller.release("a");
+        caller.join(5000);
+        assertTrue(acquired.get());
+        assertEquals(0, dispatched.size());
+        assertEquals(1, controller.getPendingCount());
+
+        controller.release("b");
+        assertEquals(1, dispatched.size());
+        assertEquals(0, controller.getPendingCount());
+    }
+
+    @Test
+    public void testNestedAcquireIsNotAdmitted() throws Exception {
+        FlowAdmissionController controller = new FlowAdmissionController(r -> {
+        }, 1, 1, 0);
+        assertTrue(controller.acquire("a"));
+        boolean wasFlowThread = FlowAdmissionController.enterFlowThread();
+        try {
+            assertFalse(wasFlowThread);
+            assertFalse(controller.acquire("a"));
+            assertFalse(controller.acquire("b"));
+            assertEquals(1, controller.getRunningCount());
+            assertEquals(0, controller.getPendingCount());
+        } finally {
+            FlowAdmissionController.exitFlowThread(wasFlowThread);
+        }
+        assertFalse(FlowAdmissionController.isFlowThread());
+    }
+
+    @Test
+    public void testInterruptedCallerLeavesQueue() throws Exception {
+        FlowAdmissionController controller = new FlowAdmissionController(r -> {
+        }, 1, 0, 0);
+        assertTrue(controller.acquire("a"));
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread caller = acquireOnAnotherThread(controller, "b", acquired);
+        waitForPendingCount(controller, 1);
+        caller.interrupt();
+        caller.join(5000);
+        assertFalse(acquired.get());
+        assertEquals(0, controller.getPendingCount());
+
+        controller.release("a");
+        assertEquals(0, controller.getRunningCount());
+    }
+
+    protected Thread acquireOnAnotherThread(FlowAdmissionController controller, String deploymentId,
+            AtomicBoolean acquired) {
+        Thread thread = new Thread(() -> {
+            try {
+                acquired.set(controller.acquire(deploymentId));
+            } catch (InterruptedException e) {
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    protected void waitForPendingCount(FlowAdmissionController controller, int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (controller.getPendingCount() < count && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, controller.getPendingCount());
+    }
+
+}
@@ -0,0 +1,206 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.runtime.EntityData.ChangeType;
+import org.junit.Test;
+
+public class SpillableMessageBufferTest {
+
+    EntityDataLayout layout = EntityDataLayout.forModel(model("buffer", "id", "name", "amount"));
+
+    @Test
+    public void testMessagesUnderBudgetStayInMemory() {
+        try (SpillableMessageBuffer buffer = new SpillableMessageBuffer("metl-test", layout, 1024 * 1024)) {
+            List<Message> added = messages(10);
+            added.forEach(buffer::add);
+            assertEquals(10, buffer.size());
+            assertEquals(0, buffer.getSpilledCount());
+            assertNull(buffer.file);
+            assertSameMessages(added, replay(buffer));
+        }
+    }
+
+    @Test
+    public void testMessagesPastBudgetSpillAndReplayInOrder() {
+        List<Message> added = new ArrayList<>();
+        added.add(new ControlMessage("control"));
+        added.add(new BinaryMessage("binary", new byte[] { 0, -1, 127 }));
+        added.addAll(messages(50));
+        added.add(new EntityDataMessage("empty"));
+        long budget = SpillableMessageBuffer.estimateSize(added.get(0)) + SpillableMessageBuffer.estimateSize(added.get(1));
+        try (SpillableMessageBuffer buffer = new SpillableMessageBuffer("metl-test", layout, budget)) {
+            added.forEach(buffer::add);
+            assertEquals(added.size(), buffer.size());
+            assertEquals(added.size() - 2, buffer.getSpilledCount());
+            File file = buffer.file;
+            assertTrue(file.exists());
+
+            List<Message> replayed = replay(buffer);
+            assertEquals(added.size(), replayed.size());
+            assertTrue(replayed.get(0) == added.get(0));
+            assertTrue(replayed.get(1) == added.get(1));
+            assertMessagesEqual(added, replayed);
+            assertTrue(buffer.isEmpty());
+            assertFalse(file.exists());
+        }
+    }
+
+    @Test
+    public void testMessagesAfterTheFirstSpillAreSpilledToo() {
+        Message large = entityDataMessage(0, 20);
+        Message small = new ControlMessage("small");
+        try (SpillableMessageBuffer buffer = new SpillableMessageBuffer("metl-test", layout,
+                SpillableMessageBuffer.estimateSize(small))) {
+            buffer.add(large);
+            buffer.add(small);
+            assertEquals(2, buffer.getSpilledCount());
+            assertMessagesEqual(Arrays.asList(large, small), replay(buffer));
+        }
+    }
+
+    @Test
+    public void testBufferCanBeReusedAfterReplay() {
+        try (SpillableMessageBuffer buffer = new SpillableMessageBuffer("metl-test", layout, 0)) {
+            List<Message> first = messages(3);
+            first.forEach(buffer::add);
+            assertMessagesEqual(first, replay(buffer));
+            List<Message> second = messages(2);
+            second.forEach(buffer::add);
+            assertEquals(2, buffer.getSpilledCount());
+            assertMessagesEqual(second, replay(buffer));
+        }
+    }
+
+    @Test
+    public void testCloseDeletesSpillFile() {
+        SpillableMessageBuffer buffer = new SpillableMessageBuffer("metl-test", layout, 0);
+        messages(5).forEach(buffer::add);
+        File file = buffer.file;
+        assertTrue(file.exists());
+        buffer.close();
+        assertFalse(file.exists());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testEstimateSize() {
+        assertEquals(SpillableMessageBuffer.MESSAGE_OVERHEAD, SpillableMessageBuffer.estimateSize(new ControlMessage("control")));
+        assertEquals(SpillableMessageBuffer.MESSAGE_OVERHEAD + 40 + 8,
+                SpillableMessageBuffer.estimateSize(new TextMessage("text").addString("four")));
+        assertEquals(SpillableMessageBuffer.MESSAGE_OVERHEAD + 3,
+                SpillableMessageBuffer.estimateSize(new BinaryMessage("binary", new byte[3])));
+        EntityDataMessage message = entityDataMessage(0, 2);
+        long expected = SpillableMessageBuffer.MESSAGE_OVERHEAD;
+        for (EntityData data : message.getPayload()) {
+            expected += EntityDataSpillFile.estimateSize(data);
+        }
+        assertEquals(expected, SpillableMessageBuffer.estimateSize(message));
+    }
+
+    private List<Message> replay(SpillableMessageBuffer buffer) {
+        List<Message> replayed = new ArrayList<>();
+        buffer.replay(replayed::add);
+        return replayed;
+    }
+
+    private List<Message> messages(int count) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % 3 == 2) {
+                messages.add(new TextMessage("text").addString("line " + i).addString(null));
+            } else {
+                messages.add(entityDataMessage(i, i % 3 + 1));
+            }
+        }
+        return messages;
+    }
+
+    private EntityDataMessage entityDataMessage(int sequenceNumber, int rows) {
+        ArrayList<EntityData> payload = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            EntityData data = i % 2 == 0 ? layout.newEntityData() : new EntityData();
+            data.put("buffer.id", sequenceNumber * 100 + i);
+            data.put("buffer.name", "row " + i);
+            data.put("buffer.amount", i == 1 ? null : new BigDecimal("12.50"));
+            data.setChangeType(i == 2 ? ChangeType.DEL : ChangeType.ADD);
+            payload.add(data);
+        }
+        EntityDataMessage message = new EntityDataMessage("entity", payload);
+        message.getHeader().setSequenceNumber(sequenceNumber);
+        return message;
+    }
+
+    private void assertSameMessages(List<Message> expected, List<Message> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(expected.get(i) == actual.get(i));
+        }
+    }
+
+    private void assertMessagesEqual(List<Message> expected, List<Message> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Message left = expected.get(i);
+            Message right = actual.get(i);
+            assertEquals(left.getClass(), right.getClass());
+            assertEquals(left.getHeader(), right.getHeader());
+            if (left instanceof EntityDataMessage) {
+                List<EntityData> leftRows = ((EntityDataMessage) left).getPayload();
+                List<EntityData> rightRows = ((EntityDataMessage) right).getPayload();
+                assertEquals(leftRows, rightRows);
+                for (int j = 0; leftRows != null && j < leftRows.size(); j++) {
+                    assertEquals(leftRows.get(j).getChangeType(), rightRows.get(j).getChangeType());
+                }
+            } else if (left instanceof TextMessage) {
+                assertEquals(((TextMessage) left).getPayload(), ((TextMessage) right).getPayload());
+            } else if (left instanceof BinaryMessage) {
+                assertArrayEquals(((BinaryMessage) left).getPayload(), ((BinaryMessage) right).getPayload());
+            }
+        }
+    }
+
+    private RelationalModel model(String id, String... attributeNames) {
+        RelationalModel model = new RelationalModel(id);
+        ModelEntity entity = new ModelEntity(id, id.toUpperCase());
+        for (String attributeName : attributeNames) {
+            entity.addModelAttribute(new ModelAttrib(id + "." + attributeName, id, attributeName.toUpperCase()));
+        }
+        model.getModelEntities().add(entity);
+        return model;
+    }
+
+}
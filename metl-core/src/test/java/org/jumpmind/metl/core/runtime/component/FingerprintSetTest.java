@@ -0,0 +1,169 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.junit.Test;
+
+public class FingerprintSetTest {
+
+    @Test
+    public void testAddWithoutSpilling() {
+        long[][] fingerprints = fingerprints(1, 5000);
+        try (FingerprintSet set = new FingerprintSet(Long.MAX_VALUE, true, false, 5000, 0.001)) {
+            assertAllAdded(set, fingerprints);
+            assertNoneAdded(set, fingerprints);
+            assertEquals(0, set.getSpillCount());
+            assertEquals(5000, set.size());
+        }
+    }
+
+    @Test
+    public void testSpillsPastMaxRunsWithoutFalseNegatives() {
+        int rows = FingerprintSet.MIN_CAPACITY * (FingerprintSet.MAX_RUNS + 2) * 3;
+        long[][] fingerprints = fingerprints(2, rows);
+        try (FingerprintSet set = new FingerprintSet(0, true, false, 100, 0.01)) {
+            assertAllAdded(set, fingerprints);
+            assertTrue(set.getSpillCount() > FingerprintSet.MAX_RUNS * 2);
+            assertTrue(set.runs.size() <= FingerprintSet.MAX_RUNS);
+            assertNoneAdded(set, fingerprints);
+            assertEquals(rows, set.size());
+
+            long[][] others = fingerprints(3, 10000);
+            assertAllAdded(set, others);
+            assertNoneAdded(set, others);
+            assertNoneAdded(set, fingerprints);
+        }
+    }
+
+    @Test
+    public void testCloseDeletesRuns() {
+        FingerprintSet set = new FingerprintSet(0, true, false, 100, 0.01);
+        assertAllAdded(set, fingerprints(4, FingerprintSet.MIN_CAPACITY * 4));
+        List<File> files = new ArrayList<>();
+        for (FingerprintSet.Run run : set.runs) {
+            assertTrue(run.file.exists());
+            files.add(run.file);
+        }
+        assertFalse(files.isEmpty());
+        set.close();
+        for (File file : files) {
+            assertFalse(file.exists());
+        }
+        assertEquals(0, set.size());
+        assertAllAdded(set, fingerprints(4, 100));
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsFirstValue() {
+        long[][] fingerprints = fingerprints(5, 3000);
+        try (FingerprintSet set = new FingerprintSet(0, true, true, 3000, 0.001)) {
+            for (int i = 0; i < fingerprints.length; i++) {
+                assertEquals(-1, set.putIfAbsent(fingerprints[i][0], fingerprints[i][1], i));
+            }
+            for (int i = 0; i < fingerprints.length; i++) {
+                assertEquals(i, set.putIfAbsent(fingerprints[i][0], fingerprints[i][1], -5));
+            }
+            assertEquals(0, set.getSpillCount());
+        }
+    }
+
+    @Test
+    public void testProbabilisticHasNoFalseNegatives() {
+        int rows = 20000;
+        long[][] fingerprints = fingerprints(6, rows);
+        try (FingerprintSet set = FingerprintSet.probabilistic(rows, 0.01)) {
+            int added = 0;
+            for (long[] fingerprint : fingerprints) {
+                if (set.add(fingerprint[0], fingerprint[1])) {
+                    added++;
+                }
+            }
+            assertTrue("Too many false positives: " + (rows - added), rows - added < rows * 0.02);
+            assertNoneAdded(set, fingerprints);
+        }
+    }
+
+    @Test
+    public void testSortOrdersBySignedHiThenLo() {
+        long[] his = { 5, -1, 5, Long.MIN_VALUE, 0, 5 };
+        long[] los = { 2, 7, -3, 1, 0, 2 };
+        FingerprintSet.sort(his, los, 0, his.length - 1);
+        assertTrue(Arrays.equals(new long[] { Long.MIN_VALUE, -1, 0, 5, 5, 5 }, his));
+        assertTrue(Arrays.equals(new long[] { 1, 7, 0, -3, 2, 2 }, los));
+    }
+
+    @Test
+    public void testRowFingerprintMatchesEqualRows() {
+        RowFingerprint fingerprint = new RowFingerprint(Arrays.asList("a", "b"));
+        long[] first = compute(fingerprint, row("ab", "c"));
+        assertTrue(Arrays.equals(first, compute(fingerprint, row("ab", "c"))));
+        assertFalse(Arrays.equals(first, compute(fingerprint, row("a", "bc"))));
+        assertFalse(Arrays.equals(first, compute(fingerprint, row("ab", null))));
+        assertTrue(Arrays.equals(compute(fingerprint, row(1, 2L)), compute(fingerprint, row(1L, 2))));
+        assertFalse(Arrays.equals(compute(fingerprint, row(1, 2)), compute(fingerprint, row("1", "2"))));
+        assertFalse(Arrays.equals(compute(fingerprint, row(null, null)), new long[2]));
+    }
+
+    private void assertAllAdded(FingerprintSet set, long[][] fingerprints) {
+        for (int i = 0; i < fingerprints.length; i++) {
+            assertTrue("Fingerprint " + i + " was reported as seen", set.add(fingerprints[i][0], fingerprints[i][1]));
+        }
+    }
+
+    private void assertNoneAdded(FingerprintSet set, long[][] fingerprints) {
+        for (int i = 0; i < fingerprints.length; i++) {
+            assertFalse("Fingerprint " + i + " was not found", set.add(fingerprints[i][0], fingerprints[i][1]));
+        }
+    }
+
+    private long[][] fingerprints(long seed, int count) {
+        Random random = new Random(seed);
+        long[][] fingerprints = new long[count][];
+        for (int i = 0; i < count; i++) {
+            fingerprints[i] = new long[] { random.nextLong(), random.nextLong() | 1 };
+        }
+        return fingerprints;
+    }
+
+    private long[] compute(RowFingerprint fingerprint, EntityData row) {
+        fingerprint.compute(row);
+        return new long[] { fingerprint.hi, fingerprint.lo };
+    }
+
+    private EntityData row(Object a, Object b) {
+        EntityData row = new EntityData();
+        row.put("a", a);
+        row.put("b", b);
+        return row;
+    }
+
+}
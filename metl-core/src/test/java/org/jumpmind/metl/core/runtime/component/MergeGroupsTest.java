@@ -0,0 +1,260 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataLayout;
+import org.junit.Test;
+
+public class MergeGroupsTest {
+
+    static final String ID = "merge.id";
+    static final String NAME = "merge.name";
+    static final String AMOUNT = "merge.amount";
+
+    static final List<String> KEY = Arrays.asList(ID);
+
+    EntityDataLayout layout = EntityDataLayout.forModel(model("merge", "id", "name", "amount"));
+
+    @Test
+    public void testEmitHandsOutGroupsBelowTheWatermark() {
+        try (MergeGroups groups = new MergeGroups(KEY, layout, Long.MAX_VALUE)) {
+            add(groups, row(3, "c", null));
+            add(groups, row(1, "a", null));
+            add(groups, row(2, "b", null));
+            add(groups, row(1, null, 10));
+
+            List<EntityData> emitted = new ArrayList<>();
+            groups.emit(key(2), emitted::add);
+            assertEquals(1, emitted.size());
+            assertRow(emitted.get(0), 1, "a", 10);
+
+            emitted.clear();
+            groups.emit(key(2), emitted::add);
+            assertTrue(emitted.isEmpty());
+
+            groups.emit(null, emitted::add);
+            assertEquals(2, emitted.size());
+            assertRow(emitted.get(0), 2, "b", null);
+            assertRow(emitted.get(1), 3, "c", null);
+            assertEquals(0, groups.getSpillCount());
+        }
+    }
+
+    @Test
+    public void testEmitMergesSpilledRunsBelowTheWatermark() {
+        try (MergeGroups groups = new MergeGroups(KEY, layout, 0)) {
+            for (int i = 0; i < 10; i++) {
+                add(groups, row(i, "name" + i, null));
+                add(groups, row(i, null, i * 10));
+            }
+            assertEquals(20, groups.getSpillCount());
+
+            List<EntityData> emitted = new ArrayList<>();
+            groups.emit(key(5), emitted::add);
+            assertEquals(5, emitted.size());
+            for (int i = 0; i < 5; i++) {
+                assertRow(emitted.get(i), i, "name" + i, i * 10);
+            }
+            for (MergeGroups.Run run : groups.runs) {
+                assertTrue(run.key.compareTo(key(5)) >= 0);
+            }
+
+            emitted.clear();
+            groups.emit(null, emitted::add);
+            assertEquals(5, emitted.size());
+            for (int i = 5; i < 10; i++) {
+                assertRow(emitted.get(i - 5), i, "name" + i, i * 10);
+            }
+            assertTrue(groups.runs.isEmpty());
+        }
+    }
+
+    @Test
+    public void testRunsAreCompactedPastMaxRuns() {
+        int rows = MergeGroups.MAX_RUNS * 3;
+        try (MergeGroups groups = new MergeGroups(KEY, layout, 0)) {
+            for (int i = rows - 1; i >= 0; i--) {
+                add(groups, row(i, "name" + i, null));
+                assertTrue(groups.runs.size() <= MergeGroups.MAX_RUNS);
+            }
+            for (int i = 0; i < rows; i += 2) {
+                add(groups, row(i, null, i));
+                assertTrue(groups.runs.size() <= MergeGroups.MAX_RUNS);
+            }
+            assertEquals(rows + rows / 2, groups.getSpillCount());
+
+            List<EntityData> emitted = new ArrayList<>();
+            groups.emit(null, emitted::add);
+            assertEquals(rows, emitted.size());
+            for (int i = 0; i < rows; i++) {
+                assertRow(emitted.get(i), i, "name" + i, i % 2 == 0 ? i : null);
+            }
+        }
+    }
+
+    @Test
+    public void testLaterRowsWinAcrossSpilledPartials() {
+        try (MergeGroups groups = new MergeGroups(KEY, layout, 0)) {
+            add(groups, row(7, "first", 1));
+            for (int i = 100; i < 100 + MergeGroups.MAX_RUNS + 10; i++) {
+                add(groups, row(i, "other", null));
+            }
+            add(groups, row(7, "second", null));
+            add(groups, row(7, null, 3));
+            assertTrue(groups.getSpillCount() > MergeGroups.MAX_RUNS);
+
+            List<EntityData> emitted = new ArrayList<>();
+            groups.emit(key(8), emitted::add);
+            assertEquals(1, emitted.size());
+            assertRow(emitted.get(0), 7, "second", 3);
+        }
+
+        try (MergeGroups groups = new MergeGroups(KEY, layout, Long.MAX_VALUE)) {
+            add(groups, row(7, "first", 1));
+            groups.spill();
+            add(groups, row(7, "second", null));
+            groups.spill();
+            add(groups, row(7, "third", null));
+
+            List<EntityData> emitted = new ArrayList<>();
+            groups.emit(null, emitted::add);
+            assertEquals(1, emitted.size());
+            assertRow(emitted.get(0), 7, "third", 1);
+        }
+    }
+
+    @Test
+    public void testCloseDeletesRuns() {
+        MergeGroups groups = new MergeGroups(KEY, layout, 0);
+        for (int i = 0; i < 5; i++) {
+            add(groups, row(i, "name" + i, null));
+        }
+        List<File> files = new ArrayList<>();
+        for (MergeGroups.Run run : groups.runs) {
+            assertTrue(run.file.exists());
+            files.add(run.file);
+        }
+        assertEquals(5, files.size());
+        groups.close();
+        for (File file : files) {
+            assertFalse(file.exists());
+        }
+        List<EntityData> emitted = new ArrayList<>();
+        groups.emit(null, emitted::add);
+        assertTrue(emitted.isEmpty());
+    }
+
+    @Test
+    public void testKeysOfDifferentTypesMatch() {
+        assertEquals(0, key(1).compareTo(new MergeKey(new Object[] { MergeKey.normalize(new BigDecimal("1.00")) })));
+        assertEquals(0, key(1).compareTo(new MergeKey(new Object[] { MergeKey.normalize((short) 1) })));
+        assertTrue(key(1).compareTo(new MergeKey(new Object[] { 1.5d })) < 0);
+        assertTrue(new MergeKey(new Object[] { null }).compareTo(key(Long.MIN_VALUE)) < 0);
+    }
+
+    @Test
+    public void testMixedTemporalKeysCompareByTime() {
+        Date date = new Date(1000);
+        java.sql.Date sqlDate = new java.sql.Date(1000);
+        Timestamp timestamp = new Timestamp(1000);
+        Timestamp later = new Timestamp(1000);
+        later.setNanos(500);
+        Timestamp nextMilli = new Timestamp(1001);
+
+        assertEquals(0, MergeKey.compareValues(date, timestamp));
+        assertEquals(0, MergeKey.compareValues(timestamp, sqlDate));
+        assertEquals(0, MergeKey.compareValues(date, sqlDate));
+
+        assertTrue(MergeKey.compareValues(later, date) > 0);
+        assertTrue(MergeKey.compareValues(date, later) < 0);
+        assertTrue(MergeKey.compareValues(sqlDate, later) < 0);
+        assertTrue(MergeKey.compareValues(timestamp, later) < 0);
+        assertTrue(MergeKey.compareValues(later, nextMilli) < 0);
+        assertTrue(MergeKey.compareValues(new Date(1001), later) > 0);
+        assertEquals(0, MergeKey.compareValues(new Date(1001), nextMilli));
+
+        try (MergeGroups groups = new MergeGroups(KEY, layout, Long.MAX_VALUE)) {
+            groups.add(new MergeKey(new Object[] { date }), row(date, "date", null));
+            groups.add(new MergeKey(new Object[] { timestamp }), row(timestamp, null, 1));
+            groups.add(new MergeKey(new Object[] { later }), row(later, "later", null));
+            List<EntityData> emitted = new ArrayList<>();
+            groups.emit(null, emitted::add);
+            assertEquals(2, emitted.size());
+            assertEquals("date", emitted.get(0).get(NAME));
+            assertEquals(1, emitted.get(0).get(AMOUNT));
+            assertEquals("later", emitted.get(1).get(NAME));
+        }
+    }
+
+    private void add(MergeGroups groups, EntityData row) {
+        groups.add(MergeKey.of(row, KEY), row);
+    }
+
+    private MergeKey key(long id) {
+        return new MergeKey(new Object[] { id });
+    }
+
+    private EntityData row(Object id, String name, Integer amount) {
+        EntityData row = new EntityData();
+        row.put(ID, id);
+        row.put(NAME, name);
+        row.put(AMOUNT, amount);
+        return row;
+    }
+
+    private void assertRow(EntityData row, long id, String name, Integer amount) {
+        assertEquals(id, ((Number) row.get(ID)).longValue());
+        assertEquals(name, row.get(NAME));
+        if (amount == null) {
+            assertNull(row.get(AMOUNT));
+        } else {
+            assertEquals(amount.intValue(), ((Number) row.get(AMOUNT)).intValue());
+        }
+    }
+
+    private RelationalModel model(String id, String... attributeNames) {
+        RelationalModel model = new RelationalModel(id);
+        ModelEntity entity = new ModelEntity(id, id.toUpperCase());
+        for (String attributeName : attributeNames) {
+            entity.addModelAttribute(new ModelAttrib(id + "." + attributeName, id, attributeName.toUpperCase()));
+        }
+        model.getModelEntities().add(entity);
+        return model;
+    }
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jumpmind.metl.core.model.Component;
+import org.jumpmind.metl.core.model.ComponentAttribSetting;
+import org.jumpmind.metl.core.model.Flow;
+import org.jumpmind.metl.core.model.FlowStep;
+import org.jumpmind.metl.core.model.FlowStepLink;
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.runtime.ControlMessage;
+import org.jumpmind.metl.core.runtime.EntityData;
+import org.jumpmind.metl.core.runtime.EntityDataMessage;
+import org.jumpmind.metl.core.runtime.MisconfiguredException;
+import org.junit.Test;
+
+public class MergerTest {
+
+    static final String ID = "merger.id";
+    static final String NAME = "merger.name";
+    static final String AMOUNT = "merger.amount";
+
+    @Test
+    public void testSortedInputIsSentBelowTheWatermark() {
+        Merger merger = merger(Merger.MODE_SORTED_INPUT);
+        SendMessageCallback<ArrayList<EntityData>> callback = new SendMessageCallback<>();
+
+        merger.handle(message("names", row(1, "a", null), row(2, "b", null)), callback, false);
+        assertTrue(callback.payloadList.isEmpty());
+
+        merger.handle(message("amounts", row(1, null, 10), row(3, null, 30)), callback, false);
+        assertEquals(Arrays.asList("1:a:10"), rows(callback));
+
+        merger.handle(new ControlMessage("names"), callback, false);
+        assertEquals(Arrays.asList("1:a:10", "2:b:null"), rows(callback));
+
+        merger.handle(new ControlMessage("amounts"), callback, true);
+        assertEquals(Arrays.asList("1:a:10", "2:b:null", "3:null:30"), rows(callback));
+        merger.stop();
+    }
+
+    @Test
+    public void testUnsortedInputIsRejected() {
+        Merger merger = merger(Merger.MODE_SORTED_INPUT);
+        SendMessageCallback<ArrayList<EntityData>> callback = new SendMessageCallback<>();
+        merger.handle(message("names", row(1, "a", null), row(3, "c", null)), callback, false);
+        try {
+            merger.handle(message("names", row(2, "b", null)), callback, false);
+            fail("Expected the unsorted input to be rejected");
+        } catch (MisconfiguredException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("'Names'"));
+            assertTrue(e.getMessage(), e.getMessage().contains(Merger.MODE_EXTERNAL));
+        } finally {
+            merger.stop();
+        }
+    }
+
+    @Test
+    public void testExternalModeAcceptsUnsortedInput() {
+        Merger merger = merger(Merger.MODE_EXTERNAL);
+        SendMessageCallback<ArrayList<EntityData>> callback = new SendMessageCallback<>();
+        merger.handle(message("names", row(3, "c", null), row(1, "a", null)), callback, false);
+        merger.handle(message("amounts", row(3, null, 30), row(2, null, 20), row(1, null, 10)), callback, false);
+        merger.handle(message("names", row(1, "z", null)), callback, false);
+        assertTrue(callback.payloadList.isEmpty());
+
+        merger.handle(new ControlMessage("names"), callback, false);
+        merger.handle(new ControlMessage("amounts"), callback, true);
+        assertEquals(Arrays.asList("1:z:10", "2:null:20", "3:c:30"), rows(callback));
+        merger.stop();
+    }
+
+    private Merger merger(String mergeMode) {
+        RelationalModel model = new RelationalModel("merger");
+        ModelEntity entity = new ModelEntity("merger", "MERGER");
+        entity.addModelAttribute(new ModelAttrib(ID, "merger", "ID"));
+        entity.addModelAttribute(new ModelAttrib(NAME, "merger", "NAME"));
+        entity.addModelAttribute(new ModelAttrib(AMOUNT, "merger", "AMOUNT"));
+        model.getModelEntities().add(entity);
+
+        Component component = new Component("merger-component");
+        component.setType(Merger.TYPE);
+        component.setInputModel(model);
+        component.setAttributeSettings(new ArrayList<>(
+                Arrays.asList(new ComponentAttribSetting(ID, Merger.MERGE_ATTRIBUTE, "true"))));
+        component.put(Merger.MERGE_MODE, mergeMode);
+        component.put(Merger.ROWS_PER_MESSAGE, "1");
+
+        Flow flow = new Flow("flow");
+        flow.setFlowSteps(new ArrayList<>(Arrays.asList(step("names", "Names"), step("amounts", "Amounts"))));
+        FlowStep flowStep = new FlowStep(component);
+        flowStep.setId("merger");
+        flow.getFlowSteps().add(flowStep);
+        flow.setFlowStepLinks(new ArrayList<>(Arrays.asList(new FlowStepLink("names", "merger"),
+                new FlowStepLink("amounts", "merger"))));
+
+        ComponentContext context = new ComponentContext(null, flowStep, flow, null, null, null, null, null);
+        context.setComponentStatistics(new ComponentStatistics());
+        Merger merger = new Merger();
+        merger.create(null, context, 0);
+        merger.start();
+        return merger;
+    }
+
+    private FlowStep step(String id, String name) {
+        Component component = new Component(id + "-component");
+        component.setName(name);
+        FlowStep flowStep = new FlowStep(component);
+        flowStep.setId(id);
+        return flowStep;
+    }
+
+    private EntityDataMessage message(String sourceStepId, EntityData... rows) {
+        return new EntityDataMessage(sourceStepId, new ArrayList<>(Arrays.asList(rows)));
+    }
+
+    private EntityData row(int id, String name, Integer amount) {
+        EntityData row = new EntityData();
+        row.put(ID, id);
+        row.put(NAME, name);
+        row.put(AMOUNT, amount);
+        return row;
+    }
+
+    private List<String> rows(SendMessageCallback<ArrayList<EntityData>> callback) {
+        List<String> rows = new ArrayList<>();
+        for (ArrayList<EntityData> payload : callback.payloadList) {
+            for (EntityData row : payload) {
+                rows.add(row.get(ID) + ":" + row.get(NAME) + ":" + row.get(AMOUNT));
+            }
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.flow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.metl.core.model.AgentDeploy;
+import org.jumpmind.metl.core.model.Component;
+import org.jumpmind.metl.core.model.ComponentAttribSetting;
+import org.jumpmind.metl.core.model.Flow;
+import org.jumpmind.metl.core.model.FlowStep;
+import org.jumpmind.metl.core.model.FlowStepLink;
+import org.jumpmind.metl.core.model.ModelAttrib;
+import org.jumpmind.metl.core.model.ModelEntity;
+import org.jumpmind.metl.core.model.RelationalModel;
+import org.jumpmind.metl.core.persist.DeployedFlowCache;
+import org.jumpmind.metl.core.persist.IConfigurationService;
+import org.jumpmind.metl.core.plugin.IDefinitionFactory;
+import org.jumpmind.metl.core.plugin.XMLComponentDefinition;
+import org.jumpmind.metl.core.runtime.component.EmbedFlow;
+import org.jumpmind.metl.core.runtime.component.EmbedFlowFlowManipulator;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FlowPlanTest {
+
+    Flow parent;
+
+    Flow child;
+
+    IConfigurationService configurationService;
+
+    IDefinitionFactory definitionFactory;
+
+    @Before
+    public void setup() {
+        child = flow("child", step("x", "No Op"), step("y", "No Op"));
+        link(child, "x", "y");
+
+        FlowStep call = step("call", "Call Flow");
+        call.getComponent().put(EmbedFlow.SETTING_FLOW_ID, "child");
+        parent = flow("parent", step("a", "No Op"), call, step("b", "No Op"));
+        link(parent, "a", "call");
+        link(parent, "call", "b");
+
+        configurationService = mock(IConfigurationService.class);
+        when(configurationService.findDeployedFlow("child")).thenReturn(child);
+        when(configurationService.getDeployedFlowCache()).thenReturn(new DeployedFlowCache(0));
+
+        XMLComponentDefinition noOp = new XMLComponentDefinition();
+        XMLComponentDefinition callFlow = new XMLComponentDefinition();
+        callFlow.setFlowManipulatorClassName(EmbedFlowFlowManipulator.class.getName());
+        definitionFactory = mock(IDefinitionFactory.class);
+        when(definitionFactory.getComponentDefinition(anyString(), eq("No Op"))).thenReturn(noOp);
+        when(definitionFactory.getComponentDefinition(anyString(), eq("Call Flow"))).thenReturn(callFlow);
+    }
+
+    @Test
+    public void testEmbedFlowLeavesCachedFlowsUnchanged() {
+        for (int i = 0; i < 2; i++) {
+            FlowPlan plan = FlowPlan.compile(parent, definitionFactory, configurationService);
+            Flow manipulatedFlow = plan.getManipulatedFlow();
+            assertEquals(5, manipulatedFlow.getFlowSteps().size());
+            assertEquals(4, manipulatedFlow.getFlowStepLinks().size());
+            assertEquals(5, plan.getSteps().size());
+
+            assertEquals(3, parent.getFlowSteps().size());
+            assertEquals(2, parent.getFlowStepLinks().size());
+            assertEquals(2, child.getFlowSteps().size());
+            assertEquals(1, child.getFlowStepLinks().size());
+            assertOrderUnchanged(parent);
+            assertOrderUnchanged(child);
+
+            assertNotSame(parent.findFlowStepWithId("a"), plan.getStep("a").getFlowStep());
+            assertNotSame(child.findFlowStepWithId("x"), plan.getStep("x").getFlowStep());
+        }
+    }
+
+    @Test
+    public void testChangedFlowInvalidatesPlan() {
+        Flow flow = flow("flow", step("a", "No Op"), step("b", "No Op"));
+        link(flow, "a", "b");
+        FlowPlan plan = FlowPlan.compile(flow, definitionFactory, configurationService);
+        assertTrue(plan.isCurrent(flow, configurationService));
+
+        Flow redeployed = flow("flow", step("a", "No Op"), step("b", "No Op"));
+        link(redeployed, "a", "b");
+        redeployed.setLastUpdateTime(flow.getLastUpdateTime());
+        for (int i = 0; i < 2; i++) {
+            redeployed.getFlowSteps().get(i).getComponent()
+                    .setLastUpdateTime(flow.getFlowSteps().get(i).getComponent().getLastUpdateTime());
+        }
+        assertTrue(plan.isCurrent(redeployed, configurationService));
+
+        redeployed.getFlowSteps().get(1).getComponent().put(StepRuntime.THREAD_COUNT, "4");
+        assertFalse(plan.isCurrent(redeployed, configurationService));
+
+        flow.getFlowStepLinks().clear();
+        assertFalse(plan.isCurrent(flow, configurationService));
+    }
+
+    @Test
+    public void testConfigurationChangeInvalidatesPlanAndCachedFlow() {
+        DeployedFlowCache cache = new DeployedFlowCache(60000);
+        when(configurationService.getDeployedFlowCache()).thenReturn(cache);
+        cache.getGeneration().getFlows().put(parent.getId(), parent);
+        cache.getGeneration().getFlows().put(child.getId(), child);
+
+        FlowPlan plan = FlowPlan.compile(parent, definitionFactory, configurationService);
+        assertTrue(plan.isCurrent(parent, configurationService));
+
+        cache.onSave(new AgentDeploy());
+        assertFalse(plan.isCurrent(parent, configurationService));
+        assertTrue(cache.getGeneration().getFlows().isEmpty());
+
+        plan = FlowPlan.compile(parent, definitionFactory, configurationService);
+        assertTrue(plan.isCurrent(parent, configurationService));
+
+        cache.onSave(child.getFlowSteps().get(0).getComponent());
+        assertFalse(plan.isCurrent(parent, configurationService));
+    }
+
+    @Test
+    public void testModelAndAttributeSettingChangesInvalidatePlan() {
+        Flow flow = flow("flow", step("a", "No Op"), step("b", "No Op"));
+        link(flow, "a", "b");
+        RelationalModel model = new RelationalModel("model");
+        ModelEntity entity = new ModelEntity("entity", "ENTITY");
+        entity.addModelAttribute(new ModelAttrib("entity.id", "entity", "ID"));
+        model.getModelEntities().add(entity);
+        Component mapping = flow.getFlowSteps().get(1).getComponent();
+        mapping.setInputModel(model);
+        mapping.addAttributeSetting(new ComponentAttribSetting("entity.id", "mapping.target.attribute", "a"));
+
+        FlowPlan plan = FlowPlan.compile(flow, definitionFactory, configurationService);
+        assertTrue(plan.isCurrent(flow, configurationService));
+
+        mapping.getAttributeSettings().get(0).setValue("b");
+        assertFalse(plan.isCurrent(flow, configurationService));
+
+        plan = FlowPlan.compile(flow, definitionFactory, configurationService);
+        assertTrue(plan.isCurrent(flow, configurationService));
+        entity.addModelAttribute(new ModelAttrib("entity.name", "entity", "NAME"));
+        assertFalse(plan.isCurrent(flow, configurationService));
+
+        plan = FlowPlan.compile(flow, definitionFactory, configurationService);
+        assertTrue(plan.isCurrent(flow, configurationService));
+        entity.getModelAttributes().get(1).setType("INTEGER");
+        assertFalse(plan.isCurrent(flow, configurationService));
+
+        plan = FlowPlan.compile(flow, definitionFactory, configurationService);
+        RelationalModel redeployed = new RelationalModel("model");
+        redeployed.getModelEntities().add(new ModelEntity("entity", "ENTITY"));
+        mapping.setInputModel(redeployed);
+        assertFalse(plan.isCurrent(flow, configurationService));
+    }
+
+    protected void assertOrderUnchanged(Flow flow) {
+        for (FlowStep flowStep : flow.getFlowSteps()) {
+            assertEquals(-1, flowStep.getApproximateOrder());
+        }
+    }
+
+    protected Flow flow(String id, FlowStep... steps) {
+        Flow flow = new Flow(id);
+        flow.setProjectVersionId("version");
+        List<FlowStep> flowSteps = new ArrayList<>();
+        for (FlowStep flowStep : steps) {
+            flowStep.setFlowId(id);
+            flowSteps.add(flowStep);
+        }
+        flow.setFlowSteps(flowSteps);
+        flow.setFlowStepLinks(new ArrayList<>());
+        return flow;
+    }
+
+    protected FlowStep step(String id, String type) {
+        Component component = new Component(id + "-component");
+        component.setType(type);
+        component.setProjectVersionId("version");
+        FlowStep flowStep = new FlowStep(component);
+        flowStep.setId(id);
+        flowStep.setApproximateOrder(-1);
+        return flowStep;
+    }
+
+    protected void link(Flow flow, String sourceStepId, String targetStepId) {
+        FlowStepLink link = new FlowStepLink(sourceStepId, targetStepId);
+        link.setId(sourceStepId + "-" + targetStepId);
+        flow.getFlowStepLinks().add(link);
+    }
+
+}
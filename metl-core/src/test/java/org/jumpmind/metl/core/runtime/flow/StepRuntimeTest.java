@@ -0,0 +1,240 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.flow;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jumpmind.metl.core.model.Agent;
+import org.jumpmind.metl.core.model.AgentDeploy;
+import org.jumpmind.metl.core.model.AgentProjectVersionFlowDeployment;
+import org.jumpmind.metl.core.model.Component;
+import org.jumpmind.metl.core.model.Flow;
+import org.jumpmind.metl.core.model.FlowStep;
+import org.jumpmind.metl.core.model.FlowStepLink;
+import org.jumpmind.metl.core.model.ProjectVersion;
+import org.jumpmind.metl.core.persist.DeployedFlowCache;
+import org.jumpmind.metl.core.persist.IConfigurationService;
+import org.jumpmind.metl.core.persist.IExecutionService;
+import org.jumpmind.metl.core.plugin.IDefinitionFactory;
+import org.jumpmind.metl.core.plugin.XMLComponentDefinition;
+import org.jumpmind.metl.core.runtime.IExecutionTracker;
+import org.jumpmind.metl.core.runtime.Message;
+import org.jumpmind.metl.core.runtime.component.ComponentContext;
+import org.jumpmind.metl.core.runtime.component.IComponentRuntime;
+import org.jumpmind.metl.core.runtime.component.IComponentRuntimeFactory;
+import org.junit.After;
+import org.junit.Test;
+
+public class StepRuntimeTest {
+
+    XMLComponentDefinition definition = new XMLComponentDefinition();
+
+    CountDownLatch sourceStarted = new CountDownLatch(1);
+
+    CountDownLatch releaseSource = new CountDownLatch(1);
+
+    volatile Thread sourceThread;
+
+    List<Thread> stepThreads = new ArrayList<>();
+
+    ExecutorService threadService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable);
+        synchronized (stepThreads) {
+            stepThreads.add(thread);
+        }
+        return thread;
+    });
+
+    @After
+    public void tearDown() {
+        threadService.shutdownNow();
+    }
+
+    @Test
+    public void testInterruptedStepStillCompletesTheFlow() throws Exception {
+        Flow flow = new Flow("flow");
+        flow.setProjectVersionId("version");
+        List<FlowStep> flowSteps = new ArrayList<>();
+        flowSteps.add(step("source"));
+        flowSteps.add(step("target"));
+        flow.setFlowSteps(flowSteps);
+        List<FlowStepLink> links = new ArrayList<>();
+        FlowStepLink link = new FlowStepLink("source", "target");
+        link.setId("source-target");
+        links.add(link);
+        flow.setFlowStepLinks(links);
+
+        FlowRuntime flowRuntime = flowRuntime(flow);
+        flowRuntime.start();
+        assertTrue(sourceStarted.await(10, TimeUnit.SECONDS));
+
+        /* interrupt the idle target step while the source is still working */
+        synchronized (stepThreads) {
+            for (Thread thread : stepThreads) {
+                if (thread != sourceThread) {
+                    thread.interrupt();
+                }
+            }
+        }
+        Thread.sleep(100);
+        releaseSource.countDown();
+
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> completed = waiter.submit(() -> flowRuntime.waitForFlowCompletion());
+            completed.get(10, TimeUnit.SECONDS);
+        } finally {
+            waiter.shutdownNow();
+        }
+        assertFalse(flowRuntime.isRunning());
+        assertTrue(flowRuntime.getAllErrors().isEmpty());
+        assertNull(flowRuntime.stepRuntimes.get("target").getError());
+    }
+
+    protected FlowRuntime flowRuntime(Flow flow) {
+        Agent agent = new Agent("agent");
+        agent.setAutoRefresh(false);
+        AgentDeploy agentDeploy = new AgentDeploy();
+        agentDeploy.setId("deployment");
+        agentDeploy.setName("deployment");
+        ProjectVersion projectVersion = new ProjectVersion("version");
+        projectVersion.setVersionLabel("1.0");
+        AgentProjectVersionFlowDeployment deployment = new AgentProjectVersionFlowDeployment(agentDeploy, flow,
+                projectVersion);
+
+        IConfigurationService configurationService = mock(IConfigurationService.class);
+        when(configurationService.getDeployedFlowCache()).thenReturn(new DeployedFlowCache(0));
+        IDefinitionFactory definitionFactory = mock(IDefinitionFactory.class);
+        when(definitionFactory.getComponentDefinition(anyString(), anyString())).thenReturn(definition);
+        IExecutionService executionService = mock(IExecutionService.class);
+        IExecutionTracker executionTracker = mock(IExecutionTracker.class);
+        when(executionService.getExecutionTracker(any(), any(), any(), any(), any(), any())).thenReturn(executionTracker);
+        IComponentRuntimeFactory componentRuntimeFactory = mock(IComponentRuntimeFactory.class);
+        when(componentRuntimeFactory.create(anyString(), anyString(), any(ComponentContext.class), anyInt()))
+                .thenAnswer(invocation -> new TestComponentRuntime((ComponentContext) invocation.getArguments()[2],
+                        (Integer) invocation.getArguments()[3]));
+
+        return new FlowRuntime("execution", "user", deployment, agent, componentRuntimeFactory, definitionFactory,
+                threadService, null, configurationService, executionService, null, null, null);
+    }
+
+    protected FlowStep step(String id) {
+        Component component = new Component(id + "-component");
+        component.setName(id);
+        component.setType("Test");
+        component.setProjectVersionId("version");
+        FlowStep flowStep = new FlowStep(component);
+        flowStep.setId(id);
+        flowStep.setFlowId("flow");
+        return flowStep;
+    }
+
+    /*
+     * The source holds on to its start message until the test lets it go
+     */
+    class TestComponentRuntime implements IComponentRuntime {
+
+        ComponentContext context;
+
+        int threadNumber;
+
+        TestComponentRuntime(ComponentContext context, int threadNumber) {
+            this.context = context;
+            this.threadNumber = threadNumber;
+        }
+
+        @Override
+        public void create(XMLComponentDefinition definition, ComponentContext context, int threadNumber) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void handle(Message inputMessage, ISendMessageCallback callback, boolean unitOfWorkBoundaryReached) {
+            if (context.getFlowStep().getId().equals("source")) {
+                sourceThread = Thread.currentThread();
+                sourceStarted.countDown();
+                boolean released = false;
+                while (!released) {
+                    try {
+                        released = releaseSource.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void flowCompleted(boolean cancelled) {
+        }
+
+        @Override
+        public void flowCompletedWithErrors(Throwable myError) {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public ComponentContext getComponentContext() {
+            return context;
+        }
+
+        @Override
+        public XMLComponentDefinition getComponentDefintion() {
+            return definition;
+        }
+
+        @Override
+        public boolean supportsStartupMessages() {
+            return true;
+        }
+
+        @Override
+        public int getThreadNumber() {
+            return threadNumber;
+        }
+
+        @Override
+        public void interrupt() {
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ThreadUtilsTest {
+
+    @Test
+    public void testReplacementThreadsTakeFreeSlots() throws Exception {
+        ExecutorService pool = ThreadUtils.createFixedThreadPool("thread-utils-test", 100, 3);
+        try {
+            for (int i = 0; i < 10; i++) {
+                pool.execute(() -> {
+                    throw new IllegalStateException("kill the pool thread");
+                });
+            }
+            CyclicBarrier barrier = new CyclicBarrier(3);
+            @SuppressWarnings("unchecked")
+            Future<Integer>[] slots = new Future[3];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = pool.submit(() -> {
+                    int slot = ThreadUtils.getThreadNumber(3);
+                    barrier.await(5, TimeUnit.SECONDS);
+                    return slot;
+                });
+            }
+            Set<Integer> used = new HashSet<>();
+            for (Future<Integer> slot : slots) {
+                used.add(slot.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), used);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+}
@@ -18,8 +18,10 @@ insert into METL_PROJECT (ID, NAME, DESCRIPTION, DELETED, CREATE_TIME, CREATE_BY
 insert into METL_PROJECT_VERSION (ID, VERSION_LABEL, PROJECT_ID, ORIG_VERSION_ID, DESCRIPTION, ARCHIVED, DELETED, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('7c24f46b-a40a-45cb-8e06-e2a65f404cf2','1.0','84f8fe12-cb73-48f9-b5dc-66df8fe36657',null,'',0,0,{ts '2015-12-19 10:46:56.565'},null,null,{ts '2015-12-19 10:47:10.262'});
 insert into METL_RELATIONAL_MODEL (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, SHARED, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b5695ca7-8bbc-48ea-b641-57808d63f685','9ab5dca3-b97b-4198-a0b8-b1ffe41abbc4','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'model2',0,null,{ts '2016-01-28 11:18:31.304'},null,null,{ts '2016-01-28 11:18:33.701'});
 insert into METL_RELATIONAL_MODEL (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, SHARED, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f0c9c897-6444-4951-bbf4-f26dac6562d2','c859048a-c6d2-483a-918b-0b6ae5c51553','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'model1',0,null,{ts '2015-12-19 10:56:18.246'},null,null,{ts '2015-12-19 10:56:22.346'});
+insert into METL_RELATIONAL_MODEL (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, SHARED, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b5b0fed3-8c70-427f-b099-93816ffdbe34','982c588b-f3ef-4af8-a7bb-097807ddb4ce','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'model3',0,null,{ts '2016-10-17 09:01:18.546'},null,null,{ts '2016-10-17 09:01:18.546'});
 insert into METL_MODEL_ENTITY (ID, MODEL_ID, NAME, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('cc4016f9-607a-43c8-a8a9-e5277bef869e','f0c9c897-6444-4951-bbf4-f26dac6562d2','TABLE1',{ts '2015-12-19 10:56:26.241'},null,null,{ts '2015-12-19 11:31:11.944'});
 insert into METL_MODEL_ENTITY (ID, MODEL_ID, NAME, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d5f5516e-d836-47bb-8b25-767f89021644','b5695ca7-8bbc-48ea-b641-57808d63f685','TABLE2',{ts '2016-01-28 11:18:37.107'},null,null,{ts '2016-01-28 11:20:23.102'});
+insert into METL_MODEL_ENTITY (ID, MODEL_ID, NAME, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9e305e6d-2320-4783-876a-057e2be80ae3','b5b0fed3-8c70-427f-b099-93816ffdbe34','TABLE3',{ts '2016-10-17 09:01:19.553'},null,null,{ts '2016-10-17 09:01:19.553'});
 insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5178ff9d-5ca1-4d61-a156-717793d62baa','cc4016f9-607a-43c8-a8a9-e5277bef869e','ID','VARCHAR',null,1,{ts '2015-12-19 10:56:33.472'},null,null,{ts '2015-12-19 11:31:17.725'});
 insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5ace80c1-b67a-42ea-8d1d-e035ba104644','d5f5516e-d836-47bb-8b25-767f89021644','COL3','VARCHAR',null,0,{ts '2016-01-28 11:18:49.323'},null,null,{ts '2016-01-28 11:20:36.889'});
 insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('61842601-9cbc-42af-8e06-2a50ac39e86e','cc4016f9-607a-43c8-a8a9-e5277bef869e','COL_C','VARCHAR',null,0,{ts '2015-12-19 10:57:31.064'},null,null,{ts '2015-12-19 11:31:28.187'});
@@ -27,6 +29,9 @@ insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CR
 insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('7b180bc7-f6f5-4bf3-ba34-dab7028209bd','d5f5516e-d836-47bb-8b25-767f89021644','PK_COL2','VARCHAR',null,1,{ts '2016-01-28 11:18:44.345'},null,null,{ts '2016-01-28 12:13:15.583'});
 insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a564bf2c-5be2-48e7-a0b4-5e9bb7768443','cc4016f9-607a-43c8-a8a9-e5277bef869e','COL_B','VARCHAR',null,0,{ts '2015-12-19 10:57:24.134'},null,null,{ts '2015-12-19 11:31:24.644'});
 insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c45e707f-5493-437d-8260-4f3d77795e4e','d5f5516e-d836-47bb-8b25-767f89021644','PK_COL1','VARCHAR',null,1,{ts '2016-01-28 11:18:40.112'},null,null,{ts '2016-01-28 12:13:12.765'});
+insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a0752476-69a1-4f8a-afe4-9feb7d62a12c','9e305e6d-2320-4783-876a-057e2be80ae3','NAME','VARCHAR',null,1,{ts '2016-10-17 09:01:20.560'},null,null,{ts '2016-10-17 09:01:20.560'});
+insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0f59c082-c700-425c-a744-c0136a8ed478','9e305e6d-2320-4783-876a-057e2be80ae3','UPDATED','TIMESTAMP',null,0,{ts '2016-10-17 09:01:21.567'},null,null,{ts '2016-10-17 09:01:21.567'});
+insert into METL_MODEL_ATTRIB (ID, ENTITY_ID, NAME, TYPE, TYPE_ENTITY_ID, PK, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2976f473-cf49-4f2b-9305-0cdc54c6a258','9e305e6d-2320-4783-876a-057e2be80ae3','AMOUNT','DECIMAL',null,0,{ts '2016-10-17 09:01:22.574'},null,null,{ts '2016-10-17 09:01:22.574'});
 insert into METL_RESOURCE (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('67b7484d-ebe9-4de4-8818-53a5ede68235','36f587ba-dcc6-4f1a-b70e-b170c8e358d3','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'old_database','Database',null,{ts '2015-12-19 10:47:37.446'},null,null,{ts '2015-12-19 11:00:05.992'});
 insert into METL_RESOURCE (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('dcdf1255-3e14-447e-9283-9054bb645825','23dd8dc4-fd0b-4122-adc8-dd71327fd898','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'new_database','Database',null,{ts '2015-12-19 11:00:13.840'},null,null,{ts '2015-12-19 11:00:16.714'});
 insert into METL_RESOURCE_SETTING (RESOURCE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('67b7484d-ebe9-4de4-8818-53a5ede68235','db.url','jdbc:h2:mem:olddb',{ts '2015-12-19 11:15:35.254'},null,null,{ts '2015-12-19 11:15:35.254'});
@@ -43,6 +48,24 @@ insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE,
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c038e559-23c2-481a-bedd-3045b8bb51d3','3fe714fd-4860-42af-b396-1da84cce6353','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'New Data Reader','RDBMS Reader',null,0,null,'b5695ca7-8bbc-48ea-b641-57808d63f685','dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-01-28 11:24:29.292'},null,null,{ts '2016-01-28 12:00:06.970'});
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d4ace379-120f-4b8a-bb5d-e54f1cb09b6f','8b007795-f732-4119-af0c-643d4d76fb37','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create New Database','Sql Executor',null,0,null,null,'dcdf1255-3e14-447e-9283-9054bb645825',{ts '2015-12-19 11:03:48.811'},null,null,{ts '2015-12-21 07:55:37.946'});
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fa299a98-861c-40e6-a716-ec65f0ee6442','ebb5e700-943b-4114-b599-56ba71fcb8d3','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create New Database','Sql Executor',null,0,null,null,'dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-01-28 11:22:32.996'},null,null,{ts '2016-01-28 12:00:06.966'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('912eedf5-b916-45b4-8e78-f7b9ad33b1f6','3e422946-e641-4a7a-9497-e4ed27482f76','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create Old Database','Sql Executor',null,0,null,null,'67b7484d-ebe9-4de4-8818-53a5ede68235',{ts '2016-10-17 09:00:00.000'},null,null,{ts '2016-10-17 09:00:00.000'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('151f04f2-0459-4986-9c1b-d215f684696c','60f2312c-7e7b-4bbc-884a-b12ea6153277','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create New Database','Sql Executor',null,0,null,null,'dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-10-17 09:00:03.021'},null,null,{ts '2016-10-17 09:00:03.021'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1ac93522-5bee-4a99-b4eb-0a72cf031e24','1c7f4f2e-ca10-442f-95c7-c040c26fd71a','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Old Reader','RDBMS Reader',null,0,null,'f0c9c897-6444-4951-bbf4-f26dac6562d2','67b7484d-ebe9-4de4-8818-53a5ede68235',{ts '2016-10-17 09:00:06.042'},null,null,{ts '2016-10-17 09:00:06.042'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ad02c85d-9ff9-40a4-b56d-b39ffc3e1c79','2f2ab9c7-8bfa-47fb-9c33-4321cc7852af','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'New Reader','RDBMS Reader',null,0,null,'f0c9c897-6444-4951-bbf4-f26dac6562d2','dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-10-17 09:00:09.063'},null,null,{ts '2016-10-17 09:00:09.063'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('cb361375-a3e6-477d-815e-c438fc86d79b','a703d6c6-e1e0-4075-bf88-0d2087b9502b','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'DataDiff 1','DataDiff',null,0,'f0c9c897-6444-4951-bbf4-f26dac6562d2','f0c9c897-6444-4951-bbf4-f26dac6562d2',null,{ts '2016-10-17 09:00:12.084'},null,null,{ts '2016-10-17 09:00:12.084'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b0a5b6ec-45b2-460f-894a-65c9c220995d','8745f3ad-2c08-42e3-bd80-3244df1f5265','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Assert 1','Assert',null,0,'f0c9c897-6444-4951-bbf4-f26dac6562d2',null,null,{ts '2016-10-17 09:00:18.126'},null,null,{ts '2016-10-17 09:00:18.126'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('44b0fd98-1ff7-481d-a661-7e0b8f49fbd5','373645c0-0c03-445b-89bc-50702add8258','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create Old Database','Sql Executor',null,0,null,null,'67b7484d-ebe9-4de4-8818-53a5ede68235',{ts '2016-10-17 09:00:39.273'},null,null,{ts '2016-10-17 09:00:39.273'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8cf56b74-408d-4f98-a468-281095563d76','a70603b3-0b87-4654-a92b-b9f8a54ead80','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create New Database','Sql Executor',null,0,null,null,'dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-10-17 09:00:42.294'},null,null,{ts '2016-10-17 09:00:42.294'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('626c712d-2f19-4194-8255-6a678a6e45c3','43897d6a-148e-46e2-a528-6a3443905d62','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Old Reader','RDBMS Reader',null,0,null,'f0c9c897-6444-4951-bbf4-f26dac6562d2','67b7484d-ebe9-4de4-8818-53a5ede68235',{ts '2016-10-17 09:00:45.315'},null,null,{ts '2016-10-17 09:00:45.315'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ef0c4e6d-74a0-4b0f-8a65-1f0dd457ee02','cd14deb6-9a86-4818-a0e0-a43865e91f8a','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'New Reader','RDBMS Reader',null,0,null,'f0c9c897-6444-4951-bbf4-f26dac6562d2','dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-10-17 09:00:48.336'},null,null,{ts '2016-10-17 09:00:48.336'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('7ce1aefe-eabc-44b1-a831-a4fafe95d764','5f08a5f7-a8da-457b-824f-0e5e5f4ce1c7','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'DataDiff 1','DataDiff',null,0,'f0c9c897-6444-4951-bbf4-f26dac6562d2','f0c9c897-6444-4951-bbf4-f26dac6562d2',null,{ts '2016-10-17 09:00:51.357'},null,null,{ts '2016-10-17 09:00:51.357'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0dc9199e-8581-4614-9ef8-039158b1d5aa','e284bec8-59e7-4105-a97a-755455d8a4b8','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Assert 1','Assert',null,0,'f0c9c897-6444-4951-bbf4-f26dac6562d2',null,null,{ts '2016-10-17 09:00:57.399'},null,null,{ts '2016-10-17 09:00:57.399'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a1ef1afb-9ee3-4222-a4fa-f065cfe1fee3','6059a609-1e3b-4170-9177-b5830f0748ab','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create Old Database','Sql Executor',null,0,null,null,'67b7484d-ebe9-4de4-8818-53a5ede68235',{ts '2016-10-17 09:01:23.581'},null,null,{ts '2016-10-17 09:01:23.581'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('83f53b3c-27df-431c-a5a4-cd9a72dde1de','541b5563-462f-4679-9ac8-80eeee067500','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Create New Database','Sql Executor',null,0,null,null,'dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-10-17 09:01:26.602'},null,null,{ts '2016-10-17 09:01:26.602'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('42f42fb1-5bee-465d-82e7-e9d41b896089','3289fddb-736b-4fbb-8129-e169f2ef016d','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Old Reader','RDBMS Reader',null,0,null,'b5b0fed3-8c70-427f-b099-93816ffdbe34','67b7484d-ebe9-4de4-8818-53a5ede68235',{ts '2016-10-17 09:01:29.623'},null,null,{ts '2016-10-17 09:01:29.623'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('83d7bc01-5f4e-407b-8009-f6348446f8ef','98559614-6346-470a-b8ae-f99f6925d3be','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'New Reader','RDBMS Reader',null,0,null,'b5b0fed3-8c70-427f-b099-93816ffdbe34','dcdf1255-3e14-447e-9283-9054bb645825',{ts '2016-10-17 09:01:32.644'},null,null,{ts '2016-10-17 09:01:32.644'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fa976bd1-1d5c-46ab-9399-8778683907d9','5bd653a7-5b14-425d-ac7e-28668195ed13','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'DataDiff 1','DataDiff',null,0,'b5b0fed3-8c70-427f-b099-93816ffdbe34','b5b0fed3-8c70-427f-b099-93816ffdbe34',null,{ts '2016-10-17 09:01:35.665'},null,null,{ts '2016-10-17 09:01:35.665'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f266c61b-382a-41a4-9e80-f9b262cc73c8','9bb9f9b9-ddfe-49f3-aaee-0aa2ebb5725d','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,'Assert 1','Assert',null,0,'b5b0fed3-8c70-427f-b099-93816ffdbe34',null,null,{ts '2016-10-17 09:01:40.700'},null,null,{ts '2016-10-17 09:01:40.700'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('03e38955-9597-457b-b242-f564007d49b1','ac7da994-f331-476b-91ad-8fbce0bece89','sql','select * from table1;',{ts '2015-12-19 11:06:09.762'},null,null,{ts '2016-01-22 16:34:50.157'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0ddf378b-2271-4f90-b0d3-486e9918be4b','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','logOutput','true',{ts '2016-01-22 17:26:45.879'},null,null,{ts '2016-01-22 17:26:45.879'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0ee58a2b-8d78-4735-b9f8-95e99aae4a52','7b64d2c8-b473-4d61-93a1-9b10c5700944','source.2','ba70395a-b94d-4dad-af15-a0e26eeac517',{ts '2016-01-28 11:25:31.153'},null,null,{ts '2016-01-28 12:16:35.992'});
@@ -95,14 +118,109 @@ insert into TABLE2 values (''d'',''e'',''f'');
 insert into TABLE2 values (''x'',''y'',''z'');
 insert into TABLE2 values (''4'',''2'',''3'');',{ts '2016-01-28 11:23:08.626'},null,null,{ts '2016-01-28 12:00:06.967'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f3c4464d-3faa-40bf-96a2-66deca28012a','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','source.1','c5f66379-84e6-4e76-b117-13f751a7fad0',{ts '2015-12-19 11:06:45.298'},null,null,{ts '2016-01-22 17:25:38.711'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f0537cc0-f69e-44e8-9031-d68ef56c70bf','912eedf5-b916-45b4-8e78-f7b9ad33b1f6','sql','drop table if exists TABLE1;
+create table TABLE1 (ID integer, COL_A varchar(20), COL_B varchar(20), COL_C varchar(20), primary key (ID));
+insert into table1 values (1,''a'',''b'',''c'');
+insert into table1 values (2,''d'',''e'',''f'');
+insert into table1 values (3,''g'',''h'',''i'');
+insert into table1 values (4,''j'',null,''l'');
+insert into table1 values (5,''m'',''n'',''o'');',{ts '2016-10-17 09:00:01.007'},null,null,{ts '2016-10-17 09:00:01.007'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('cb155817-ec85-44b2-8f46-0ccd4ce003b1','912eedf5-b916-45b4-8e78-f7b9ad33b1f6','run.when','PER UNIT OF WORK',{ts '2016-10-17 09:00:02.014'},null,null,{ts '2016-10-17 09:00:02.014'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('55da4393-35de-49b8-8463-d2e51033f28f','151f04f2-0459-4986-9c1b-d215f684696c','sql','drop table if exists TABLE1;
+create table TABLE1 (ID integer, COL_A varchar(20), COL_B varchar(20), COL_C varchar(20), primary key (ID));
+insert into table1 values (1,''a'',''b'',''c'');
+insert into table1 values (2,''x'',''e'',''f'');
+insert into table1 values (3,''g'',''h'',''x'');
+insert into table1 values (4,''j'',''k'',''l'');
+insert into table1 values (5,''m'',''null'',''o'');',{ts '2016-10-17 09:00:04.028'},null,null,{ts '2016-10-17 09:00:04.028'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e3ccccf4-d738-4048-8916-09a0558a29a2','151f04f2-0459-4986-9c1b-d215f684696c','run.when','PER UNIT OF WORK',{ts '2016-10-17 09:00:05.035'},null,null,{ts '2016-10-17 09:00:05.035'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b3564c99-5f15-4929-8854-c83be970ee41','1ac93522-5bee-4a99-b4eb-0a72cf031e24','sql','select * from table1 order by ID;',{ts '2016-10-17 09:00:07.049'},null,null,{ts '2016-10-17 09:00:07.049'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('52ce8543-b203-433f-8f5a-96ca4322f78b','1ac93522-5bee-4a99-b4eb-0a72cf031e24','logOutput','true',{ts '2016-10-17 09:00:08.056'},null,null,{ts '2016-10-17 09:00:08.056'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e3675816-20ac-476c-adce-64dd4ca2446a','ad02c85d-9ff9-40a4-b56d-b39ffc3e1c79','sql','select * from table1 order by ID;',{ts '2016-10-17 09:00:10.070'},null,null,{ts '2016-10-17 09:00:10.070'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('07efb57d-4560-436b-9961-3619d9009514','ad02c85d-9ff9-40a4-b56d-b39ffc3e1c79','logOutput','true',{ts '2016-10-17 09:00:11.077'},null,null,{ts '2016-10-17 09:00:11.077'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('eed853fe-9cad-41b7-9501-64310c6b9664','cb361375-a3e6-477d-815e-c438fc86d79b','rows.per.message','1',{ts '2016-10-17 09:00:13.091'},null,null,{ts '2016-10-17 09:00:13.091'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('31c6778a-2dc9-4a92-a534-14aaf794bd44','cb361375-a3e6-477d-815e-c438fc86d79b','diff.engine','SORTED MERGE',{ts '2016-10-17 09:00:14.098'},null,null,{ts '2016-10-17 09:00:14.098'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('62ae7e18-ce6a-4800-aeaa-883f71e48a78','cb361375-a3e6-477d-815e-c438fc86d79b','logOutput','true',{ts '2016-10-17 09:00:15.105'},null,null,{ts '2016-10-17 09:00:15.105'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('76515e00-31f0-4dd0-ae9d-71cce1fde2ac','b0a5b6ec-45b2-460f-894a-65c9c220995d','expected.entity.messages.count','3',{ts '2016-10-17 09:00:19.133'},null,null,{ts '2016-10-17 09:00:19.133'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('18dbb214-3fa6-4d44-b138-3bdb47670348','b0a5b6ec-45b2-460f-894a-65c9c220995d','expected.control.messages.count','1',{ts '2016-10-17 09:00:20.140'},null,null,{ts '2016-10-17 09:00:20.140'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('655de184-7c57-434b-aac1-74644b7d9da3','cb361375-a3e6-477d-815e-c438fc86d79b','source.1','2a5f4f87-790b-4b38-ab6b-4f3fe6569afc',{ts '2016-10-17 09:00:34.238'},null,null,{ts '2016-10-17 09:00:34.238'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('aa3e0150-fd73-4f63-b47b-a9f9626cf386','cb361375-a3e6-477d-815e-c438fc86d79b','source.2','6fce5ce0-f2d2-4ff1-8e5b-358bb4f7ac23',{ts '2016-10-17 09:00:35.245'},null,null,{ts '2016-10-17 09:00:35.245'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('cd6d5087-4969-44a5-bd76-a1c2cd5eb3a4','44b0fd98-1ff7-481d-a661-7e0b8f49fbd5','sql','drop table if exists TABLE1;
+create table TABLE1 (ID integer, COL_A varchar(20), COL_B varchar(20), COL_C varchar(20), primary key (ID));
+insert into table1 values (1,''a'',''b'',''c'');
+insert into table1 values (2,''d'',''e'',''f'');
+insert into table1 values (3,''g'',''h'',''i'');
+insert into table1 values (4,''j'',null,''l'');
+insert into table1 values (5,''m'',''n'',''o'');',{ts '2016-10-17 09:00:40.280'},null,null,{ts '2016-10-17 09:00:40.280'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('10b14890-9844-4af3-bde0-59da0f584ad2','44b0fd98-1ff7-481d-a661-7e0b8f49fbd5','run.when','PER UNIT OF WORK',{ts '2016-10-17 09:00:41.287'},null,null,{ts '2016-10-17 09:00:41.287'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('39aa5aae-02c8-4965-882c-cb3015767c4b','8cf56b74-408d-4f98-a468-281095563d76','sql','drop table if exists TABLE1;
+create table TABLE1 (ID integer, COL_A varchar(20), COL_B varchar(20), COL_C varchar(20), primary key (ID));
+insert into table1 values (1,''a'',''b'',''c'');
+insert into table1 values (2,''x'',''e'',''f'');
+insert into table1 values (3,''g'',''h'',''x'');
+insert into table1 values (4,''j'',''k'',''l'');
+insert into table1 values (5,''m'',''null'',''o'');',{ts '2016-10-17 09:00:43.301'},null,null,{ts '2016-10-17 09:00:43.301'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('581aee97-5641-4a45-80c3-dc0a0e95f5ac','8cf56b74-408d-4f98-a468-281095563d76','run.when','PER UNIT OF WORK',{ts '2016-10-17 09:00:44.308'},null,null,{ts '2016-10-17 09:00:44.308'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('acdc45c7-e909-459c-a914-440ace2cd1e3','626c712d-2f19-4194-8255-6a678a6e45c3','sql','select * from table1;',{ts '2016-10-17 09:00:46.322'},null,null,{ts '2016-10-17 09:00:46.322'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ec9ad85f-8abf-4362-a89b-97d23133f59b','626c712d-2f19-4194-8255-6a678a6e45c3','logOutput','true',{ts '2016-10-17 09:00:47.329'},null,null,{ts '2016-10-17 09:00:47.329'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9ce0fe4e-53b8-4ab0-b9f1-8f42c3946ae3','ef0c4e6d-74a0-4b0f-8a65-1f0dd457ee02','sql','select * from table1;',{ts '2016-10-17 09:00:49.343'},null,null,{ts '2016-10-17 09:00:49.343'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c816a9f2-833b-4528-8d93-4d74151dd70d','ef0c4e6d-74a0-4b0f-8a65-1f0dd457ee02','logOutput','true',{ts '2016-10-17 09:00:50.350'},null,null,{ts '2016-10-17 09:00:50.350'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ba061263-3330-44c4-820d-e4c5173c0c0a','7ce1aefe-eabc-44b1-a831-a4fafe95d764','rows.per.message','1',{ts '2016-10-17 09:00:52.364'},null,null,{ts '2016-10-17 09:00:52.364'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('34cb293f-f41e-4242-bb7b-90ef54baca24','7ce1aefe-eabc-44b1-a831-a4fafe95d764','diff.engine','HASH',{ts '2016-10-17 09:00:53.371'},null,null,{ts '2016-10-17 09:00:53.371'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3ea86001-ff9b-47e1-92a0-16dc4a5ea7ef','7ce1aefe-eabc-44b1-a831-a4fafe95d764','logOutput','true',{ts '2016-10-17 09:00:54.378'},null,null,{ts '2016-10-17 09:00:54.378'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f94457b7-30f7-4363-885a-d4d8314de46d','0dc9199e-8581-4614-9ef8-039158b1d5aa','expected.entity.messages.count','3',{ts '2016-10-17 09:00:58.406'},null,null,{ts '2016-10-17 09:00:58.406'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('13c83f27-9829-41ec-b2be-b20c82afda81','0dc9199e-8581-4614-9ef8-039158b1d5aa','expected.control.messages.count','1',{ts '2016-10-17 09:00:59.413'},null,null,{ts '2016-10-17 09:00:59.413'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2da05052-6b38-40d3-8604-1c924cfc557a','7ce1aefe-eabc-44b1-a831-a4fafe95d764','source.1','be92ba28-19f4-4b68-a78b-b127858aaaf0',{ts '2016-10-17 09:01:13.511'},null,null,{ts '2016-10-17 09:01:13.511'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f093c540-16ba-48c4-8893-a82314cf50e7','7ce1aefe-eabc-44b1-a831-a4fafe95d764','source.2','587d4121-67d9-48c7-a3ce-9af421c5996d',{ts '2016-10-17 09:01:14.518'},null,null,{ts '2016-10-17 09:01:14.518'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('417ae62a-0979-41ae-8418-292e16773935','a1ef1afb-9ee3-4222-a4fa-f065cfe1fee3','sql','drop table if exists TABLE3;
+create table TABLE3 (NAME varchar(20), UPDATED timestamp, AMOUNT decimal(10,2), primary key (NAME));
+insert into table3 values (''apple'',''2016-01-01 10:00:00'',1.50);
+insert into table3 values (''Banana'',''2016-01-02 10:00:00'',2.00);
+insert into table3 values (''cherry'',''2016-01-03 10:00:00'',3.00);',{ts '2016-10-17 09:01:24.588'},null,null,{ts '2016-10-17 09:01:24.588'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9c24ed9f-4ec5-4f0c-994a-4fac614332ac','a1ef1afb-9ee3-4222-a4fa-f065cfe1fee3','run.when','PER UNIT OF WORK',{ts '2016-10-17 09:01:25.595'},null,null,{ts '2016-10-17 09:01:25.595'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('49e89b77-529e-4a08-947f-951d11de858f','83f53b3c-27df-431c-a5a4-cd9a72dde1de','sql','drop table if exists TABLE3;
+create table TABLE3 (NAME varchar(20), UPDATED varchar(30), AMOUNT varchar(20), primary key (NAME));
+insert into table3 values (''apple'',''2016-01-01 10:00:00.0'',''1.5'');
+insert into table3 values (''Banana'',''2016-01-02T10:00:00'',''2'');
+insert into table3 values (''cherry'',''2016-01-03 11:00:00'',''3'');
+insert into table3 values (''date'',''2016-01-04 10:00:00'',''4'');',{ts '2016-10-17 09:01:27.609'},null,null,{ts '2016-10-17 09:01:27.609'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1bb6bce6-4558-4932-82d0-0c2e9047a3e7','83f53b3c-27df-431c-a5a4-cd9a72dde1de','run.when','PER UNIT OF WORK',{ts '2016-10-17 09:01:28.616'},null,null,{ts '2016-10-17 09:01:28.616'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('08ebc72d-723f-4edf-8d78-b83f26df5c63','42f42fb1-5bee-465d-82e7-e9d41b896089','sql','select * from table3 order by lower(NAME);',{ts '2016-10-17 09:01:30.630'},null,null,{ts '2016-10-17 09:01:30.630'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('acd965c2-c370-4553-ad68-08ac2960a9e4','42f42fb1-5bee-465d-82e7-e9d41b896089','logOutput','true',{ts '2016-10-17 09:01:31.637'},null,null,{ts '2016-10-17 09:01:31.637'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('70b83979-3923-4069-843a-7ef48f3e25fa','83d7bc01-5f4e-407b-8009-f6348446f8ef','sql','select * from table3 order by lower(NAME);',{ts '2016-10-17 09:01:33.651'},null,null,{ts '2016-10-17 09:01:33.651'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8606eee3-2d09-421d-9179-1995ff02f9f5','83d7bc01-5f4e-407b-8009-f6348446f8ef','logOutput','true',{ts '2016-10-17 09:01:34.658'},null,null,{ts '2016-10-17 09:01:34.658'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('4ec91d5c-4c59-469a-870f-657ed13e4c51','fa976bd1-1d5c-46ab-9399-8778683907d9','rows.per.message','1',{ts '2016-10-17 09:01:36.672'},null,null,{ts '2016-10-17 09:01:36.672'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3d69eb1f-7482-42ce-835f-57184230a5ba','fa976bd1-1d5c-46ab-9399-8778683907d9','diff.engine','SORTED MERGE',{ts '2016-10-17 09:01:37.679'},null,null,{ts '2016-10-17 09:01:37.679'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b031c0bc-b1ea-44fe-a07b-b368d1b175cf','fa976bd1-1d5c-46ab-9399-8778683907d9','diff.key.collation','CASE INSENSITIVE',{ts '2016-10-17 09:01:38.686'},null,null,{ts '2016-10-17 09:01:38.686'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e6fb9376-0154-478a-80ac-e1ed59e47df5','fa976bd1-1d5c-46ab-9399-8778683907d9','logOutput','true',{ts '2016-10-17 09:01:39.693'},null,null,{ts '2016-10-17 09:01:39.693'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('46f3209f-e517-42ff-8b20-e92a30e63746','f266c61b-382a-41a4-9e80-f9b262cc73c8','expected.entity.messages.count','2',{ts '2016-10-17 09:01:41.707'},null,null,{ts '2016-10-17 09:01:41.707'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('216c820a-7b3a-4812-a3f2-87fad5ce6c0a','f266c61b-382a-41a4-9e80-f9b262cc73c8','expected.control.messages.count','1',{ts '2016-10-17 09:01:42.714'},null,null,{ts '2016-10-17 09:01:42.714'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5b3e42f7-8ab8-4bc7-8f6e-0e1f7faf5d1f','fa976bd1-1d5c-46ab-9399-8778683907d9','source.1','fbdb509f-cb15-4117-b147-a37d06a14509',{ts '2016-10-17 09:01:56.812'},null,null,{ts '2016-10-17 09:01:56.812'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a8591b76-561e-4ab9-aaee-bb02df236cac','fa976bd1-1d5c-46ab-9399-8778683907d9','source.2','74d6e311-644e-486a-8ca5-c7bd8d8a5c63',{ts '2016-10-17 09:01:57.819'},null,null,{ts '2016-10-17 09:01:57.819'});
 insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('66293f3a-203c-4955-9c11-45674fd7fcc5','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','cc4016f9-607a-43c8-a8a9-e5277bef869e','del.enabled','true',{ts '2015-12-19 21:10:16.395'},null,null,{ts '2016-01-22 17:25:38.710'});
 insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e4d88ffc-522e-451d-bd57-18dfa134ec40','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','cc4016f9-607a-43c8-a8a9-e5277bef869e','chg.enabled','true',{ts '2015-12-19 11:54:07.190'},null,null,{ts '2016-01-22 17:25:38.710'});
 insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f89e67f9-7daf-4bf0-ad0e-6694af969ca2','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','cc4016f9-607a-43c8-a8a9-e5277bef869e','add.enabled','true',{ts '2015-12-19 18:42:51.710'},null,null,{ts '2016-01-22 17:25:38.709'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9e1456ff-5cbb-4105-a4b1-57d9ba87bf9e','cb361375-a3e6-477d-815e-c438fc86d79b','cc4016f9-607a-43c8-a8a9-e5277bef869e','add.enabled','true',{ts '2016-10-17 09:00:36.252'},null,null,{ts '2016-10-17 09:00:36.252'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('dc5e5ca8-cb80-488d-b98b-91bed9753925','cb361375-a3e6-477d-815e-c438fc86d79b','cc4016f9-607a-43c8-a8a9-e5277bef869e','chg.enabled','true',{ts '2016-10-17 09:00:37.259'},null,null,{ts '2016-10-17 09:00:37.259'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('888e87d6-2c42-4d3f-9648-bd5b61c97f2c','cb361375-a3e6-477d-815e-c438fc86d79b','cc4016f9-607a-43c8-a8a9-e5277bef869e','del.enabled','true',{ts '2016-10-17 09:00:38.266'},null,null,{ts '2016-10-17 09:00:38.266'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('58098cdd-db4c-4a1b-add8-cb3b78835557','7ce1aefe-eabc-44b1-a831-a4fafe95d764','cc4016f9-607a-43c8-a8a9-e5277bef869e','add.enabled','true',{ts '2016-10-17 09:01:15.525'},null,null,{ts '2016-10-17 09:01:15.525'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1ac507ad-8ccf-4af9-b6cf-e0ffcb159b75','7ce1aefe-eabc-44b1-a831-a4fafe95d764','cc4016f9-607a-43c8-a8a9-e5277bef869e','chg.enabled','true',{ts '2016-10-17 09:01:16.532'},null,null,{ts '2016-10-17 09:01:16.532'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c8b66be8-5ba8-4a08-9050-ff83d42f6831','7ce1aefe-eabc-44b1-a831-a4fafe95d764','cc4016f9-607a-43c8-a8a9-e5277bef869e','del.enabled','true',{ts '2016-10-17 09:01:17.539'},null,null,{ts '2016-10-17 09:01:17.539'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('679da8db-7d13-4615-b97b-9fc4caf06866','fa976bd1-1d5c-46ab-9399-8778683907d9','9e305e6d-2320-4783-876a-057e2be80ae3','add.enabled','true',{ts '2016-10-17 09:01:58.826'},null,null,{ts '2016-10-17 09:01:58.826'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('367e994b-ccde-4b53-abf3-dad1452e4271','fa976bd1-1d5c-46ab-9399-8778683907d9','9e305e6d-2320-4783-876a-057e2be80ae3','chg.enabled','true',{ts '2016-10-17 09:01:59.833'},null,null,{ts '2016-10-17 09:01:59.833'});
+insert into METL_COMPONENT_ENTITY_SETTING (ID, COMPONENT_ID, ENTITY_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b917fca0-6dd5-4109-9656-83934fc1a7ed','fa976bd1-1d5c-46ab-9399-8778683907d9','9e305e6d-2320-4783-876a-057e2be80ae3','del.enabled','true',{ts '2016-10-17 09:02:00.840'},null,null,{ts '2016-10-17 09:02:00.840'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('6c2802ef-efb5-4f53-89ce-aaaf28a58bdd','7b64d2c8-b473-4d61-93a1-9b10c5700944','5ace80c1-b67a-42ea-8d1d-e035ba104644','compare.enabled','false',{ts '2016-01-28 11:25:43.503'},null,null,{ts '2016-01-28 12:16:35.991'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b14c9e88-5806-4c08-b756-0d7222038f2f','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','77a175ee-1488-4897-98a8-525a5b2cf77d','compare.enabled','true',{ts '2015-12-19 23:09:26.562'},null,null,{ts '2016-01-22 17:25:38.708'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b7abdd64-69f9-4b05-a243-5997026b1519','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2','61842601-9cbc-42af-8e06-2a50ac39e86e','compare.enabled','false',{ts '2015-12-19 23:20:03.958'},null,null,{ts '2016-01-22 17:25:38.708'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('08a8bf8b-ad9c-4fcd-85b2-e56e65510c9a','cb361375-a3e6-477d-815e-c438fc86d79b','77a175ee-1488-4897-98a8-525a5b2cf77d','compare.enabled','true',{ts '2016-10-17 09:00:16.112'},null,null,{ts '2016-10-17 09:00:16.112'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ca1ba63a-0a1c-4550-b862-a79a67bd913e','cb361375-a3e6-477d-815e-c438fc86d79b','61842601-9cbc-42af-8e06-2a50ac39e86e','compare.enabled','false',{ts '2016-10-17 09:00:17.119'},null,null,{ts '2016-10-17 09:00:17.119'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('788804ce-ab2b-4e15-bc17-1680a6afb36a','7ce1aefe-eabc-44b1-a831-a4fafe95d764','77a175ee-1488-4897-98a8-525a5b2cf77d','compare.enabled','true',{ts '2016-10-17 09:00:55.385'},null,null,{ts '2016-10-17 09:00:55.385'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3ecae807-7251-4045-822e-ac883b848546','7ce1aefe-eabc-44b1-a831-a4fafe95d764','61842601-9cbc-42af-8e06-2a50ac39e86e','compare.enabled','false',{ts '2016-10-17 09:00:56.392'},null,null,{ts '2016-10-17 09:00:56.392'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0b16b5d9-0762-4be2-997a-f5ed8641db77','71b2c9e8-b9a3-4022-a341-1ded3a0a4944','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,1,'DataDiff - Compare PK only',null,{ts '2016-01-28 11:17:47.468'},null,null,{ts '2016-01-28 12:00:06.962'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d4cdf3dd-f377-4bd2-9c5b-4d19a052172f','5b385f28-7ade-4973-9086-79c0cf4e952f','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,1,'DataDiff - Compare Specific Attributes',null,{ts '2015-12-19 11:00:23.319'},null,null,{ts '2015-12-19 23:49:50.244'});
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e6010080-76f4-4e31-8ae4-a0a1f4f67330','add9cb63-75e4-4545-ba03-b65c7fd28601','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,1,'DataDiff - Sorted Merge Engine',null,{ts '2016-10-17 09:00:21.147'},null,null,{ts '2016-10-17 09:00:21.147'});
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8950e2c4-b017-4ebc-a60b-66580979f4f8','ee3ed69c-c2f8-4091-965d-59e60cba3111','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,1,'DataDiff - Hash Engine',null,{ts '2016-10-17 09:01:00.420'},null,null,{ts '2016-10-17 09:01:00.420'});
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('dded685f-8086-4d61-824a-ff91aca4ca0f','ad288872-5777-4141-874a-71224b93a82d','7c24f46b-a40a-45cb-8e06-e2a65f404cf2',0,1,'DataDiff - Sorted Merge Case Insensitive Keys',null,{ts '2016-10-17 09:01:43.721'},null,null,{ts '2016-10-17 09:01:43.721'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2370ef97-3e89-4340-9131-a1b5e8fecae8','d4cdf3dd-f377-4bd2-9c5b-4d19a052172f','a764ab0d-9ccb-4b23-aa40-819aeb7d78c2',500,50,6,{ts '2015-12-19 11:06:28.858'},null,null,{ts '2016-01-22 17:25:38.711'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2b509af2-aeea-4426-b39e-029d9c3d0e1e','d4cdf3dd-f377-4bd2-9c5b-4d19a052172f','d4ace379-120f-4b8a-bb5d-e54f1cb09b6f',180,60,1,{ts '2015-12-19 11:03:48.811'},null,null,{ts '2015-12-21 07:55:37.951'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('65819b86-8bc7-47c9-b3d2-f9430678fceb','d4cdf3dd-f377-4bd2-9c5b-4d19a052172f','ac7da994-f331-476b-91ad-8fbce0bece89',340,120,6,{ts '2015-12-19 11:05:27.926'},null,null,{ts '2015-12-19 23:49:50.252'});
@@ -115,6 +233,24 @@ insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER,
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ba70395a-b94d-4dad-af15-a0e26eeac517','0b16b5d9-0762-4be2-997a-f5ed8641db77','c038e559-23c2-481a-bedd-3045b8bb51d3',350,140,4,{ts '2016-01-28 11:24:29.292'},null,null,{ts '2016-01-28 12:00:06.971'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c5f66379-84e6-4e76-b117-13f751a7fad0','d4cdf3dd-f377-4bd2-9c5b-4d19a052172f','2dd2ff6c-bb0d-448a-b403-5f3826045ac1',340,10,3,{ts '2015-12-19 11:05:04.945'},null,null,{ts '2015-12-19 23:49:50.246'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e180d68d-14de-48ea-87bf-e4b98e453db9','d4cdf3dd-f377-4bd2-9c5b-4d19a052172f','64ded4b8-2c4e-4002-bb90-2c03acd1e244',630,50,4,{ts '2015-12-19 23:49:45.573'},null,null,{ts '2016-05-04 19:39:56.746'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('91276848-6c71-44c1-8877-de270ad8b1c4','e6010080-76f4-4e31-8ae4-a0a1f4f67330','912eedf5-b916-45b4-8e78-f7b9ad33b1f6',80,120,0,{ts '2016-10-17 09:00:22.154'},null,null,{ts '2016-10-17 09:00:22.154'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3bf73309-a0f7-4fb9-addd-596fc6111256','e6010080-76f4-4e31-8ae4-a0a1f4f67330','151f04f2-0459-4986-9c1b-d215f684696c',240,120,1,{ts '2016-10-17 09:00:23.161'},null,null,{ts '2016-10-17 09:00:23.161'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2a5f4f87-790b-4b38-ab6b-4f3fe6569afc','e6010080-76f4-4e31-8ae4-a0a1f4f67330','1ac93522-5bee-4a99-b4eb-0a72cf031e24',400,120,2,{ts '2016-10-17 09:00:24.168'},null,null,{ts '2016-10-17 09:00:24.168'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('6fce5ce0-f2d2-4ff1-8e5b-358bb4f7ac23','e6010080-76f4-4e31-8ae4-a0a1f4f67330','ad02c85d-9ff9-40a4-b56d-b39ffc3e1c79',560,120,3,{ts '2016-10-17 09:00:25.175'},null,null,{ts '2016-10-17 09:00:25.175'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('dd961186-fe0c-4b2d-a304-c94d3d75ed87','e6010080-76f4-4e31-8ae4-a0a1f4f67330','cb361375-a3e6-477d-815e-c438fc86d79b',720,120,4,{ts '2016-10-17 09:00:26.182'},null,null,{ts '2016-10-17 09:00:26.182'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('67aef62c-41ec-4be3-a8e8-0ffa549c6746','e6010080-76f4-4e31-8ae4-a0a1f4f67330','b0a5b6ec-45b2-460f-894a-65c9c220995d',880,120,5,{ts '2016-10-17 09:00:27.189'},null,null,{ts '2016-10-17 09:00:27.189'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('70dfb0c6-63a2-4d5a-915b-dafab9059e26','8950e2c4-b017-4ebc-a60b-66580979f4f8','44b0fd98-1ff7-481d-a661-7e0b8f49fbd5',80,120,0,{ts '2016-10-17 09:01:01.427'},null,null,{ts '2016-10-17 09:01:01.427'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c8808fce-da90-44c2-9b1b-c055e23b4684','8950e2c4-b017-4ebc-a60b-66580979f4f8','8cf56b74-408d-4f98-a468-281095563d76',240,120,1,{ts '2016-10-17 09:01:02.434'},null,null,{ts '2016-10-17 09:01:02.434'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('be92ba28-19f4-4b68-a78b-b127858aaaf0','8950e2c4-b017-4ebc-a60b-66580979f4f8','626c712d-2f19-4194-8255-6a678a6e45c3',400,120,2,{ts '2016-10-17 09:01:03.441'},null,null,{ts '2016-10-17 09:01:03.441'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('587d4121-67d9-48c7-a3ce-9af421c5996d','8950e2c4-b017-4ebc-a60b-66580979f4f8','ef0c4e6d-74a0-4b0f-8a65-1f0dd457ee02',560,120,3,{ts '2016-10-17 09:01:04.448'},null,null,{ts '2016-10-17 09:01:04.448'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('94bb995d-af43-490a-b6c3-3ff0801b429b','8950e2c4-b017-4ebc-a60b-66580979f4f8','7ce1aefe-eabc-44b1-a831-a4fafe95d764',720,120,4,{ts '2016-10-17 09:01:05.455'},null,null,{ts '2016-10-17 09:01:05.455'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('414bbfed-f2ac-4259-9c6c-a93ea6baf9fa','8950e2c4-b017-4ebc-a60b-66580979f4f8','0dc9199e-8581-4614-9ef8-039158b1d5aa',880,120,5,{ts '2016-10-17 09:01:06.462'},null,null,{ts '2016-10-17 09:01:06.462'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('84aa5615-0762-4971-be81-5e9080d6587e','dded685f-8086-4d61-824a-ff91aca4ca0f','a1ef1afb-9ee3-4222-a4fa-f065cfe1fee3',80,120,0,{ts '2016-10-17 09:01:44.728'},null,null,{ts '2016-10-17 09:01:44.728'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('195d6849-ca25-4dda-bde4-dce487cffb17','dded685f-8086-4d61-824a-ff91aca4ca0f','83f53b3c-27df-431c-a5a4-cd9a72dde1de',240,120,1,{ts '2016-10-17 09:01:45.735'},null,null,{ts '2016-10-17 09:01:45.735'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fbdb509f-cb15-4117-b147-a37d06a14509','dded685f-8086-4d61-824a-ff91aca4ca0f','42f42fb1-5bee-465d-82e7-e9d41b896089',400,120,2,{ts '2016-10-17 09:01:46.742'},null,null,{ts '2016-10-17 09:01:46.742'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('74d6e311-644e-486a-8ca5-c7bd8d8a5c63','dded685f-8086-4d61-824a-ff91aca4ca0f','83d7bc01-5f4e-407b-8009-f6348446f8ef',560,120,3,{ts '2016-10-17 09:01:47.749'},null,null,{ts '2016-10-17 09:01:47.749'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d81ebf21-fbe7-4a76-9bbf-83bd99e985de','dded685f-8086-4d61-824a-ff91aca4ca0f','fa976bd1-1d5c-46ab-9399-8778683907d9',720,120,4,{ts '2016-10-17 09:01:48.756'},null,null,{ts '2016-10-17 09:01:48.756'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('72b9c6f0-8f77-4782-a157-d13271fa3852','dded685f-8086-4d61-824a-ff91aca4ca0f','f266c61b-382a-41a4-9e80-f9b262cc73c8',880,120,5,{ts '2016-10-17 09:01:49.763'},null,null,{ts '2016-10-17 09:01:49.763'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2370ef97-3e89-4340-9131-a1b5e8fecae8','e180d68d-14de-48ea-87bf-e4b98e453db9',{ts '2015-12-19 23:49:50.244'},null,null,{ts '2015-12-19 23:49:50.255'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2b509af2-aeea-4426-b39e-029d9c3d0e1e','65819b86-8bc7-47c9-b3d2-f9430678fceb',{ts '2015-12-19 11:05:36.365'},null,null,{ts '2015-12-19 23:49:50.254'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2b509af2-aeea-4426-b39e-029d9c3d0e1e','c5f66379-84e6-4e76-b117-13f751a7fad0',{ts '2015-12-19 11:05:20.795'},null,null,{ts '2015-12-19 23:49:50.254'});
@@ -127,3 +263,21 @@ insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CR
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b054adf3-ac74-42b3-b91e-653d24a2ccea','92cf1be5-12e7-4f32-af5a-61d239bfe8a2',{ts '2016-01-28 12:00:06.962'},null,null,{ts '2016-01-28 12:00:06.973'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ba70395a-b94d-4dad-af15-a0e26eeac517','b054adf3-ac74-42b3-b91e-653d24a2ccea',{ts '2016-01-28 11:25:17.365'},null,null,{ts '2016-01-28 12:00:06.973'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c5f66379-84e6-4e76-b117-13f751a7fad0','2370ef97-3e89-4340-9131-a1b5e8fecae8',{ts '2015-12-19 11:06:31.847'},null,null,{ts '2015-12-19 23:49:50.254'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('91276848-6c71-44c1-8877-de270ad8b1c4','3bf73309-a0f7-4fb9-addd-596fc6111256',{ts '2016-10-17 09:00:28.196'},null,null,{ts '2016-10-17 09:00:28.196'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3bf73309-a0f7-4fb9-addd-596fc6111256','2a5f4f87-790b-4b38-ab6b-4f3fe6569afc',{ts '2016-10-17 09:00:29.203'},null,null,{ts '2016-10-17 09:00:29.203'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3bf73309-a0f7-4fb9-addd-596fc6111256','6fce5ce0-f2d2-4ff1-8e5b-358bb4f7ac23',{ts '2016-10-17 09:00:30.210'},null,null,{ts '2016-10-17 09:00:30.210'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2a5f4f87-790b-4b38-ab6b-4f3fe6569afc','dd961186-fe0c-4b2d-a304-c94d3d75ed87',{ts '2016-10-17 09:00:31.217'},null,null,{ts '2016-10-17 09:00:31.217'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('6fce5ce0-f2d2-4ff1-8e5b-358bb4f7ac23','dd961186-fe0c-4b2d-a304-c94d3d75ed87',{ts '2016-10-17 09:00:32.224'},null,null,{ts '2016-10-17 09:00:32.224'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('dd961186-fe0c-4b2d-a304-c94d3d75ed87','67aef62c-41ec-4be3-a8e8-0ffa549c6746',{ts '2016-10-17 09:00:33.231'},null,null,{ts '2016-10-17 09:00:33.231'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('70dfb0c6-63a2-4d5a-915b-dafab9059e26','c8808fce-da90-44c2-9b1b-c055e23b4684',{ts '2016-10-17 09:01:07.469'},null,null,{ts '2016-10-17 09:01:07.469'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c8808fce-da90-44c2-9b1b-c055e23b4684','be92ba28-19f4-4b68-a78b-b127858aaaf0',{ts '2016-10-17 09:01:08.476'},null,null,{ts '2016-10-17 09:01:08.476'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c8808fce-da90-44c2-9b1b-c055e23b4684','587d4121-67d9-48c7-a3ce-9af421c5996d',{ts '2016-10-17 09:01:09.483'},null,null,{ts '2016-10-17 09:01:09.483'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('be92ba28-19f4-4b68-a78b-b127858aaaf0','94bb995d-af43-490a-b6c3-3ff0801b429b',{ts '2016-10-17 09:01:10.490'},null,null,{ts '2016-10-17 09:01:10.490'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('587d4121-67d9-48c7-a3ce-9af421c5996d','94bb995d-af43-490a-b6c3-3ff0801b429b',{ts '2016-10-17 09:01:11.497'},null,null,{ts '2016-10-17 09:01:11.497'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('94bb995d-af43-490a-b6c3-3ff0801b429b','414bbfed-f2ac-4259-9c6c-a93ea6baf9fa',{ts '2016-10-17 09:01:12.504'},null,null,{ts '2016-10-17 09:01:12.504'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('84aa5615-0762-4971-be81-5e9080d6587e','195d6849-ca25-4dda-bde4-dce487cffb17',{ts '2016-10-17 09:01:50.770'},null,null,{ts '2016-10-17 09:01:50.770'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('195d6849-ca25-4dda-bde4-dce487cffb17','fbdb509f-cb15-4117-b147-a37d06a14509',{ts '2016-10-17 09:01:51.777'},null,null,{ts '2016-10-17 09:01:51.777'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('195d6849-ca25-4dda-bde4-dce487cffb17','74d6e311-644e-486a-8ca5-c7bd8d8a5c63',{ts '2016-10-17 09:01:52.784'},null,null,{ts '2016-10-17 09:01:52.784'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fbdb509f-cb15-4117-b147-a37d06a14509','d81ebf21-fbe7-4a76-9bbf-83bd99e985de',{ts '2016-10-17 09:01:53.791'},null,null,{ts '2016-10-17 09:01:53.791'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('74d6e311-644e-486a-8ca5-c7bd8d8a5c63','d81ebf21-fbe7-4a76-9bbf-83bd99e985de',{ts '2016-10-17 09:01:54.798'},null,null,{ts '2016-10-17 09:01:54.798'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d81ebf21-fbe7-4a76-9bbf-83bd99e985de','72b9c6f0-8f77-4782-a157-d13271fa3852',{ts '2016-10-17 09:01:55.805'},null,null,{ts '2016-10-17 09:01:55.805'});
@@ -36,6 +36,25 @@ insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE,
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c4f49bb4-2c43-431a-a290-82aa5fd8e0ed','3eb09f10-c589-4414-b17a-8d27ab9d51ae','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Text Constant','Text Constant',null,0,null,null,null,{ts '2016-02-09 16:10:33.425'},null,null,{ts '2016-02-10 08:25:51.212'});
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d22b8569-cc8f-4cd8-bbd1-45531fce19f9','2a45a2f1-f9f9-4449-8290-91499a197a3c','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Assert','Assert',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-02-09 16:11:04.020'},null,null,{ts '2016-02-10 08:02:16.830'});
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fff09270-8e66-4e94-81e6-d6dff7a1bd43','152adbd5-ca21-4290-8c74-93a909a3019f','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Dedupe Attribute Last Record','Deduper',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-02-10 08:25:36.550'},null,null,{ts '2016-02-10 08:27:09.894'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3664d169-3ebe-4375-924e-0a84844b2ea0','16ca4c9d-3651-4af7-895c-c4227d899d43','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Check Number of Rows','Script',null,0,null,null,null,{ts '2016-10-17 09:00:00.000'},null,null,{ts '2016-10-17 09:00:00.000'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('087c64d2-ebb7-4305-8823-556a09f39884','6bd6d016-129d-49c9-b874-89ce60d42f13','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Text Constant','Text Constant',null,0,null,null,null,{ts '2016-10-17 09:00:04.028'},null,null,{ts '2016-10-17 09:00:04.028'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c8214af7-5a71-4e8f-86e3-5ab520823a1b','6d35a245-820e-4324-bdc5-e5e39fc60951','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Parse Delimited','Parse Delimited',null,0,null,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:00:07.049'},null,null,{ts '2016-10-17 09:00:07.049'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('de4ef087-46ec-4000-8036-696d8a52c028','8c9f1e2b-6008-4744-b44f-68405988551a','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper','Deduper',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:00:11.077'},null,null,{ts '2016-10-17 09:00:11.077'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('219065fa-020a-471e-ab92-e2b5dce64bd4','3248a7dc-d2a4-4428-9d76-bdd8267aae7d','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Assert','Assert',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:00:14.098'},null,null,{ts '2016-10-17 09:00:14.098'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1acb9306-7ba8-483d-b49e-05112d6c8d3a','32f957bf-e936-4514-8ca1-5f58a89212cd','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Check Number of Rows and Validate Last Record','Script',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,null,{ts '2016-10-17 09:00:27.189'},null,null,{ts '2016-10-17 09:00:27.189'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('827f7323-4d43-4acf-b5d6-0c0eebf07433','82e8651b-e241-478b-aa90-48284c3bd642','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Text Constant','Text Constant',null,0,null,null,null,{ts '2016-10-17 09:00:31.217'},null,null,{ts '2016-10-17 09:00:31.217'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('539875c7-11af-492b-a8f3-79cc9d3b7fe6','287cbb8d-658f-4c1c-bfc1-0cbae7d2db6c','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Parse Delimited','Parse Delimited',null,0,null,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:00:34.238'},null,null,{ts '2016-10-17 09:00:34.238'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('689c0931-5c90-422d-82ab-60cb41e73257','4d33aebd-79f0-408b-acd8-dd6848b639a5','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper','Deduper',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:00:38.266'},null,null,{ts '2016-10-17 09:00:38.266'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('58fd1d62-8462-4a6b-8bfe-ad47ae371fac','41fbc7b6-bea1-4523-ad4f-1eef7e33c1d9','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Assert','Assert',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:00:43.301'},null,null,{ts '2016-10-17 09:00:43.301'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('28c08765-3004-4ab3-a8c5-41a200283fd0','41f25f69-72fe-4587-afc9-97bc421f1c56','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Check Number of Rows and Validate First Record','Script',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,null,{ts '2016-10-17 09:00:56.392'},null,null,{ts '2016-10-17 09:00:56.392'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f684850e-9002-4734-b91e-105c3892930c','9a44d125-3282-46e5-bbdc-535194569e17','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Text Constant','Text Constant',null,0,null,null,null,{ts '2016-10-17 09:01:00.420'},null,null,{ts '2016-10-17 09:01:00.420'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('09940ad4-4453-4fe4-a1e7-340cf0978e00','16bea4ab-3511-49e2-af4b-f0b9c1924e0c','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Parse Delimited','Parse Delimited',null,0,null,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:01:03.441'},null,null,{ts '2016-10-17 09:01:03.441'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('82422f00-28cf-4f81-8447-273ad09a0116','b31246c2-7c9c-47d6-b4b2-864872216356','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper','Deduper',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:01:07.469'},null,null,{ts '2016-10-17 09:01:07.469'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d4b02e09-3fca-4294-bf98-84b661288c32','57de143e-df4a-4d43-9755-3487fb81b5b8','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Assert','Assert',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:01:14.518'},null,null,{ts '2016-10-17 09:01:14.518'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('101a400b-f609-46f5-821c-2793aef8d4bf','55d6a119-5406-4f4d-8fc2-3d2c40f3ac48','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Generate Rows','Script',null,0,null,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:01:27.609'},null,null,{ts '2016-10-17 09:01:27.609'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2e57de15-1553-4f13-9e72-95825744983e','3d7c12c8-3572-4a05-b40e-92870fb6b79a','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper','Deduper',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:01:31.637'},null,null,{ts '2016-10-17 09:01:31.637'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('26f11f2a-e64e-4311-8f34-364c32c128f6','216c9b35-c86b-4096-8a5f-d4697e8b9038','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Assert','Assert',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934','bda155f9-a28c-432e-b7de-0d0b8366d934',null,{ts '2016-10-17 09:01:36.672'},null,null,{ts '2016-10-17 09:01:36.672'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('59b89bad-018f-44cc-ac25-ab6d1822b230','b4bf5ae6-25d4-4857-a313-4d3dfa5a9dc3','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Check Number of Distinct Rows','Script',null,0,'bda155f9-a28c-432e-b7de-0d0b8366d934',null,null,{ts '2016-10-17 09:01:39.693'},null,null,{ts '2016-10-17 09:01:39.693'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('139f3d14-66c7-4843-b985-5389d82bdcf8','bad67043-fc64-46e5-a3a6-c05af1b23cf9','expected.control.messages.count','1',{ts '2016-02-09 16:02:43.029'},null,null,{ts '2016-02-09 16:04:26.473'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('18a3ae34-a87e-4960-8a5d-9d2fb2b4b7f2','c4f49bb4-2c43-431a-a290-82aa5fd8e0ed','text','1,ABC,record1a
 2,DEF,record2
@@ -206,6 +225,220 @@ if (!(inputMessage instanceof ControlMessage)) {
         } 
     }
 }',{ts '2016-02-10 08:27:41.211'},null,null,{ts '2016-02-10 08:28:34.686'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1577134d-9f2c-47d6-aa28-a7070c4d001d','3664d169-3ebe-4375-924e-0a84844b2ea0','imports','int recInCount = 0;
+int recExpectedCount = 5;
+',{ts '2016-10-17 09:00:01.007'},null,null,{ts '2016-10-17 09:00:01.007'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1f4f70c5-13cb-4674-804a-b8d9d6b3a42f','3664d169-3ebe-4375-924e-0a84844b2ea0','init.script','',{ts '2016-10-17 09:00:02.014'},null,null,{ts '2016-10-17 09:00:02.014'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fa307370-bc52-4e5a-ab0f-81dd7c79c584','3664d169-3ebe-4375-924e-0a84844b2ea0','handle.msg.script','if (!(inputMessage instanceof ControlMessage)) {
+    recInCount = (inputMessage.getPayload()).size();
+} else if (inputMessage instanceof ControlMessage) {
+    if (recInCount != recExpectedCount) {
+        throw new AssertException("Expected ${recExpectedCount} rows but received ${recInCount}.")    
+    } else {
+        info("Row counts match")
+    }
+}',{ts '2016-10-17 09:00:03.021'},null,null,{ts '2016-10-17 09:00:03.021'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e0a7c375-7680-40c7-97bc-5378b4b3028e','087c64d2-ebb7-4305-8823-556a09f39884','text','1,ABC,TestRow1
+2,DEF,TestRow2
+3,GHI,TestRow3
+1,ABC,TestRow1
+1,ABC,TestSimilarRow1
+2,DEF,TestRow2
+4,JKL,TestRow4',{ts '2016-10-17 09:00:05.035'},null,null,{ts '2016-10-17 09:00:05.035'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('70e7d6f6-aecd-4532-a92e-53a74a2f7608','087c64d2-ebb7-4305-8823-556a09f39884','split.on.line.feed','true',{ts '2016-10-17 09:00:06.042'},null,null,{ts '2016-10-17 09:00:06.042'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('982c4275-3063-404a-9411-f7db7dfcb82c','de4ef087-46ec-4000-8036-696d8a52c028','dedupe.type','ENTITY',{ts '2016-10-17 09:00:12.084'},null,null,{ts '2016-10-17 09:00:12.084'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a938a332-c1b6-4ca7-bc93-998b2c1d31b9','de4ef087-46ec-4000-8036-696d8a52c028','dedupe.method','FINGERPRINT',{ts '2016-10-17 09:00:13.091'},null,null,{ts '2016-10-17 09:00:13.091'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0cb05aa2-3799-4a72-a528-20242202017c','219065fa-020a-471e-ab92-e2b5dce64bd4','expected.entity.messages.count','1',{ts '2016-10-17 09:00:15.105'},null,null,{ts '2016-10-17 09:00:15.105'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fd3b2e93-bf72-4a5f-b5fa-d055e895650d','219065fa-020a-471e-ab92-e2b5dce64bd4','expected.control.messages.count','1',{ts '2016-10-17 09:00:16.112'},null,null,{ts '2016-10-17 09:00:16.112'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('600c717e-e885-4bd1-8992-924c1d90c113','1acb9306-7ba8-483d-b49e-05112d6c8d3a','imports','import org.jumpmind.metl.core.model.*;
+
+import java.util.ArrayList;
+
+int recInCount = 0;
+int recExpectedCount = 4;
+',{ts '2016-10-17 09:00:28.196'},null,null,{ts '2016-10-17 09:00:28.196'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0e2a5c98-14b4-4a16-b560-f803f1b93d65','1acb9306-7ba8-483d-b49e-05112d6c8d3a','init.script','ArrayList<EntityData> entityList = new ArrayList<EntityData>();
+
+scriptContext.put("entityList", entityList);',{ts '2016-10-17 09:00:29.203'},null,null,{ts '2016-10-17 09:00:29.203'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b0228b5d-cfc0-4868-914b-c4da0ad287cf','1acb9306-7ba8-483d-b49e-05112d6c8d3a','handle.msg.script','ArrayList<EntityData> list = scriptContext.get("entityList");
+if (!(inputMessage instanceof ControlMessage)) {
+    // put all messages into one single message array 
+    ArrayList<EntityData> payload = ((EntityDataMessage)inputMessage).getPayload();
+    list.addAll(payload);
+    recInCount = (inputMessage.getPayload()).size();
+} else if (inputMessage instanceof ControlMessage) {
+    // check the count of records 
+    if (recInCount != recExpectedCount) {
+        throw new AssertException("Expected ${recExpectedCount} rows but received ${recInCount}.")    
+    } else {
+        info("Row counts match")
+    }
+    
+    ArrayList<String> resultList = new ArrayList<String>();
+    ArrayList<String> compareToList = new ArrayList<String>();
+    compareToList.add("1,STU,record1c");
+    compareToList.add("2,DEF,record2");
+    compareToList.add("3,MNO,record3b");
+    compareToList.add("4,PQR,record4");
+
+    info("compare to list: " + compareToList.toString());
+    // check the actual content of the data received
+    RelationalModel inputModel = flowStep.getComponent().getInputModel();
+
+    if (inputModel != null) {
+        ModelEntity deduperEntity = inputModel.getEntityByName("Deduper_Entity");
+        ModelAttrib deduperIdAttribute = deduperEntity.getModelAttributeByName("deduper_id");
+        ModelAttrib deduperCdeAttribute = deduperEntity.getModelAttributeByName("deduper_cde");
+        ModelAttrib deduperValueAttribute = deduperEntity.getModelAttributeByName("deduper_value");
+        
+        entityDataIterator = list.iterator();
+
+        while (entityDataIterator.hasNext()) {
+            EntityData data = entityDataIterator.next();
+
+            String deduperId = (String) data.get(deduperIdAttribute.getId());
+            String deduperCde = (String) data.get(deduperCdeAttribute.getId());
+            String deduperValue = (String) data.get(deduperValueAttribute.getId());
+            
+            resultList.add(deduperId + "," + deduperCde + "," + deduperValue);
+        }
+    }
+    info("result list: " + resultList.toString());
+    
+    for (String entry : compareToList) {
+        if (!resultList.contains(entry)) {
+            throw new AssertException("Resulting list doesn''t match expected output. Entry: " + entry + " not in list.")    
+        } 
+    }
+}',{ts '2016-10-17 09:00:30.210'},null,null,{ts '2016-10-17 09:00:30.210'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('104517cd-8526-4140-afe1-b7ec9f1d6a71','827f7323-4d43-4acf-b5d6-0c0eebf07433','text','1,ABC,record1a
+2,DEF,record2
+1,GHI,record1b
+3,JKL,record3a
+3,MNO,record3b
+2,DEF,record2
+4,PQR,record4
+1,STU,record1c',{ts '2016-10-17 09:00:32.224'},null,null,{ts '2016-10-17 09:00:32.224'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('06597b6f-6ea5-40e3-b484-f57469d1e64c','827f7323-4d43-4acf-b5d6-0c0eebf07433','split.on.line.feed','true',{ts '2016-10-17 09:00:33.231'},null,null,{ts '2016-10-17 09:00:33.231'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5c6f7320-a3c5-426b-adb6-22cdf010e243','689c0931-5c90-422d-82ab-60cb41e73257','dedupe.type','ATTRIBUTE',{ts '2016-10-17 09:00:39.273'},null,null,{ts '2016-10-17 09:00:39.273'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5c79c873-7bac-44c3-9f76-8e691784f091','689c0931-5c90-422d-82ab-60cb41e73257','preserve.record','Last Record',{ts '2016-10-17 09:00:40.280'},null,null,{ts '2016-10-17 09:00:40.280'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('52be15f4-ff40-47f9-9281-f5f39072263f','689c0931-5c90-422d-82ab-60cb41e73257','dedupe.method','FINGERPRINT',{ts '2016-10-17 09:00:41.287'},null,null,{ts '2016-10-17 09:00:41.287'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e8f8d9c7-cb35-495f-ac8f-90c31edb9208','58fd1d62-8462-4a6b-8bfe-ad47ae371fac','expected.entity.messages.count','1',{ts '2016-10-17 09:00:44.308'},null,null,{ts '2016-10-17 09:00:44.308'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9dca6ac7-c7f8-4547-aaa1-b8114be91b04','58fd1d62-8462-4a6b-8bfe-ad47ae371fac','expected.control.messages.count','1',{ts '2016-10-17 09:00:45.315'},null,null,{ts '2016-10-17 09:00:45.315'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('bc24ab7d-da32-49ce-b4dc-554888248431','28c08765-3004-4ab3-a8c5-41a200283fd0','imports','import org.jumpmind.metl.core.model.*;
+
+import java.util.ArrayList;
+
+int recInCount = 0;
+int recExpectedCount = 4;
+',{ts '2016-10-17 09:00:57.399'},null,null,{ts '2016-10-17 09:00:57.399'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('87150fe9-8825-4aeb-a452-14179b3b031a','28c08765-3004-4ab3-a8c5-41a200283fd0','init.script','ArrayList<EntityData> entityList = new ArrayList<EntityData>();
+
+scriptContext.put("entityList", entityList);',{ts '2016-10-17 09:00:58.406'},null,null,{ts '2016-10-17 09:00:58.406'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8a35d71d-d50e-4091-9ea5-e57cbfd8be00','28c08765-3004-4ab3-a8c5-41a200283fd0','handle.msg.script','ArrayList<EntityData> list = scriptContext.get("entityList");
+if (!(inputMessage instanceof ControlMessage)) {
+    // put all messages into one single message array 
+    ArrayList<EntityData> payload = ((EntityDataMessage)inputMessage).getPayload();
+    list.addAll(payload);
+    recInCount = (inputMessage.getPayload()).size();
+} else if (inputMessage instanceof ControlMessage) {
+    // check the count of records 
+    if (recInCount != recExpectedCount) {
+        throw new AssertException("Expected ${recExpectedCount} rows but received ${recInCount}.")    
+    } else {
+        info("Row counts match")
+    }
+    
+    ArrayList<String> resultList = new ArrayList<String>();
+    ArrayList<String> compareToList = new ArrayList<String>();
+    compareToList.add("1,ABC,record1a");
+    compareToList.add("2,DEF,record2");
+    compareToList.add("3,JKL,record3a");
+    compareToList.add("4,PQR,record4");
+
+    info("compare to list: " + compareToList.toString());
+    // check the actual content of the data received
+    RelationalModel inputModel = flowStep.getComponent().getInputModel();
+
+    if (inputModel != null) {
+        ModelEntity deduperEntity = inputModel.getEntityByName("Deduper_Entity");
+        ModelAttrib deduperIdAttribute = deduperEntity.getModelAttributeByName("deduper_id");
+        ModelAttrib deduperCdeAttribute = deduperEntity.getModelAttributeByName("deduper_cde");
+        ModelAttrib deduperValueAttribute = deduperEntity.getModelAttributeByName("deduper_value");
+        
+        entityDataIterator = list.iterator();
+
+        while (entityDataIterator.hasNext()) {
+            EntityData data = entityDataIterator.next();
+
+            String deduperId = (String) data.get(deduperIdAttribute.getId());
+            String deduperCde = (String) data.get(deduperCdeAttribute.getId());
+            String deduperValue = (String) data.get(deduperValueAttribute.getId());
+            
+            resultList.add(deduperId + "," + deduperCde + "," + deduperValue);
+        }
+    }
+    info("result list: " + resultList.toString());
+    
+    for (String entry : compareToList) {
+        if (!resultList.contains(entry)) {
+            throw new AssertException("Resulting list doesn''t match expected output. Entry: " + entry + " not in list.")    
+        } 
+    }
+}',{ts '2016-10-17 09:00:59.413'},null,null,{ts '2016-10-17 09:00:59.413'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1e3bab9a-af58-468e-92c9-9ae219310ce6','f684850e-9002-4734-b91e-105c3892930c','text','1,ABC,record1a
+2,DEF,record2
+1,GHI,record1b
+3,JKL,record3a
+3,MNO,record3b
+4,PQR,record4
+1,STU,record1c',{ts '2016-10-17 09:01:01.427'},null,null,{ts '2016-10-17 09:01:01.427'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1cc30028-dd14-4009-8728-8c373eb727a1','f684850e-9002-4734-b91e-105c3892930c','split.on.line.feed','true',{ts '2016-10-17 09:01:02.434'},null,null,{ts '2016-10-17 09:01:02.434'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fb1850aa-295d-47f0-8a68-952ead9c2ca3','82422f00-28cf-4f81-8447-273ad09a0116','dedupe.type','ATTRIBUTE',{ts '2016-10-17 09:01:08.476'},null,null,{ts '2016-10-17 09:01:08.476'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1d52d81b-edea-43cb-86f0-ab7925806901','82422f00-28cf-4f81-8447-273ad09a0116','preserve.record','First Record',{ts '2016-10-17 09:01:09.483'},null,null,{ts '2016-10-17 09:01:09.483'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8a89bb23-4f44-45a2-9d20-d4f3e076a4f9','82422f00-28cf-4f81-8447-273ad09a0116','dedupe.method','PROBABILISTIC',{ts '2016-10-17 09:01:10.490'},null,null,{ts '2016-10-17 09:01:10.490'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('301cd0b1-fccb-41da-9ccc-79f95a02cca9','82422f00-28cf-4f81-8447-273ad09a0116','prefilter.expected.rows','1000',{ts '2016-10-17 09:01:11.497'},null,null,{ts '2016-10-17 09:01:11.497'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('df3cd66c-f394-498d-b92a-37a719fcadd6','82422f00-28cf-4f81-8447-273ad09a0116','prefilter.error.rate','0.0001',{ts '2016-10-17 09:01:12.504'},null,null,{ts '2016-10-17 09:01:12.504'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('72c2378d-4c80-4935-b331-2a456110e12f','d4b02e09-3fca-4294-bf98-84b661288c32','expected.entity.messages.count','1',{ts '2016-10-17 09:01:15.525'},null,null,{ts '2016-10-17 09:01:15.525'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('6db65626-9a42-4647-ba93-f406f53fb897','d4b02e09-3fca-4294-bf98-84b661288c32','expected.control.messages.count','1',{ts '2016-10-17 09:01:16.532'},null,null,{ts '2016-10-17 09:01:16.532'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e56e0b28-3777-40af-8922-817cd1fcd0ac','101a400b-f609-46f5-821c-2793aef8d4bf','imports','',{ts '2016-10-17 09:01:28.616'},null,null,{ts '2016-10-17 09:01:28.616'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8291943e-5a28-417a-98a1-be573770cf99','101a400b-f609-46f5-821c-2793aef8d4bf','init.script','',{ts '2016-10-17 09:01:29.623'},null,null,{ts '2016-10-17 09:01:29.623'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1dfe6b5b-898c-4586-abba-ca806d42824a','101a400b-f609-46f5-821c-2793aef8d4bf','handle.msg.script','if (inputMessage instanceof ControlMessage) {
+    for (int i = 0; i < 20000; i += 1000) {
+        ArrayList<EntityData> payload = new ArrayList<EntityData>()
+        for (int j = i; j < i + 1000; j++) {
+            EntityData data = new EntityData()
+            putAttributeValue("Deduper_Entity", "deduper_id", data, String.valueOf(j % 10000))
+            putAttributeValue("Deduper_Entity", "deduper_cde", data, "CDE")
+            putAttributeValue("Deduper_Entity", "deduper_value", data, "record" + (j % 10000))
+            payload.add(data)
+        }
+        sendEntityDataMessage(payload)
+    }
+}',{ts '2016-10-17 09:01:30.630'},null,null,{ts '2016-10-17 09:01:30.630'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f2064e27-ac13-4778-aaa1-08d46e81ab0e','2e57de15-1553-4f13-9e72-95825744983e','dedupe.type','ENTITY',{ts '2016-10-17 09:01:32.644'},null,null,{ts '2016-10-17 09:01:32.644'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('31ea4259-e3f4-443a-b134-ac7f574534d3','2e57de15-1553-4f13-9e72-95825744983e','dedupe.method','FINGERPRINT',{ts '2016-10-17 09:01:33.651'},null,null,{ts '2016-10-17 09:01:33.651'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e2b2e7e1-25a1-4efb-97e5-92b2b6e651e9','2e57de15-1553-4f13-9e72-95825744983e','fingerprint.memory.mb','0',{ts '2016-10-17 09:01:34.658'},null,null,{ts '2016-10-17 09:01:34.658'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a6f1782b-dfec-4a87-acb6-fa6b185141df','2e57de15-1553-4f13-9e72-95825744983e','prefilter.expected.rows','10000',{ts '2016-10-17 09:01:35.665'},null,null,{ts '2016-10-17 09:01:35.665'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('68ebf648-d4c7-4158-a25a-120182274216','26f11f2a-e64e-4311-8f34-364c32c128f6','expected.entity.messages.count','10',{ts '2016-10-17 09:01:37.679'},null,null,{ts '2016-10-17 09:01:37.679'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('7ae3e888-e010-4c8d-8d75-86bc70493df0','26f11f2a-e64e-4311-8f34-364c32c128f6','expected.control.messages.count','1',{ts '2016-10-17 09:01:38.686'},null,null,{ts '2016-10-17 09:01:38.686'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('982547fc-86c7-4061-bf7a-e43bd25e17c9','59b89bad-018f-44cc-ac25-ab6d1822b230','imports','int recInCount = 0;
+int recExpectedCount = 10000;
+Set<Object> ids = new HashSet<Object>();
+',{ts '2016-10-17 09:01:40.700'},null,null,{ts '2016-10-17 09:01:40.700'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('176fe1ca-a671-4b13-9e5a-9a08464fb2b2','59b89bad-018f-44cc-ac25-ab6d1822b230','init.script','',{ts '2016-10-17 09:01:41.707'},null,null,{ts '2016-10-17 09:01:41.707'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f4efc66a-f63e-4b16-8986-5b806977d1d7','59b89bad-018f-44cc-ac25-ab6d1822b230','handle.msg.script','if (inputMessage instanceof EntityDataMessage) {
+    for (EntityData data : inputMessage.getPayload()) {
+        recInCount++
+        ids.add(getAttributeValue("Deduper_Entity", "deduper_id", data))
+    }
+} else if (inputMessage instanceof ControlMessage) {
+    if (recInCount != recExpectedCount || ids.size() != recExpectedCount) {
+        throw new AssertException("Expected ${recExpectedCount} distinct rows but received ${recInCount} rows with ${ids.size()} distinct ids.")
+    } else {
+        info("Row counts match")
+    }
+}',{ts '2016-10-17 09:01:42.714'},null,null,{ts '2016-10-17 09:01:42.714'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('07e0221c-82c1-405c-bb24-f539639f00c6','61829ef4-fae2-48b6-868c-ff409e4b881c','8895e148-7ebf-46a3-8262-61e2bb41886b','delimited.formatter.attribute.ordinal','2',{ts '2016-02-10 08:13:46.947'},null,null,{ts '2016-02-10 08:13:46.947'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1190d2ae-127c-433d-b95a-4f8bb10ec588','16fa33e2-8ffd-411b-a738-ce4d115abb3f','93e1475b-a822-4c7d-b3e2-e98164b97a3c','dedupe.enabled','true',{ts '2016-02-09 16:21:42.148'},null,null,{ts '2016-02-09 16:22:36.470'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('190e22c0-9962-4ec2-8548-6e1b194e0545','61829ef4-fae2-48b6-868c-ff409e4b881c','93e1475b-a822-4c7d-b3e2-e98164b97a3c','delimited.formatter.attribute.ordinal','1',{ts '2016-02-10 08:13:46.947'},null,null,{ts '2016-02-10 08:13:46.947'});
@@ -226,9 +459,24 @@ insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME,
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('eda37adc-d817-48ac-a60c-436a95680126','1c9a8fbc-e203-4286-a17f-7f194fc10d8e','93e1475b-a822-4c7d-b3e2-e98164b97a3c','delimited.formatter.attribute.ordinal','1',{ts '2016-02-09 16:02:51.855'},null,null,{ts '2016-02-09 16:04:26.472'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f3585dc9-f910-40c7-8c32-98ce79f89a0a','61829ef4-fae2-48b6-868c-ff409e4b881c','93e1475b-a822-4c7d-b3e2-e98164b97a3c','delimited.formatter.attribute.format.function','',{ts '2016-02-10 08:13:46.948'},null,null,{ts '2016-02-10 08:13:46.948'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f6ee73bb-5571-4852-ab0e-29d5477b24b0','fff09270-8e66-4e94-81e6-d6dff7a1bd43','93e1475b-a822-4c7d-b3e2-e98164b97a3c','dedupe.enabled','true',{ts '2016-02-10 08:27:02.985'},null,null,{ts '2016-02-10 08:27:09.895'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('485e0d87-711a-49dd-ad58-95cb2177bd2a','c8214af7-5a71-4e8f-86e3-5ab520823a1b','93e1475b-a822-4c7d-b3e2-e98164b97a3c','delimited.formatter.attribute.ordinal','1',{ts '2016-10-17 09:00:08.056'},null,null,{ts '2016-10-17 09:00:08.056'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c8a4cdf4-3068-428e-8b8c-f4473bc29241','c8214af7-5a71-4e8f-86e3-5ab520823a1b','8895e148-7ebf-46a3-8262-61e2bb41886b','delimited.formatter.attribute.ordinal','2',{ts '2016-10-17 09:00:09.063'},null,null,{ts '2016-10-17 09:00:09.063'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('46bc2801-0756-41c9-b829-a342bfa05cfb','c8214af7-5a71-4e8f-86e3-5ab520823a1b','5bc78280-10c0-43cf-8ff0-b4144aef5746','delimited.formatter.attribute.ordinal','3',{ts '2016-10-17 09:00:10.070'},null,null,{ts '2016-10-17 09:00:10.070'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f7030105-b831-4543-96ed-953dc1ba9c96','539875c7-11af-492b-a8f3-79cc9d3b7fe6','93e1475b-a822-4c7d-b3e2-e98164b97a3c','delimited.formatter.attribute.ordinal','1',{ts '2016-10-17 09:00:35.245'},null,null,{ts '2016-10-17 09:00:35.245'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b3a4b31a-211a-4bf6-b3e5-28f93077887b','539875c7-11af-492b-a8f3-79cc9d3b7fe6','8895e148-7ebf-46a3-8262-61e2bb41886b','delimited.formatter.attribute.ordinal','2',{ts '2016-10-17 09:00:36.252'},null,null,{ts '2016-10-17 09:00:36.252'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3f92f532-5dc5-43fb-8196-554a6a1d8371','539875c7-11af-492b-a8f3-79cc9d3b7fe6','5bc78280-10c0-43cf-8ff0-b4144aef5746','delimited.formatter.attribute.ordinal','3',{ts '2016-10-17 09:00:37.259'},null,null,{ts '2016-10-17 09:00:37.259'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8583804a-883b-4cae-ba7c-5e3918aeb897','689c0931-5c90-422d-82ab-60cb41e73257','93e1475b-a822-4c7d-b3e2-e98164b97a3c','dedupe.enabled','true',{ts '2016-10-17 09:00:42.294'},null,null,{ts '2016-10-17 09:00:42.294'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2bbd019e-13d4-45be-bd71-5b1c222e5031','09940ad4-4453-4fe4-a1e7-340cf0978e00','93e1475b-a822-4c7d-b3e2-e98164b97a3c','delimited.formatter.attribute.ordinal','1',{ts '2016-10-17 09:01:04.448'},null,null,{ts '2016-10-17 09:01:04.448'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ef432e79-e103-4005-8111-4a427541b4e3','09940ad4-4453-4fe4-a1e7-340cf0978e00','8895e148-7ebf-46a3-8262-61e2bb41886b','delimited.formatter.attribute.ordinal','2',{ts '2016-10-17 09:01:05.455'},null,null,{ts '2016-10-17 09:01:05.455'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('122e9930-2eb9-4af2-bf22-c041ffd5ef95','09940ad4-4453-4fe4-a1e7-340cf0978e00','5bc78280-10c0-43cf-8ff0-b4144aef5746','delimited.formatter.attribute.ordinal','3',{ts '2016-10-17 09:01:06.462'},null,null,{ts '2016-10-17 09:01:06.462'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('523fec82-95ce-45d4-b5b0-c520b00356e3','82422f00-28cf-4f81-8447-273ad09a0116','93e1475b-a822-4c7d-b3e2-e98164b97a3c','dedupe.enabled','true',{ts '2016-10-17 09:01:13.511'},null,null,{ts '2016-10-17 09:01:13.511'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('8125504a-6a51-4c05-8115-a2fac6d68df5','7a9e9574-70dc-4170-bcff-df58a4a7a5a5','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Compare Entity',null,{ts '2016-02-09 15:56:33.506'},null,null,{ts '2016-02-09 16:04:26.468'},1);
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('db0d203a-6d32-4e64-9a22-0be793bf5a0e','341829c5-0e0d-4dd1-8c88-649d287ea285','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Compare Attribute choose last match',null,{ts '2016-02-09 15:57:17.055'},null,null,{ts '2016-02-10 08:27:09.889'},1);
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('ebf27a4d-cfa5-4ac7-b8ea-b771bad0db02','5b3c132f-78b9-4dbd-a3c4-367083c78760','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Compare Attribute on PK',null,{ts '2016-02-09 15:56:49.963'},null,null,{ts '2016-02-09 16:11:12.210'},1);
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('b9a81d72-31fc-4cb2-8777-7f0e7479759b','29692072-bd81-4ca1-83fa-1c1ded7b496a','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Fingerprint Entity',null,{ts '2016-10-17 09:00:17.119'},null,null,{ts '2016-10-17 09:00:17.119'},1);
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('09286de1-918c-4a4c-bc7c-174a628987af','9f38f28d-88ea-4581-9774-f47b0bb3d3bb','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Fingerprint Attribute Last Record',null,{ts '2016-10-17 09:00:46.322'},null,null,{ts '2016-10-17 09:00:46.322'},1);
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('b95133d6-60bb-4530-98b8-c56b6f35ba9b','7a89cd49-614b-4751-9762-86932f0aa7e6','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Probabilistic Attribute First Record',null,{ts '2016-10-17 09:01:17.539'},null,null,{ts '2016-10-17 09:01:17.539'},1);
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME, TEST) values ('df693bfb-9dcb-408b-a596-9b5d0e2ea399','fe5dda9c-9699-4d6a-b4e4-9ea1777ffaf6','c1de9907-a913-41ff-8c7f-7bd67dae90ad',0,'Deduper - Fingerprint Spilling To Disk',null,{ts '2016-10-17 09:01:43.721'},null,null,{ts '2016-10-17 09:01:43.721'},1);
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('091f307c-7fbb-4531-8da7-fc0168fbf99f','ebf27a4d-cfa5-4ac7-b8ea-b771bad0db02','c4f49bb4-2c43-431a-a290-82aa5fd8e0ed',70,120,0,{ts '2016-02-09 16:10:33.425'},null,null,{ts '2016-02-09 16:11:12.211'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('25517245-f18c-454c-b6c0-6fba0d58c06e','ebf27a4d-cfa5-4ac7-b8ea-b771bad0db02','49a84a54-d6a1-4d36-9d7c-fc87d2f210a5',750,120,4,{ts '2016-02-09 16:11:08.551'},null,null,{ts '2016-02-09 16:24:00.616'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('331f04e9-eeeb-4a7f-a6c2-a4b61cefd623','8125504a-6a51-4c05-8115-a2fac6d68df5','722c55c5-4081-4073-b5e6-b9a7cbde5d35',760,110,4,{ts '2016-02-09 16:04:24.156'},null,null,{ts '2016-02-09 16:04:29.194'});
@@ -244,6 +492,25 @@ insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER,
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('eb6e2846-51ea-49d4-82eb-71518902cffc','8125504a-6a51-4c05-8115-a2fac6d68df5','1c9a8fbc-e203-4286-a17f-7f194fc10d8e',250,110,1,{ts '2016-02-09 15:59:04.737'},null,null,{ts '2016-02-09 16:04:26.472'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f2f2728b-2a1a-49b8-9816-b0eeca277625','db0d203a-6d32-4e64-9a22-0be793bf5a0e','104e43fc-a8bd-431b-ba34-246978333e60',560,120,4,{ts '2016-02-10 08:25:38.877'},null,null,{ts '2016-02-10 08:27:09.891'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f8288c74-d28c-4d9a-a077-d3d6b009bd05','db0d203a-6d32-4e64-9a22-0be793bf5a0e','779d930c-cc60-410a-8b1b-334c02753928',220,120,2,{ts '2016-02-10 08:25:29.475'},null,null,{ts '2016-02-10 08:27:09.894'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5b6fb8df-153e-4b51-89a4-ee56f6a4fe64','b9a81d72-31fc-4cb2-8777-7f0e7479759b','087c64d2-ebb7-4305-8823-556a09f39884',80,120,0,{ts '2016-10-17 09:00:18.126'},null,null,{ts '2016-10-17 09:00:18.126'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3fe7b296-8388-41ef-872b-e89f927d9400','b9a81d72-31fc-4cb2-8777-7f0e7479759b','c8214af7-5a71-4e8f-86e3-5ab520823a1b',240,120,1,{ts '2016-10-17 09:00:19.133'},null,null,{ts '2016-10-17 09:00:19.133'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('10d828e3-8d5c-4e97-9228-7b3ee422b81b','b9a81d72-31fc-4cb2-8777-7f0e7479759b','de4ef087-46ec-4000-8036-696d8a52c028',400,120,2,{ts '2016-10-17 09:00:20.140'},null,null,{ts '2016-10-17 09:00:20.140'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('915e98e1-8850-4452-921a-3c512f64a548','b9a81d72-31fc-4cb2-8777-7f0e7479759b','219065fa-020a-471e-ab92-e2b5dce64bd4',560,120,3,{ts '2016-10-17 09:00:21.147'},null,null,{ts '2016-10-17 09:00:21.147'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8e5b2838-c9d0-4ff6-a343-5f75957f666b','b9a81d72-31fc-4cb2-8777-7f0e7479759b','3664d169-3ebe-4375-924e-0a84844b2ea0',720,120,4,{ts '2016-10-17 09:00:22.154'},null,null,{ts '2016-10-17 09:00:22.154'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2f91b8d1-8c79-4239-9f1e-80d12c895304','09286de1-918c-4a4c-bc7c-174a628987af','827f7323-4d43-4acf-b5d6-0c0eebf07433',80,120,0,{ts '2016-10-17 09:00:47.329'},null,null,{ts '2016-10-17 09:00:47.329'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2d3dc041-d3f5-4289-8f82-187a8e2621ea','09286de1-918c-4a4c-bc7c-174a628987af','539875c7-11af-492b-a8f3-79cc9d3b7fe6',240,120,1,{ts '2016-10-17 09:00:48.336'},null,null,{ts '2016-10-17 09:00:48.336'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9d335c40-f2c7-42f9-99a7-987123e33d48','09286de1-918c-4a4c-bc7c-174a628987af','689c0931-5c90-422d-82ab-60cb41e73257',400,120,2,{ts '2016-10-17 09:00:49.343'},null,null,{ts '2016-10-17 09:00:49.343'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1e1abe83-65d3-4349-9e93-ff248cd58aa0','09286de1-918c-4a4c-bc7c-174a628987af','58fd1d62-8462-4a6b-8bfe-ad47ae371fac',560,120,3,{ts '2016-10-17 09:00:50.350'},null,null,{ts '2016-10-17 09:00:50.350'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('406c1e6b-a784-49c3-8d00-de606c4d6970','09286de1-918c-4a4c-bc7c-174a628987af','1acb9306-7ba8-483d-b49e-05112d6c8d3a',720,120,4,{ts '2016-10-17 09:00:51.357'},null,null,{ts '2016-10-17 09:00:51.357'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('230386fb-dfc3-48a6-a6da-26b0c3536c3d','b95133d6-60bb-4530-98b8-c56b6f35ba9b','f684850e-9002-4734-b91e-105c3892930c',80,120,0,{ts '2016-10-17 09:01:18.546'},null,null,{ts '2016-10-17 09:01:18.546'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d826613e-d33f-4cbc-9ff3-fab9a28a4a79','b95133d6-60bb-4530-98b8-c56b6f35ba9b','09940ad4-4453-4fe4-a1e7-340cf0978e00',240,120,1,{ts '2016-10-17 09:01:19.553'},null,null,{ts '2016-10-17 09:01:19.553'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5e245a6d-2f83-4299-bac7-bafa59b2a8f1','b95133d6-60bb-4530-98b8-c56b6f35ba9b','82422f00-28cf-4f81-8447-273ad09a0116',400,120,2,{ts '2016-10-17 09:01:20.560'},null,null,{ts '2016-10-17 09:01:20.560'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('db29c633-01ee-415a-b744-994c4ee86c73','b95133d6-60bb-4530-98b8-c56b6f35ba9b','d4b02e09-3fca-4294-bf98-84b661288c32',560,120,3,{ts '2016-10-17 09:01:21.567'},null,null,{ts '2016-10-17 09:01:21.567'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c40731c7-af4b-4a9d-98d8-e1187764c537','b95133d6-60bb-4530-98b8-c56b6f35ba9b','28c08765-3004-4ab3-a8c5-41a200283fd0',720,120,4,{ts '2016-10-17 09:01:22.574'},null,null,{ts '2016-10-17 09:01:22.574'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2343d757-cd73-4439-a8f1-0464da1ea92f','df693bfb-9dcb-408b-a596-9b5d0e2ea399','101a400b-f609-46f5-821c-2793aef8d4bf',80,120,0,{ts '2016-10-17 09:01:44.728'},null,null,{ts '2016-10-17 09:01:44.728'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c02bb626-5947-4142-9637-8efa20c01a64','df693bfb-9dcb-408b-a596-9b5d0e2ea399','2e57de15-1553-4f13-9e72-95825744983e',240,120,1,{ts '2016-10-17 09:01:45.735'},null,null,{ts '2016-10-17 09:01:45.735'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0543704d-0731-484a-9ef5-988792161f63','df693bfb-9dcb-408b-a596-9b5d0e2ea399','26f11f2a-e64e-4311-8f34-364c32c128f6',400,120,2,{ts '2016-10-17 09:01:46.742'},null,null,{ts '2016-10-17 09:01:46.742'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('46a2e631-9cec-41bf-b544-fad923ca590a','df693bfb-9dcb-408b-a596-9b5d0e2ea399','59b89bad-018f-44cc-ac25-ab6d1822b230',560,120,3,{ts '2016-10-17 09:01:47.749'},null,null,{ts '2016-10-17 09:01:47.749'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('091f307c-7fbb-4531-8da7-fc0168fbf99f','67d04fa5-7d94-4a08-a747-ab1c768982a7',{ts '2016-02-09 16:10:50.593'},null,null,{ts '2016-02-09 16:11:12.212'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('33b857b0-fb48-4657-9a6e-fe035426a7ab','94877a76-4881-40ff-8e50-da5ae5d2daa9',{ts '2016-02-09 16:11:10.179'},null,null,{ts '2016-02-09 16:11:12.212'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3fab95a6-5034-4288-a65d-1a0d03580e07','f2f2728b-2a1a-49b8-9816-b0eeca277625',{ts '2016-02-10 08:26:51.450'},null,null,{ts '2016-02-10 08:27:09.899'});
@@ -256,3 +523,18 @@ insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CR
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('eb6e2846-51ea-49d4-82eb-71518902cffc','7da4acc3-0519-451f-b496-68fa4b5e32b0',{ts '2016-02-09 16:02:17.934'},null,null,{ts '2016-02-09 16:04:26.475'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f2f2728b-2a1a-49b8-9816-b0eeca277625','e8297534-cce8-4feb-9a38-eec66e226cb2',{ts '2016-02-10 08:27:09.889'},null,null,{ts '2016-02-10 08:27:09.900'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f8288c74-d28c-4d9a-a077-d3d6b009bd05','3fab95a6-5034-4288-a65d-1a0d03580e07',{ts '2016-02-10 08:26:26.915'},null,null,{ts '2016-02-10 08:27:09.899'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5b6fb8df-153e-4b51-89a4-ee56f6a4fe64','3fe7b296-8388-41ef-872b-e89f927d9400',{ts '2016-10-17 09:00:23.161'},null,null,{ts '2016-10-17 09:00:23.161'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3fe7b296-8388-41ef-872b-e89f927d9400','10d828e3-8d5c-4e97-9228-7b3ee422b81b',{ts '2016-10-17 09:00:24.168'},null,null,{ts '2016-10-17 09:00:24.168'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('10d828e3-8d5c-4e97-9228-7b3ee422b81b','915e98e1-8850-4452-921a-3c512f64a548',{ts '2016-10-17 09:00:25.175'},null,null,{ts '2016-10-17 09:00:25.175'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('915e98e1-8850-4452-921a-3c512f64a548','8e5b2838-c9d0-4ff6-a343-5f75957f666b',{ts '2016-10-17 09:00:26.182'},null,null,{ts '2016-10-17 09:00:26.182'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2f91b8d1-8c79-4239-9f1e-80d12c895304','2d3dc041-d3f5-4289-8f82-187a8e2621ea',{ts '2016-10-17 09:00:52.364'},null,null,{ts '2016-10-17 09:00:52.364'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2d3dc041-d3f5-4289-8f82-187a8e2621ea','9d335c40-f2c7-42f9-99a7-987123e33d48',{ts '2016-10-17 09:00:53.371'},null,null,{ts '2016-10-17 09:00:53.371'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('9d335c40-f2c7-42f9-99a7-987123e33d48','1e1abe83-65d3-4349-9e93-ff248cd58aa0',{ts '2016-10-17 09:00:54.378'},null,null,{ts '2016-10-17 09:00:54.378'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1e1abe83-65d3-4349-9e93-ff248cd58aa0','406c1e6b-a784-49c3-8d00-de606c4d6970',{ts '2016-10-17 09:00:55.385'},null,null,{ts '2016-10-17 09:00:55.385'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('230386fb-dfc3-48a6-a6da-26b0c3536c3d','d826613e-d33f-4cbc-9ff3-fab9a28a4a79',{ts '2016-10-17 09:01:23.581'},null,null,{ts '2016-10-17 09:01:23.581'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d826613e-d33f-4cbc-9ff3-fab9a28a4a79','5e245a6d-2f83-4299-bac7-bafa59b2a8f1',{ts '2016-10-17 09:01:24.588'},null,null,{ts '2016-10-17 09:01:24.588'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5e245a6d-2f83-4299-bac7-bafa59b2a8f1','db29c633-01ee-415a-b744-994c4ee86c73',{ts '2016-10-17 09:01:25.595'},null,null,{ts '2016-10-17 09:01:25.595'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('db29c633-01ee-415a-b744-994c4ee86c73','c40731c7-af4b-4a9d-98d8-e1187764c537',{ts '2016-10-17 09:01:26.602'},null,null,{ts '2016-10-17 09:01:26.602'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('2343d757-cd73-4439-a8f1-0464da1ea92f','c02bb626-5947-4142-9637-8efa20c01a64',{ts '2016-10-17 09:01:48.756'},null,null,{ts '2016-10-17 09:01:48.756'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c02bb626-5947-4142-9637-8efa20c01a64','0543704d-0731-484a-9ef5-988792161f63',{ts '2016-10-17 09:01:49.763'},null,null,{ts '2016-10-17 09:01:49.763'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0543704d-0731-484a-9ef5-988792161f63','46a2e631-9cec-41bf-b544-fad923ca590a',{ts '2016-10-17 09:01:50.770'},null,null,{ts '2016-10-17 09:01:50.770'});
@@ -76,6 +76,11 @@ insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE,
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e3146316-0f99-4959-9037-c2525f098b7a','04e43674-6b1e-4629-af05-2a59b9d2cc46','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Assert 1','Assert',null,0,null,null,null,{ts '2015-11-25 13:04:21.207'},null,null,{ts '2015-11-25 13:04:33.646'});
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e77a0561-9f96-495c-a577-68720023991c','6e94c4a7-104c-4bd5-9bf4-a5f4f228a6b4','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Assert 1','Assert',null,0,null,null,null,{ts '2015-11-19 13:20:01.215'},null,null,{ts '2015-11-19 13:40:47.755'});
 insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f33f62f0-459f-44de-81d5-2050c5b36a5a','41c36554-a31e-402d-b59b-24d9f4681ada','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Text Constant 1','Text Constant',null,0,null,null,null,{ts '2015-11-16 08:44:00.426'},null,null,{ts '2015-11-16 09:05:14.065'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('96893c38-0c99-44a6-b3f4-b591f53c44f8','bdc8f64a-153e-4502-9c8f-82954800e5af','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Text Constant','Text Constant',null,0,null,null,null,{ts '2016-10-17 09:00:00.000'},null,null,{ts '2016-10-17 09:00:00.000'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('cd019299-128f-4b98-9bfc-5c3022a37eb8','e3450ea6-e54c-45a0-a26f-c6cadfbdb70a','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Parse Delimited','Parse Delimited',null,0,null,'f72fa005-e58b-4adf-946a-4b206ee6cfd3',null,{ts '2016-10-17 09:00:03.021'},null,null,{ts '2016-10-17 09:00:03.021'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1f116c96-b0d7-4748-9108-ed81aac1bb28','e1dd5c53-e625-4b3b-862a-cfa3c74024b2','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'No Op','No Op',null,0,'f72fa005-e58b-4adf-946a-4b206ee6cfd3','f72fa005-e58b-4adf-946a-4b206ee6cfd3',null,{ts '2016-10-17 09:00:06.042'},null,null,{ts '2016-10-17 09:00:06.042'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('1225832c-9c6b-4bdc-852f-8ee6d71b4175','4096d9d3-ac00-4010-bb9b-85c8d14df34b','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Change Rows','Script',null,0,'f72fa005-e58b-4adf-946a-4b206ee6cfd3',null,null,{ts '2016-10-17 09:00:08.056'},null,null,{ts '2016-10-17 09:00:08.056'});
+insert into METL_COMPONENT (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, NAME, TYPE, FOLDER_ID, SHARED, INPUT_MODEL_ID, OUTPUT_MODEL_ID, RESOURCE_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('a098d037-42ca-42f3-97d8-d449762d19ea','598015c2-089a-4e8c-a375-c00e24272d29','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,'Check Rows Unchanged','Script',null,0,'f72fa005-e58b-4adf-946a-4b206ee6cfd3',null,null,{ts '2016-10-17 09:00:10.070'},null,null,{ts '2016-10-17 09:00:10.070'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('014ff185-2809-4a92-826b-dd4802b622c9','b2bda6c3-6112-4a66-b38b-accae205bc50','filename.property','source.file.path',{ts '2015-11-25 12:10:12.716'},null,null,{ts '2015-11-25 13:04:33.644'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('057c616c-d58a-4701-af28-64ec49e77ba7','28d66bda-726d-4101-90f7-67c648e665ca','run.when','PER MESSAGE',{ts '2015-11-19 13:01:45.503'},null,null,{ts '2015-11-19 13:40:44.856'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('069d6be9-f9ab-46eb-b1fb-d2273c7b2a3b','e77a0561-9f96-495c-a577-68720023991c','sql.datasource','e15810d9-c756-4e60-a274-283991cf510c',{ts '2015-11-19 13:39:45.377'},null,null,{ts '2015-11-19 13:40:47.755'});
@@ -171,11 +176,33 @@ writeStringToFile(new File(inboxDir, "a.txt"), "this is the first file")
 writeStringToFile(new File(inboxDir, "b.txt"), "this is the second file")',{ts '2015-11-24 16:00:12.631'},null,null,{ts '2015-11-24 17:51:01.918'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f3ae72a6-89dd-4aaa-814b-c9ae640b643e','e77a0561-9f96-495c-a577-68720023991c','expected.control.messages.count','1',{ts '2015-11-19 13:41:32.269'},null,null,{ts '2015-11-19 13:41:32.269'});
 insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('fc70ac9f-556d-4f66-a6c5-b3f7ff6b9308','586f08f6-e8a5-4c1e-a9d3-b1b03c71be92','file.pattern','inbox/*.txt',{ts '2015-11-25 13:03:59.935'},null,null,{ts '2015-11-25 13:04:33.645'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('d61670ed-d21d-465d-a195-c5fcadc2653f','96893c38-0c99-44a6-b3f4-b591f53c44f8','text','1,a
+2,b
+3,c',{ts '2016-10-17 09:00:01.007'},null,null,{ts '2016-10-17 09:00:01.007'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5f0c7414-e758-451d-a0f5-7b9e8695a598','96893c38-0c99-44a6-b3f4-b591f53c44f8','split.on.line.feed','true',{ts '2016-10-17 09:00:02.014'},null,null,{ts '2016-10-17 09:00:02.014'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('b85e1e4b-fa05-486b-a6f2-f8f19957457b','1f116c96-b0d7-4748-9108-ed81aac1bb28','transfer.payload.ownership','true',{ts '2016-10-17 09:00:07.049'},null,null,{ts '2016-10-17 09:00:07.049'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('292c8d59-252d-4808-8f60-665a4cf5c4dd','1225832c-9c6b-4bdc-852f-8ee6d71b4175','handle.msg.script','if (inputMessage instanceof EntityDataMessage) {
+    for (EntityData data : ((EntityDataMessage) inputMessage).getPayload()) {
+        data.put("3057f2f1-2385-40ce-9ad6-9b3021652a5a", "changed");
+    }
+}',{ts '2016-10-17 09:00:09.063'},null,null,{ts '2016-10-17 09:00:09.063'});
+insert into METL_COMPONENT_SETTING (ID, COMPONENT_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('6591a693-64e1-4fdd-9988-b57a4cc94c32','a098d037-42ca-42f3-97d8-d449762d19ea','handle.msg.script','if (inputMessage instanceof EntityDataMessage) {
+    // give the other branch time to change the rows if it was handed the same instances
+    Thread.sleep(500);
+    for (EntityData data : ((EntityDataMessage) inputMessage).getPayload()) {
+        if ("changed".equals(data.get("3057f2f1-2385-40ce-9ad6-9b3021652a5a"))) {
+            throw new AssertException("A row was changed by the other branch of the No Op");
+        }
+    }
+    info("Rows were not changed by the other branch")
+}',{ts '2016-10-17 09:00:11.077'},null,null,{ts '2016-10-17 09:00:11.077'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0c50c311-9b08-4dac-aea0-697641e6902e','62f7304a-d8a1-47af-a7cc-314665856519','281e88e6-ccdb-44b7-bad9-2c0676ef8ea4','fixed.length.formatter.attribute.ordinal','1',{ts '2015-11-16 08:46:11.882'},null,null,{ts '2015-11-16 09:05:12.459'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('7c682f9a-8251-44b4-b260-5bb2fcdef2fc','62f7304a-d8a1-47af-a7cc-314665856519','281e88e6-ccdb-44b7-bad9-2c0676ef8ea4','fixed.length.formatter.attribute.format.function','',{ts '2015-11-16 08:46:11.883'},null,null,{ts '2015-11-16 09:05:12.459'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('8d858640-f464-4afe-b36e-52822ded7394','62f7304a-d8a1-47af-a7cc-314665856519','281e88e6-ccdb-44b7-bad9-2c0676ef8ea4','fixed.length.formatter.attribute.length','100',{ts '2015-11-16 08:46:11.883'},null,null,{ts '2015-11-16 09:05:12.459'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e033e023-3842-48a6-80b4-f835524478a4','2b6e4bfe-efca-481a-ac64-aead548e9f28','281e88e6-ccdb-44b7-bad9-2c0676ef8ea4','delimited.formatter.attribute.format.function','',{ts '2015-11-16 08:46:05.548'},null,null,{ts '2015-11-16 09:05:10.770'});
 insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f52a99c9-0f57-4627-b59b-9adb1939c7a9','2b6e4bfe-efca-481a-ac64-aead548e9f28','281e88e6-ccdb-44b7-bad9-2c0676ef8ea4','delimited.formatter.attribute.ordinal','1',{ts '2015-11-16 08:46:05.546'},null,null,{ts '2015-11-16 09:05:10.770'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('93d05bbf-7fb8-4de1-98a7-ff337f7569a3','cd019299-128f-4b98-9bfc-5c3022a37eb8','e42ca641-df40-475f-a634-bc6ea76e4caf','delimited.formatter.attribute.ordinal','1',{ts '2016-10-17 09:00:04.028'},null,null,{ts '2016-10-17 09:00:04.028'});
+insert into METL_COMPONENT_ATTRIB_SETTING (ID, COMPONENT_ID, ATTRIBUTE_ID, NAME, VALUE, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('4c85fcff-2506-48c2-b9dc-33e9826bc092','cd019299-128f-4b98-9bfc-5c3022a37eb8','3057f2f1-2385-40ce-9ad6-9b3021652a5a','delimited.formatter.attribute.ordinal','2',{ts '2016-10-17 09:00:05.035'},null,null,{ts '2016-10-17 09:00:05.035'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('340b6d16-5f19-4094-bb40-68f8b5d1e00c','58932310-a163-4612-ae4e-9161f4214b70','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'TextFileReader - Test Control Message on Multiple Files',null,{ts '2015-11-24 13:08:09.519'},null,null,{ts '2015-11-24 13:34:50.287'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('4fb216c3-a39d-43c7-94fe-86bc359b5d00','bdf091d9-7016-4411-a1d6-b743080a7b9a','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'NoOp - Validate Number of Messages',null,{ts '2015-11-16 09:07:52.906'},null,null,{ts '2015-11-16 09:09:08.869'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('546387d2-aa86-4357-8324-9f204be7fd67','be847535-18e4-48e5-bb76-570780b586ba','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'Last Unit Of Work - Test 1 of 2 Dead Branches',null,{ts '2015-11-30 16:26:40.978'},null,null,{ts '2015-11-30 19:32:00.587'});
@@ -184,6 +211,7 @@ insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLD
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('e5ea3384-ffe6-4b3b-ad9d-877b82554196','7e39b5ec-bba3-43fe-a6b4-00295846089d','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'Last Unit Of Work - Test 2 of 3 Dead Branches',null,{ts '2015-11-30 19:32:04.268'},null,null,{ts '2015-11-30 19:34:03.455'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ecc40789-3f16-4769-aa80-df94b1471865','77256fee-9834-458d-a42f-cb67a2c0500b','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'Last Unit Of Work',null,{ts '2015-11-16 08:42:53.890'},null,null,{ts '2015-11-16 09:04:53.281'});
 insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f9d97ec3-47b0-4945-ae0a-6c6e2d010e3b','92171bc9-0cf2-4a37-8c55-ac972c77167f','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'RdbmsWriter - Test Multiple Messages',null,{ts '2015-11-19 12:57:01.949'},null,null,{ts '2015-11-19 13:20:05.442'});
+insert into METL_FLOW (ID, ROW_ID, PROJECT_VERSION_ID, DELETED, TEST, NAME, FOLDER_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c1542ebc-b2a2-4388-be19-d246e4770723','e7d45717-31b8-4a41-8363-a7f882d9a5cb','a27e7f8c-7ef5-4684-9041-a2fa5682b366',0,1,'NoOp - Fan Out With Transferred Ownership',null,{ts '2016-10-17 09:00:12.084'},null,null,{ts '2016-10-17 09:00:12.084'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('02bf871d-3e36-41f0-ae1c-94671fab7bf4','ecc40789-3f16-4769-aa80-df94b1471865','bed44be7-d081-4a66-a6e7-a38751282f53',180,180,6,{ts '2015-11-16 08:44:03.102'},null,null,{ts '2015-11-16 09:05:16.626'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0c819c29-f3b2-470f-a817-f23c4de641d9','e5ea3384-ffe6-4b3b-ad9d-877b82554196','1c91b1b6-7ea7-4439-93e6-8eb4a14d74ad',320,50,2,{ts '2015-11-30 16:27:32.778'},null,null,{ts '2015-11-30 19:34:03.455'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0e4ee0a0-16d1-4432-957a-1a395ce309a5','4fb216c3-a39d-43c7-94fe-86bc359b5d00','c33e7448-d69c-44ab-a150-d7fda0123e16',630,40,4,{ts '2015-11-16 09:09:05.939'},null,null,{ts '2015-11-16 09:09:09.701'});
@@ -231,6 +259,11 @@ insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER,
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f02238b9-b02c-4ec4-b41e-4bff1f7e2f35','546387d2-aa86-4357-8324-9f204be7fd67','150babc6-af53-4dc3-bff4-d1e6d2a613d2',650,130,0,{ts '2015-11-30 16:28:05.132'},null,null,{ts '2015-11-30 16:28:08.403'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f3388997-ce0d-40c7-a3a8-3024702e56c6','f9d97ec3-47b0-4945-ae0a-6c6e2d010e3b','21f2e3f3-f04a-4b71-a2cd-0e3104422ea4',370,100,2,{ts '2015-11-19 13:02:08.500'},null,null,{ts '2015-11-19 13:40:46.563'});
 insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ff8830b7-4aa1-40a6-a583-f3df08cca6a2','f9d97ec3-47b0-4945-ae0a-6c6e2d010e3b','3375321b-21e7-476e-a1f9-9b2e332e4ccb',90,100,0,{ts '2015-11-19 12:57:43.946'},null,null,{ts '2015-11-19 13:20:05.443'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('52ec7c83-2770-4376-87b6-3687819ae5e3','c1542ebc-b2a2-4388-be19-d246e4770723','96893c38-0c99-44a6-b3f4-b591f53c44f8',80,120,0,{ts '2016-10-17 09:00:13.091'},null,null,{ts '2016-10-17 09:00:13.091'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5ab7501d-9ed6-4ddd-9ddb-8def6603a573','c1542ebc-b2a2-4388-be19-d246e4770723','cd019299-128f-4b98-9bfc-5c3022a37eb8',240,120,1,{ts '2016-10-17 09:00:14.098'},null,null,{ts '2016-10-17 09:00:14.098'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('4d8a18ca-8582-4c7e-8df3-49cbb3809cc1','c1542ebc-b2a2-4388-be19-d246e4770723','1f116c96-b0d7-4748-9108-ed81aac1bb28',400,120,2,{ts '2016-10-17 09:00:15.105'},null,null,{ts '2016-10-17 09:00:15.105'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('3930338d-b7ef-493e-9ca4-948fc01784ea','c1542ebc-b2a2-4388-be19-d246e4770723','1225832c-9c6b-4bdc-852f-8ee6d71b4175',560,120,3,{ts '2016-10-17 09:00:16.112'},null,null,{ts '2016-10-17 09:00:16.112'});
+insert into METL_FLOW_STEP (ID, FLOW_ID, COMPONENT_ID, X, Y, APPROXIMATE_ORDER, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('c6a503d4-b97f-4230-8423-cb9d6a611135','c1542ebc-b2a2-4388-be19-d246e4770723','a098d037-42ca-42f3-97d8-d449762d19ea',720,120,4,{ts '2016-10-17 09:00:17.119'},null,null,{ts '2016-10-17 09:00:17.119'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('02bf871d-3e36-41f0-ae1c-94671fab7bf4','94c1a8f3-8a41-47df-9547-76985b0d191f',{ts '2015-11-16 08:46:04.689'},null,null,{ts '2015-11-16 09:04:53.292'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('0c819c29-f3b2-470f-a817-f23c4de641d9','8939d9c7-e5a8-43a2-bb40-a7112583b13b',{ts '2015-11-30 19:34:01.725'},null,null,{ts '2015-11-30 19:34:03.459'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('11cfcf9b-2920-45f7-99a4-b60c942c79b7','3ca766af-b21c-4f01-9c2a-e61fb6621e7b',{ts '2015-11-25 13:03:53.088'},null,null,{ts '2015-11-25 13:04:33.647'});
@@ -273,3 +306,7 @@ insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CR
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('eeda784e-88e8-4cf3-a6ce-bc7db5c152ff','0e4ee0a0-16d1-4432-957a-1a395ce309a5',{ts '2015-11-16 09:09:08.869'},null,null,{ts '2015-11-16 09:09:08.872'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('f3388997-ce0d-40c7-a3a8-3024702e56c6','e76ee96f-1c9b-4704-b8b9-d0182e2daed3',{ts '2015-11-19 13:20:05.442'},null,null,{ts '2015-11-19 13:20:05.447'});
 insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('ff8830b7-4aa1-40a6-a583-f3df08cca6a2','2095c2d0-cedc-47cc-b2e4-06f1a09b1307',{ts '2015-11-19 13:00:40.769'},null,null,{ts '2015-11-19 13:20:05.446'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('52ec7c83-2770-4376-87b6-3687819ae5e3','5ab7501d-9ed6-4ddd-9ddb-8def6603a573',{ts '2016-10-17 09:00:18.126'},null,null,{ts '2016-10-17 09:00:18.126'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('5ab7501d-9ed6-4ddd-9ddb-8def6603a573','4d8a18ca-8582-4c7e-8df3-49cbb3809cc1',{ts '2016-10-17 09:00:19.133'},null,null,{ts '2016-10-17 09:00:19.133'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('4d8a18ca-8582-4c7e-8df3-49cbb3809cc1','3930338d-b7ef-493e-9ca4-948fc01784ea',{ts '2016-10-17 09:00:20.140'},null,null,{ts '2016-10-17 09:00:20.140'});
+insert into METL_FLOW_STEP_LINK (SOURCE_STEP_ID, TARGET_STEP_ID, CREATE_TIME, CREATE_BY, LAST_UPDATE_BY, LAST_UPDATE_TIME) values ('4d8a18ca-8582-4c7e-8df3-49cbb3809cc1','c6a503d4-b97f-4230-8423-cb9d6a611135',{ts '2016-10-17 09:00:21.147'},null,null,{ts '2016-10-17 09:00:21.147'});
@@ -410,6 +410,8 @@ public class AppConfig extends WebMvcConfigurerAdapter {
         if (configurationService == null) {
             configurationService = new ConfigurationService(operationsService(), securityService(), configDatabasePlatform(),
                     persistenceManager(), tablePrefix());
+            configurationService.getDeployedFlowCache()
+                    .setTimeToLiveMs(Long.parseLong(env.getProperty("config.flow.cache.ttl.ms", "60000")));
         }
         return configurationService;
     }
@@ -429,6 +431,7 @@ public class AppConfig extends WebMvcConfigurerAdapter {
         if (importExportService == null) {
             importExportService = new ImportExportService(configDatabasePlatform(), persistenceManager(), tablePrefix(),
                     configurationService(), operationsService(), securityService());
+            importExportService.addConfigurationChangeListener(configurationService().getDeployedFlowCache());
         }
         return importExportService;
     }
@@ -89,6 +89,27 @@ public class GeneralSettingsPanel extends AbstractAdminPanel {
                 Integer.toString(GlobalSetting.DEFAULT_CONFIG_BACKUP_RETENTION_IN_DAYS),
                 THIS_WILL_TAKE_EFFECT_ON_THE_NEXT_SERVER_RESTART, Integer.class);       
 
+        section = new Label("Flow Execution");
+        section.addStyleName(ValoTheme.LABEL_H3);
+        section.addStyleName(ValoTheme.LABEL_COLORED);
+        form.addComponent(section);
+
+        instructions = new Label("Agents pick up changes to these settings when they are restarted or refreshed.  Use 0 for no limit");
+        instructions.addStyleName(ValoTheme.LABEL_LIGHT);
+        form.addComponent(instructions);
+
+        addSetting("Max Concurrent Flows per Agent", GlobalSetting.AGENT_MAX_CONCURRENT_FLOWS,
+                Integer.toString(GlobalSetting.DEFAULT_AGENT_MAX_CONCURRENT_FLOWS),
+                "The number of flows an agent will run at the same time.  Additional scheduled runs wait in a queue", Integer.class);
+
+        addSetting("Max Concurrent Flows per Deployment", GlobalSetting.AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT,
+                Integer.toString(GlobalSetting.DEFAULT_AGENT_MAX_CONCURRENT_FLOWS_PER_DEPLOYMENT),
+                "The number of runs of the same deployment an agent will run at the same time", Integer.class);
+
+        addSetting("Max Pending Flows per Agent", GlobalSetting.AGENT_MAX_PENDING_FLOWS,
+                Integer.toString(GlobalSetting.DEFAULT_AGENT_MAX_PENDING_FLOWS),
+                "The number of scheduled runs that can wait for a slot before new runs are skipped", Integer.class);
+
         VerticalLayout paddedLayout = new VerticalLayout();
         paddedLayout.setMargin(true);
         paddedLayout.addComponent(form);
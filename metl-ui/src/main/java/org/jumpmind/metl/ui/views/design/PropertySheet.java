@@ -638,19 +638,20 @@ public class PropertySheet extends AbsoluteLayout {
                     formLayout.addComponent(passwordField);
                     break;
                 case INTEGER:
-                    ImmediateUpdateTextField integerField = new ImmediateUpdateTextField(definition.getName()) {
+                case DECIMAL:
+                    ImmediateUpdateTextField numberField = new ImmediateUpdateTextField(definition.getName()) {
                         private static final long serialVersionUID = 1L;
 
                         protected void save(String text) {
                             saveSetting(definition.getId(), text, obj);
                         };
                     };
-                    integerField.setConverter(Integer.class);
-                    integerField.setValue(obj.get(definition.getId(), definition.getDefaultValue()));
-                    integerField.setRequired(required);
-                    integerField.setDescription(description);
-                    integerField.setReadOnly(readOnly);
-                    formLayout.addComponent(integerField);
+                    numberField.setConverter(type == Type.DECIMAL ? Double.class : Integer.class);
+                    numberField.setValue(obj.get(definition.getId(), definition.getDefaultValue()));
+                    numberField.setRequired(required);
+                    numberField.setDescription(description);
+                    numberField.setReadOnly(readOnly);
+                    formLayout.addComponent(numberField);
                     break;
                 case TEXT:
                     ImmediateUpdateTextField textField = new ImmediateUpdateTextField(definition.getName()) {
@@ -124,6 +124,14 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
 
     Grid logTable;
 
+    ComboBox levelFilter;
+
+    Set<String> logStepIds = new HashSet<>();
+
+    List<ExecutionStepLog> loadedLogs = new ArrayList<>();
+
+    long logTotal;
+
     BeanContainer<String, ExecutionStep> stepContainer = new BeanContainer<String, ExecutionStep>(
             ExecutionStep.class);
 
@@ -150,6 +158,8 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
 
     TextField limitField;
 
+    CheckBox tailCheckbox;
+
     String executionId;
 
     ApplicationContext context;
@@ -218,6 +228,12 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
         right.addComponent(limitField);
         right.setComponentAlignment(limitField, Alignment.MIDDLE_RIGHT);
 
+        tailCheckbox = new CheckBox("Show Newest");
+        tailCheckbox.setDescription("Show the last log messages instead of the first ones");
+        tailCheckbox.addValueChangeListener(event -> reloadLogs());
+        right.addComponent(tailCheckbox);
+        right.setComponentAlignment(tailCheckbox, Alignment.MIDDLE_RIGHT);
+
         showDiagramCheckbox = new CheckBox("Show Diagram");
         showDiagramCheckbox.addValueChangeListener((event) -> {
             if (showDiagramCheckbox.getValue()) {
@@ -301,13 +317,12 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
         stepTable.setContainerDataSource(stepContainer);
         stepTable.addSelectionListener(event -> {
             String stepId = (String) stepTable.getSelectedRow();
-            logContainer.removeAllItems();
-            List<ExecutionStepLog> logs = executionService.findExecutionStepLogs(stepId,
-                    getMaxToShow());
-            logContainer.addAll(logs);
-            downloadLink.setVisible(logs.size() > 0);
-            setLogMinimized(logContainer.size()==0);
-            updateStatus();
+            logStepIds = new HashSet<>();
+            if (stepId != null) {
+                logStepIds.add(stepId);
+            }
+            reloadLogs();
+            downloadLink.setVisible(loadedLogs.size() > 0);
         });
         
         HeaderRow stepTableFilterHeader = stepTable.appendHeaderRow();
@@ -358,20 +373,14 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
         logTextFilterCell.setComponent(filterField);
 
         HeaderCell levelFilterCell = filteringHeader.getCell("level");
-        ComboBox levelFilter = new ComboBox();
+        levelFilter = new ComboBox();
         levelFilter.setWidth(8, Unit.EM);
         levelFilter.setNullSelectionAllowed(true);
         LogLevel[] levels = LogLevel.values();
         for (LogLevel logLevel : levels) {
             levelFilter.addItem(logLevel.name());
         }
-        levelFilter.addValueChangeListener(change -> {
-            logContainer.removeContainerFilters("level");
-            String text = (String) levelFilter.getValue();
-            if (isNotBlank(text)) {
-                logContainer.addContainerFilter(new SimpleStringFilter("level", text, true, false));
-            }
-        });
+        levelFilter.addValueChangeListener(change -> reloadLogs());
         levelFilterCell.setComponent(levelFilter);
 
         levelFilter.addStyleName(ValoTheme.COMBOBOX_TINY);
@@ -633,11 +642,69 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
         data.steps = executionService.findExecutionSteps(executionId);
         this.flow = context.getConfigurationService().findFlow(data.execution.getFlowId());
 
-        String selected = (String) stepTable.getSelectedRow();
-        data.logs = executionService.findExecutionStepLogs(selected, getMaxToShow());
+        /*
+         * Only the messages written since the last refresh are read, unless the
+         * newest messages are shown
+         */
+        data.logStepIds = logStepIds;
+        if (data.logStepIds.size() == 1) {
+            data.tail = tailCheckbox.getValue();
+            data.logOffset = data.tail ? 0 : loadedLogs.size();
+            data.logs = findLogs(data.logStepIds, data.logOffset);
+            data.logTotal = countLogs(data.logStepIds);
+        }
         return data;
     }
 
+    protected void reloadLogs() {
+        logContainer.removeAllItems();
+        loadedLogs = findLogs(logStepIds, 0);
+        logTotal = countLogs(logStepIds);
+        logContainer.addAll(loadedLogs);
+        setLogMinimized(logContainer.size() == 0);
+        updateStatus();
+    }
+
+    /**
+     * A single step log is read a page at a time, or from the end when the
+     * newest messages are shown. The logs of several steps are merged by time.
+     */
+    protected List<ExecutionStepLog> findLogs(Set<String> stepIds, int offset) {
+        int limit = getMaxToShow();
+        if (stepIds.size() == 1) {
+            String stepId = stepIds.iterator().next();
+            if (tailCheckbox.getValue()) {
+                return executionService.findLastExecutionStepLogs(stepId, limit, getLogLevels());
+            } else {
+                return executionService.findExecutionStepLogs(stepId, offset, Math.max(limit - offset, 0), getLogLevels());
+            }
+        } else if (stepIds.size() > 1) {
+            return executionService.findExecutionStepLogs(stepIds, limit, getLogLevels());
+        } else {
+            return new ArrayList<>(0);
+        }
+    }
+
+    protected long countLogs(Set<String> stepIds) {
+        long count = 0;
+        Set<String> levels = getLogLevels();
+        for (String stepId : stepIds) {
+            count += executionService.countExecutionStepLogs(stepId, levels);
+        }
+        return count;
+    }
+
+    protected Set<String> getLogLevels() {
+        String level = levelFilter != null ? (String) levelFilter.getValue() : null;
+        if (isNotBlank(level)) {
+            Set<String> levels = new HashSet<>();
+            levels.add(level);
+            return levels;
+        } else {
+            return null;
+        }
+    }
+
     protected int getMaxToShow() {
         return getMaxToShow(limitField.getValue());
     }
@@ -669,12 +736,8 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
                     }
                 }
 
-                logContainer.removeAllItems();
-                List<ExecutionStepLog> logs = executionService.findExecutionStepLogs(stepIds,
-                        getMaxToShow());
-                logContainer.addAll(logs);
-                setLogMinimized(logContainer.size()==0);
-                updateStatus();
+                logStepIds = stepIds;
+                reloadLogs();
             }
         }
     }
@@ -690,14 +753,16 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
     }
 
     protected void updateStatus() {
-        boolean max = logContainer.getItemIds().size() >= getMaxToShow();
+        int shown = logContainer.getItemIds().size();
+        String total = logTotal > shown ? " of " + logTotal : "";
+        boolean max = shown >= getMaxToShow();
         if (max) {
             status.setValue(
-                    "<span style='color:red'>Displaying only " + logContainer.getItemIds().size()
+                    "<span style='color:red'>Displaying only " + shown + total
                             + " messages.  Adjust max number of log message to show more.</span>");
         } else {
             status.setValue(
-                    "<span>Displaying " + logContainer.getItemIds().size() + " messages</span>");
+                    "<span>Displaying " + shown + total + " messages</span>");
         }
     }
 
@@ -768,19 +833,25 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
                 stepTable.select(selected);
             }
 
-            List<ExecutionStepLog> logMessages = new ArrayList<>(logContainer.getItemIds());
-
-            List<ExecutionStepLog> newLogMessages = new ArrayList<>(data.logs);
-
-            for (ExecutionStepLog logMsg : logMessages) {
-                newLogMessages.remove(logMsg);
-            }
-
-            if (newLogMessages.size() > 0) {
-                logContainer.addAll(newLogMessages);
-                if (lastSortOrder != null) {
-                    logTable.setSortOrder(lastSortOrder);
+            if (data.logs != null && data.logStepIds == logStepIds && (data.tail || data.logOffset == loadedLogs.size())) {
+                List<ExecutionStepLog> newLogMessages = new ArrayList<>(data.logs);
+                newLogMessages.removeAll(loadedLogs);
+
+                if (newLogMessages.size() > 0) {
+                    if (data.tail) {
+                        /* messages that are no longer among the newest are dropped */
+                        logContainer.removeAllItems();
+                        loadedLogs = data.logs;
+                        logContainer.addAll(loadedLogs);
+                    } else {
+                        loadedLogs.addAll(newLogMessages);
+                        logContainer.addAll(newLogMessages);
+                    }
+                    if (lastSortOrder != null) {
+                        logTable.setSortOrder(lastSortOrder);
+                    }
                 }
+                logTotal = data.logTotal;
                 updateStatus();
             }
             
@@ -804,6 +875,10 @@ public class ExecutionRunPanel extends VerticalLayout implements IUiPanel, IBack
         public Execution execution;
         public List<ExecutionStep> steps;
         public List<ExecutionStepLog> logs;
+        public Set<String> logStepIds;
+        public boolean tail;
+        public int logOffset;
+        public long logTotal;
 
         ExecutionStep findExecutionStep(String id) {
             ExecutionStep executionStep = null;
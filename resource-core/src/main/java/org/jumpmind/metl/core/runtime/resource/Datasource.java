@@ -21,8 +21,7 @@
 package org.jumpmind.metl.core.runtime.resource;
 
 import java.sql.Connection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.jumpmind.db.model.Table;
@@ -69,15 +68,21 @@ public class Datasource extends AbstractResourceRuntime implements IDatasourceRu
     public final static String DB_QUERY_TIMEOUT = "db.query.timeout";
     
     public final static String DB_CONNECTION_PROPERTIES = "db.connection.properties";
+
+    public final static String DB_METADATA_CACHE_TTL = "db.metadata.cache.ttl.secs";
+
+    public final static String DB_METADATA_CACHE_MAX_SIZE = "db.metadata.cache.max.size";
     
     ResettableBasicDataSource dataSource = new ResettableBasicDataSource();
     
-    protected Map<String, Table> tableCache = new HashMap<String, Table>();
+    protected TableCache tableCache = new TableCache(600000, 1000);
     
     @Override
     protected void start(TypedProperties properties) {
         this.dataSource = BasicDataSourceFactory
                 .create(properties);
+        this.tableCache = new TableCache(properties.getLong(DB_METADATA_CACHE_TTL, 600) * 1000,
+                properties.getInt(DB_METADATA_CACHE_MAX_SIZE, 1000));
     }
 
     @Override
@@ -105,6 +110,25 @@ public class Datasource extends AbstractResourceRuntime implements IDatasourceRu
         String key = Table.getFullyQualifiedTableName(catalogName, schemaName, tableName);
         return tableCache.get(key);
     }
+
+    public Table getTableFromCache(String catalogName, String schemaName, String tableName, Supplier<Table> loader) {
+        String key = Table.getFullyQualifiedTableName(catalogName, schemaName, tableName);
+        return tableCache.get(key, loader);
+    }
+
+    public Table refreshTableInCache(String catalogName, String schemaName, String tableName, Supplier<Table> loader) {
+        String key = Table.getFullyQualifiedTableName(catalogName, schemaName, tableName);
+        return tableCache.refresh(key, loader);
+    }
+
+    public void removeTableFromCache(String catalogName, String schemaName, String tableName) {
+        String key = Table.getFullyQualifiedTableName(catalogName, schemaName, tableName);
+        tableCache.remove(key);
+    }
+
+    public void clearTableCache() {
+        tableCache.clear();
+    }
     
     @Override
     public boolean isTestSupported() {
@@ -0,0 +1,195 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.resource;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.jumpmind.db.model.Table;
+
+/**
+ * Table metadata shared by every flow that uses a data source. Entries
+ * expire after a time to live and the least recently used entries are
+ * evicted once the cache is full. A table that was not found is cached as
+ * well so that it is not looked up again until it expires or is removed.
+ * Concurrent lookups of the same table that miss the cache wait on one
+ * load instead of each reading the database metadata.
+ */
+public class TableCache {
+
+    final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    final Map<String, FutureTask<Table>> loads = new ConcurrentHashMap<>();
+
+    final AtomicLong generation = new AtomicLong();
+
+    long timeToLiveMs;
+
+    int maxSize;
+
+    public TableCache(long timeToLiveMs, int maxSize) {
+        this.timeToLiveMs = timeToLiveMs;
+        this.maxSize = maxSize;
+    }
+
+    public Table get(String key) {
+        Entry entry = getEntry(key);
+        return entry != null ? entry.table : null;
+    }
+
+    public Table get(String key, Supplier<Table> loader) {
+        Entry entry = getEntry(key);
+        if (entry != null) {
+            return entry.table;
+        }
+
+        FutureTask<Table> load = loads.get(key);
+        if (load == null) {
+            final long loadGeneration = generation.get();
+            FutureTask<Table> task = new FutureTask<>(() -> {
+                Entry loaded = getEntry(key);
+                if (loaded != null) {
+                    return loaded.table;
+                }
+                Table table = loader.get();
+                if (generation.get() == loadGeneration) {
+                    put(key, table);
+                }
+                return table;
+            });
+            load = loads.putIfAbsent(key, task);
+            if (load == null) {
+                load = task;
+                try {
+                    task.run();
+                } finally {
+                    loads.remove(key, task);
+                }
+            }
+        }
+
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached entry and loads the table again. Callers that refresh
+     * or miss on the same table while the load runs share it.
+     */
+    public Table refresh(String key, Supplier<Table> loader) {
+        entries.remove(key);
+        return get(key, loader);
+    }
+
+    public void put(String key, Table table) {
+        entries.put(key, new Entry(table));
+        if (maxSize > 0 && entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void remove(String key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+        loads.remove(key);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        loads.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    protected Entry getEntry(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            if (isExpired(entry, now)) {
+                entries.remove(key, entry);
+                entry = null;
+            } else {
+                entry.lastAccessTime = now;
+            }
+        }
+        return entry;
+    }
+
+    protected boolean isExpired(Entry entry, long now) {
+        return timeToLiveMs > 0 && now - entry.loadTime >= timeToLiveMs;
+    }
+
+    protected synchronized void evict() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Entry>> i = entries.entrySet().iterator();
+        while (i.hasNext()) {
+            if (isExpired(i.next().getValue(), now)) {
+                i.remove();
+            }
+        }
+        while (entries.size() > maxSize) {
+            Map.Entry<String, Entry> oldest = null;
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (oldest == null || entry.getValue().lastAccessTime < oldest.getValue().lastAccessTime) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                break;
+            }
+            entries.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    static class Entry {
+        final Table table;
+        final long loadTime;
+        volatile long lastAccessTime;
+
+        Entry(Table table) {
+            this.table = table;
+            this.loadTime = System.currentTimeMillis();
+            this.lastAccessTime = loadTime;
+        }
+    }
+
+}
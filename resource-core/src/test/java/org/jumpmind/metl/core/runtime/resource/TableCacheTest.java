@@ -0,0 +1,172 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.metl.core.runtime.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jumpmind.db.model.Table;
+import org.junit.Test;
+
+public class TableCacheTest {
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        TableCache cache = new TableCache(0, 0);
+        Table table = new Table("t");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Table>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("t", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return table;
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Table> result : results) {
+                assertSame(table, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertSame(table, cache.get("t"));
+    }
+
+    @Test
+    public void testMissingTableIsCached() {
+        TableCache cache = new TableCache(0, 0);
+        AtomicInteger loads = new AtomicInteger();
+        assertNull(cache.get("t", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("t", () -> {
+            loads.incrementAndGet();
+            return new Table("t");
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testRemoveDuringLoadDiscardsResult() throws Exception {
+        TableCache cache = new TableCache(0, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Table> result = executor.submit(() -> cache.get("t", () -> {
+                started.countDown();
+                await(release);
+                return new Table("old");
+            }));
+            await(started);
+            cache.remove("t");
+            release.countDown();
+            assertEquals("old", result.get(10, TimeUnit.SECONDS).getName());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(cache.get("t"));
+        assertEquals("new", cache.get("t", () -> new Table("new")).getName());
+    }
+
+    @Test
+    public void testClearDuringLoadDiscardsResult() throws Exception {
+        TableCache cache = new TableCache(0, 0);
+        cache.put("a", new Table("a"));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Table> result = executor.submit(() -> cache.get("t", () -> {
+                started.countDown();
+                await(release);
+                return new Table("t");
+            }));
+            await(started);
+            cache.clear();
+            release.countDown();
+            result.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRefreshReloads() {
+        TableCache cache = new TableCache(0, 0);
+        cache.put("t", new Table("old"));
+        assertEquals("new", cache.refresh("t", () -> new Table("new")).getName());
+        assertEquals("new", cache.get("t").getName());
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        TableCache cache = new TableCache(50, 0);
+        cache.put("t", new Table("t"));
+        Thread.sleep(100);
+        assertNull(cache.get("t"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        TableCache cache = new TableCache(0, 2);
+        cache.put("a", new Table("a"));
+        Thread.sleep(10);
+        cache.put("b", new Table("b"));
+        Thread.sleep(10);
+        cache.get("a");
+        Thread.sleep(10);
+        cache.put("c", new Table("c"));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("a", cache.get("a").getName());
+        assertEquals("c", cache.get("c").getName());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}